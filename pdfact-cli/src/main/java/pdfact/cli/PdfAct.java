@@ -13,6 +13,7 @@ import pdfact.cli.pipes.PdfActServicePipe;
 import pdfact.cli.pipes.PlainPdfActServicePipe;
 import pdfact.core.model.Document;
 import pdfact.core.model.SemanticRole;
+import pdfact.core.pipes.semanticize.template.LayoutTemplateCache;
 import pdfact.core.util.exception.PdfActException;
 
 /**
@@ -41,6 +42,49 @@ public class PdfAct {
    */
   protected Path visualizationPath;
 
+  /**
+   * The path to the file of the layout template cache.
+   */
+  protected Path templateCachePath;
+
+  /**
+   * The layout template cache used on the last parse.
+   */
+  protected LayoutTemplateCache templateCache;
+
+  /**
+   * The path to the file of the word frequency lexicon.
+   */
+  protected Path wordLexiconPath;
+
+  /**
+   * The boolean flag indicating whether or not to use the structure tree of tagged PDFs.
+   */
+  protected boolean isStructureTreeUsed;
+
+  /**
+   * The boolean flag indicating whether or not to release the intermediate layers of the document
+   * once they are no longer needed.
+   */
+  protected boolean isReleasingLayers;
+
+  /**
+   * The boolean flag indicating whether or not to spill the characters of the document into a
+   * memory-mapped file once the document is fully tokenized.
+   */
+  protected boolean isSpillingCharacters;
+
+  /**
+   * The boolean flag indicating whether or not to process the pages of the document in parallel.
+   */
+  protected boolean isProcessingInParallel = true;
+
+  /**
+   * The number of pages in a window, if the document should be processed in windows of pages;
+   * 0 if the document should be processed as a whole.
+   */
+  protected int windowSize;
+
   /**
    * The units of text to extract (e.g., "characters", "words", etc.).
    */
@@ -174,6 +218,22 @@ public class PdfAct {
       service.setVisualizationPath(this.visualizationPath);
     }
 
+    // Pass the path to the layout template cache, if there is any.
+    if (this.templateCachePath != null) {
+      service.setLayoutTemplateCachePath(this.templateCachePath);
+    }
+
+    // Pass the path to the word frequency lexicon, if there is any.
+    if (this.wordLexiconPath != null) {
+      service.setWordLexiconPath(this.wordLexiconPath);
+    }
+
+    service.setIsStructureTreeUsed(this.isStructureTreeUsed);
+    service.setIsReleasingLayers(this.isReleasingLayers);
+    service.setIsSpillingCharacters(this.isSpillingCharacters);
+    service.setIsProcessingInParallel(this.isProcessingInParallel);
+    service.setWindowSize(this.windowSize);
+
     // Pass the units of text to extract.
     if (this.extractionUnits != null) {
       service.setExtractionUnits(this.extractionUnits);
@@ -192,6 +252,7 @@ public class PdfAct {
 
     // Run PdfAct.
     service.execute(pdf);
+    this.templateCache = service.getLayoutTemplateCache();
 
     return pdf;
   }
@@ -430,6 +491,135 @@ public class PdfAct {
 
   // ==============================================================================================
 
+  /**
+   * Returns the path to the file of the layout template cache.
+   */
+  public Path getLayoutTemplateCachePath() {
+    return templateCachePath;
+  }
+
+  /**
+   * Sets the path to the file of the layout template cache.
+   */
+  public void setLayoutTemplateCachePath(Path templateCachePath) {
+    this.templateCachePath = templateCachePath;
+  }
+
+  /**
+   * Returns the layout template cache used on the last parse (to report its statistics), or null
+   * if no path to a layout template cache was given.
+   */
+  public LayoutTemplateCache getLayoutTemplateCache() {
+    return this.templateCache;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the path to the file of the word frequency lexicon.
+   */
+  public Path getWordLexiconPath() {
+    return wordLexiconPath;
+  }
+
+  /**
+   * Sets the path to the file of the word frequency lexicon.
+   */
+  public void setWordLexiconPath(Path wordLexiconPath) {
+    this.wordLexiconPath = wordLexiconPath;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the boolean flag indicating whether or not to use the structure tree of tagged PDFs.
+   */
+  public boolean isStructureTreeUsed() {
+    return this.isStructureTreeUsed;
+  }
+
+  /**
+   * Sets the boolean flag indicating whether or not to use the structure tree of tagged PDFs.
+   */
+  public void setIsStructureTreeUsed(boolean isStructureTreeUsed) {
+    this.isStructureTreeUsed = isStructureTreeUsed;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the boolean flag indicating whether or not to release the intermediate layers of the
+   * document once they are no longer needed.
+   */
+  public boolean isReleasingLayers() {
+    return this.isReleasingLayers;
+  }
+
+  /**
+   * Sets the boolean flag indicating whether or not to release the intermediate layers of the
+   * document once they are no longer needed.
+   */
+  public void setIsReleasingLayers(boolean isReleasingLayers) {
+    this.isReleasingLayers = isReleasingLayers;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the boolean flag indicating whether or not to spill the characters of the document
+   * into a memory-mapped file once the document is fully tokenized.
+   */
+  public boolean isSpillingCharacters() {
+    return this.isSpillingCharacters;
+  }
+
+  /**
+   * Sets the boolean flag indicating whether or not to spill the characters of the document
+   * into a memory-mapped file once the document is fully tokenized.
+   */
+  public void setIsSpillingCharacters(boolean isSpillingCharacters) {
+    this.isSpillingCharacters = isSpillingCharacters;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the boolean flag indicating whether or not to process the pages of the document in
+   * parallel.
+   */
+  public boolean isProcessingInParallel() {
+    return this.isProcessingInParallel;
+  }
+
+  /**
+   * Sets the boolean flag indicating whether or not to process the pages of the document in
+   * parallel.
+   */
+  public void setIsProcessingInParallel(boolean isProcessingInParallel) {
+    this.isProcessingInParallel = isProcessingInParallel;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the number of pages in a window, if the document should be processed in windows of
+   * pages; 0 if the document should be processed as a whole.
+   */
+  public int getWindowSize() {
+    return this.windowSize;
+  }
+
+  /**
+   * Sets the number of pages in a window, to process the document in windows of pages and to
+   * serialize the paragraphs as soon as they are finished (only in TXT format); 0 to process the
+   * document as a whole.
+   */
+  public void setWindowSize(int windowSize) {
+    this.windowSize = windowSize;
+  }
+
+  // ==============================================================================================
+
   /**
    * Returns the set of text units to extract.
    */
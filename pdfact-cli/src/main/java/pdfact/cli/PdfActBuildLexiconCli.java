@@ -0,0 +1,191 @@
+package pdfact.cli;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.annotation.Arg;
+import net.sourceforge.argparse4j.helper.HelpScreenException;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import pdfact.cli.util.exception.PdfActParseCommandLineException;
+import pdfact.core.model.Document;
+import pdfact.core.pipes.PlainPdfActCorePipe;
+import pdfact.core.pipes.dehyphenate.PlainDehyphenateWordsPipe;
+import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.exception.PdfActIoException;
+import pdfact.core.util.lexicon.WordFrequencyLexiconBuilder;
+
+/**
+ * The command line interface to build a word frequency lexicon (to be used on dehyphenating
+ * words) from a directory of PDF files. It is invoked by the subcommand
+ * {@link #BUILD_LEXICON_COMMAND} of {@link PdfActCli}.
+ *
+ * @author Claudius Korzen
+ */
+public class PdfActBuildLexiconCli {
+  /**
+   * The logger.
+   */
+  protected static Logger log = LogManager.getLogger(PdfActBuildLexiconCli.class);
+
+  /**
+   * The name of the subcommand to build a word frequency lexicon.
+   */
+  public static final String BUILD_LEXICON_COMMAND = "build-lexicon";
+
+  /**
+   * Starts this command line interface.
+   *
+   * @param args The command line arguments (without the name of the subcommand).
+   */
+  protected void start(String[] args) {
+    int statusCode = 0;
+    String errorMessage = null;
+
+    BuildLexiconCommandLineParser parser = new BuildLexiconCommandLineParser();
+
+    try {
+      parser.parseArgs(args);
+      buildLexicon(Paths.get(parser.pdfDirPath), Paths.get(parser.lexiconPath));
+    } catch (PdfActException e) {
+      statusCode = e.getExitCode();
+      errorMessage = e.getMessage();
+    }
+
+    if (statusCode != 0) {
+      System.err.println(errorMessage);
+    }
+
+    System.exit(statusCode);
+  }
+
+  /**
+   * Builds a word frequency lexicon from the PDF files in the given directory (and its
+   * subdirectories) and writes it to the given path. PDF files that can't be processed are
+   * skipped.
+   *
+   * @param pdfDir The directory with the PDF files.
+   * @param lexiconPath The path to the lexicon file to write.
+   *
+   * @throws PdfActException If the directory couldn't be read or the lexicon couldn't be written.
+   */
+  public void buildLexicon(Path pdfDir, Path lexiconPath) throws PdfActException {
+    List<Path> pdfPaths;
+    try (Stream<Path> paths = Files.walk(pdfDir)) {
+      pdfPaths = paths
+          .filter(Files::isRegularFile)
+          .filter(p -> p.getFileName().toString().toLowerCase().endsWith(".pdf"))
+          .sorted()
+          .collect(Collectors.toList());
+    } catch (IOException e) {
+      throw new PdfActIoException("Couldn't read the directory " + pdfDir + ".", e);
+    }
+
+    WordFrequencyLexiconBuilder builder = new WordFrequencyLexiconBuilder();
+    int numProcessed = 0;
+    for (Path pdfPath : pdfPaths) {
+      // The dehyphenation pipe counts the words of each processed document.
+      PlainDehyphenateWordsPipe dehyphenatePipe = new PlainDehyphenateWordsPipe();
+      PlainPdfActCorePipe corePipe = new PlainPdfActCorePipe();
+      corePipe.setDehyphenateWordsPipe(dehyphenatePipe);
+
+      try {
+        corePipe.execute(new Document(pdfPath));
+      } catch (PdfActException | RuntimeException e) {
+        log.warn("Skipping " + pdfPath + ": " + e.getMessage());
+        continue;
+      }
+
+      builder.add(dehyphenatePipe.getNormalWordsIndex(), dehyphenatePipe.getCompoundWordsIndex(),
+          dehyphenatePipe.getPrefixesIndex());
+      numProcessed++;
+    }
+
+    builder.write(lexiconPath);
+    log.info("Built a lexicon with " + builder.size() + " words from " + numProcessed + " of "
+        + pdfPaths.size() + " PDF files.");
+  }
+
+  // ==============================================================================================
+
+  /**
+   * A parser to parse the command line arguments of the subcommand.
+   *
+   * @author Claudius Korzen
+   */
+  class BuildLexiconCommandLineParser {
+    /**
+     * The command line argument parser.
+     */
+    protected ArgumentParser parser;
+
+    /**
+     * The name of the option to define the path to the directory with the PDF files.
+     */
+    public static final String PDF_DIR_PATH = "pdfDirPath";
+
+    /**
+     * The path to the directory with the PDF files.
+     */
+    @Arg(dest = PDF_DIR_PATH)
+    public String pdfDirPath;
+
+    /**
+     * The name of the option to define the path to the lexicon file.
+     */
+    public static final String LEXICON_PATH = "lexiconPath";
+
+    /**
+     * The path to the lexicon file.
+     */
+    @Arg(dest = LEXICON_PATH)
+    public String lexiconPath;
+
+    /**
+     * Creates a new command line argument parser.
+     */
+    public BuildLexiconCommandLineParser() {
+      this.parser = ArgumentParsers.newFor("pdfact " + BUILD_LEXICON_COMMAND)
+        .terminalWidthDetection(false)
+        .defaultFormatWidth(100).build();
+      this.parser.description("Builds a lexicon of word frequencies from a directory of PDF "
+          + "files, to be used on dehyphenating words (see the option --word-lexicon).");
+
+      this.parser.addArgument(PDF_DIR_PATH).dest(PDF_DIR_PATH)
+        .required(true)
+        .metavar("<pdf-dir>")
+        .help("The path to the directory with the PDF files (searched recursively).");
+
+      this.parser.addArgument(LEXICON_PATH).dest(LEXICON_PATH)
+        .required(true)
+        .metavar("<lexicon-path>")
+        .help("The path to the lexicon file to write.");
+    }
+
+    /**
+     * Parses the given command line arguments.
+     *
+     * @param args The command line arguments to parse.
+     *
+     * @throws PdfActException If parsing the command line arguments fails.
+     */
+    public void parseArgs(String[] args) throws PdfActException {
+      try {
+        this.parser.parseArgs(args, this);
+      } catch (HelpScreenException e) {
+        // Set the status code to 0, such that no error message is shown.
+        throw new PdfActParseCommandLineException(null, 0, e);
+      } catch (ArgumentParserException e) {
+        String message = e.getMessage() + "\n\n" + this.parser.formatUsage();
+        throw new PdfActParseCommandLineException(message, e);
+      }
+    }
+  }
+}
@@ -20,6 +20,7 @@ import pdfact.cli.model.ExtractionUnit;
 import pdfact.cli.model.SerializationFormat;
 import pdfact.cli.util.exception.PdfActParseCommandLineException;
 import pdfact.core.model.SemanticRole;
+import pdfact.core.pipes.semanticize.template.LayoutTemplateCache;
 import pdfact.core.util.exception.PdfActException;
 
 /**
@@ -80,6 +81,35 @@ public class PdfActCli {
         pdfAct.setVisualizationPath(Paths.get(visualizationPathStr));
       }
 
+      // Pass the path to the layout template cache.
+      String templateCachePathStr = parser.templateCachePath;
+      if (templateCachePathStr != null) {
+        pdfAct.setLayoutTemplateCachePath(Paths.get(templateCachePathStr));
+      }
+
+      // Pass the path to the word frequency lexicon.
+      String wordLexiconPathStr = parser.wordLexiconPath;
+      if (wordLexiconPathStr != null) {
+        pdfAct.setWordLexiconPath(Paths.get(wordLexiconPathStr));
+      }
+
+      // Set the "use structure tree" flag.
+      pdfAct.setIsStructureTreeUsed(parser.isStructureTreeUsed);
+
+      // Set the "release layers" flag.
+      pdfAct.setIsReleasingLayers(parser.isReleasingLayers);
+
+      // Set the "spill characters" flag.
+      pdfAct.setIsSpillingCharacters(parser.isSpillingCharacters);
+
+      // Set the "process sequentially" flag.
+      pdfAct.setIsProcessingInParallel(!parser.isProcessingSequentially);
+
+      // Pass the number of pages in a window, if there is any.
+      if (parser.windowSize != null) {
+        pdfAct.setWindowSize(parser.windowSize);
+      }
+
       // Pass the chosen text unit.
       List<String> extractionUnits = parser.extractionUnits;
       if (extractionUnits != null) {
@@ -106,6 +136,15 @@ public class PdfActCli {
 
       // Run PdfAct.
       pdfAct.parse(parser.pdfPath);
+
+      // Report the statistics of the layout template cache, if there is any. They are printed to
+      // stderr, since stdout may be the target of the serialization.
+      LayoutTemplateCache templateCache = pdfAct.getLayoutTemplateCache();
+      if (templateCache != null) {
+        System.err.println("Layout template cache: " + templateCache.getNumHits() + " hit(s), "
+            + templateCache.getNumMisses() + " miss(es), " + templateCache.size()
+            + " template(s).");
+      }
     } catch (PdfActException e) {
       statusCode = e.getExitCode();
       errorMessage = e.getMessage();
@@ -132,6 +171,10 @@ public class PdfActCli {
    * @param args The command line arguments.
    */
   public static void main(String[] args) {
+    if (args.length > 0 && PdfActBuildLexiconCli.BUILD_LEXICON_COMMAND.equals(args[0])) {
+      new PdfActBuildLexiconCli().start(Arrays.copyOfRange(args, 1, args.length));
+      return;
+    }
     new PdfActCli().start(args);
   }
 
@@ -202,6 +245,97 @@ public class PdfActCli {
 
     // ============================================================================================
 
+    /**
+     * The name of the option to define the path to the layout template cache.
+     */
+    public static final String TEMPLATE_CACHE_PATH = "template-cache";
+
+    /**
+     * The path to the layout template cache.
+     */
+    @Arg(dest = TEMPLATE_CACHE_PATH)
+    public String templateCachePath;
+
+    // ============================================================================================
+
+    /**
+     * The name of the option to define the path to the word frequency lexicon.
+     */
+    public static final String WORD_LEXICON_PATH = "word-lexicon";
+
+    /**
+     * The path to the word frequency lexicon.
+     */
+    @Arg(dest = WORD_LEXICON_PATH)
+    public String wordLexiconPath;
+
+    // ============================================================================================
+
+    /**
+     * The name of the option to enable the use of the structure tree of tagged PDFs.
+     */
+    public static final String USE_STRUCTURE_TREE = "use-structure-tree";
+
+    /**
+     * The flag indicating whether or not to use the structure tree of tagged PDFs.
+     */
+    @Arg(dest = USE_STRUCTURE_TREE)
+    public boolean isStructureTreeUsed = false;
+
+    // ============================================================================================
+
+    /**
+     * The name of the option to enable the release of intermediate layers.
+     */
+    public static final String RELEASE_LAYERS = "release-layers";
+
+    /**
+     * The flag indicating whether or not to release the intermediate layers of the document.
+     */
+    @Arg(dest = RELEASE_LAYERS)
+    public boolean isReleasingLayers = false;
+
+    // ============================================================================================
+
+    /**
+     * The name of the option to enable the spilling of the characters.
+     */
+    public static final String SPILL_CHARACTERS = "spill-characters";
+
+    /**
+     * The flag indicating whether or not to spill the characters of the document.
+     */
+    @Arg(dest = SPILL_CHARACTERS)
+    public boolean isSpillingCharacters = false;
+
+    // ============================================================================================
+
+    /**
+     * The name of the option to disable the parallel processing of the pages.
+     */
+    public static final String SEQUENTIAL = "sequential";
+
+    /**
+     * The flag indicating whether or not to process the pages of the document sequentially.
+     */
+    @Arg(dest = SEQUENTIAL)
+    public boolean isProcessingSequentially = false;
+
+    // ============================================================================================
+
+    /**
+     * The name of the option to define the number of pages in a window.
+     */
+    public static final String WINDOW_SIZE = "window-size";
+
+    /**
+     * The number of pages in a window.
+     */
+    @Arg(dest = WINDOW_SIZE)
+    public Integer windowSize;
+
+    // ============================================================================================
+
     /**
      * The name of the option to define the units to extract.
      */
@@ -512,6 +646,80 @@ public class PdfActCli {
             + "should be written to. The file doesn't have to be existent before. If not "
             + "specified, no such visualization will be created.");
 
+      // Add an option to define the path to the layout template cache.
+      this.parser.addArgument("--" + TEMPLATE_CACHE_PATH).dest(TEMPLATE_CACHE_PATH)
+        .required(false)
+        .type(String.class)
+        .metavar("<path>")
+        .help("The path to a file in which the layout templates (the font faces of the title and "
+            + "the section headings and the texts of the page headers and footers) learned from "
+            + "the processed PDF files are cached. The cached templates are used to seed the "
+            + "detection of the semantic roles in PDF files of the same layout template. The file "
+            + "doesn't have to be existent before. If not specified, no templates are cached.");
+
+      // Add an option to define the path to the word frequency lexicon.
+      this.parser.addArgument("--" + WORD_LEXICON_PATH).dest(WORD_LEXICON_PATH)
+        .required(false)
+        .type(String.class)
+        .metavar("<path>")
+        .help("The path to a lexicon of word frequencies, built by \"pdfact "
+            + PdfActBuildLexiconCli.BUILD_LEXICON_COMMAND + " <pdf-dir> <lexicon-path>\". The "
+            + "lexicon is consulted on dehyphenating words when the words of the PDF file don't "
+            + "decide whether a hyphen is mandatory. If not specified, only the words of the PDF "
+            + "file are consulted.");
+
+      // Add an option to enable the use of the structure tree of tagged PDFs.
+      this.parser.addArgument("--" + USE_STRUCTURE_TREE).dest(USE_STRUCTURE_TREE)
+        .required(false)
+        .action(Arguments.storeTrue())
+        .setDefault(this.isStructureTreeUsed)
+        .help("Use the structure tree of tagged PDF files: On pages whose characters are mostly "
+            + "tagged, the paragraphs, headings and their reading order are taken from the "
+            + "structure tree instead of being detected from the layout. Untagged pages are "
+            + "processed as usual.");
+
+      // Add an option to enable the release of intermediate layers.
+      this.parser.addArgument("--" + RELEASE_LAYERS).dest(RELEASE_LAYERS)
+        .required(false)
+        .action(Arguments.storeTrue())
+        .setDefault(this.isReleasingLayers)
+        .help("Release the intermediate layers of the PDF file (the text areas, the statistics "
+            + "of the text lines and, unless characters are extracted, the characters) as soon "
+            + "as they are no longer needed, to reduce the memory needed per PDF file.");
+
+      // Add an option to enable the spilling of the characters.
+      this.parser.addArgument("--" + SPILL_CHARACTERS).dest(SPILL_CHARACTERS)
+        .required(false)
+        .action(Arguments.storeTrue())
+        .setDefault(this.isSpillingCharacters)
+        .help("Spill the characters of the PDF file into a memory-mapped temporary file once the "
+            + "PDF file is fully tokenized, and read them from the file again when they are "
+            + "needed (for example, to extract the characters), to reduce the memory held by the "
+            + "processed PDF file. The peak memory, which is reached on parsing the PDF file, is "
+            + "not reduced.");
+
+      // Add an option to disable the parallel processing of the pages.
+      this.parser.addArgument("--" + SEQUENTIAL).dest(SEQUENTIAL)
+        .required(false)
+        .action(Arguments.storeTrue())
+        .setDefault(this.isProcessingSequentially)
+        .help("Process the pages of the PDF file sequentially in the calling thread, instead of "
+            + "in parallel on all available processors (for example, to limit the CPU usage).");
+
+      // Add an option to define the number of pages in a window.
+      this.parser.addArgument("--" + WINDOW_SIZE).dest(WINDOW_SIZE)
+        .required(false)
+        .type(Integer.class)
+        .metavar("<int>")
+        .help("Process the PDF file in windows of the given number of pages and write the "
+            + "paragraphs to the output as soon as they are finished, so that the memory needed "
+            + "depends on the size of a window instead of the number of pages (for example, for "
+            + "scanned books with thousands of pages). The PDF file is parsed twice: once to "
+            + "compute the statistics about the characters of the whole file and once to process "
+            + "the windows. The statistics about the text lines and the detection of the semantic "
+            + "roles are computed per window. Only the TXT format is supported. If not "
+            + "specified, the PDF file is processed as a whole.");
+
       // Add an option to define whether or not control characters (which identify headings and
       // page breaks should be inserted into the TXT serialization output.
       this.parser.addArgument("--" + WITH_CONTROL_CHARACTERS).dest(WITH_CONTROL_CHARACTERS)
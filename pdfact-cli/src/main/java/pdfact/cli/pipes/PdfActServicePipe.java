@@ -6,6 +6,7 @@ import java.util.Set;
 import pdfact.cli.model.ExtractionUnit;
 import pdfact.cli.model.SerializationFormat;
 import pdfact.core.model.SemanticRole;
+import pdfact.core.pipes.semanticize.template.LayoutTemplateCache;
 import pdfact.core.util.pipeline.Pipe;
 
 /**
@@ -95,6 +96,145 @@ public interface PdfActServicePipe extends Pipe {
 
   // ==============================================================================================
 
+  /**
+   * Returns the path to the file of the layout template cache.
+   *
+   * @return The path to the file of the layout template cache.
+   */
+  Path getLayoutTemplateCachePath();
+
+  /**
+   * Sets the path to the file of the layout template cache, which is loaded before and saved
+   * after processing the document.
+   *
+   * @param path The path to the file of the layout template cache; null to not cache templates.
+   */
+  void setLayoutTemplateCachePath(Path path);
+
+  /**
+   * Returns the layout template cache used on the last execution of this pipe, to report its
+   * statistics (like the number of cache hits and misses).
+   *
+   * @return The layout template cache used on the last execution; null if no path to a layout
+   *         template cache was given.
+   */
+  LayoutTemplateCache getLayoutTemplateCache();
+
+  // ==============================================================================================
+
+  /**
+   * Returns the path to the file of the word frequency lexicon.
+   *
+   * @return The path to the file of the word frequency lexicon.
+   */
+  Path getWordLexiconPath();
+
+  /**
+   * Sets the path to the file of the word frequency lexicon, which is consulted on dehyphenating
+   * words.
+   *
+   * @param path The path to the file of the word frequency lexicon; null to not use a lexicon.
+   */
+  void setWordLexiconPath(Path path);
+
+  // ==============================================================================================
+
+  /**
+   * Returns the flag that indicates whether the structure tree of tagged PDFs should be used.
+   *
+   * @return True if the structure tree of tagged PDFs should be used; false otherwise.
+   */
+  boolean isStructureTreeUsed();
+
+  /**
+   * Sets the flag that indicates whether the structure tree of tagged PDFs should be used to
+   * create the text blocks and their semantic roles.
+   *
+   * @param isStructureTreeUsed True if the structure tree of tagged PDFs should be used; false
+   *                            otherwise.
+   */
+  void setIsStructureTreeUsed(boolean isStructureTreeUsed);
+
+  // ==============================================================================================
+
+  /**
+   * Returns the flag that indicates whether the intermediate layers of the document should be
+   * released once they are no longer needed.
+   *
+   * @return True if the intermediate layers should be released; false otherwise.
+   */
+  boolean isReleasingLayers();
+
+  /**
+   * Sets the flag that indicates whether the intermediate layers of the document (like the text
+   * areas or the characters) should be released once their last consumer has run, to reduce the
+   * memory retained by the processed document. Layers needed by the serialization or
+   * visualization are kept.
+   *
+   * @param isReleasingLayers True if the intermediate layers should be released; false otherwise.
+   */
+  void setIsReleasingLayers(boolean isReleasingLayers);
+
+  // ==============================================================================================
+
+  /**
+   * Returns the flag that indicates whether the characters of the document should be spilled into
+   * a memory-mapped file.
+   *
+   * @return True if the characters should be spilled; false otherwise.
+   */
+  boolean isSpillingCharacters();
+
+  /**
+   * Sets the flag that indicates whether the characters of the document should be spilled into a
+   * memory-mapped temporary file once the document is fully tokenized, and read from the file
+   * again when they are serialized or visualized.
+   *
+   * @param isSpillingCharacters True if the characters should be spilled; false otherwise.
+   */
+  void setIsSpillingCharacters(boolean isSpillingCharacters);
+
+  // ==============================================================================================
+
+  /**
+   * Returns the flag that indicates whether the pages of the document should be processed in
+   * parallel.
+   *
+   * @return True if the pages should be processed in parallel; false otherwise.
+   */
+  boolean isProcessingInParallel();
+
+  /**
+   * Sets the flag that indicates whether the pages of the document should be processed in
+   * parallel, or sequentially in the calling thread.
+   *
+   * @param isProcessingInParallel True if the pages should be processed in parallel; false
+   *        otherwise.
+   */
+  void setIsProcessingInParallel(boolean isProcessingInParallel);
+
+  // ==============================================================================================
+
+  /**
+   * Returns the number of pages in a window, if the document should be processed in windows of
+   * pages.
+   *
+   * @return The number of pages in a window; 0 if the document is processed as a whole.
+   */
+  int getWindowSize();
+
+  /**
+   * Sets the number of pages in a window, to process the document in windows of pages and to
+   * serialize the paragraphs as soon as they are finished, so that the memory needed depends on
+   * the size of a window instead of the number of pages. Only the serialization in TXT format is
+   * supported in this mode.
+   *
+   * @param windowSize The number of pages in a window; 0 to process the document as a whole.
+   */
+  void setWindowSize(int windowSize);
+
+  // ==============================================================================================
+
   /**
    * Returns the semantic roles to include.
    *
@@ -3,23 +3,36 @@ package pdfact.cli.pipes;
 import static pdfact.cli.PdfActCliSettings.DEFAULT_EXTRACTION_UNITS;
 import static pdfact.cli.PdfActCliSettings.DEFAULT_SEMANTIC_ROLES;
 import static pdfact.cli.PdfActCliSettings.DEFAULT_SERIALIZE_FORMAT;
+import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.file.Path;
+import java.util.EnumSet;
 import java.util.Set;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import pdfact.cli.model.ExtractionUnit;
 import pdfact.cli.model.SerializationFormat;
+import pdfact.cli.pipes.serialize.PdfTxtSerializer;
 import pdfact.cli.pipes.serialize.PlainSerializePdfPipe;
+import pdfact.cli.pipes.serialize.SerializeParagraphConsumer;
 import pdfact.cli.pipes.serialize.SerializePdfPipe;
 import pdfact.cli.pipes.validate.PlainValidatePathToWritePipe;
 import pdfact.cli.pipes.validate.ValidatePathToWritePipe;
 import pdfact.cli.pipes.visualize.PlainVisualizePdfPipe;
 import pdfact.cli.pipes.visualize.VisualizePdfPipe;
+import pdfact.cli.util.exception.PdfActSerializeException;
+import pdfact.cli.util.exception.PdfActVisualizeException;
 import pdfact.core.model.Document;
+import pdfact.core.model.IntermediateLayer;
 import pdfact.core.model.SemanticRole;
 import pdfact.core.pipes.PlainPdfActCorePipe;
+import pdfact.core.pipes.WindowedPdfActCorePipe;
+import pdfact.core.pipes.dehyphenate.PlainDehyphenateWordsPipe;
+import pdfact.core.pipes.release.PlainReleaseLayersPipe;
+import pdfact.core.pipes.semanticize.FusedDetectSemanticsPipe;
+import pdfact.core.pipes.semanticize.template.LayoutTemplateCache;
 import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.lexicon.WordFrequencyLexicon;
 import pdfact.core.util.pipeline.Pipeline;
 import pdfact.core.util.pipeline.PlainPipeline;
 
@@ -60,6 +73,51 @@ public class PlainPdfActServicePipe implements PdfActServicePipe {
 
   // ==============================================================================================
 
+  /**
+   * The path to the file of the layout template cache.
+   */
+  protected Path templateCachePath;
+
+  /**
+   * The layout template cache used on the last execution.
+   */
+  protected LayoutTemplateCache templateCache;
+
+  /**
+   * The path to the file of the word frequency lexicon.
+   */
+  protected Path wordLexiconPath;
+
+  /**
+   * The flag that indicates whether the structure tree of tagged PDFs should be used.
+   */
+  protected boolean isStructureTreeUsed;
+
+  /**
+   * The flag that indicates whether the intermediate layers of the document should be released
+   * once they are no longer needed.
+   */
+  protected boolean isReleasingLayers;
+
+  /**
+   * The flag that indicates whether the characters of the document should be spilled into a
+   * memory-mapped file once the document is fully tokenized.
+   */
+  protected boolean isSpillingCharacters;
+
+  /**
+   * The flag that indicates whether the pages of the document should be processed in parallel.
+   */
+  protected boolean isProcessingInParallel = true;
+
+  /**
+   * The number of pages in a window, if the document should be processed in windows of pages;
+   * 0 if the document should be processed as a whole.
+   */
+  protected int windowSize;
+
+  // ==============================================================================================
+
   /**
    * The serialization format.
    */
@@ -116,10 +174,44 @@ public class PlainPdfActServicePipe implements PdfActServicePipe {
 
     log.debug("Process: Processing the service pipeline.");
 
+    if (this.windowSize > 0) {
+      return executeInWindows(pdf);
+    }
+
     Pipeline pipeline = new PlainPipeline();
 
     // Parse the PDF document.
-    pipeline.addPipe(new PlainPdfActCorePipe());
+    PlainPdfActCorePipe corePipe = new PlainPdfActCorePipe();
+    corePipe.setIsStructureTreeUsed(this.isStructureTreeUsed);
+    corePipe.setIsSpillingCharacters(this.isSpillingCharacters);
+    corePipe.setIsProcessingInParallel(this.isProcessingInParallel);
+    pipeline.addPipe(corePipe);
+
+    // Release the intermediate layers once they are no longer needed, if enabled. The characters
+    // and texts are released not until the serialization and visualization are done.
+    Set<IntermediateLayer> layersToRelease = computeLayersToRelease();
+    Set<IntermediateLayer> coreLayersToRelease = EnumSet.copyOf(layersToRelease);
+    coreLayersToRelease.remove(IntermediateLayer.CHARACTERS);
+    coreLayersToRelease.remove(IntermediateLayer.TEXTS);
+    corePipe.setLayersToRelease(coreLayersToRelease);
+
+    // Load the layout template cache if there is any given.
+    LayoutTemplateCache templateCache = null;
+    if (this.templateCachePath != null) {
+      templateCache = new LayoutTemplateCache();
+      templateCache.load(this.templateCachePath);
+      FusedDetectSemanticsPipe detectSemanticsPipe = new FusedDetectSemanticsPipe();
+      detectSemanticsPipe.setLayoutTemplateCache(templateCache);
+      corePipe.setDetectSemanticsPipe(detectSemanticsPipe);
+    }
+    this.templateCache = templateCache;
+
+    // Open the word frequency lexicon if there is any given.
+    if (this.wordLexiconPath != null) {
+      PlainDehyphenateWordsPipe dehyphenatePipe = new PlainDehyphenateWordsPipe();
+      dehyphenatePipe.setWordFrequencyLexicon(WordFrequencyLexicon.open(this.wordLexiconPath));
+      corePipe.setDehyphenateWordsPipe(dehyphenatePipe);
+    }
 
     // Validate the target path for the serialization if there is any given.
     if (this.serializationPath != null) {
@@ -158,12 +250,27 @@ public class PlainPdfActServicePipe implements PdfActServicePipe {
       pipeline.addPipe(visualizePipe);
     }
 
+    // Release the characters if they were neither serialized nor visualized, and the texts that
+    // were materialized on serialization.
+    Set<IntermediateLayer> finalLayersToRelease = EnumSet.copyOf(layersToRelease);
+    finalLayersToRelease.retainAll(
+        EnumSet.of(IntermediateLayer.CHARACTERS, IntermediateLayer.TEXTS));
+    if (!finalLayersToRelease.isEmpty()) {
+      pipeline.addPipe(new PlainReleaseLayersPipe(finalLayersToRelease));
+    }
+
     log.debug("# pipes in the pipeline: " + pipeline.size());
 
     long start = System.currentTimeMillis();
     pipeline.process(pdf);
     long length = System.currentTimeMillis() - start;
 
+    // Save the layout template cache.
+    if (templateCache != null) {
+      templateCache.save(this.templateCachePath);
+      log.info("Layout template cache: " + templateCache);
+    }
+
     log.debug("Processing the service pipeline done.");
     log.debug("Time needed to process the service pipeline: " + length + "ms.");
 
@@ -172,6 +279,117 @@ public class PlainPdfActServicePipe implements PdfActServicePipe {
     return pdf;
   }
 
+  /**
+   * Processes the given PDF document in windows of pages and serializes the paragraphs as soon as
+   * they are finished, so that neither the pages nor the paragraphs of the whole document are
+   * retained. Only the serialization in TXT format is supported in this mode.
+   *
+   * @param pdf
+   *        The PDF document to process.
+   *
+   * @return The PDF document after processing (without any pages and paragraphs).
+   *
+   * @throws PdfActException
+   *         If something went wrong on processing the PDF document.
+   */
+  protected Document executeInWindows(Document pdf) throws PdfActException {
+    if (this.serializationFormat != SerializationFormat.TXT || this.isPdfJsMode) {
+      throw new PdfActSerializeException("Processing the PDF document in windows of pages "
+          + "supports only the serialization in TXT format.");
+    }
+    if (this.visualizationStream != null || this.visualizationPath != null) {
+      throw new PdfActVisualizeException("Processing the PDF document in windows of pages "
+          + "doesn't support the visualization.");
+    }
+    if (this.templateCachePath != null) {
+      // The characters of a window don't identify the layout of the whole document.
+      log.warn("The layout template cache is not used on processing in windows of pages.");
+    }
+    this.templateCache = null;
+
+    WindowedPdfActCorePipe corePipe =
+        new WindowedPdfActCorePipe(this.windowSize, WindowedPdfActCorePipe.DEFAULT_OVERLAP);
+    corePipe.setIsStructureTreeUsed(this.isStructureTreeUsed);
+    corePipe.setIsSpillingCharacters(this.isSpillingCharacters);
+    corePipe.setIsProcessingInParallel(this.isProcessingInParallel);
+    // The layers of a window are released as a whole once the window is processed.
+    if (this.isReleasingLayers) {
+      corePipe.setLayersToRelease(EnumSet.of(IntermediateLayer.PAGE_CHARACTERS,
+          IntermediateLayer.TEXT_AREAS, IntermediateLayer.TEXT_LINE_STATISTICS));
+    }
+
+    // Open the word frequency lexicon if there is any given.
+    if (this.wordLexiconPath != null) {
+      PlainDehyphenateWordsPipe dehyphenatePipe = new PlainDehyphenateWordsPipe();
+      dehyphenatePipe.setWordFrequencyLexicon(WordFrequencyLexicon.open(this.wordLexiconPath));
+      corePipe.setDehyphenateWordsPipe(dehyphenatePipe);
+    }
+
+    // Validate the target path for the serialization if there is any given.
+    if (this.serializationPath != null) {
+      ValidatePathToWritePipe valPipe = new PlainValidatePathToWritePipe();
+      valPipe.setPath(this.serializationPath);
+      valPipe.execute(pdf);
+    }
+
+    long start = System.currentTimeMillis();
+    if (this.serializationStream != null || this.serializationPath != null) {
+      PdfTxtSerializer serializer = new PdfTxtSerializer(this.withControlCharacters,
+          this.extractionUnits, this.roles);
+      try (SerializeParagraphConsumer consumer = new SerializeParagraphConsumer(serializer,
+          this.serializationStream, this.serializationPath)) {
+        corePipe.setParagraphConsumer(consumer);
+        corePipe.execute(pdf);
+      } catch (IOException e) {
+        throw new PdfActSerializeException("Couldn't close the serialization target.", e);
+      }
+    } else {
+      // Drop the paragraphs, since there is nothing to serialize them to.
+      corePipe.setParagraphConsumer(paragraph -> { });
+      corePipe.execute(pdf);
+    }
+    long length = System.currentTimeMillis() - start;
+
+    log.debug("Processing the service pipeline in windows done.");
+    log.debug("Time needed to process the service pipeline: " + length + "ms.");
+
+    log.debug("End of pipe: " + getClass().getSimpleName() + ".");
+
+    return pdf;
+  }
+
+  /**
+   * Computes the intermediate layers of the document to release, that is: all layers if the
+   * release is enabled, except for the layers that are needed by the serialization or
+   * visualization.
+   *
+   * @return The layers to release.
+   */
+  protected Set<IntermediateLayer> computeLayersToRelease() {
+    Set<IntermediateLayer> layers = EnumSet.noneOf(IntermediateLayer.class);
+    if (!this.isReleasingLayers) {
+      return layers;
+    }
+
+    boolean isSerializing = this.serializationStream != null || this.serializationPath != null;
+    boolean isVisualizing = this.visualizationStream != null || this.visualizationPath != null;
+
+    layers.add(IntermediateLayer.PAGE_CHARACTERS);
+    // The text areas are visualized if requested.
+    if (!isVisualizing || !this.extractionUnits.contains(ExtractionUnit.TEXT_AREA)) {
+      layers.add(IntermediateLayer.TEXT_AREAS);
+    }
+    // The statistics of the text lines are serialized in pdf.js mode.
+    if (!isSerializing || !this.isPdfJsMode) {
+      layers.add(IntermediateLayer.TEXT_LINE_STATISTICS);
+    }
+    if (!this.extractionUnits.contains(ExtractionUnit.CHARACTER)) {
+      layers.add(IntermediateLayer.CHARACTERS);
+    }
+    layers.add(IntermediateLayer.TEXTS);
+    return layers;
+  }
+
   // ==============================================================================================
 
   @Override
@@ -234,6 +452,95 @@ public class PlainPdfActServicePipe implements PdfActServicePipe {
 
   // ==============================================================================================
 
+  @Override
+  public Path getLayoutTemplateCachePath() {
+    return this.templateCachePath;
+  }
+
+  @Override
+  public void setLayoutTemplateCachePath(Path path) {
+    this.templateCachePath = path;
+  }
+
+  @Override
+  public LayoutTemplateCache getLayoutTemplateCache() {
+    return this.templateCache;
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public Path getWordLexiconPath() {
+    return this.wordLexiconPath;
+  }
+
+  @Override
+  public void setWordLexiconPath(Path path) {
+    this.wordLexiconPath = path;
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public boolean isStructureTreeUsed() {
+    return this.isStructureTreeUsed;
+  }
+
+  @Override
+  public void setIsStructureTreeUsed(boolean isStructureTreeUsed) {
+    this.isStructureTreeUsed = isStructureTreeUsed;
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public boolean isReleasingLayers() {
+    return this.isReleasingLayers;
+  }
+
+  @Override
+  public void setIsReleasingLayers(boolean isReleasingLayers) {
+    this.isReleasingLayers = isReleasingLayers;
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public boolean isSpillingCharacters() {
+    return this.isSpillingCharacters;
+  }
+
+  @Override
+  public void setIsSpillingCharacters(boolean isSpillingCharacters) {
+    this.isSpillingCharacters = isSpillingCharacters;
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public boolean isProcessingInParallel() {
+    return this.isProcessingInParallel;
+  }
+
+  @Override
+  public void setIsProcessingInParallel(boolean isProcessingInParallel) {
+    this.isProcessingInParallel = isProcessingInParallel;
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public int getWindowSize() {
+    return this.windowSize;
+  }
+
+  @Override
+  public void setWindowSize(int windowSize) {
+    this.windowSize = Math.max(0, windowSize);
+  }
+
+  // ==============================================================================================
+
   @Override
   public Set<SemanticRole> getSemanticRolesToInclude() {
     return this.roles;
@@ -3,6 +3,7 @@ package pdfact.cli.pipes.serialize;
 import static pdfact.core.PdfActCoreSettings.DEFAULT_ENCODING;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import pdfact.cli.model.ExtractionUnit;
@@ -118,6 +119,30 @@ public class PdfTxtSerializer implements PdfSerializer {
     return result.getBytes(DEFAULT_ENCODING);
   }
 
+  /**
+   * Serializes the given paragraph, for serializing the paragraphs of a PDF document one by one,
+   * as they are finished (for example, by a WindowedPdfActCorePipe). Concatenating the
+   * serializations of all paragraphs of a document (in the order of the paragraphs) results in
+   * the serialization of the document if only one unit is extracted; if multiple units are
+   * extracted, the units are grouped by paragraph instead of by unit.
+   *
+   * @param paragraph The paragraph to serialize.
+   *
+   * @return The serialization of the paragraph.
+   */
+  public byte[] serialize(Paragraph paragraph) {
+    StringBuilder result = new StringBuilder();
+
+    if (paragraph != null) {
+      for (String line : serializePdfElements(Collections.singletonList(paragraph))) {
+        result.append(line);
+        result.append(TYPES_DELIMITER);
+      }
+    }
+
+    return result.toString().getBytes(DEFAULT_ENCODING);
+  }
+
   /**
    * Serializes the elements of the given PDF document.
    * 
@@ -126,18 +151,29 @@ public class PdfTxtSerializer implements PdfSerializer {
    * @return A list of strings that represent the lines of the serialization.
    */
   protected List<String> serializePdfElements(Document pdf) {
+    return serializePdfElements(pdf.getParagraphs());
+  }
+
+  /**
+   * Serializes the elements of the given paragraphs.
+   * 
+   * @param paragraphs The paragraphs to process.
+   *
+   * @return A list of strings that represent the lines of the serialization.
+   */
+  protected List<String> serializePdfElements(List<Paragraph> paragraphs) {
     List<String> lines = new ArrayList<>();
     for (ExtractionUnit unit : this.extractionUnits) {
       switch (unit) {
         case CHARACTER:
-          lines.addAll(serializeCharacters(pdf));
+          lines.addAll(serializeCharacters(paragraphs));
           break;
         case WORD:
-          lines.addAll(serializeWords(pdf));
+          lines.addAll(serializeWords(paragraphs));
           break;
         case PARAGRAPH:
         default:
-          lines.addAll(serializeParagraphs(pdf));
+          lines.addAll(serializeParagraphs(paragraphs));
       }
     }
     return lines;
@@ -153,10 +189,21 @@ public class PdfTxtSerializer implements PdfSerializer {
    * @return A list of strings that represent the lines of the serialization.
    */
   protected List<String> serializeParagraphs(Document pdf) {
+    return pdf != null ? serializeParagraphs(pdf.getParagraphs()) : new ArrayList<>();
+  }
+
+  /**
+   * Serializes the paragraphs of the given paragraphs.
+   * 
+   * @param paragraphs The paragraphs to process.
+   * 
+   * @return A list of strings that represent the lines of the serialization.
+   */
+  protected List<String> serializeParagraphs(List<Paragraph> paragraphs) {
     List<String> result = new ArrayList<>();
 
-    if (pdf != null) {
-      for (Paragraph paragraph : pdf.getParagraphs()) {
+    if (paragraphs != null) {
+      for (Paragraph paragraph : paragraphs) {
         // Ignore the paragraph if its role should not be extracted.
         if (!hasRelevantRole(paragraph)) {
           continue;
@@ -211,10 +258,21 @@ public class PdfTxtSerializer implements PdfSerializer {
    * @return A list of strings that represent the lines of the serialization.
    */
   protected List<String> serializeWords(Document pdf) {
+    return pdf != null ? serializeWords(pdf.getParagraphs()) : new ArrayList<>();
+  }
+
+  /**
+   * Serializes the words of the given paragraphs.
+   * 
+   * @param paragraphs The paragraphs to process.
+   * 
+   * @return A list of strings that represent the lines of the serialization.
+   */
+  protected List<String> serializeWords(List<Paragraph> paragraphs) {
     List<String> result = new ArrayList<>();
 
-    if (pdf != null) {
-      for (Paragraph paragraph : pdf.getParagraphs()) {
+    if (paragraphs != null) {
+      for (Paragraph paragraph : paragraphs) {
         // Ignore the paragraph if its role should not be extracted.
         if (!hasRelevantRole(paragraph)) {
           continue;
@@ -253,10 +311,21 @@ public class PdfTxtSerializer implements PdfSerializer {
    * @return A list of strings that represent the lines of the serialization.
    */
   protected List<String> serializeCharacters(Document pdf) {
+    return pdf != null ? serializeCharacters(pdf.getParagraphs()) : new ArrayList<>();
+  }
+
+  /**
+   * Serializes the characters of the given paragraphs.
+   * 
+   * @param paragraphs The paragraphs to process.
+   * 
+   * @return A list of strings that represent the lines of the serialization.
+   */
+  protected List<String> serializeCharacters(List<Paragraph> paragraphs) {
     List<String> result = new ArrayList<>();
 
-    if (pdf != null) {
-      for (Paragraph paragraph : pdf.getParagraphs()) {
+    if (paragraphs != null) {
+      for (Paragraph paragraph : paragraphs) {
         // Ignore the paragraph if its role should not be extracted.
         if (!hasRelevantRole(paragraph)) {
           continue;
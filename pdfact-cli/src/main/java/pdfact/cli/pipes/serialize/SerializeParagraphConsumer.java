@@ -0,0 +1,98 @@
+package pdfact.cli.pipes.serialize;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import pdfact.cli.util.exception.PdfActSerializeException;
+import pdfact.core.model.Paragraph;
+import pdfact.core.pipes.WindowedPdfActCorePipe.ParagraphConsumer;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * A {@link ParagraphConsumer} that serializes the paragraphs of a PDF document in TXT format as
+ * soon as they are finished, and writes the serializations to the serialization targets, so
+ * that the paragraphs don't need to be retained until the whole document is processed.
+ *
+ * Only the TXT format is supported, since the serializations in JSON and XML format contain
+ * sections about the whole document (like the used fonts, colors and pages) and are built as a
+ * whole.
+ *
+ * @author Claudius Korzen
+ */
+public class SerializeParagraphConsumer implements ParagraphConsumer, Closeable {
+  /**
+   * The serializer to use.
+   */
+  protected PdfTxtSerializer serializer;
+
+  /**
+   * The serialization target, given as a stream.
+   */
+  protected OutputStream targetStream;
+
+  /**
+   * The stream to the serialization target given as a file.
+   */
+  protected OutputStream targetPathStream;
+
+  // ==============================================================================================
+
+  /**
+   * Creates a new consumer that serializes the paragraphs by using the given serializer.
+   *
+   * @param serializer   The serializer to use.
+   * @param targetStream The serialization target, given as a stream (may be null).
+   * @param targetPath   The serialization target, given as a file (may be null).
+   *
+   * @throws PdfActSerializeException If the file to write to couldn't be opened.
+   */
+  public SerializeParagraphConsumer(PdfTxtSerializer serializer, OutputStream targetStream,
+      Path targetPath) throws PdfActSerializeException {
+    this.serializer = serializer;
+    this.targetStream = targetStream;
+    if (targetPath != null) {
+      try {
+        this.targetPathStream = Files.newOutputStream(targetPath);
+      } catch (IOException e) {
+        throw new PdfActSerializeException("Couldn't open file '" + targetPath + "'.", e);
+      }
+    }
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public void accept(Paragraph paragraph) throws PdfActException {
+    byte[] serialization = this.serializer.serialize(paragraph);
+    if (serialization.length == 0) {
+      return;
+    }
+
+    try {
+      if (this.targetStream != null) {
+        this.targetStream.write(serialization);
+      }
+      if (this.targetPathStream != null) {
+        this.targetPathStream.write(serialization);
+      }
+    } catch (IOException e) {
+      throw new PdfActSerializeException("Couldn't write the serialization.", e);
+    }
+  }
+
+  /**
+   * Flushes the stream given as serialization target and closes the file given as serialization
+   * target. The stream is not closed, since it is owned by the caller.
+   */
+  @Override
+  public void close() throws IOException {
+    if (this.targetStream != null) {
+      this.targetStream.flush();
+    }
+    if (this.targetPathStream != null) {
+      this.targetPathStream.close();
+    }
+  }
+}
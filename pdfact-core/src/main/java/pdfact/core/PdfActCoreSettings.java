@@ -26,6 +26,20 @@ public class PdfActCoreSettings {
 
   // ==============================================================================================
 
+  /**
+   * The minimum number of characters a block must contain in order to be cut in parallel by the
+   * XYCut. Smaller blocks are cut sequentially, since for them, the overhead of scheduling the
+   * tasks outweighs the gain.
+   */
+  public static final int XYCUT_PARALLELISM_THRESHOLD = 10000;
+
+  /**
+   * The minimum number of pages a document must contain in order to be tokenized page-parallel.
+   */
+  public static final int PAGE_PARALLELISM_THRESHOLD = 2;
+
+  // ==============================================================================================
+
   /**
    * The path to the AFM file.
    */
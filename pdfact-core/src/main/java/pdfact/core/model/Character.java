@@ -2,6 +2,7 @@ package pdfact.core.model;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
+import pdfact.core.util.lexicon.CharacterLexicon;
 
 /**
  * A single character in a document.
@@ -14,6 +15,11 @@ public class Character extends Element implements HasText, HasPosition, HasFontF
    */
   protected String text;
 
+  /**
+   * The class bits of this character (see {@link CharacterLexicon}), computed on setting the text.
+   */
+  protected int characterClasses;
+
   /**
    * The position of this character in the document.
    */
@@ -34,6 +40,13 @@ public class Character extends Element implements HasText, HasPosition, HasFontF
    */
   protected int extractionRank;
 
+  /**
+   * The identifier of the marked-content sequence (MCID) that contains this character, as
+   * referenced by the structure tree of a tagged PDF; -1 if the character isn't contained in such
+   * a sequence.
+   */
+  protected int mcid = -1;
+
   // ==============================================================================================
 
   public String getText() {
@@ -42,6 +55,16 @@ public class Character extends Element implements HasText, HasPosition, HasFontF
 
   public void setText(String text) {
     this.text = text;
+    this.characterClasses = CharacterLexicon.computeClasses(text);
+  }
+
+  /**
+   * Returns the class bits of this character, as defined in {@link CharacterLexicon}.
+   *
+   * @return The class bits of this character.
+   */
+  public int getCharacterClasses() {
+    return this.characterClasses;
   }
 
   // ==============================================================================================
@@ -86,6 +109,27 @@ public class Character extends Element implements HasText, HasPosition, HasFontF
 
   // ==============================================================================================
 
+  /**
+   * Returns the identifier of the marked-content sequence (MCID) that contains this character.
+   *
+   * @return The MCID of this character; -1 if the character isn't contained in a marked-content
+   *         sequence with an MCID.
+   */
+  public int getMcid() {
+    return this.mcid;
+  }
+
+  /**
+   * Sets the identifier of the marked-content sequence (MCID) that contains this character.
+   *
+   * @param mcid The MCID of this character; -1 if there is no such MCID.
+   */
+  public void setMcid(int mcid) {
+    this.mcid = mcid;
+  }
+
+  // ==============================================================================================
+
   @Override
   public String toString() {
     return "Character(" + getText() + ", " + getPosition() + ")";
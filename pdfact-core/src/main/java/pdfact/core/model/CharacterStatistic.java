@@ -1,11 +1,19 @@
 package pdfact.core.model;
 
+import java.util.List;
 import pdfact.core.util.counter.FloatCounter;
-import pdfact.core.util.counter.ObjectCounter;
+import pdfact.core.util.counter.IndexCounter;
+import pdfact.core.util.spill.CharacterSpillStore.SpilledCharacters;
 
 /**
  * A statistic about a collection of characters.
  * 
+ * A statistic can be computed lazily: If it is created from a collection of characters (or from
+ * a collection of other statistics to merge), the frequencies and the bounds are computed on
+ * their first access and cached afterwards. Each of the frequencies is computed independently,
+ * such that only those frequencies get computed that are actually used. As soon as all
+ * frequencies and bounds are computed, the sources are released.
+ *
  * @author Claudius Korzen
  */
 public class CharacterStatistic {
@@ -22,7 +30,7 @@ public class CharacterStatistic {
   /**
    * The font face frequencies.
    */
-  protected ObjectCounter<FontFace> fontFaceFrequencies;
+  protected IndexCounter<FontFace> fontFaceFrequencies;
 
   /**
    * The font size frequencies.
@@ -32,7 +40,7 @@ public class CharacterStatistic {
   /**
    * The color frequencies.
    */
-  protected ObjectCounter<Color> colorFrequencies;
+  protected IndexCounter<Color> colorFrequencies;
 
   /**
    * The smallest minX value.
@@ -54,6 +62,66 @@ public class CharacterStatistic {
    */
   protected float largestMaxY = -Float.MAX_VALUE;
 
+  /**
+   * The characters from which the frequencies and bounds are computed lazily; null if the
+   * statistic is not computed from characters.
+   */
+  protected Character[] characters;
+
+  /**
+   * The statistics from which the frequencies and bounds are merged lazily; null if the statistic
+   * is not computed from other statistics.
+   */
+  protected CharacterStatistic[] statistics;
+
+  /**
+   * The spilled characters from which the frequencies and bounds are computed lazily; null if the
+   * characters of this statistic are not spilled.
+   */
+  protected SpilledCharacters spilledCharacters;
+
+  /**
+   * The attributes of the characters from which the frequencies are computed lazily, if the
+   * characters themselves were released (see {@link #releaseCharacters()}); null otherwise.
+   */
+  protected CharacterAttributes attributes;
+
+  /**
+   * A flag that indicates whether the bounds (smallestMinX, smallestMinY, largestMaxX,
+   * largestMaxY) were already computed.
+   */
+  protected boolean isBoundsComputed;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new, empty statistic.
+   */
+  public CharacterStatistic() {
+    this.isBoundsComputed = true;
+  }
+
+  /**
+   * Creates a new statistic that is computed lazily from the given characters.
+   * 
+   * @param characters
+   *        The characters to compute the statistic for.
+   */
+  public CharacterStatistic(Character[] characters) {
+    this.characters = characters;
+  }
+
+  /**
+   * Creates a new statistic that is merged lazily from the given statistics.
+   * 
+   * @param statistics
+   *        The statistics to merge.
+   */
+  public CharacterStatistic(CharacterStatistic[] statistics) {
+    this.statistics = statistics;
+  }
+
   // ==============================================================================================
 
   /**
@@ -62,6 +130,25 @@ public class CharacterStatistic {
    * @return The height frequencies of the characters.
    */
   public FloatCounter getHeightFrequencies() {
+    if (this.heightFrequencies == null && hasSources()) {
+      readSpilledCharacters();
+      FloatCounter freqs = new FloatCounter();
+      if (this.attributes != null) {
+        for (float height : this.attributes.heights) {
+          freqs.add(height);
+        }
+      } else if (this.statistics == null) {
+        for (Character character : getSourceCharacters()) {
+          freqs.add(character.getPosition().getRectangle().getHeight());
+        }
+      } else {
+        for (CharacterStatistic statistic : this.statistics) {
+          freqs.add(statistic.getHeightFrequencies());
+        }
+      }
+      this.heightFrequencies = freqs;
+      releaseSourcesIfComputed();
+    }
     return this.heightFrequencies;
   }
 
@@ -82,10 +169,11 @@ public class CharacterStatistic {
    * @return The most common height of the characters.
    */
   public float getMostCommonHeight() {
-    if (this.heightFrequencies == null) {
+    FloatCounter freqs = getHeightFrequencies();
+    if (freqs == null) {
       return Float.NaN;
     }
-    return this.heightFrequencies.getMostCommonFloat();
+    return freqs.getMostCommonFloat();
   }
 
   /**
@@ -94,10 +182,11 @@ public class CharacterStatistic {
    * @return The average height of the characters.
    */
   public float getAverageHeight() {
-    if (this.heightFrequencies == null) {
+    FloatCounter freqs = getHeightFrequencies();
+    if (freqs == null) {
       return Float.NaN;
     }
-    return this.heightFrequencies.getAverageFloat();
+    return freqs.getAverageFloat();
   }
 
   // ==============================================================================================
@@ -108,6 +197,25 @@ public class CharacterStatistic {
    * @return The width frequencies of the characters.
    */
   public FloatCounter getWidthFrequencies() {
+    if (this.widthFrequencies == null && hasSources()) {
+      readSpilledCharacters();
+      FloatCounter freqs = new FloatCounter();
+      if (this.attributes != null) {
+        for (float width : this.attributes.widths) {
+          freqs.add(width);
+        }
+      } else if (this.statistics == null) {
+        for (Character character : getSourceCharacters()) {
+          freqs.add(character.getPosition().getRectangle().getWidth());
+        }
+      } else {
+        for (CharacterStatistic statistic : this.statistics) {
+          freqs.add(statistic.getWidthFrequencies());
+        }
+      }
+      this.widthFrequencies = freqs;
+      releaseSourcesIfComputed();
+    }
     return this.widthFrequencies;
   }
 
@@ -128,10 +236,11 @@ public class CharacterStatistic {
    * @return The most common width of the characters.
    */
   public float getMostCommonWidth() {
-    if (this.widthFrequencies == null) {
+    FloatCounter freqs = getWidthFrequencies();
+    if (freqs == null) {
       return Float.NaN;
     }
-    return this.widthFrequencies.getMostCommonFloat();
+    return freqs.getMostCommonFloat();
   }
 
   /**
@@ -140,10 +249,11 @@ public class CharacterStatistic {
    * @return The average width of the characters.
    */
   public float getAverageWidth() {
-    if (this.widthFrequencies == null) {
+    FloatCounter freqs = getWidthFrequencies();
+    if (freqs == null) {
       return Float.NaN;
     }
-    return this.widthFrequencies.getAverageFloat();
+    return freqs.getAverageFloat();
   }
 
   // ==============================================================================================
@@ -153,7 +263,26 @@ public class CharacterStatistic {
    * 
    * @return The font face frequencies of the characters.
    */
-  public ObjectCounter<FontFace> getFontFaceFrequencies() {
+  public IndexCounter<FontFace> getFontFaceFrequencies() {
+    if (this.fontFaceFrequencies == null && hasSources()) {
+      readSpilledCharacters();
+      IndexCounter<FontFace> freqs = new IndexCounter<>();
+      if (this.attributes != null) {
+        for (FontFace fontFace : this.attributes.fontFaces) {
+          freqs.add(fontFace);
+        }
+      } else if (this.statistics == null) {
+        for (Character character : getSourceCharacters()) {
+          freqs.add(character.getFontFace());
+        }
+      } else {
+        for (CharacterStatistic statistic : this.statistics) {
+          freqs.add(statistic.getFontFaceFrequencies());
+        }
+      }
+      this.fontFaceFrequencies = freqs;
+      releaseSourcesIfComputed();
+    }
     return this.fontFaceFrequencies;
   }
 
@@ -162,7 +291,7 @@ public class CharacterStatistic {
    * 
    * @param freqs The font face frequencies of the characters.
    */
-  public void setFontFaceFrequencies(ObjectCounter<FontFace> freqs) {
+  public void setFontFaceFrequencies(IndexCounter<FontFace> freqs) {
     this.fontFaceFrequencies = freqs;
   }
 
@@ -174,10 +303,11 @@ public class CharacterStatistic {
    * @return The most common font face of the characters.
    */
   public FontFace getMostCommonFontFace() {
-    if (this.fontFaceFrequencies == null) {
+    IndexCounter<FontFace> freqs = getFontFaceFrequencies();
+    if (freqs == null) {
       return null;
     }
-    return this.fontFaceFrequencies.getMostCommonObject();
+    return freqs.getMostCommonObject();
   }
 
   // ==============================================================================================
@@ -188,6 +318,25 @@ public class CharacterStatistic {
    * @return The font size frequencies of the characters.
    */
   public FloatCounter getFontSizeFrequencies() {
+    if (this.fontsizeFrequencies == null && hasSources()) {
+      readSpilledCharacters();
+      FloatCounter freqs = new FloatCounter();
+      if (this.attributes != null) {
+        for (FontFace fontFace : this.attributes.fontFaces) {
+          freqs.add(fontFace.getFontSize());
+        }
+      } else if (this.statistics == null) {
+        for (Character character : getSourceCharacters()) {
+          freqs.add(character.getFontFace().getFontSize());
+        }
+      } else {
+        for (CharacterStatistic statistic : this.statistics) {
+          freqs.add(statistic.getFontSizeFrequencies());
+        }
+      }
+      this.fontsizeFrequencies = freqs;
+      releaseSourcesIfComputed();
+    }
     return this.fontsizeFrequencies;
   }
 
@@ -208,10 +357,11 @@ public class CharacterStatistic {
    * @return The average font size of the characters.
    */
   public float getAverageFontsize() {
-    if (this.fontsizeFrequencies == null) {
+    FloatCounter freqs = getFontSizeFrequencies();
+    if (freqs == null) {
       return Float.NaN;
     }
-    return this.fontsizeFrequencies.getAverageFloat();
+    return freqs.getAverageFloat();
   }
 
   // ==============================================================================================
@@ -221,7 +371,26 @@ public class CharacterStatistic {
    * 
    * @return The color frequencies of the characters.
    */
-  public ObjectCounter<Color> getColorFrequencies() {
+  public IndexCounter<Color> getColorFrequencies() {
+    if (this.colorFrequencies == null && hasSources()) {
+      readSpilledCharacters();
+      IndexCounter<Color> freqs = new IndexCounter<>();
+      if (this.attributes != null) {
+        for (Color color : this.attributes.colors) {
+          freqs.add(color);
+        }
+      } else if (this.statistics == null) {
+        for (Character character : getSourceCharacters()) {
+          freqs.add(character.getColor());
+        }
+      } else {
+        for (CharacterStatistic statistic : this.statistics) {
+          freqs.add(statistic.getColorFrequencies());
+        }
+      }
+      this.colorFrequencies = freqs;
+      releaseSourcesIfComputed();
+    }
     return this.colorFrequencies;
   }
 
@@ -230,7 +399,7 @@ public class CharacterStatistic {
    * 
    * @param freqs The color frequencies of the characters.
    */
-  public void setColorFrequencies(ObjectCounter<Color> freqs) {
+  public void setColorFrequencies(IndexCounter<Color> freqs) {
     this.colorFrequencies = freqs;
   }
   // ==============================================================================================
@@ -241,10 +410,11 @@ public class CharacterStatistic {
    * @return The most common color of the characters.
    */
   public Color getMostCommonColor() {
-    if (this.colorFrequencies == null) {
+    IndexCounter<Color> freqs = getColorFrequencies();
+    if (freqs == null) {
       return null;
     }
-    return this.colorFrequencies.getMostCommonObject();
+    return freqs.getMostCommonObject();
   }
 
   // ==============================================================================================
@@ -255,6 +425,7 @@ public class CharacterStatistic {
    * @return The smallest minX value of the characters.
    */
   public float getSmallestMinX() {
+    computeBounds();
     return this.smallestMinX;
   }
 
@@ -264,6 +435,7 @@ public class CharacterStatistic {
    * @param minX The smallest minX value of the characters.
    */
   public void setSmallestMinX(float minX) {
+    computeBounds();
     this.smallestMinX = minX;
   }
 
@@ -275,6 +447,7 @@ public class CharacterStatistic {
    * @return The smallest minY value of the characters.
    */
   public float getSmallestMinY() {
+    computeBounds();
     return this.smallestMinY;
   }
 
@@ -284,6 +457,7 @@ public class CharacterStatistic {
    * @param minY The smallest minY value of the characters.
    */
   public void setSmallestMinY(float minY) {
+    computeBounds();
     this.smallestMinY = minY;
   }
 
@@ -295,6 +469,7 @@ public class CharacterStatistic {
    * @return The largest maxX value of the characters.
    */
   public float getLargestMaxX() {
+    computeBounds();
     return this.largestMaxX;
   }
 
@@ -304,6 +479,7 @@ public class CharacterStatistic {
    * @param maxX The largest maxX value of the characters.
    */
   public void setLargestMaxX(float maxX) {
+    computeBounds();
     this.largestMaxX = maxX;
   }
 
@@ -315,6 +491,7 @@ public class CharacterStatistic {
    * @return The largest maxY value of the characters.
    */
   public float getLargestMaxY() {
+    computeBounds();
     return this.largestMaxY;
   }
 
@@ -324,6 +501,275 @@ public class CharacterStatistic {
    * @param maxY The largest maxY value of the characters.
    */
   public void setLargestMaxY(float maxY) {
+    computeBounds();
     this.largestMaxY = maxY;
   }
+
+  // ==============================================================================================
+
+  /**
+   * Computes all frequencies and bounds of this statistic and releases the characters and
+   * statistics from which they were computed, so that this statistic no longer keeps them alive.
+   * This is only worth it for statistics that outlive their sources (for example, the statistic of
+   * a document that is processed in windows of pages), since the computed frequencies usually
+   * need more memory than the references to the sources.
+   */
+  public void releaseSources() {
+    getHeightFrequencies();
+    getWidthFrequencies();
+    getFontFaceFrequencies();
+    getFontSizeFrequencies();
+    getColorFrequencies();
+    computeBounds();
+
+    this.characters = null;
+    this.statistics = null;
+    this.spilledCharacters = null;
+    this.attributes = null;
+  }
+
+  /**
+   * Releases the characters from which this statistic is computed lazily (and the characters of
+   * the statistics from which it is merged), so that this statistic no longer keeps them alive.
+   * The bounds are computed beforehand. Of the frequencies left to compute, only the attributes of
+   * the characters they are computed from are kept, which need a fraction of the memory of the
+   * characters (and usually less memory than the computed frequencies; see
+   * {@link #releaseSources()}).
+   */
+  public void releaseCharacters() {
+    if (this.statistics != null) {
+      for (CharacterStatistic statistic : this.statistics) {
+        if (statistic != null) {
+          statistic.releaseCharacters();
+        }
+      }
+      return;
+    }
+    if (this.characters == null) {
+      return;
+    }
+
+    computeBounds();
+    if (this.characters == null) {
+      // All frequencies were computed, so the characters were released on computing the bounds.
+      return;
+    }
+
+    int numCharacters = this.characters.length;
+    CharacterAttributes attributes = new CharacterAttributes();
+    if (this.heightFrequencies == null) {
+      attributes.heights = new float[numCharacters];
+    }
+    if (this.widthFrequencies == null) {
+      attributes.widths = new float[numCharacters];
+    }
+    if (this.fontFaceFrequencies == null || this.fontsizeFrequencies == null) {
+      attributes.fontFaces = new FontFace[numCharacters];
+    }
+    if (this.colorFrequencies == null) {
+      attributes.colors = new Color[numCharacters];
+    }
+    for (int i = 0; i < numCharacters; i++) {
+      Character character = this.characters[i];
+      if (attributes.heights != null) {
+        attributes.heights[i] = character.getPosition().getRectangle().getHeight();
+      }
+      if (attributes.widths != null) {
+        attributes.widths[i] = character.getPosition().getRectangle().getWidth();
+      }
+      if (attributes.fontFaces != null) {
+        attributes.fontFaces[i] = character.getFontFace();
+      }
+      if (attributes.colors != null) {
+        attributes.colors[i] = character.getColor();
+      }
+    }
+    this.attributes = attributes;
+    this.characters = null;
+  }
+
+  /**
+   * Lets this statistic refer to the given spilled characters instead of to the characters from
+   * which it is computed lazily, if it is computed from the same characters as the given
+   * characters (of the element to which this statistic belongs) that were spilled, so that the
+   * characters are spilled only once. The spilled characters are read once, on computing the next
+   * frequency or bound (see {@link #readSpilledCharacters()}). If this statistic is computed from
+   * other characters (for example, because characters were removed from the element afterwards),
+   * its frequencies and bounds are computed eagerly instead. Statistics that are merged from other
+   * statistics are left untouched, since their sources are spilled with the elements to which
+   * they belong.
+   * 
+   * @param characters
+   *        The characters that were spilled.
+   * @param spilled
+   *        The spilled characters; null if the characters weren't spilled.
+   */
+  public void spillCharacters(List<Character> characters, SpilledCharacters spilled) {
+    if (this.characters == null) {
+      return;
+    }
+
+    if (spilled != null && isComputedFrom(characters)) {
+      this.spilledCharacters = spilled;
+      this.characters = null;
+    } else {
+      releaseSources();
+    }
+  }
+
+  /**
+   * Checks if this statistic is computed lazily from the given characters (the same character
+   * objects in the same order).
+   * 
+   * @param characters
+   *        The characters to check.
+   * 
+   * @return True if this statistic is computed from the given characters; false otherwise.
+   */
+  protected boolean isComputedFrom(List<Character> characters) {
+    if (this.characters == null || characters == null) {
+      return false;
+    }
+    if (this.characters.length != characters.size()) {
+      return false;
+    }
+    for (int i = 0; i < this.characters.length; i++) {
+      if (this.characters[i] != characters.get(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Reads the spilled characters from which this statistic is computed, if there are any. The
+   * characters are read only once: the bounds are computed right away and only the attributes
+   * of the characters needed by the frequencies left to compute are kept (see
+   * {@link #releaseCharacters()}).
+   */
+  protected void readSpilledCharacters() {
+    if (this.spilledCharacters == null) {
+      return;
+    }
+    this.characters = this.spilledCharacters.read().toArray(new Character[0]);
+    this.spilledCharacters = null;
+    releaseCharacters();
+  }
+
+  /**
+   * Checks if this statistic has sources from which the frequencies and bounds are computed.
+   * 
+   * @return True if this statistic has sources; false otherwise.
+   */
+  protected boolean hasSources() {
+    return this.characters != null || this.spilledCharacters != null || this.statistics != null
+        || this.attributes != null;
+  }
+
+  /**
+   * Returns the characters from which the frequencies and bounds are computed.
+   * 
+   * @return The characters from which the frequencies and bounds are computed.
+   */
+  protected Character[] getSourceCharacters() {
+    return this.characters != null ? this.characters : new Character[0];
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Computes the bounds of the characters, if they were not computed yet.
+   */
+  protected void computeBounds() {
+    if (this.isBoundsComputed) {
+      return;
+    }
+    if (this.spilledCharacters != null) {
+      // Reading the spilled characters computes the bounds.
+      readSpilledCharacters();
+      return;
+    }
+    this.isBoundsComputed = true;
+
+    if (this.characters != null) {
+      for (Character character : getSourceCharacters()) {
+        Rectangle rectangle = character.getPosition().getRectangle();
+        if (rectangle.getMinX() < this.smallestMinX) {
+          this.smallestMinX = rectangle.getMinX();
+        }
+        if (rectangle.getMinY() < this.smallestMinY) {
+          this.smallestMinY = rectangle.getMinY();
+        }
+        if (rectangle.getMaxX() > this.largestMaxX) {
+          this.largestMaxX = rectangle.getMaxX();
+        }
+        if (rectangle.getMaxY() > this.largestMaxY) {
+          this.largestMaxY = rectangle.getMaxY();
+        }
+      }
+    }
+
+    if (this.statistics != null) {
+      for (CharacterStatistic statistic : this.statistics) {
+        if (statistic.getSmallestMinX() < this.smallestMinX) {
+          this.smallestMinX = statistic.getSmallestMinX();
+        }
+        if (statistic.getSmallestMinY() < this.smallestMinY) {
+          this.smallestMinY = statistic.getSmallestMinY();
+        }
+        if (statistic.getLargestMaxX() > this.largestMaxX) {
+          this.largestMaxX = statistic.getLargestMaxX();
+        }
+        if (statistic.getLargestMaxY() > this.largestMaxY) {
+          this.largestMaxY = statistic.getLargestMaxY();
+        }
+      }
+    }
+    releaseSourcesIfComputed();
+  }
+
+  /**
+   * Releases the characters and statistics from which the frequencies and bounds are computed,
+   * if all frequencies and bounds are computed (and the sources are thus no longer needed).
+   */
+  protected void releaseSourcesIfComputed() {
+    if (this.heightFrequencies != null && this.widthFrequencies != null
+        && this.fontFaceFrequencies != null && this.fontsizeFrequencies != null
+        && this.colorFrequencies != null && this.isBoundsComputed) {
+      this.characters = null;
+      this.statistics = null;
+      this.spilledCharacters = null;
+      this.attributes = null;
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * The attributes of released characters from which the frequencies of a statistic are computed
+   * lazily. An attribute is null if the frequencies computed from it were already computed.
+   *
+   * @author Claudius Korzen
+   */
+  protected static class CharacterAttributes {
+    /**
+     * The heights of the characters.
+     */
+    protected float[] heights;
+
+    /**
+     * The widths of the characters.
+     */
+    protected float[] widths;
+
+    /**
+     * The font faces of the characters (which also give the font sizes).
+     */
+    protected FontFace[] fontFaces;
+
+    /**
+     * The colors of the characters.
+     */
+    protected Color[] colors;
+  }
 }
@@ -12,7 +12,7 @@ import org.apache.commons.lang3.builder.HashCodeBuilder;
  * 
  * @author Claudius Korzen
  */
-public class Color extends Resource {
+public class Color extends Resource implements HasIndex {
   /**
    * The name of this color.
    */
@@ -23,6 +23,11 @@ public class Color extends Resource {
    */
   protected int[] rgb;
 
+  /**
+   * The index of this color in the registry of the colors.
+   */
+  protected int index = -1;
+
   // ==============================================================================================
 
   /**
@@ -110,6 +115,18 @@ public class Color extends Resource {
 
   // ==============================================================================================
 
+  @Override
+  public int getIndex() {
+    return this.index;
+  }
+
+  @Override
+  public void setIndex(int index) {
+    this.index = index;
+  }
+
+  // ==============================================================================================
+
   @Override
   public String toString() {
     return "Color(" + Arrays.toString(this.rgb) + ")";
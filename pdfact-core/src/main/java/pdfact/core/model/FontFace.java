@@ -9,7 +9,7 @@ import org.apache.commons.lang3.builder.HashCodeBuilder;
  * 
  * @author Claudius Korzen
  */
-public class FontFace {
+public class FontFace implements HasIndex {
   /**
    * The font.
    */
@@ -20,6 +20,11 @@ public class FontFace {
    */
   protected float fontSize;
 
+  /**
+   * The index of this font face in the registry of the font faces.
+   */
+  protected int index = -1;
+
   // ==============================================================================================
 
   /**
@@ -75,6 +80,18 @@ public class FontFace {
 
   // ==============================================================================================
 
+  @Override
+  public int getIndex() {
+    return this.index;
+  }
+
+  @Override
+  public void setIndex(int index) {
+    this.index = index;
+  }
+
+  // ==============================================================================================
+
   @Override
   public String toString() {
     return "FontFace(" + this.font + ", " + this.fontSize + ")";
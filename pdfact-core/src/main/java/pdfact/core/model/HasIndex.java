@@ -0,0 +1,24 @@
+package pdfact.core.model;
+
+/**
+ * An interface to implement by resources that are managed by a registry (like font faces and
+ * colors) and get a dense integer id from it, that is: the number of resources registered before.
+ * Such ids allow to count resources by arrays instead of hash maps.
+ *
+ * @author Claudius Korzen
+ */
+public interface HasIndex {
+  /**
+   * Returns the index of this resource in its registry.
+   * 
+   * @return The index of this resource in its registry or -1 if the resource is not registered.
+   */
+  int getIndex();
+
+  /**
+   * Sets the index of this resource in its registry.
+   * 
+   * @param index The index of this resource in its registry.
+   */
+  void setIndex(int index);
+}
@@ -0,0 +1,45 @@
+package pdfact.core.model;
+
+/**
+ * An enumeration of the intermediate layers of a document that are needed to identify its
+ * structure, but that can be released once their last consumer in the pipeline has run, to reduce
+ * the memory retained per document.
+ *
+ * @author Claudius Korzen
+ */
+public enum IntermediateLayer {
+  /**
+   * The characters of the pages (and the spatial indexes over them). The characters themselves are
+   * still referenced by the text lines and words; the statistics of the pages keep only the
+   * attributes of the characters they need. The last consumer is the tokenization into text areas.
+   */
+  PAGE_CHARACTERS,
+
+  /**
+   * The text areas of the pages. The last consumer is the tokenization into text lines (or the
+   * tokenization into text blocks, if the structure tree of tagged PDFs is used).
+   */
+  TEXT_AREAS,
+
+  /**
+   * The statistics about the characters of the individual text lines. The last consumer is the
+   * tokenization into text blocks (the statistics of the text blocks, which are merged from the
+   * statistics of the text lines, are computed beforehand and kept).
+   */
+  TEXT_LINE_STATISTICS,
+
+  /**
+   * The characters of the text lines and words. The texts, positions and statistics of the words
+   * are kept; the statistics computed lazily from the characters keep only the attributes of the
+   * characters they need. The last consumer is the dehyphenation of the words, or the
+   * serialization and visualization, if the characters are to be extracted.
+   */
+  CHARACTERS,
+
+  /**
+   * The materialized texts of the words, text lines, text blocks and paragraphs that are views of
+   * the texts of other elements (see {@link pdfact.core.util.JoinedText}). The texts are recomputed
+   * on their next access. The last consumer is the serialization.
+   */
+  TEXTS;
+}
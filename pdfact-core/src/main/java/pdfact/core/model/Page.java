@@ -1,9 +1,15 @@
 package pdfact.core.model;
 
+import java.util.List;
+
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
+import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.index.SpatialIndex;
 import pdfact.core.util.list.ElementList;
+import pdfact.core.util.spill.CharacterSpillStore;
+import pdfact.core.util.spill.CharacterSpillStore.SpilledCharacters;
 
 /**
  * A page in a document.
@@ -18,6 +24,12 @@ public class Page implements HasCharacters, HasFigures, HasShapes, HasTextAreas,
    */
   protected ElementList<Character> characters;
 
+  /**
+   * The characters of this page, if they were spilled to a {@link CharacterSpillStore}; null
+   * otherwise.
+   */
+  protected SpilledCharacters spilledCharacters;
+
   /**
    * The figures of this page.
    */
@@ -68,6 +80,67 @@ public class Page implements HasCharacters, HasFigures, HasShapes, HasTextAreas,
    */
   protected TextLineStatistic textLineStatistic;
 
+  /**
+   * The spatial index over the characters of this page, built on the first request.
+   */
+  protected SpatialIndex<Character> characterIndex;
+
+  /**
+   * The modification count of the list of characters at the time the spatial index over the
+   * characters was built.
+   */
+  protected int characterIndexModificationCount;
+
+  /**
+   * The spatial index over the figures of this page, built on the first request.
+   */
+  protected SpatialIndex<Figure> figureIndex;
+
+  /**
+   * The modification count of the list of figures at the time the spatial index over the
+   * figures was built.
+   */
+  protected int figureIndexModificationCount;
+
+  /**
+   * The spatial index over the shapes of this page, built on the first request.
+   */
+  protected SpatialIndex<Shape> shapeIndex;
+
+  /**
+   * The modification count of the list of shapes at the time the spatial index over the
+   * shapes was built.
+   */
+  protected int shapeIndexModificationCount;
+
+  /**
+   * The spatial index over the text lines of this page, built on the first request.
+   */
+  protected SpatialIndex<TextLine> textLineIndex;
+
+  /**
+   * The modification count of the list of text lines at the time the spatial index over the
+   * text lines was built.
+   */
+  protected int textLineIndexModificationCount;
+
+  /**
+   * The spatial index over the text blocks of this page, built on the first request.
+   */
+  protected SpatialIndex<TextBlock> textBlockIndex;
+
+  /**
+   * The modification count of the list of text blocks at the time the spatial index over the
+   * text blocks was built.
+   */
+  protected int textBlockIndexModificationCount;
+
+  /**
+   * The block-level elements of the structure tree on this page, in reading order; null if the
+   * page isn't tagged or its structure tree isn't usable.
+   */
+  protected List<TaggedBlock> taggedBlocks;
+
   // ==============================================================================================
 
   /**
@@ -96,32 +169,107 @@ public class Page implements HasCharacters, HasFigures, HasShapes, HasTextAreas,
 
   @Override
   public ElementList<Character> getCharacters() {
+    if (this.spilledCharacters != null) {
+      return this.spilledCharacters.read();
+    }
     return this.characters;
   }
 
   @Override
   public Character getFirstCharacter() {
-    return this.characters.getFirstElement();
+    return getCharacters().getFirstElement();
   }
 
   @Override
   public Character getLastCharacter() {
-    return this.characters.getLastElement();
+    return getCharacters().getLastElement();
   }
 
   @Override
   public void setCharacters(ElementList<Character> characters) {
     this.characters = characters;
+    this.spilledCharacters = null;
+    this.characterIndex = null;
   }
 
   @Override
   public void addCharacters(ElementList<Character> characters) {
+    checkNotSpilled();
     this.characters.addAll(characters);
+    this.characterIndex = null;
   }
 
   @Override
   public void addCharacter(Character character) {
+    checkNotSpilled();
     this.characters.add(character);
+    this.characterIndex = null;
+  }
+
+  /**
+   * Spills the characters of this page to the given store, such that they don't occupy the heap.
+   * The spatial index over the characters is released. The statistic of this page refers to the
+   * spilled characters if it is computed from the same characters, and is computed eagerly
+   * otherwise (see {@link CharacterStatistic#spillCharacters(java.util.List, SpilledCharacters)}).
+   * The characters are read from the store again on each call of {@link #getCharacters()}, as new
+   * objects in an unmodifiable list; adding characters to this page fails afterwards, they can
+   * only be replaced by {@link #setCharacters(ElementList)}.
+   * 
+   * @param store
+   *        The store to which the characters should be spilled.
+   * 
+   * @throws PdfActException
+   *         If the characters couldn't be spilled.
+   */
+  public void spillCharacters(CharacterSpillStore store) throws PdfActException {
+    SpilledCharacters spilled = null;
+    if (this.characters != null && !this.characters.isEmpty()) {
+      spilled = store.spill(this.characters);
+    }
+    // The statistic is computed on parsing, from characters that may have been removed since.
+    if (this.characterStatistic != null) {
+      this.characterStatistic.spillCharacters(this.characters, spilled);
+    }
+    if (spilled != null) {
+      this.spilledCharacters = spilled;
+      this.characters = null;
+      this.characterIndex = null;
+    }
+  }
+
+  /**
+   * Checks that the characters of this page weren't spilled, since the spilled characters
+   * can't be modified (reading them back from the store would occupy the heap again).
+   * 
+   * @throws IllegalStateException
+   *         If the characters of this page were spilled.
+   */
+  protected void checkNotSpilled() {
+    if (this.spilledCharacters != null) {
+      throw new IllegalStateException("The characters of this page were spilled.");
+    }
+  }
+
+  /**
+   * Returns a spatial index over the characters of this page. The index is built on the first
+   * call and rebuilt after the list of characters of this page was replaced or modified in any way
+   * (see {@link ElementList#getModificationCount()}). Note that the index does not notice
+   * changes of the positions of the indexed characters. If the characters of this page were
+   * spilled, the index is built over the characters read from the store on each call and is not
+   * kept, so that the characters don't occupy the heap again.
+   *
+   * @return The spatial index over the characters of this page.
+   */
+  public SpatialIndex<Character> getCharacterIndex() {
+    if (this.spilledCharacters != null) {
+      return new SpatialIndex<>(this.spilledCharacters.read());
+    }
+    int modificationCount = this.characters.getModificationCount();
+    if (this.characterIndex == null || this.characterIndexModificationCount != modificationCount) {
+      this.characterIndex = new SpatialIndex<>(this.characters);
+      this.characterIndexModificationCount = modificationCount;
+    }
+    return this.characterIndex;
   }
 
   // ==============================================================================================
@@ -144,16 +292,36 @@ public class Page implements HasCharacters, HasFigures, HasShapes, HasTextAreas,
   @Override
   public void setFigures(ElementList<Figure> figures) {
     this.figures = figures;
+    this.figureIndex = null;
   }
 
   @Override
   public void addFigures(ElementList<Figure> figures) {
     this.figures.addAll(figures);
+    this.figureIndex = null;
   }
 
   @Override
   public void addFigure(Figure figure) {
     this.figures.add(figure);
+    this.figureIndex = null;
+  }
+
+  /**
+   * Returns a spatial index over the figures of this page. The index is built on the first
+   * call and rebuilt after the list of figures of this page was replaced or modified in any way
+   * (see {@link ElementList#getModificationCount()}). Note that the index does not notice
+   * changes of the positions of the indexed figures.
+   *
+   * @return The spatial index over the figures of this page.
+   */
+  public SpatialIndex<Figure> getFigureIndex() {
+    int modificationCount = this.figures.getModificationCount();
+    if (this.figureIndex == null || this.figureIndexModificationCount != modificationCount) {
+      this.figureIndex = new SpatialIndex<>(this.figures);
+      this.figureIndexModificationCount = modificationCount;
+    }
+    return this.figureIndex;
   }
 
   // ==============================================================================================
@@ -176,16 +344,36 @@ public class Page implements HasCharacters, HasFigures, HasShapes, HasTextAreas,
   @Override
   public void setShapes(ElementList<Shape> shapes) {
     this.shapes = shapes;
+    this.shapeIndex = null;
   }
 
   @Override
   public void addShapes(ElementList<Shape> shapes) {
     this.shapes.addAll(shapes);
+    this.shapeIndex = null;
   }
 
   @Override
   public void addShape(Shape shape) {
     this.shapes.add(shape);
+    this.shapeIndex = null;
+  }
+
+  /**
+   * Returns a spatial index over the shapes of this page. The index is built on the first
+   * call and rebuilt after the list of shapes of this page was replaced or modified in any way
+   * (see {@link ElementList#getModificationCount()}). Note that the index does not notice
+   * changes of the positions of the indexed shapes.
+   *
+   * @return The spatial index over the shapes of this page.
+   */
+  public SpatialIndex<Shape> getShapeIndex() {
+    int modificationCount = this.shapes.getModificationCount();
+    if (this.shapeIndex == null || this.shapeIndexModificationCount != modificationCount) {
+      this.shapeIndex = new SpatialIndex<>(this.shapes);
+      this.shapeIndexModificationCount = modificationCount;
+    }
+    return this.shapeIndex;
   }
 
   // ==============================================================================================
@@ -240,16 +428,36 @@ public class Page implements HasCharacters, HasFigures, HasShapes, HasTextAreas,
   @Override
   public void setTextLines(ElementList<TextLine> textLines) {
     this.textLines = textLines;
+    this.textLineIndex = null;
   }
 
   @Override
   public void addTextLines(ElementList<TextLine> textLines) {
     this.textLines.addAll(textLines);
+    this.textLineIndex = null;
   }
 
   @Override
   public void addTextLine(TextLine textLine) {
     this.textLines.add(textLine);
+    this.textLineIndex = null;
+  }
+
+  /**
+   * Returns a spatial index over the text lines of this page. The index is built on the first
+   * call and rebuilt after the list of text lines of this page was replaced or modified in any way
+   * (see {@link ElementList#getModificationCount()}). Note that the index does not notice
+   * changes of the positions of the indexed text lines.
+   *
+   * @return The spatial index over the text lines of this page.
+   */
+  public SpatialIndex<TextLine> getTextLineIndex() {
+    int modificationCount = this.textLines.getModificationCount();
+    if (this.textLineIndex == null || this.textLineIndexModificationCount != modificationCount) {
+      this.textLineIndex = new SpatialIndex<>(this.textLines);
+      this.textLineIndexModificationCount = modificationCount;
+    }
+    return this.textLineIndex;
   }
 
   // ==============================================================================================
@@ -272,16 +480,60 @@ public class Page implements HasCharacters, HasFigures, HasShapes, HasTextAreas,
   @Override
   public void setTextBlocks(ElementList<TextBlock> blocks) {
     this.textBlocks = blocks;
+    this.textBlockIndex = null;
   }
 
   @Override
   public void addTextBlocks(ElementList<TextBlock> blocks) {
     this.textBlocks.addAll(blocks);
+    this.textBlockIndex = null;
   }
 
   @Override
   public void addTextBlock(TextBlock block) {
     this.textBlocks.add(block);
+    this.textBlockIndex = null;
+  }
+
+  /**
+   * Returns a spatial index over the text blocks of this page. The index is built on the first
+   * call and rebuilt after the list of text blocks of this page was replaced or modified in any way
+   * (see {@link ElementList#getModificationCount()}). Note that the index does not notice
+   * changes of the positions of the indexed text blocks.
+   *
+   * @return The spatial index over the text blocks of this page.
+   */
+  public SpatialIndex<TextBlock> getTextBlockIndex() {
+    int modificationCount = this.textBlocks.getModificationCount();
+    if (this.textBlockIndex == null || this.textBlockIndexModificationCount != modificationCount) {
+      this.textBlockIndex = new SpatialIndex<>(this.textBlocks);
+      this.textBlockIndexModificationCount = modificationCount;
+    }
+    return this.textBlockIndex;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the block-level elements of the structure tree on this page.
+   *
+   * @return The block-level elements of the structure tree on this page, in reading order; null
+   *         if the page isn't tagged or its structure tree isn't usable.
+   */
+  public List<TaggedBlock> getTaggedBlocks() {
+    return this.taggedBlocks;
+  }
+
+  /**
+   * Sets the block-level elements of the structure tree on this page. If set, the text areas and
+   * text blocks of this page are created from the elements instead of from the geometry of the
+   * characters.
+   *
+   * @param blocks The block-level elements of the structure tree on this page, in reading order;
+   *               null if the page isn't tagged or its structure tree isn't usable.
+   */
+  public void setTaggedBlocks(List<TaggedBlock> blocks) {
+    this.taggedBlocks = blocks;
   }
 
   // ==============================================================================================
@@ -6,6 +6,7 @@ import org.apache.commons.lang3.NotImplementedException;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
+import pdfact.core.util.JoinedText;
 import pdfact.core.util.list.ElementList;
 
 /**
@@ -22,7 +23,7 @@ public class Paragraph extends Element implements HasWords, HasText, HasPosition
   /**
    * The text of this paragraph.
    */
-  protected String text;
+  protected CharSequence text;
 
   /**
    * The positions of this paragraph.
@@ -44,6 +45,11 @@ public class Paragraph extends Element implements HasWords, HasText, HasPosition
    */
   protected CharacterStatistic characterStatistic;
 
+  /**
+   * The number of characters in the words of this paragraph, maintained on adding words.
+   */
+  protected int numCharacters;
+
   // ==============================================================================================
 
   /**
@@ -79,23 +85,54 @@ public class Paragraph extends Element implements HasWords, HasText, HasPosition
   @Override
   public void setWords(ElementList<Word> words) {
     this.words = words;
+    this.numCharacters = 0;
+    if (words != null) {
+      for (Word word : words) {
+        updateAggregates(word);
+      }
+    }
   }
 
   @Override
   public void addWords(ElementList<Word> words) {
     this.words.addAll(words);
+    for (Word word : words) {
+      updateAggregates(word);
+    }
   }
 
   @Override
   public void addWord(Word word) {
     this.words.add(word);
+    updateAggregates(word);
+  }
+
+  /**
+   * Updates the number of characters of this paragraph by the given word.
+   * 
+   * @param word
+   *        The word added to this paragraph.
+   */
+  protected void updateAggregates(Word word) {
+    if (word != null) {
+      this.numCharacters += word.getNumCharacters();
+    }
+  }
+
+  /**
+   * Returns the number of characters in the words of this paragraph.
+   * 
+   * @return The number of characters in the words of this paragraph.
+   */
+  public int getNumCharacters() {
+    return this.numCharacters;
   }
 
   // ==============================================================================================
 
   @Override
   public String getText() {
-    return this.text;
+    return this.text != null ? this.text.toString() : null;
   }
 
   @Override
@@ -103,6 +140,32 @@ public class Paragraph extends Element implements HasWords, HasText, HasPosition
     this.text = text;
   }
 
+  /**
+   * Sets the text of this paragraph, given as a character sequence that is materialized on the
+   * first call of {@link #getText()} (for example, a {@link JoinedText}).
+   * 
+   * @param text
+   *        The text of this paragraph.
+   */
+  public void setText(CharSequence text) {
+    this.text = text;
+  }
+
+  /**
+   * Releases the text of this paragraph, if it is a materialized view of the texts of other elements
+   * (see {@link JoinedText}), such that it can be garbage collected. It will be recomputed on the
+   * next call of {@link #getText()}.
+   *
+   * @return True if the text was materialized and is released now; false otherwise.
+   */
+  public boolean releaseText() {
+    if (this.text instanceof JoinedText && ((JoinedText) this.text).isMaterialized()) {
+      ((JoinedText) this.text).release();
+      return true;
+    }
+    return false;
+  }
+
   // ==============================================================================================
 
   @Override
@@ -215,7 +278,7 @@ public class Paragraph extends Element implements HasWords, HasText, HasPosition
 
   @Override
   public Color getColor() {
-    return this.characterStatistic.colorFrequencies.getMostCommonObject();
+    return this.characterStatistic.getColorFrequencies().getMostCommonObject();
   }
 
   @Override
@@ -225,7 +288,7 @@ public class Paragraph extends Element implements HasWords, HasText, HasPosition
 
   @Override
   public FontFace getFontFace() {
-    return this.characterStatistic.fontFaceFrequencies.getMostCommonObject();
+    return this.characterStatistic.getFontFaceFrequencies().getMostCommonObject();
   }
 
   @Override
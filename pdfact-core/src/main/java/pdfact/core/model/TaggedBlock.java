@@ -0,0 +1,138 @@
+package pdfact.core.model;
+
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
+
+/**
+ * A block-level element of the structure tree of a tagged PDF (for example, a paragraph or a
+ * heading), given by the marked-content sequences on a single page that belong to the element.
+ * The marked-content sequences are identified by their marked-content identifiers (MCIDs),
+ * which are unique per page.
+ *
+ * @author Claudius Korzen
+ */
+public class TaggedBlock {
+  /**
+   * The (standard) structure type of the element, for example "P" or "H1".
+   */
+  protected String structureType;
+
+  /**
+   * The semantic role implied by the structure type; null if the structure type doesn't imply a
+   * role (like "P", which can be body text as well as a caption, depending on the producer).
+   */
+  protected SemanticRole role;
+
+  /**
+   * The MCIDs of the marked-content sequences that belong to the element.
+   */
+  protected TIntSet mcids;
+
+  /**
+   * The block of the same element on a previous page, if the element spans more than one page;
+   * null if the element starts on the page of this block.
+   */
+  protected TaggedBlock previousBlock;
+
+  /**
+   * Creates a new tagged block.
+   *
+   * @param structureType The (standard) structure type of the element.
+   * @param role          The semantic role implied by the structure type; null if there is no
+   *                      such role.
+   */
+  public TaggedBlock(String structureType, SemanticRole role) {
+    this.structureType = structureType;
+    this.role = role;
+    this.mcids = new TIntHashSet();
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the (standard) structure type of the element.
+   *
+   * @return The structure type of the element.
+   */
+  public String getStructureType() {
+    return this.structureType;
+  }
+
+  /**
+   * Sets the (standard) structure type of the element.
+   *
+   * @param structureType The structure type of the element.
+   */
+  public void setStructureType(String structureType) {
+    this.structureType = structureType;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the semantic role implied by the structure type.
+   *
+   * @return The semantic role implied by the structure type; null if there is no such role.
+   */
+  public SemanticRole getSemanticRole() {
+    return this.role;
+  }
+
+  /**
+   * Sets the semantic role implied by the structure type.
+   *
+   * @param role The semantic role implied by the structure type; null if there is no such role.
+   */
+  public void setSemanticRole(SemanticRole role) {
+    this.role = role;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the MCIDs of the marked-content sequences that belong to the element.
+   *
+   * @return The MCIDs of the marked-content sequences.
+   */
+  public TIntSet getMcids() {
+    return this.mcids;
+  }
+
+  /**
+   * Adds the given MCID of a marked-content sequence that belongs to the element.
+   *
+   * @param mcid The MCID to add.
+   */
+  public void addMcid(int mcid) {
+    this.mcids.add(mcid);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the block of the same element on a previous page.
+   *
+   * @return The block of the same element on a previous page; null if the element starts on the
+   *         page of this block.
+   */
+  public TaggedBlock getPreviousBlock() {
+    return this.previousBlock;
+  }
+
+  /**
+   * Sets the block of the same element on a previous page.
+   *
+   * @param block The block of the same element on a previous page; null if the element starts on
+   *              the page of this block.
+   */
+  public void setPreviousBlock(TaggedBlock block) {
+    this.previousBlock = block;
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public String toString() {
+    return "TaggedBlock(" + this.structureType + ", " + this.role + ", " + this.mcids + ")";
+  }
+}
@@ -1,6 +1,9 @@
 package pdfact.core.model;
 
+import pdfact.core.util.exception.PdfActException;
 import pdfact.core.util.list.ElementList;
+import pdfact.core.util.spill.CharacterSpillStore;
+import pdfact.core.util.spill.CharacterSpillStore.SpilledCharacters;
 
 /**
  * A text area in a document. A text area has no strict definition. Mainly,
@@ -15,6 +18,12 @@ public class TextArea extends Element implements HasCharacters, HasPosition {
    */
   protected ElementList<Character> characters;
 
+  /**
+   * The characters of this text area, if they were spilled to a {@link CharacterSpillStore}; null
+   * otherwise.
+   */
+  protected SpilledCharacters spilledCharacters;
+
   /**
    * The position of this text area.
    */
@@ -25,6 +34,12 @@ public class TextArea extends Element implements HasCharacters, HasPosition {
    */
   protected CharacterStatistic characterStatistic;
 
+  /**
+   * The block-level element of the structure tree from which this text area was created; null if
+   * the text area was detected from the geometry of the characters.
+   */
+  protected TaggedBlock taggedBlock;
+
   /**
    * The default constructor.
    */
@@ -36,40 +51,90 @@ public class TextArea extends Element implements HasCharacters, HasPosition {
 
   @Override
   public ElementList<Character> getCharacters() {
+    if (this.spilledCharacters != null) {
+      return this.spilledCharacters.read();
+    }
     return this.characters;
   }
 
   @Override
   public Character getFirstCharacter() {
-    if (this.characters == null || this.characters.isEmpty()) {
+    ElementList<Character> characters = getCharacters();
+    if (characters == null || characters.isEmpty()) {
       return null;
     }
-    return this.characters.get(0);
+    return characters.get(0);
   }
 
   @Override
   public Character getLastCharacter() {
-    if (this.characters == null || this.characters.isEmpty()) {
+    ElementList<Character> characters = getCharacters();
+    if (characters == null || characters.isEmpty()) {
       return null;
     }
-    return this.characters.get(this.characters.size() - 1);
+    return characters.get(characters.size() - 1);
   }
 
   @Override
   public void setCharacters(ElementList<Character> characters) {
     this.characters = characters;
+    this.spilledCharacters = null;
   }
 
   @Override
   public void addCharacters(ElementList<Character> characters) {
+    checkNotSpilled();
     this.characters.addAll(characters);
   }
 
   @Override
   public void addCharacter(Character character) {
+    checkNotSpilled();
     this.characters.add(character);
   }
 
+  /**
+   * Spills the characters of this text area to the given store, such that they don't occupy the
+   * heap. The statistic of this text area refers to the spilled characters (see
+   * {@link CharacterStatistic#spillCharacters(java.util.List, SpilledCharacters)}). The characters
+   * are read from the store again on each call of {@link #getCharacters()}, as new objects in an
+   * unmodifiable list; adding characters to this text area fails afterwards, they can only be
+   * replaced by {@link #setCharacters(ElementList)}.
+   * 
+   * @param store
+   *        The store to which the characters should be spilled.
+   * 
+   * @throws PdfActException
+   *         If the characters couldn't be spilled.
+   */
+  public void spillCharacters(CharacterSpillStore store) throws PdfActException {
+    SpilledCharacters spilled = null;
+    if (this.characters != null && !this.characters.isEmpty()) {
+      spilled = store.spill(this.characters);
+    }
+    // The statistic may be computed from characters that were removed from this text area.
+    if (this.characterStatistic != null) {
+      this.characterStatistic.spillCharacters(this.characters, spilled);
+    }
+    if (spilled != null) {
+      this.spilledCharacters = spilled;
+      this.characters = null;
+    }
+  }
+
+  /**
+   * Checks that the characters of this text area weren't spilled, since the spilled characters
+   * can't be modified (reading them back from the store would occupy the heap again).
+   * 
+   * @throws IllegalStateException
+   *         If the characters of this text area were spilled.
+   */
+  protected void checkNotSpilled() {
+    if (this.spilledCharacters != null) {
+      throw new IllegalStateException("The characters of this text area were spilled.");
+    }
+  }
+
   // ==============================================================================================
 
   @Override
@@ -93,4 +158,26 @@ public class TextArea extends Element implements HasCharacters, HasPosition {
   public void setPosition(Position position) {
     this.position = position;
   }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the block-level element of the structure tree from which this text area was created.
+   *
+   * @return The tagged block; null if the text area was detected from the geometry of the
+   *         characters.
+   */
+  public TaggedBlock getTaggedBlock() {
+    return this.taggedBlock;
+  }
+
+  /**
+   * Sets the block-level element of the structure tree from which this text area was created.
+   *
+   * @param block The tagged block; null if the text area was detected from the geometry of the
+   *              characters.
+   */
+  public void setTaggedBlock(TaggedBlock block) {
+    this.taggedBlock = block;
+  }
 }
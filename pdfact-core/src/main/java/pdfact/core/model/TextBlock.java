@@ -3,6 +3,7 @@ package pdfact.core.model;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
+import pdfact.core.util.JoinedText;
 import pdfact.core.util.list.ElementList;
 
 /**
@@ -22,7 +23,7 @@ public class TextBlock extends Element implements HasTextLines, HasText, HasPosi
   /**
    * The text of this text block.
    */
-  protected String text;
+  protected CharSequence text;
 
   /**
    * The position of this text block.
@@ -49,11 +50,29 @@ public class TextBlock extends Element implements HasTextLines, HasText, HasPosi
    */
   protected TextLineStatistic textLineStatistic;
 
+  /**
+   * The bounding box around the text lines of this text block, maintained on adding text lines.
+   */
+  protected Rectangle textLinesRectangle;
+
+  /**
+   * The number of characters in the text lines of this text block, maintained on adding text
+   * lines.
+   */
+  protected int numCharacters;
+
+  /**
+   * The block-level element of the structure tree from which this text block was created; null if
+   * the text block was detected from the geometry of the text lines.
+   */
+  protected TaggedBlock taggedBlock;
+
   /**
    * Creates a new text block.
    */
   public TextBlock() {
     this.textLines = new ElementList<>();
+    this.textLinesRectangle = Rectangle.fromUnion();
   }
 
   // ==============================================================================================
@@ -82,23 +101,77 @@ public class TextBlock extends Element implements HasTextLines, HasText, HasPosi
   @Override
   public void setTextLines(ElementList<TextLine> textLines) {
     this.textLines = textLines;
+    this.textLinesRectangle = Rectangle.fromUnion();
+    this.numCharacters = 0;
+    if (textLines != null) {
+      for (TextLine textLine : textLines) {
+        updateAggregates(textLine);
+      }
+    }
   }
 
   @Override
   public void addTextLines(ElementList<TextLine> textLines) {
     this.textLines.addAll(textLines);
+    for (TextLine textLine : textLines) {
+      updateAggregates(textLine);
+    }
   }
 
   @Override
   public void addTextLine(TextLine word) {
     this.textLines.add(word);
+    updateAggregates(word);
+  }
+
+  /**
+   * Updates the bounding box and the number of characters of this text block by the given text
+   * line.
+   * 
+   * @param textLine
+   *        The text line added to this text block.
+   */
+  protected void updateAggregates(TextLine textLine) {
+    if (textLine == null) {
+      return;
+    }
+    Position position = textLine.getPosition();
+    if (position != null) {
+      this.textLinesRectangle.extend(position.getRectangle());
+    }
+    ElementList<Character> characters = textLine.getCharacters();
+    if (characters != null) {
+      this.numCharacters += characters.size();
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the bounding box around the text lines of this text block, as it was computed on
+   * adding the text lines (in constant time). The returned rectangle is updated when further text
+   * lines are added, so it must not be modified.
+   * 
+   * @return The bounding box around the text lines of this text block.
+   */
+  public Rectangle getTextLinesRectangle() {
+    return this.textLinesRectangle;
+  }
+
+  /**
+   * Returns the number of characters in the text lines of this text block.
+   * 
+   * @return The number of characters in the text lines of this text block.
+   */
+  public int getNumCharacters() {
+    return this.numCharacters;
   }
 
   // ==============================================================================================
 
   @Override
   public String getText() {
-    return this.text;
+    return this.text != null ? this.text.toString() : null;
   }
 
   @Override
@@ -106,6 +179,32 @@ public class TextBlock extends Element implements HasTextLines, HasText, HasPosi
     this.text = text;
   }
 
+  /**
+   * Sets the text of this text block, given as a character sequence that is materialized on the
+   * first call of {@link #getText()} (for example, a {@link JoinedText}).
+   * 
+   * @param text
+   *        The text of this text block.
+   */
+  public void setText(CharSequence text) {
+    this.text = text;
+  }
+
+  /**
+   * Releases the text of this text block, if it is a materialized view of the texts of other elements
+   * (see {@link JoinedText}), such that it can be garbage collected. It will be recomputed on the
+   * next call of {@link #getText()}.
+   *
+   * @return True if the text was materialized and is released now; false otherwise.
+   */
+  public boolean releaseText() {
+    if (this.text instanceof JoinedText && ((JoinedText) this.text).isMaterialized()) {
+      ((JoinedText) this.text).release();
+      return true;
+    }
+    return false;
+  }
+
   // ==============================================================================================
 
   @Override
@@ -168,6 +267,28 @@ public class TextBlock extends Element implements HasTextLines, HasText, HasPosi
 
   // ==============================================================================================
 
+  /**
+   * Returns the block-level element of the structure tree from which this text block was created.
+   *
+   * @return The tagged block; null if the text block was detected from the geometry of the text
+   *         lines.
+   */
+  public TaggedBlock getTaggedBlock() {
+    return this.taggedBlock;
+  }
+
+  /**
+   * Sets the block-level element of the structure tree from which this text block was created.
+   *
+   * @param block The tagged block; null if the text block was detected from the geometry of the
+   *              text lines.
+   */
+  public void setTaggedBlock(TaggedBlock block) {
+    this.taggedBlock = block;
+  }
+
+  // ==============================================================================================
+
   @Override
   public String toString() {
     return "TextBlock(pos: " + getPosition() + ")";
@@ -1,6 +1,10 @@
 package pdfact.core.model;
 
+import pdfact.core.util.JoinedText;
+import pdfact.core.util.exception.PdfActException;
 import pdfact.core.util.list.ElementList;
+import pdfact.core.util.spill.CharacterSpillStore;
+import pdfact.core.util.spill.CharacterSpillStore.SpilledCharacters;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
@@ -16,6 +20,12 @@ public class TextLine extends Element implements HasCharacters, HasWords, HasTex
    */
   protected ElementList<Character> characters;
 
+  /**
+   * The characters of this text line, if they were spilled to a {@link CharacterSpillStore}; null
+   * otherwise.
+   */
+  protected SpilledCharacters spilledCharacters;
+
   /**
    * The words of this text line.
    */
@@ -24,7 +34,7 @@ public class TextLine extends Element implements HasCharacters, HasWords, HasTex
   /**
    * The text of this text line.
    */
-  protected String text;
+  protected CharSequence text;
 
   /**
    * The position of this text line.
@@ -55,40 +65,129 @@ public class TextLine extends Element implements HasCharacters, HasWords, HasTex
 
   @Override
   public ElementList<Character> getCharacters() {
+    if (this.spilledCharacters != null) {
+      return this.spilledCharacters.read();
+    }
     return this.characters;
   }
 
   @Override
   public Character getFirstCharacter() {
-    if (this.characters == null || this.characters.isEmpty()) {
+    ElementList<Character> characters = getCharacters();
+    if (characters == null || characters.isEmpty()) {
       return null;
     }
-    return this.characters.get(0);
+    return characters.get(0);
   }
 
   @Override
   public Character getLastCharacter() {
-    if (this.characters == null || this.characters.isEmpty()) {
+    ElementList<Character> characters = getCharacters();
+    if (characters == null || characters.isEmpty()) {
       return null;
     }
-    return this.characters.get(this.characters.size() - 1);
+    return characters.get(characters.size() - 1);
   }
 
   @Override
   public void setCharacters(ElementList<Character> characters) {
     this.characters = characters;
+    this.spilledCharacters = null;
   }
 
   @Override
   public void addCharacters(ElementList<Character> characters) {
+    checkNotSpilled();
     this.characters.addAll(characters);
   }
 
   @Override
   public void addCharacter(Character character) {
+    checkNotSpilled();
     this.characters.add(character);
   }
 
+  /**
+   * Spills the characters of this text line and of its words to the given store, such that they
+   * don't occupy the heap. The characters are spilled only once: if the characters of the words
+   * are the characters of this text line in the same order, the words refer to their parts of
+   * the spilled characters of this text line; otherwise, they are spilled separately. The
+   * statistic of this text line refers to the spilled characters of this text line (see
+   * {@link CharacterStatistic#spillCharacters(List, SpilledCharacters)}). The characters are read
+   * from the store again on each call of {@link #getCharacters()}, as new objects in an
+   * unmodifiable list; adding characters to this text line fails afterwards, they can only be
+   * replaced by {@link #setCharacters(ElementList)}.
+   * 
+   * @param store
+   *        The store to which the characters should be spilled.
+   * 
+   * @throws PdfActException
+   *         If the characters couldn't be spilled.
+   */
+  public void spillCharacters(CharacterSpillStore store) throws PdfActException {
+    SpilledCharacters spilled = null;
+    if (this.characters != null && !this.characters.isEmpty()) {
+      spilled = store.spill(this.characters);
+    }
+
+    if (this.words != null) {
+      if (spilled != null && isConcatenationOfWords()) {
+        SpilledCharacters rest = spilled;
+        for (Word word : this.words) {
+          int numCharacters = word.getCharacters().size();
+          word.spillCharacters(rest.subList(0, numCharacters));
+          rest = rest.subList(numCharacters, rest.size());
+        }
+      } else {
+        for (Word word : this.words) {
+          word.spillCharacters(store);
+        }
+      }
+    }
+
+    // The statistic may be computed from characters that were removed from this text line.
+    if (this.characterStatistic != null) {
+      this.characterStatistic.spillCharacters(this.characters, spilled);
+    }
+    if (spilled != null) {
+      this.spilledCharacters = spilled;
+      this.characters = null;
+    }
+  }
+
+  /**
+   * Checks if the characters of this text line are the characters of its words (the same
+   * character objects in the same order).
+   * 
+   * @return True if the characters of this text line are the characters of its words; false
+   *         otherwise.
+   */
+  protected boolean isConcatenationOfWords() {
+    int i = 0;
+    for (Word word : this.words) {
+      for (Character character : word.getCharacters()) {
+        if (i >= this.characters.size() || this.characters.get(i) != character) {
+          return false;
+        }
+        i++;
+      }
+    }
+    return i == this.characters.size();
+  }
+
+  /**
+   * Checks that the characters of this text line weren't spilled, since the spilled characters
+   * can't be modified (reading them back from the store would occupy the heap again).
+   * 
+   * @throws IllegalStateException
+   *         If the characters of this text line were spilled.
+   */
+  protected void checkNotSpilled() {
+    if (this.spilledCharacters != null) {
+      throw new IllegalStateException("The characters of this text line were spilled.");
+    }
+  }
+
   // ==============================================================================================
 
   @Override
@@ -131,7 +230,7 @@ public class TextLine extends Element implements HasCharacters, HasWords, HasTex
 
   @Override
   public String getText() {
-    return this.text;
+    return this.text != null ? this.text.toString() : null;
   }
 
   @Override
@@ -139,6 +238,32 @@ public class TextLine extends Element implements HasCharacters, HasWords, HasTex
     this.text = text;
   }
 
+  /**
+   * Sets the text of this text line, given as a character sequence that is materialized on the
+   * first call of {@link #getText()} (for example, a {@link JoinedText}).
+   * 
+   * @param text
+   *        The text of this text line.
+   */
+  public void setText(CharSequence text) {
+    this.text = text;
+  }
+
+  /**
+   * Releases the text of this text line, if it is a materialized view of the texts of other elements
+   * (see {@link JoinedText}), such that it can be garbage collected. It will be recomputed on the
+   * next call of {@link #getText()}.
+   *
+   * @return True if the text was materialized and is released now; false otherwise.
+   */
+  public boolean releaseText() {
+    if (this.text instanceof JoinedText && ((JoinedText) this.text).isMaterialized()) {
+      ((JoinedText) this.text).release();
+      return true;
+    }
+    return false;
+  }
+
   // ==============================================================================================
 
   @Override
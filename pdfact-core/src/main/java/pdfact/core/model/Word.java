@@ -5,7 +5,11 @@ import java.util.List;
 import org.apache.commons.lang3.NotImplementedException;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
+import pdfact.core.util.JoinedText;
+import pdfact.core.util.exception.PdfActException;
 import pdfact.core.util.list.ElementList;
+import pdfact.core.util.spill.CharacterSpillStore;
+import pdfact.core.util.spill.CharacterSpillStore.SpilledCharacters;
 
 /**
  * A word in a document.
@@ -18,10 +22,28 @@ public class Word extends Element implements HasCharacters, HasText, HasPosition
    */
   protected ElementList<Character> characters;
 
+  /**
+   * The characters of this word, if they were spilled to a {@link CharacterSpillStore}; null
+   * otherwise.
+   */
+  protected SpilledCharacters spilledCharacters;
+
+  /**
+   * The first character of this word, if the characters were spilled and the first character was
+   * read from the store; null otherwise.
+   */
+  protected Character firstSpilledCharacter;
+
+  /**
+   * The last character of this word, if the characters were spilled and the last character was
+   * read from the store; null otherwise.
+   */
+  protected Character lastSpilledCharacter;
+
   /**
    * The text of this word.
    */
-  protected String text;
+  protected CharSequence text;
 
   /**
    * The positions of this word.
@@ -49,6 +71,11 @@ public class Word extends Element implements HasCharacters, HasText, HasPosition
    */
   protected CharacterStatistic characterStatistic;
 
+  /**
+   * The bounding box around the characters of this word, maintained on adding characters.
+   */
+  protected Rectangle charactersRectangle;
+
   // ==============================================================================================
 
   /**
@@ -56,51 +83,194 @@ public class Word extends Element implements HasCharacters, HasText, HasPosition
    */
   public Word() {
     this.characters = new ElementList<>();
+    this.charactersRectangle = Rectangle.fromUnion();
   }
 
   // ==============================================================================================
 
   @Override
   public ElementList<Character> getCharacters() {
+    if (this.spilledCharacters != null) {
+      return this.spilledCharacters.read();
+    }
     return this.characters;
   }
 
   @Override
   public Character getFirstCharacter() {
-    if (this.characters == null || this.characters.isEmpty()) {
+    if (this.spilledCharacters != null) {
+      if (this.firstSpilledCharacter == null && this.spilledCharacters.size() > 0) {
+        this.firstSpilledCharacter = this.spilledCharacters.get(0);
+      }
+      return this.firstSpilledCharacter;
+    }
+    ElementList<Character> characters = this.characters;
+    if (characters == null || characters.isEmpty()) {
       return null;
     }
-    return this.characters.get(0);
+    return characters.get(0);
   }
 
   @Override
   public Character getLastCharacter() {
-    if (this.characters == null || this.characters.isEmpty()) {
+    if (this.spilledCharacters != null) {
+      if (this.lastSpilledCharacter == null && this.spilledCharacters.size() > 0) {
+        this.lastSpilledCharacter = this.spilledCharacters.get(this.spilledCharacters.size() - 1);
+      }
+      return this.lastSpilledCharacter;
+    }
+    ElementList<Character> characters = this.characters;
+    if (characters == null || characters.isEmpty()) {
       return null;
     }
-    return this.characters.get(this.characters.size() - 1);
+    return characters.get(characters.size() - 1);
   }
 
   @Override
   public void setCharacters(ElementList<Character> characters) {
     this.characters = characters;
+    this.spilledCharacters = null;
+    this.firstSpilledCharacter = null;
+    this.lastSpilledCharacter = null;
+    this.charactersRectangle = Rectangle.fromUnion();
+    if (characters != null) {
+      for (Character character : characters) {
+        updateAggregates(character);
+      }
+    }
   }
 
   @Override
   public void addCharacters(ElementList<Character> characters) {
+    checkNotSpilled();
     this.characters.addAll(characters);
+    for (Character character : characters) {
+      updateAggregates(character);
+    }
   }
 
   @Override
   public void addCharacter(Character character) {
+    checkNotSpilled();
     this.characters.add(character);
+    updateAggregates(character);
+  }
+
+  /**
+   * Updates the bounding box of this word by the given character.
+   * 
+   * @param character
+   *        The character added to this word.
+   */
+  protected void updateAggregates(Character character) {
+    if (character != null && character.getPosition() != null) {
+      this.charactersRectangle.extend(character.getPosition().getRectangle());
+    }
+  }
+
+  /**
+   * Returns the bounding box around the characters of this word, as it was computed on adding the
+   * characters (in constant time). The returned rectangle is updated when further characters are
+   * added, so it must not be modified.
+   * 
+   * @return The bounding box around the characters of this word.
+   */
+  public Rectangle getCharactersRectangle() {
+    return this.charactersRectangle;
+  }
+
+  /**
+   * Returns the number of characters of this word.
+   * 
+   * @return The number of characters of this word.
+   */
+  public int getNumCharacters() {
+    if (this.spilledCharacters != null) {
+      return this.spilledCharacters.size();
+    }
+    return this.characters != null ? this.characters.size() : 0;
+  }
+
+  /**
+   * Releases the characters of this word, such that they can be garbage collected. The text of
+   * this word is materialized beforehand; its bounding box, positions and statistic are kept.
+   */
+  public void releaseCharacters() {
+    if (this.text != null) {
+      this.text = this.text.toString();
+    }
+    this.characters = new ElementList<>(0);
+    this.spilledCharacters = null;
+    this.firstSpilledCharacter = null;
+    this.lastSpilledCharacter = null;
+  }
+
+  /**
+   * Spills the characters of this word to the given store, such that they don't occupy the heap
+   * (see {@link #spillCharacters(SpilledCharacters)}).
+   * 
+   * @param store
+   *        The store to which the characters should be spilled.
+   * 
+   * @throws PdfActException
+   *         If the characters couldn't be spilled.
+   */
+  public void spillCharacters(CharacterSpillStore store) throws PdfActException {
+    SpilledCharacters spilled = null;
+    if (this.characters != null && !this.characters.isEmpty()) {
+      spilled = store.spill(this.characters);
+    }
+    spillCharacters(spilled);
+  }
+
+  /**
+   * Lets this word refer to the given spilled characters instead of keeping its characters on the
+   * heap. The spilled characters must be the characters of this word, in the same order (for
+   * example, a part of the spilled characters of the text line of this word). The text of this
+   * word is materialized beforehand and the statistic of this word refers to the same spilled
+   * characters. The bounding box of the characters is kept on the heap, and the first and the last
+   * character are read from the store only once, on the first request, and kept as well, so that
+   * they are available without reading all characters from the store. The characters are read
+   * from the store again on each call of {@link #getCharacters()}, as new objects in an
+   * unmodifiable list; adding characters to this word fails afterwards, they can only be replaced
+   * by {@link #setCharacters(ElementList)}.
+   * 
+   * @param spilled
+   *        The spilled characters of this word; null if the characters weren't spilled.
+   */
+  public void spillCharacters(SpilledCharacters spilled) {
+    // The statistic may be computed from characters that were removed from this word.
+    if (this.characterStatistic != null) {
+      this.characterStatistic.spillCharacters(this.characters, spilled);
+    }
+    if (this.characters == null || spilled == null) {
+      return;
+    }
+    if (this.text != null) {
+      this.text = this.text.toString();
+    }
+    this.spilledCharacters = spilled;
+    this.characters = null;
+  }
+
+  /**
+   * Checks that the characters of this word weren't spilled, since the spilled characters
+   * can't be modified (reading them back from the store would occupy the heap again).
+   * 
+   * @throws IllegalStateException
+   *         If the characters of this word were spilled.
+   */
+  protected void checkNotSpilled() {
+    if (this.spilledCharacters != null) {
+      throw new IllegalStateException("The characters of this word were spilled.");
+    }
   }
 
   // ==============================================================================================
 
   @Override
   public String getText() {
-    return this.text;
+    return this.text != null ? this.text.toString() : null;
   }
 
   @Override
@@ -108,6 +278,32 @@ public class Word extends Element implements HasCharacters, HasText, HasPosition
     this.text = text;
   }
 
+  /**
+   * Sets the text of this word, given as a character sequence that is materialized on the
+   * first call of {@link #getText()} (for example, a {@link JoinedText}).
+   * 
+   * @param text
+   *        The text of this word.
+   */
+  public void setText(CharSequence text) {
+    this.text = text;
+  }
+
+  /**
+   * Releases the text of this word, if it is a materialized view of the texts of other elements
+   * (see {@link JoinedText}), such that it can be garbage collected. It will be recomputed on the
+   * next call of {@link #getText()}.
+   *
+   * @return True if the text was materialized and is released now; false otherwise.
+   */
+  public boolean releaseText() {
+    if (this.text instanceof JoinedText && ((JoinedText) this.text).isMaterialized()) {
+      ((JoinedText) this.text).release();
+      return true;
+    }
+    return false;
+  }
+
   // ==============================================================================================
 
   @Override
@@ -260,7 +456,7 @@ public class Word extends Element implements HasCharacters, HasText, HasPosition
 
   @Override
   public Color getColor() {
-    return this.characterStatistic.colorFrequencies.getMostCommonObject();
+    return this.characterStatistic.getColorFrequencies().getMostCommonObject();
   }
 
   @Override
@@ -270,7 +466,7 @@ public class Word extends Element implements HasCharacters, HasText, HasPosition
 
   @Override
   public FontFace getFontFace() {
-    return this.characterStatistic.fontFaceFrequencies.getMostCommonObject();
+    return this.characterStatistic.getFontFaceFrequencies().getMostCommonObject();
   }
 
   @Override
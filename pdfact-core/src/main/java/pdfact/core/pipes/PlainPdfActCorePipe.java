@@ -1,26 +1,46 @@
 package pdfact.core.pipes;
 
+import java.util.EnumSet;
+import java.util.Set;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import pdfact.core.model.Document;
+import pdfact.core.model.IntermediateLayer;
+import pdfact.core.pipes.dehyphenate.DehyphenateWordsPipe;
 import pdfact.core.pipes.dehyphenate.PlainDehyphenateWordsPipe;
 import pdfact.core.pipes.filter.characters.PlainFilterCharactersPipe;
 import pdfact.core.pipes.filter.figures.PlainFilterFiguresPipe;
 import pdfact.core.pipes.filter.shapes.PlainFilterShapesPipe;
 import pdfact.core.pipes.parse.PlainParseDocumentPipe;
+import pdfact.core.pipes.release.PlainReleaseLayersPipe;
+import pdfact.core.pipes.semanticize.DetectSemanticsPipe;
+import pdfact.core.pipes.semanticize.FusedDetectSemanticsPipe;
 import pdfact.core.pipes.semanticize.PlainDetectSemanticsPipe;
+import pdfact.core.pipes.spill.PlainSpillCharactersPipe;
+import pdfact.core.pipes.tokenize.areas.ProjectionProfileTokenizeToTextAreasPipe;
+import pdfact.core.pipes.tokenize.areas.TokenizeToTextAreasPipe;
 import pdfact.core.pipes.tokenize.areas.XYCutTokenizeToTextAreasPipe;
 import pdfact.core.pipes.tokenize.blocks.PlainTokenizeToTextBlocksPipe;
+import pdfact.core.pipes.tokenize.lines.BaselineTokenizeToTextLinesPipe;
 import pdfact.core.pipes.tokenize.lines.PlainTokenizeToTextLinesPipe;
+import pdfact.core.pipes.tokenize.lines.TokenizeToTextLinesPipe;
 import pdfact.core.pipes.tokenize.paragraphs.PlainTokenizeToParagraphsPipe;
+import pdfact.core.pipes.tokenize.words.GapTokenizeToWordsPipe;
+import pdfact.core.pipes.tokenize.words.TokenizeToWordsPipe;
 import pdfact.core.pipes.tokenize.words.XYCutTokenizeToWordsPipe;
+import pdfact.core.pipes.translate.PlainTranslateCharactersPipe;
+import pdfact.core.pipes.translate.TranslateCharactersPipe;
 import pdfact.core.pipes.translate.characters.PlainStandardizeCharactersPipe;
 import pdfact.core.pipes.translate.diacritics.PlainMergeDiacriticsPipe;
 import pdfact.core.pipes.translate.ligatures.PlainSplitLigaturesPipe;
 import pdfact.core.pipes.validate.PlainValidatePdfPathPipe;
+import pdfact.core.util.concurrent.HasPerPageExecutor;
+import pdfact.core.util.concurrent.PerPageExecutor;
 import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.pipeline.Pipe;
 import pdfact.core.util.pipeline.Pipeline;
 import pdfact.core.util.pipeline.PlainPipeline;
+import pdfact.core.util.xycut.XYCut;
 
 /**
  * A plain implementation of {@link PdfActCorePipe}.
@@ -33,6 +53,76 @@ public class PlainPdfActCorePipe implements PdfActCorePipe {
    */
   protected static Logger log = LogManager.getLogger(PlainPdfActCorePipe.class);
 
+  /**
+   * The pipe to use to tokenize the pages into text areas.
+   */
+  protected TokenizeToTextAreasPipe tokenizeToTextAreasPipe;
+
+  /**
+   * The pipe to use to translate the characters in a single pass; null to use the separate pipes
+   * to merge diacritics, split ligatures, standardize characters and filter characters.
+   */
+  protected TranslateCharactersPipe translateCharactersPipe;
+
+  /**
+   * The pipe to use to tokenize the text areas into text lines.
+   */
+  protected TokenizeToTextLinesPipe tokenizeToTextLinesPipe;
+
+  /**
+   * The pipe to use to tokenize the text lines into words.
+   */
+  protected TokenizeToWordsPipe tokenizeToWordsPipe;
+
+  /**
+   * The pipe to use to detect the semantic roles of the text blocks.
+   */
+  protected DetectSemanticsPipe detectSemanticsPipe;
+
+  /**
+   * The pipe to use to dehyphenate the words.
+   */
+  protected DehyphenateWordsPipe dehyphenateWordsPipe;
+
+  /**
+   * The flag that indicates whether the structure tree of tagged PDFs should be used to create the
+   * text areas and text blocks (and their semantic roles) of the pages with a usable structure
+   * tree, instead of detecting them from the geometry of the characters.
+   */
+  protected boolean isStructureTreeUsed;
+
+  /**
+   * The intermediate layers of the document to release once their last consumer has run.
+   */
+  protected Set<IntermediateLayer> layersToRelease;
+
+  /**
+   * The flag that indicates whether the characters of the document should be spilled into a
+   * memory-mapped file as soon as the document is tokenized into text blocks.
+   */
+  protected boolean isSpillingCharacters;
+
+  /**
+   * The flag that indicates whether the tokenization pipes may process the pages (and the large
+   * blocks of the XYCut) in parallel.
+   */
+  protected boolean isProcessingInParallel;
+
+  // ==============================================================================================
+
+  /**
+   * Creates a new core pipe.
+   */
+  public PlainPdfActCorePipe() {
+    this.tokenizeToTextAreasPipe = new XYCutTokenizeToTextAreasPipe();
+    this.tokenizeToTextLinesPipe = new PlainTokenizeToTextLinesPipe();
+    this.tokenizeToWordsPipe = new GapTokenizeToWordsPipe();
+    this.detectSemanticsPipe = new FusedDetectSemanticsPipe();
+    this.dehyphenateWordsPipe = new PlainDehyphenateWordsPipe();
+    this.layersToRelease = EnumSet.noneOf(IntermediateLayer.class);
+    this.isProcessingInParallel = true;
+  }
+
   // ==============================================================================================
 
   /**
@@ -57,33 +147,54 @@ public class PlainPdfActCorePipe implements PdfActCorePipe {
     // Validate the path to the PDF file.
     pipeline.addPipe(new PlainValidatePdfPathPipe());
     // Extract the characters, shapes and figures.
-    pipeline.addPipe(new PlainParseDocumentPipe());
-    // Merge the diacritics.
-    pipeline.addPipe(new PlainMergeDiacriticsPipe());
-    // Split the ligatures.
-    pipeline.addPipe(new PlainSplitLigaturesPipe());
-    // Standardize characters.
-    pipeline.addPipe(new PlainStandardizeCharactersPipe());
-    // Filter the characters.
-    pipeline.addPipe(new PlainFilterCharactersPipe());
+    pipeline.addPipe(createParseDocumentPipe());
+    if (this.translateCharactersPipe != null) {
+      // Merge the diacritics, split the ligatures, standardize and filter the characters at once.
+      pipeline.addPipe(this.translateCharactersPipe);
+    } else {
+      // Merge the diacritics.
+      pipeline.addPipe(new PlainMergeDiacriticsPipe());
+      // Split the ligatures.
+      pipeline.addPipe(new PlainSplitLigaturesPipe());
+      // Standardize characters.
+      pipeline.addPipe(new PlainStandardizeCharactersPipe());
+      // Filter the characters.
+      pipeline.addPipe(new PlainFilterCharactersPipe());
+    }
     // Filter the figures.
     pipeline.addPipe(new PlainFilterFiguresPipe());
     // Filter the shapes.
     pipeline.addPipe(new PlainFilterShapesPipe());
-    // Tokenize the page into text areas.
-    pipeline.addPipe(new XYCutTokenizeToTextAreasPipe());
+    // Tokenize the page into text areas (from the structure tree on tagged pages, if enabled).
+    pipeline.addPipe(configureParallelism(this.tokenizeToTextAreasPipe));
+    addReleaseLayersPipe(pipeline, IntermediateLayer.PAGE_CHARACTERS);
     // Tokenize the text areas into text lines.
-    pipeline.addPipe(new PlainTokenizeToTextLinesPipe());
+    pipeline.addPipe(configureParallelism(this.tokenizeToTextLinesPipe));
+    if (!this.isStructureTreeUsed) {
+      addReleaseLayersPipe(pipeline, IntermediateLayer.TEXT_AREAS);
+    }
     // Tokenize the text lines into words.
-    pipeline.addPipe(new XYCutTokenizeToWordsPipe());
+    pipeline.addPipe(configureParallelism(this.tokenizeToWordsPipe));
     // Tokenize the text lines into text blocks.
-    pipeline.addPipe(new PlainTokenizeToTextBlocksPipe());
+    pipeline.addPipe(configureParallelism(new PlainTokenizeToTextBlocksPipe()));
+    // The text areas of tagged pages are consumed by the text block tokenization.
+    if (this.isStructureTreeUsed) {
+      addReleaseLayersPipe(pipeline, IntermediateLayer.TEXT_AREAS,
+          IntermediateLayer.TEXT_LINE_STATISTICS);
+    } else {
+      addReleaseLayersPipe(pipeline, IntermediateLayer.TEXT_LINE_STATISTICS);
+    }
+    // Spill the characters, which are only read sporadically by the remaining pipes.
+    if (this.isSpillingCharacters) {
+      pipeline.addPipe(new PlainSpillCharactersPipe());
+    }
     // Identify the roles of the text blocks.
-    pipeline.addPipe(new PlainDetectSemanticsPipe());
+    pipeline.addPipe(this.detectSemanticsPipe);
     // Tokenize the text blocks into paragraphs.
     pipeline.addPipe(new PlainTokenizeToParagraphsPipe());
     // Dehyphenate the words.
-    pipeline.addPipe(new PlainDehyphenateWordsPipe());
+    pipeline.addPipe(this.dehyphenateWordsPipe);
+    addReleaseLayersPipe(pipeline, IntermediateLayer.CHARACTERS);
 
     log.debug("# pipes in the pipeline: " + pipeline.size());
 
@@ -97,4 +208,297 @@ public class PlainPdfActCorePipe implements PdfActCorePipe {
     log.debug("End of pipe: " + getClass().getSimpleName() + ".");
     return pdf;
   }
+
+  /**
+   * Creates the pipe to use to extract the characters, shapes and figures of the PDF document.
+   * 
+   * @return The pipe to use to extract the characters, shapes and figures.
+   */
+  protected Pipe createParseDocumentPipe() {
+    PlainParseDocumentPipe parseDocumentPipe = new PlainParseDocumentPipe();
+    parseDocumentPipe.setIsStructureTreeUsed(this.isStructureTreeUsed);
+    return parseDocumentPipe;
+  }
+
+  /**
+   * Switches the given pipe to sequential processing if the pages should not be processed in
+   * parallel: the pages are processed in the calling thread and the XYCut cuts all blocks
+   * sequentially. Leaves the pipe untouched otherwise.
+   * 
+   * @param pipe
+   *        The pipe to configure.
+   * 
+   * @return The given pipe.
+   */
+  protected Pipe configureParallelism(Pipe pipe) {
+    if (this.isProcessingInParallel) {
+      return pipe;
+    }
+    if (pipe instanceof HasPerPageExecutor) {
+      ((HasPerPageExecutor) pipe).setPerPageExecutor(new PerPageExecutor(null));
+    }
+    if (pipe instanceof XYCut) {
+      ((XYCut) pipe).setParallelismThreshold(Integer.MAX_VALUE);
+    }
+    return pipe;
+  }
+
+  /**
+   * Adds a pipe to the given pipeline that releases those of the given layers that should be
+   * released. Adds nothing if none of the given layers should be released.
+   * 
+   * @param pipeline
+   *        The pipeline to which the pipe should be added.
+   * @param layers
+   *        The layers whose last consumer was added to the pipeline.
+   */
+  protected void addReleaseLayersPipe(Pipeline pipeline, IntermediateLayer... layers) {
+    Set<IntermediateLayer> layersToRelease = EnumSet.noneOf(IntermediateLayer.class);
+    for (IntermediateLayer layer : layers) {
+      if (this.layersToRelease.contains(layer)) {
+        layersToRelease.add(layer);
+      }
+    }
+    if (!layersToRelease.isEmpty()) {
+      pipeline.addPipe(new PlainReleaseLayersPipe(layersToRelease));
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the pipe to use to tokenize the pages into text areas.
+   * 
+   * @return The pipe to use to tokenize the pages into text areas.
+   */
+  public TokenizeToTextAreasPipe getTokenizeToTextAreasPipe() {
+    return this.tokenizeToTextAreasPipe;
+  }
+
+  /**
+   * Sets the pipe to use to tokenize the pages into text areas, for example a
+   * {@link ProjectionProfileTokenizeToTextAreasPipe}.
+   * 
+   * @param pipe
+   *        The pipe to use to tokenize the pages into text areas.
+   */
+  public void setTokenizeToTextAreasPipe(TokenizeToTextAreasPipe pipe) {
+    this.tokenizeToTextAreasPipe = pipe;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the pipe to use to tokenize the text areas into text lines.
+   * 
+   * @return The pipe to use to tokenize the text areas into text lines.
+   */
+  public TokenizeToTextLinesPipe getTokenizeToTextLinesPipe() {
+    return this.tokenizeToTextLinesPipe;
+  }
+
+  /**
+   * Sets the pipe to use to tokenize the text areas into text lines, for example a
+   * {@link BaselineTokenizeToTextLinesPipe}.
+   * 
+   * @param pipe
+   *        The pipe to use to tokenize the text areas into text lines.
+   */
+  public void setTokenizeToTextLinesPipe(TokenizeToTextLinesPipe pipe) {
+    this.tokenizeToTextLinesPipe = pipe;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the pipe to use to tokenize the text lines into words.
+   * 
+   * @return The pipe to use to tokenize the text lines into words.
+   */
+  public TokenizeToWordsPipe getTokenizeToWordsPipe() {
+    return this.tokenizeToWordsPipe;
+  }
+
+  /**
+   * Sets the pipe to use to tokenize the text lines into words, for example a
+   * {@link XYCutTokenizeToWordsPipe}.
+   * 
+   * @param pipe
+   *        The pipe to use to tokenize the text lines into words.
+   */
+  public void setTokenizeToWordsPipe(TokenizeToWordsPipe pipe) {
+    this.tokenizeToWordsPipe = pipe;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the pipe to use to translate the characters in a single pass.
+   * 
+   * @return The pipe to use to translate the characters in a single pass; null if the characters
+   *         are translated by separate pipes.
+   */
+  public TranslateCharactersPipe getTranslateCharactersPipe() {
+    return this.translateCharactersPipe;
+  }
+
+  /**
+   * Sets the pipe to use to translate the characters in a single pass, for example a
+   * {@link PlainTranslateCharactersPipe}.
+   * 
+   * @param pipe
+   *        The pipe to use to translate the characters in a single pass; null to translate the
+   *        characters by separate pipes.
+   */
+  public void setTranslateCharactersPipe(TranslateCharactersPipe pipe) {
+    this.translateCharactersPipe = pipe;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the pipe to use to detect the semantic roles of the text blocks.
+   * 
+   * @return The pipe to use to detect the semantic roles of the text blocks.
+   */
+  public DetectSemanticsPipe getDetectSemanticsPipe() {
+    return this.detectSemanticsPipe;
+  }
+
+  /**
+   * Sets the pipe to use to detect the semantic roles of the text blocks, for example a
+   * {@link PlainDetectSemanticsPipe}.
+   * 
+   * @param pipe
+   *        The pipe to use to detect the semantic roles of the text blocks.
+   */
+  public void setDetectSemanticsPipe(DetectSemanticsPipe pipe) {
+    this.detectSemanticsPipe = pipe;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the pipe to use to dehyphenate the words.
+   * 
+   * @return The pipe to use to dehyphenate the words.
+   */
+  public DehyphenateWordsPipe getDehyphenateWordsPipe() {
+    return this.dehyphenateWordsPipe;
+  }
+
+  /**
+   * Sets the pipe to use to dehyphenate the words, for example a
+   * {@link PlainDehyphenateWordsPipe} with a word frequency lexicon.
+   * 
+   * @param pipe
+   *        The pipe to use to dehyphenate the words.
+   */
+  public void setDehyphenateWordsPipe(DehyphenateWordsPipe pipe) {
+    this.dehyphenateWordsPipe = pipe;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the flag that indicates whether the structure tree of tagged PDFs should be used.
+   * 
+   * @return True if the structure tree of tagged PDFs should be used; false otherwise.
+   */
+  public boolean isStructureTreeUsed() {
+    return this.isStructureTreeUsed;
+  }
+
+  /**
+   * Sets the flag that indicates whether the structure tree of tagged PDFs should be used. If so,
+   * the text areas and text blocks of the pages with a usable structure tree are created from the
+   * block-level elements of the structure tree (with the semantic roles implied by their
+   * structure types, which the role detection doesn't overwrite), and the paragraphs from the
+   * elements, across pages. The XYCut, the text block detection and the merging of paragraphs run
+   * only on the untagged pages and on the untagged characters (like artifacts) of tagged pages.
+   * 
+   * @param isStructureTreeUsed
+   *        True if the structure tree of tagged PDFs should be used; false otherwise.
+   */
+  public void setIsStructureTreeUsed(boolean isStructureTreeUsed) {
+    this.isStructureTreeUsed = isStructureTreeUsed;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the intermediate layers of the document to release once their last consumer has run.
+   * 
+   * @return The layers to release.
+   */
+  public Set<IntermediateLayer> getLayersToRelease() {
+    return this.layersToRelease;
+  }
+
+  /**
+   * Sets the intermediate layers of the document to release once their last consumer in this
+   * pipeline has run, to reduce the memory retained by the processed document. Note that the
+   * released layers are no longer available to the pipes run after this pipeline (for example, a
+   * serializer that should serialize the characters). By default, no layer is released.
+   * 
+   * @param layers
+   *        The layers to release.
+   */
+  public void setLayersToRelease(Set<IntermediateLayer> layers) {
+    this.layersToRelease = layers;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the flag that indicates whether the characters of the document should be spilled.
+   * 
+   * @return True if the characters should be spilled; false otherwise.
+   */
+  public boolean isSpillingCharacters() {
+    return this.isSpillingCharacters;
+  }
+
+  /**
+   * Sets the flag that indicates whether the characters of the document should be spilled into a
+   * memory-mapped temporary file as soon as the document is tokenized into text blocks, so that
+   * they don't occupy the heap during the rest of the pipeline. The spilled characters are read
+   * from the file again when they are requested (for example, on detecting the semantic roles or
+   * on serializing the characters). Spilling reduces the heap held by the processed document,
+   * but not the peak heap, which is reached on parsing the document (before the characters are
+   * spilled), so a document that can't be parsed on the given heap can't be processed with
+   * spilling either. By default, the characters are not spilled.
+   * 
+   * @param isSpillingCharacters
+   *        True if the characters should be spilled; false otherwise.
+   */
+  public void setIsSpillingCharacters(boolean isSpillingCharacters) {
+    this.isSpillingCharacters = isSpillingCharacters;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the flag that indicates whether the tokenization pipes may process the pages in
+   * parallel.
+   * 
+   * @return True if the pages may be processed in parallel; false otherwise.
+   */
+  public boolean isProcessingInParallel() {
+    return this.isProcessingInParallel;
+  }
+
+  /**
+   * Sets the flag that indicates whether the tokenization pipes may process the pages (and the
+   * large blocks of the XYCut) in parallel, on the common fork/join pool. If set to false, the
+   * tokenization pipes are switched to sequential processing on executing this pipe (this also
+   * affects pipes given to this pipe by the setters). By default, the pages are processed in
+   * parallel.
+   * 
+   * @param isProcessingInParallel
+   *        True if the pages may be processed in parallel; false otherwise.
+   */
+  public void setIsProcessingInParallel(boolean isProcessingInParallel) {
+    this.isProcessingInParallel = isProcessingInParallel;
+  }
 }
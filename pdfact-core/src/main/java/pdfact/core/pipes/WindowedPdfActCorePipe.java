@@ -0,0 +1,396 @@
+package pdfact.core.pipes;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pdfact.core.model.CharacterStatistic;
+import pdfact.core.model.Document;
+import pdfact.core.model.Paragraph;
+import pdfact.core.model.Position;
+import pdfact.core.pipes.parse.PlainParseDocumentPipe;
+import pdfact.core.pipes.parse.stream.pdfbox.PdfBoxPdfStreamsParser;
+import pdfact.core.pipes.validate.PlainValidatePdfPathPipe;
+import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.pipeline.Pipe;
+
+/**
+ * An implementation of {@link PdfActCorePipe} that processes the pages of a PDF document in
+ * sliding windows of pages, so that the memory needed to process a document depends on the size
+ * of a window instead of the number of pages (for example, for scanned books with thousands of
+ * pages).
+ *
+ * The document is processed in two passes, so its content streams are parsed twice. The first
+ * pass parses the pages window by window (with the same parser as on processing a window, but
+ * without adding the figures and shapes to the pages), only to compute the character statistic
+ * of the whole document (which is needed, for example, by the XYCut and the detection of the
+ * semantic roles); the pages of a window are dropped right after. The second pass runs the core
+ * pipeline on each window, with the character statistic of the whole document, and emits the
+ * paragraphs that start on a page of the window to the paragraph consumer. To get complete
+ * paragraphs at the boundaries of the windows, each window is extended by a few overlapping pages
+ * on both sides; the paragraphs that start on an overlapping page are emitted by the neighbouring
+ * window. The pages of a window are not retained after the window was processed.
+ *
+ * Compared to {@link PlainPdfActCorePipe}, the following is approximated: the statistics about
+ * the text lines, the detection of the headings, page headers and page footers, the sections and
+ * the word counts used on dehyphenation are computed per window instead of per document. The
+ * character statistic of the document is exact (up to ties between equally common values). A
+ * layout template cache should not be used in this mode, since the characters of a window don't
+ * identify the layout of the whole document.
+ *
+ * @author Claudius Korzen
+ */
+public class WindowedPdfActCorePipe extends PlainPdfActCorePipe {
+  /**
+   * The logger.
+   */
+  protected static Logger log = LogManager.getLogger(WindowedPdfActCorePipe.class);
+
+  /**
+   * The default number of pages in a window.
+   */
+  public static final int DEFAULT_WINDOW_SIZE = 50;
+
+  /**
+   * The default number of overlapping pages on each side of a window.
+   */
+  public static final int DEFAULT_OVERLAP = 1;
+
+  /**
+   * The number of pages in a window.
+   */
+  protected int windowSize;
+
+  /**
+   * The number of overlapping pages on each side of a window.
+   */
+  protected int overlap;
+
+  /**
+   * The consumer of the finished paragraphs; null to add the paragraphs to the processed document.
+   */
+  protected ParagraphConsumer paragraphConsumer;
+
+  /**
+   * The number of the first page to parse in the current window.
+   */
+  protected int firstPageNumber;
+
+  /**
+   * The number of the last page to parse in the current window.
+   */
+  protected int lastPageNumber;
+
+  /**
+   * The parser shared by all windows of the processed document, so that the characters of all
+   * windows share the same font and font face objects.
+   */
+  protected PdfBoxPdfStreamsParser parser;
+
+  /**
+   * The character statistic of the whole document (computed in the first pass).
+   */
+  protected CharacterStatistic characterStatistic;
+
+  /**
+   * The number of pages of the processed document.
+   */
+  protected int numPages;
+
+  /**
+   * The number of processed windows.
+   */
+  protected int numWindows;
+
+  /**
+   * The number of emitted paragraphs.
+   */
+  protected int numParagraphs;
+
+  // ==============================================================================================
+
+  /**
+   * Creates a new windowed core pipe with the default window size and overlap.
+   */
+  public WindowedPdfActCorePipe() {
+    this(DEFAULT_WINDOW_SIZE, DEFAULT_OVERLAP);
+  }
+
+  /**
+   * Creates a new windowed core pipe.
+   *
+   * @param windowSize
+   *        The number of pages in a window.
+   * @param overlap
+   *        The number of overlapping pages on each side of a window.
+   */
+  public WindowedPdfActCorePipe(int windowSize, int overlap) {
+    super();
+    setWindowSize(windowSize);
+    setOverlap(overlap);
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public Document execute(Document pdf) throws PdfActException {
+    log.debug("Start of pipe: " + getClass().getSimpleName() + ".");
+
+    if (pdf == null) {
+      return null;
+    }
+
+    log.debug("Process: Processing the core pipeline in windows of " + this.windowSize
+        + " pages.");
+
+    long start = System.currentTimeMillis();
+
+    // Validate the path to the PDF file once (instead of once per window).
+    new PlainValidatePdfPathPipe().execute(pdf);
+
+    this.numWindows = 0;
+    this.numParagraphs = 0;
+    this.parser = new PdfBoxPdfStreamsParser();
+    this.characterStatistic = computeCharacterStatistic(pdf);
+    pdf.setCharacterStatistic(this.characterStatistic);
+
+    for (int first = 1; first <= this.numPages; first += this.windowSize) {
+      int last = Math.min(first + this.windowSize - 1, this.numPages);
+      processWindow(pdf, first, last);
+      this.numWindows++;
+    }
+    this.parser = null;
+
+    long length = System.currentTimeMillis() - start;
+
+    log.debug("Processing the core pipeline in windows done.");
+    log.debug("# pages     : " + this.numPages);
+    log.debug("# windows   : " + this.numWindows);
+    log.debug("# paragraphs: " + this.numParagraphs);
+    log.debug("Time needed to process the core pipeline in windows: " + length + "ms.");
+
+    log.debug("End of pipe: " + getClass().getSimpleName() + ".");
+    return pdf;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Computes the character statistic of the given PDF document by extracting the characters of
+   * the document window by window and merging the character statistics of the windows. Counts
+   * the pages of the document on the way.
+   *
+   * @param pdf
+   *        The PDF document to process.
+   *
+   * @return The character statistic of the document.
+   *
+   * @throws PdfActException
+   *         If something went wrong on extracting the characters.
+   */
+  protected CharacterStatistic computeCharacterStatistic(Document pdf) throws PdfActException {
+    CharacterStatistic statistic = null;
+    this.numPages = 0;
+
+    // Extract only the characters, the figures and shapes are not needed for the statistic.
+    this.parser.setIsExtractingGraphics(false);
+    for (int first = 1;; first += this.windowSize) {
+      Document window = new Document(pdf.getPath());
+      PlainParseDocumentPipe parseDocumentPipe = new PlainParseDocumentPipe();
+      parseDocumentPipe.setIsStructureTreeUsed(this.isStructureTreeUsed);
+      parseDocumentPipe.setParser(this.parser);
+      parseDocumentPipe.setPageRange(first, first + this.windowSize - 1);
+      parseDocumentPipe.execute(window);
+
+      int numWindowPages = window.getPages() != null ? window.getPages().size() : 0;
+      if (numWindowPages > 0) {
+        CharacterStatistic windowStatistic = window.getCharacterStatistic();
+        if (statistic != null) {
+          windowStatistic = new CharacterStatistic(
+              new CharacterStatistic[] { statistic, windowStatistic });
+        }
+        // Compute the merged statistic now, so that it doesn't keep the window pages alive.
+        windowStatistic.releaseSources();
+        statistic = windowStatistic;
+        this.numPages += numWindowPages;
+      }
+
+      if (numWindowPages < this.windowSize) {
+        break;
+      }
+    }
+    this.parser.setIsExtractingGraphics(true);
+
+    return statistic != null ? statistic : new CharacterStatistic();
+  }
+
+  /**
+   * Processes the given window of pages of the given PDF document and emits the paragraphs that
+   * start on a page of the window.
+   *
+   * @param pdf
+   *        The PDF document to process.
+   * @param first
+   *        The number of the first page of the window (1-based).
+   * @param last
+   *        The number of the last page of the window (1-based, inclusive).
+   *
+   * @throws PdfActException
+   *         If something went wrong on processing the window.
+   */
+  protected void processWindow(Document pdf, int first, int last) throws PdfActException {
+    log.debug("Process: Processing the pages " + first + "-" + last + ".");
+
+    this.firstPageNumber = Math.max(1, first - this.overlap);
+    this.lastPageNumber = Math.min(this.numPages, last + this.overlap);
+
+    Document window = super.execute(new Document(pdf.getPath()));
+    if (window.getParagraphs() == null) {
+      return;
+    }
+
+    for (Paragraph paragraph : window.getParagraphs()) {
+      Position position = paragraph.getFirstPosition();
+      if (position == null) {
+        continue;
+      }
+      int pageNumber = position.getPageNumber();
+      if (pageNumber < first || pageNumber > last) {
+        // The paragraph is emitted by the neighbouring window.
+        continue;
+      }
+
+      if (this.paragraphConsumer != null) {
+        this.paragraphConsumer.accept(paragraph);
+      } else {
+        pdf.addParagraph(paragraph);
+      }
+      this.numParagraphs++;
+    }
+  }
+
+  @Override
+  protected Pipe createParseDocumentPipe() {
+    PlainParseDocumentPipe parseDocumentPipe =
+        (PlainParseDocumentPipe) super.createParseDocumentPipe();
+    parseDocumentPipe.setParser(this.parser);
+    parseDocumentPipe.setPageRange(this.firstPageNumber, this.lastPageNumber);
+
+    return new Pipe() {
+      @Override
+      public Document execute(Document pdf) throws PdfActException {
+        parseDocumentPipe.execute(pdf);
+        // Use the statistic of the whole document instead of the statistic of the window.
+        pdf.setCharacterStatistic(characterStatistic);
+        return pdf;
+      }
+    };
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the number of pages in a window.
+   *
+   * @return The number of pages in a window.
+   */
+  public int getWindowSize() {
+    return this.windowSize;
+  }
+
+  /**
+   * Sets the number of pages in a window (at least 1).
+   *
+   * @param windowSize
+   *        The number of pages in a window.
+   */
+  public void setWindowSize(int windowSize) {
+    this.windowSize = Math.max(1, windowSize);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the number of overlapping pages on each side of a window.
+   *
+   * @return The number of overlapping pages on each side of a window.
+   */
+  public int getOverlap() {
+    return this.overlap;
+  }
+
+  /**
+   * Sets the number of overlapping pages on each side of a window. Paragraphs that span more than
+   * this number of pages beyond the boundary of a window are cut at the boundary.
+   *
+   * @param overlap
+   *        The number of overlapping pages on each side of a window.
+   */
+  public void setOverlap(int overlap) {
+    this.overlap = Math.max(0, overlap);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the consumer of the finished paragraphs.
+   *
+   * @return The consumer of the finished paragraphs; null if the paragraphs are added to the
+   *         processed document.
+   */
+  public ParagraphConsumer getParagraphConsumer() {
+    return this.paragraphConsumer;
+  }
+
+  /**
+   * Sets the consumer of the finished paragraphs. The consumer is called with the paragraphs in
+   * the order of the windows. If no consumer is set, the paragraphs are added to the processed
+   * document, so only the pages are released and the memory needed by the paragraphs still
+   * depends on the number of pages; set a consumer to process documents of any size.
+   *
+   * @param consumer
+   *        The consumer of the finished paragraphs; null to add the paragraphs to the processed
+   *        document.
+   */
+  public void setParagraphConsumer(ParagraphConsumer consumer) {
+    this.paragraphConsumer = consumer;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the number of pages of the last processed document.
+   *
+   * @return The number of pages of the last processed document.
+   */
+  public int getNumPages() {
+    return this.numPages;
+  }
+
+  /**
+   * Returns the number of windows of the last processed document.
+   *
+   * @return The number of windows of the last processed document.
+   */
+  public int getNumWindows() {
+    return this.numWindows;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * A consumer of the paragraphs finished by a {@link WindowedPdfActCorePipe}.
+   *
+   * @author Claudius Korzen
+   */
+  public interface ParagraphConsumer {
+    /**
+     * Consumes the given finished paragraph.
+     *
+     * @param paragraph
+     *        The paragraph to consume.
+     *
+     * @throws PdfActException
+     *         If something went wrong on consuming the paragraph.
+     */
+    void accept(Paragraph paragraph) throws PdfActException;
+  }
+}
@@ -7,8 +7,6 @@ import java.util.Iterator;
 import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import gnu.trove.iterator.TIntIterator;
-import gnu.trove.list.TIntList;
 import pdfact.core.model.Character;
 import pdfact.core.model.Document;
 import pdfact.core.model.Page;
@@ -16,9 +14,11 @@ import pdfact.core.model.Paragraph;
 import pdfact.core.model.TextBlock;
 import pdfact.core.model.TextLine;
 import pdfact.core.model.Word;
-import pdfact.core.util.PdfActUtils;
-import pdfact.core.util.counter.ObjectCounter;
+import pdfact.core.util.CharSequenceWindow;
+import pdfact.core.util.JoinedText;
+import pdfact.core.util.counter.CharSequenceCounter;
 import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.lexicon.WordFrequencyLexicon;
 import pdfact.core.util.list.ElementList;
 import pdfact.core.util.normalize.WordNormalizer;
 
@@ -41,17 +41,33 @@ public class PlainDehyphenateWordsPipe implements DehyphenateWordsPipe {
   /**
    * The index of all words which do not include a hyphen (normal words).
    */
-  protected ObjectCounter<String> normalWordsIndex;
+  protected CharSequenceCounter normalWordsIndex;
 
   /**
    * The index of all words with an inner hyphen (compound words).
    */
-  protected ObjectCounter<String> compoundWordsIndex;
+  protected CharSequenceCounter compoundWordsIndex;
 
   /**
    * The index of all prefixes of compound words.
    */
-  protected ObjectCounter<String> prefixesIndex;
+  protected CharSequenceCounter prefixesIndex;
+
+  /**
+   * The window on the normalized word, reused for all words on counting.
+   */
+  protected CharSequenceWindow wordWindow;
+
+  /**
+   * The window on a prefix of the normalized word, reused for all prefixes on counting.
+   */
+  protected CharSequenceWindow prefixWindow;
+
+  /**
+   * The lexicon of the word frequencies in a corpus, which is consulted if the frequencies in the
+   * PDF document don't decide whether a hyphen is mandatory; null if there is no such lexicon.
+   */
+  protected WordFrequencyLexicon lexicon;
 
   /**
    * The total number of words in the PDF document.
@@ -82,9 +98,11 @@ public class PlainDehyphenateWordsPipe implements DehyphenateWordsPipe {
    * Creates a new pipe that dehyphenates words.
    */
   public PlainDehyphenateWordsPipe() {
-    this.normalWordsIndex = new ObjectCounter<>();
-    this.compoundWordsIndex = new ObjectCounter<>();
-    this.prefixesIndex = new ObjectCounter<>();
+    this.normalWordsIndex = new CharSequenceCounter();
+    this.compoundWordsIndex = new CharSequenceCounter();
+    this.prefixesIndex = new CharSequenceCounter();
+    this.wordWindow = new CharSequenceWindow();
+    this.prefixWindow = new CharSequenceWindow();
 
     this.wordNormalizer = new WordNormalizer();
     this.wordNormalizer.setIsToLowerCase(true);
@@ -97,6 +115,7 @@ public class PlainDehyphenateWordsPipe implements DehyphenateWordsPipe {
   @Override
   public Document execute(Document pdf) throws PdfActException {
     countWords(pdf);
+    materializeTextOfHyphenatedTextLines(pdf);
     dehyphenateWordsInParagraphs(pdf);
     return pdf;
   }
@@ -104,12 +123,17 @@ public class PlainDehyphenateWordsPipe implements DehyphenateWordsPipe {
   // ==============================================================================================
 
   /**
-   * Counts single, compound and prefixes of compound words.
+   * Counts single, compound and prefixes of compound words. The counts of previously processed
+   * documents are discarded.
    *
    * @param pdf
    *        The PDF document to process.
    */
   protected void countWords(Document pdf) {
+    this.normalWordsIndex = new CharSequenceCounter();
+    this.compoundWordsIndex = new CharSequenceCounter();
+    this.prefixesIndex = new CharSequenceCounter();
+
     if (pdf == null) {
       return;
     }
@@ -142,29 +166,30 @@ public class PlainDehyphenateWordsPipe implements DehyphenateWordsPipe {
         // "sugar".
 
         // Normalize the word: Remove leading and trailing punctuation marks
-        // (but not hyphens).
-        String wordStr = this.wordNormalizer.normalize(word);
+        // (but not hyphens). The normalized word is a window on a reused
+        // buffer, so no string is created unless the word is new to an index.
+        CharSequenceWindow wordStr = this.wordNormalizer.normalize(word, this.wordWindow);
 
-        if (wordStr == null || wordStr.isEmpty()) {
+        if (wordStr == null || wordStr.length() == 0) {
           continue;
         }
 
         // Check if the word contains hyphens.
-        TIntList idxsHyphens = PdfActUtils.indexesOf(wordStr, HYPHENS);
+        int idxFirstHyphen = wordStr.indexOf(HYPHENS, 0);
 
-        if (idxsHyphens.isEmpty()) {
+        if (idxFirstHyphen < 0) {
           // No hyphen was found. The word is a single word.
           this.normalWordsIndex.add(wordStr);
           continue;
         }
 
         // We are interested only in compound words with inner hyphens.
-        if (idxsHyphens.get(0) == 0) {
+        if (idxFirstHyphen == 0) {
           // The word starts with an hyphen. Ignore the word.
           continue;
         }
 
-        if (idxsHyphens.get(idxsHyphens.size() - 1) == wordStr.length() - 1) {
+        if (wordStr.lastIndexOf(HYPHENS) == wordStr.length() - 1) {
           // The word ends with an hyphen. Ignore it.
           continue;
         }
@@ -172,9 +197,46 @@ public class PlainDehyphenateWordsPipe implements DehyphenateWordsPipe {
         this.compoundWordsIndex.add(wordStr);
 
         // Count the prefixes of compound words.
-        TIntIterator itr = idxsHyphens.iterator();
-        while (itr.hasNext()) {
-          this.prefixesIndex.add(wordStr.substring(0, itr.next()));
+        for (int i = idxFirstHyphen; i >= 0; i = wordStr.indexOf(HYPHENS, i + 1)) {
+          this.prefixWindow.set(wordStr, 0, i);
+          this.prefixesIndex.add(this.prefixWindow);
+        }
+      }
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Materializes the texts of the text lines that end with a hyphenated word. The text of a text
+   * line is a view of the texts of its words (see {@link JoinedText}), but a hyphenated word is
+   * changed on dehyphenation. The text lines should keep the text of the word as it appears in the
+   * PDF document, so their texts must be materialized before (as plain strings, such that they
+   * are kept on releasing the texts of the document). The texts of the text blocks are views of
+   * the texts of the text lines and hence keep the original text as well.
+   *
+   * @param pdf
+   *        The PDF document to process.
+   */
+  protected void materializeTextOfHyphenatedTextLines(Document pdf) {
+    if (pdf == null) {
+      return;
+    }
+
+    List<Page> pages = pdf.getPages();
+    if (pages == null) {
+      return;
+    }
+
+    for (Page page : pages) {
+      if (page == null || page.getTextLines() == null) {
+        continue;
+      }
+
+      for (TextLine line : page.getTextLines()) {
+        Word lastWord = line.getLastWord();
+        if (lastWord != null && lastWord.isHyphenated()) {
+          line.setText(line.getText());
         }
       }
     }
@@ -235,7 +297,7 @@ public class PlainDehyphenateWordsPipe implements DehyphenateWordsPipe {
       }
 
       paragraph.setWords(dehyphWords);
-      paragraph.setText(PdfActUtils.join(dehyphWords, " "));
+      paragraph.setText(new JoinedText(dehyphWords, " "));
     }
   }
 
@@ -301,7 +363,7 @@ public class PlainDehyphenateWordsPipe implements DehyphenateWordsPipe {
             dehyphWords.add(word);
           }
         }
-        block.setText(PdfActUtils.join(dehyphWords, " "));
+        block.setText(new JoinedText(dehyphWords, " "));
       }
     }
   }
@@ -346,7 +408,7 @@ public class PlainDehyphenateWordsPipe implements DehyphenateWordsPipe {
     word1.setIsHyphenated(false);
     word1.setIsDehyphenated(true);
     word1.setIsHyphenMandatory(isHyphenMandatory);
-    word1.setText(PdfActUtils.join(mergedChars, ""));
+    word1.setText(new JoinedText(mergedChars, ""));
 
     return word1;
   }
@@ -369,8 +431,8 @@ public class PlainDehyphenateWordsPipe implements DehyphenateWordsPipe {
     log.debug("-------------------------------------------");
     log.debug("Merging words \"%s\" and \"%s\" ...", word1Str, word2Str);
 
-    // TODO: Use the word normalizer.
-    String prefix = word1Str.replaceAll("[-]$", "");
+    String prefix = word1Str.endsWith("-") ? word1Str.substring(0, word1Str.length() - 1)
+        : word1Str;
     String withHyphen = word1Str + word2Str;
     String withoutHyphen = prefix + word2Str;
 
@@ -396,6 +458,24 @@ public class PlainDehyphenateWordsPipe implements DehyphenateWordsPipe {
       }
     }
 
+    // The frequencies in the document are equal. Consult the frequencies in the corpus.
+    if (this.lexicon != null) {
+      int corpusSingleWordFreq = this.lexicon.getNormalWordFrequency(withoutHyphen);
+      int corpusCompoundWordFreq = this.lexicon.getCompoundWordFrequency(withHyphen);
+
+      log.debug("... corpus frequency of word without hyphen:   %d", corpusSingleWordFreq);
+      log.debug("... corpus frequency of word with hyphen:      %d", corpusCompoundWordFreq);
+
+      if (corpusCompoundWordFreq != corpusSingleWordFreq) {
+        boolean isMandatory = corpusCompoundWordFreq > corpusSingleWordFreq;
+        log.debug("... hyphen is mandatory:                       %s", isMandatory);
+        log.debug("... reason:                                    corpus freq(\"%s\") %s corpus "
+            + "freq(\"%s\")", withHyphen, isMandatory ? ">" : "<", withoutHyphen);
+        return isMandatory;
+      }
+      compoundWordPrefixFreq += this.lexicon.getPrefixFrequency(prefix);
+    }
+
     if (compoundWordPrefixFreq > 0) {
       log.debug("... hyphen is mandatory:                       true");
       log.debug("... reason:                                    freq(\"%s\") == freq(\"%s\") and "
@@ -408,4 +488,57 @@ public class PlainDehyphenateWordsPipe implements DehyphenateWordsPipe {
       return false;
     }
   }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the index of all words which do not include a hyphen (normal words).
+   *
+   * @return The index of the normal words.
+   */
+  public CharSequenceCounter getNormalWordsIndex() {
+    return this.normalWordsIndex;
+  }
+
+  /**
+   * Returns the index of all words with an inner hyphen (compound words).
+   *
+   * @return The index of the compound words.
+   */
+  public CharSequenceCounter getCompoundWordsIndex() {
+    return this.compoundWordsIndex;
+  }
+
+  /**
+   * Returns the index of all prefixes of compound words.
+   *
+   * @return The index of the prefixes of compound words.
+   */
+  public CharSequenceCounter getPrefixesIndex() {
+    return this.prefixesIndex;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the lexicon of the word frequencies in a corpus.
+   *
+   * @return The lexicon of the word frequencies in a corpus; null if there is no such lexicon.
+   */
+  public WordFrequencyLexicon getWordFrequencyLexicon() {
+    return this.lexicon;
+  }
+
+  /**
+   * Sets the lexicon of the word frequencies in a corpus, which is consulted if the frequencies
+   * in the PDF document don't decide whether a hyphen is mandatory. The lexicon can be shared by
+   * multiple pipes.
+   *
+   * @param lexicon
+   *        The lexicon of the word frequencies in a corpus; null to consult the frequencies in
+   *        the PDF document only.
+   */
+  public void setWordFrequencyLexicon(WordFrequencyLexicon lexicon) {
+    this.lexicon = lexicon;
+  }
 }
@@ -10,6 +10,26 @@ import pdfact.core.util.exception.PdfActException;
  * @author Claudius Korzen
  */
 public class PlainParseDocumentPipe implements ParseDocumentPipe {
+  /**
+   * The flag that indicates whether the structure tree of tagged PDFs should be read.
+   */
+  protected boolean isStructureTreeUsed;
+
+  /**
+   * The number of the first page to parse (1-based).
+   */
+  protected int firstPageNumber = 1;
+
+  /**
+   * The number of the last page to parse (1-based, inclusive).
+   */
+  protected int lastPageNumber = Integer.MAX_VALUE;
+
+  /**
+   * The parser to use; null to use a new parser per parsed document.
+   */
+  protected PdfBoxPdfStreamsParser parser;
+
   @Override
   public Document execute(Document doc) throws PdfActException {
     parseDocument(doc);
@@ -26,6 +46,91 @@ public class PlainParseDocumentPipe implements ParseDocumentPipe {
    *         If something went wrong while parsing the document.
    */
   protected void parseDocument(Document doc) throws PdfActException {
-    new PdfBoxPdfStreamsParser().parse(doc);
+    PdfBoxPdfStreamsParser parser = this.parser;
+    if (parser == null) {
+      parser = new PdfBoxPdfStreamsParser();
+    }
+    parser.setIsStructureTreeUsed(this.isStructureTreeUsed);
+    parser.setPageRange(this.firstPageNumber, this.lastPageNumber);
+    parser.parse(doc);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Sets the flag that indicates whether the structure tree of tagged PDFs should be read. If
+   * so, the text areas and text blocks of the pages with a usable structure tree are created from
+   * the block-level elements of the structure tree.
+   * 
+   * @param isStructureTreeUsed
+   *        True if the structure tree should be read; false otherwise.
+   */
+  public void setIsStructureTreeUsed(boolean isStructureTreeUsed) {
+    this.isStructureTreeUsed = isStructureTreeUsed;
+  }
+
+  /**
+   * Returns the flag that indicates whether the structure tree of tagged PDFs should be read.
+   * 
+   * @return True if the structure tree should be read; false otherwise.
+   */
+  public boolean isStructureTreeUsed() {
+    return this.isStructureTreeUsed;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Sets the range of the pages to parse. By default, all pages are parsed.
+   * 
+   * @param firstPageNumber
+   *        The number of the first page to parse (1-based).
+   * @param lastPageNumber
+   *        The number of the last page to parse (1-based, inclusive).
+   */
+  public void setPageRange(int firstPageNumber, int lastPageNumber) {
+    this.firstPageNumber = firstPageNumber;
+    this.lastPageNumber = lastPageNumber;
+  }
+
+  /**
+   * Returns the number of the first page to parse.
+   * 
+   * @return The number of the first page to parse (1-based).
+   */
+  public int getFirstPageNumber() {
+    return this.firstPageNumber;
+  }
+
+  /**
+   * Returns the number of the last page to parse.
+   * 
+   * @return The number of the last page to parse (1-based, inclusive).
+   */
+  public int getLastPageNumber() {
+    return this.lastPageNumber;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Sets the parser to use. Parsing several page ranges of the same document with the same parser
+   * ensures that the characters of all ranges share the same font and font face objects (which
+   * are compared by identity and counted by their indexes in the statistics).
+   * 
+   * @param parser
+   *        The parser to use; null to use a new parser per parsed document.
+   */
+  public void setParser(PdfBoxPdfStreamsParser parser) {
+    this.parser = parser;
+  }
+
+  /**
+   * Returns the parser to use.
+   * 
+   * @return The parser to use; null if a new parser is used per parsed document.
+   */
+  public PdfBoxPdfStreamsParser getParser() {
+    return this.parser;
   }
 }
@@ -9,6 +9,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Stack;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.pdfbox.contentstream.PDContentStream;
@@ -30,6 +33,7 @@ import pdfact.core.model.Page;
 import pdfact.core.model.Point;
 import pdfact.core.model.Rectangle;
 import pdfact.core.model.Shape;
+import pdfact.core.model.TaggedBlock;
 import pdfact.core.pipes.parse.stream.PdfStreamsParser;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.OperatorProcessor;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.color.SetNonStrokingColor;
@@ -46,6 +50,8 @@ import pdfact.core.pipes.parse.stream.pdfbox.operators.color.SetStrokingDeviceGr
 import pdfact.core.pipes.parse.stream.pdfbox.operators.color.SetStrokingDeviceRGBColor;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.graphic.AppendRectangleToPath;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.graphic.BeginInlineImage;
+import pdfact.core.pipes.parse.stream.pdfbox.operators.graphic.BeginMarkedContent;
+import pdfact.core.pipes.parse.stream.pdfbox.operators.graphic.BeginMarkedContentWithProperties;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.graphic.ClipEvenOddRule;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.graphic.ClipNonZeroRule;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.graphic.ClosePath;
@@ -53,6 +59,7 @@ import pdfact.core.pipes.parse.stream.pdfbox.operators.graphic.CurveTo;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.graphic.CurveToReplicateFinalPoint;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.graphic.CurveToReplicateInitialPoint;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.graphic.DrawObject;
+import pdfact.core.pipes.parse.stream.pdfbox.operators.graphic.EndMarkedContent;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.graphic.EndPath;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.graphic.FillEvenOddAndStrokePath;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.graphic.FillEvenOddRule;
@@ -83,7 +90,9 @@ import pdfact.core.pipes.parse.stream.pdfbox.operators.text.SetType3GlyphWidthAn
 import pdfact.core.pipes.parse.stream.pdfbox.operators.text.SetWordSpacing;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.text.ShowText;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.text.ShowTextWithIndividualGlyphPositioning;
+import pdfact.core.pipes.parse.stream.pdfbox.utils.StructureTreeUtils;
 import pdfact.core.util.PdfActUtils;
+import pdfact.core.util.color.ColorManager;
 import pdfact.core.util.exception.PdfActException;
 import pdfact.core.util.exception.PdfActParseException;
 import pdfact.core.util.statistician.CharacterStatistician;
@@ -112,6 +121,11 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
    */
   protected CharacterStatistician statistician;
 
+  /**
+   * The registry of the colors of the parsed document.
+   */
+  protected ColorManager colorManager;
+
   /**
    * The current page in the PDF file.
    */
@@ -173,6 +187,51 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
    */
   protected boolean isType3Stream;
 
+  /**
+   * The minimum ratio of the characters of a page that must belong to the block-level elements
+   * of the structure tree, such that the structure tree of the page is considered as usable.
+   */
+  protected static final float MIN_TAGGED_CHARACTERS_RATIO = 0.8f;
+
+  /**
+   * The flag that indicates whether the structure tree of tagged PDFs should be read.
+   */
+  protected boolean isStructureTreeUsed;
+
+  /**
+   * The block-level elements of the structure tree, per page; null if the structure tree isn't
+   * used or the PDF isn't tagged.
+   */
+  protected List<List<TaggedBlock>> taggedBlocksPerPage;
+
+  /**
+   * The MCIDs of the currently open marked-content sequences (the innermost sequence last). A
+   * sequence without an MCID inherits the MCID of its enclosing sequence.
+   */
+  protected TIntArrayList markedContentStack;
+
+  /**
+   * The number of currently processed nested content streams (1 while processing the content
+   * stream of a page, 2 while processing a form XObject or a type 3 glyph drawn by the page, etc.).
+   */
+  protected int streamDepth;
+
+  /**
+   * The number of the first page to parse (1-based).
+   */
+  protected int firstPageNumber = 1;
+
+  /**
+   * The number of the last page to parse (1-based, inclusive).
+   */
+  protected int lastPageNumber = Integer.MAX_VALUE;
+
+  /**
+   * The flag that indicates whether the figures and shapes should be extracted (or only the
+   * characters).
+   */
+  protected boolean isExtractingGraphics = true;
+
   /**
    * The number of extracted pages.
    */
@@ -222,12 +281,15 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
     // Install the graphics operator modules.
     registerOperatorProcessor(new AppendRectangleToPath()); // re
     registerOperatorProcessor(new BeginInlineImage()); // BI
+    registerOperatorProcessor(new BeginMarkedContent()); // BMC
+    registerOperatorProcessor(new BeginMarkedContentWithProperties()); // BDC
     registerOperatorProcessor(new ClipEvenOddRule()); // W*
     registerOperatorProcessor(new ClipNonZeroRule()); // W
     registerOperatorProcessor(new ClosePath()); // h
     registerOperatorProcessor(new CurveTo()); // c
     registerOperatorProcessor(new CurveToReplicateFinalPoint()); // y
     registerOperatorProcessor(new CurveToReplicateInitialPoint()); // v
+    registerOperatorProcessor(new EndMarkedContent()); // EMC
     registerOperatorProcessor(new EndPath()); // n
     registerOperatorProcessor(new FillEvenOddAndStrokePath()); // B*
     registerOperatorProcessor(new FillEvenOddRule()); // f*
@@ -257,8 +319,10 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
     registerOperatorProcessor(new SetStrokingDeviceRGBColor()); // RG
 
     this.statistician = new CharacterStatistician();
+    this.colorManager = new ColorManager();
     this.graphicsStack = new Stack<PDGraphicsState>();
     this.linePath = new GeneralPath();
+    this.markedContentStack = new TIntArrayList();
   }
 
   protected void registerOperatorProcessor(OperatorProcessor processor) {
@@ -271,8 +335,13 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
   @Override
   public void parse(Document pdf) throws PdfActException {
     try (PDDocument doc = PDDocument.load(pdf.getFile())) {
+      if (this.isStructureTreeUsed) {
+        this.taggedBlocksPerPage = StructureTreeUtils.readTaggedBlocks(doc);
+        log.debug("Is tagged PDF: %s", this.taggedBlocksPerPage != null);
+      }
       handlePdfFileStart(pdf);
-      for (int i = 0; i < doc.getPages().getCount(); i++) {
+      int lastPageIndex = Math.min(doc.getPages().getCount(), this.lastPageNumber);
+      for (int i = Math.max(0, this.firstPageNumber - 1); i < lastPageIndex; i++) {
         log.debug("==================== Page %d ====================", i + 1);
         processPage(pdf, doc.getPages().get(i), i + 1);
       }
@@ -304,8 +373,13 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
     this.clippingWindingRule = -1;
     this.currentType3GlyphBoundingBox = null;
     this.isType3Stream = false;
+    this.markedContentStack.clear();
+    this.streamDepth = 0;
 
     Page pdfPage = new Page(pageNum);
+    if (this.taggedBlocksPerPage != null && pageNum <= this.taggedBlocksPerPage.size()) {
+      pdfPage.setTaggedBlocks(this.taggedBlocksPerPage.get(pageNum - 1));
+    }
     PDRectangle rect = page.getMediaBox();
     if (rect == null) {
       rect = page.getCropBox();
@@ -344,7 +418,9 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
       // allows a scaled form.
       this.initialMatrix = getCurrentTransformationMatrix().clone();
 
+      this.streamDepth++;
       processStreamOperators(pdf, page, stream);
+      this.streamDepth--;
 
       // Restore the initialMatrix, the graphics stack and the resources.
       this.initialMatrix = parentMatrix;
@@ -380,7 +456,9 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
     setTextLineMatrix(new Matrix());
 
     setIsType3Stream(true);
+    this.streamDepth++;
     processStreamOperators(pdf, page, proc);
+    this.streamDepth--;
     setIsType3Stream(false);
 
     // Restore text matrices
@@ -463,6 +541,143 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
     }
   }
 
+  // ==============================================================================================
+  // Methods related to marked content.
+
+  /**
+   * Begins a marked-content sequence.
+   * 
+   * @param mcid The MCID of the sequence; -1 if the sequence has no MCID.
+   */
+  public void beginMarkedContent(int mcid) {
+    // The MCIDs in form XObjects refer to the form (and not to the page), so ignore them.
+    if (mcid < 0 || this.streamDepth > 1) {
+      mcid = getCurrentMcid();
+    }
+    this.markedContentStack.add(mcid);
+  }
+
+  /**
+   * Ends the innermost marked-content sequence.
+   */
+  public void endMarkedContent() {
+    if (!this.markedContentStack.isEmpty()) {
+      this.markedContentStack.removeAt(this.markedContentStack.size() - 1);
+    }
+  }
+
+  /**
+   * Returns the MCID of the innermost marked-content sequence.
+   * 
+   * @return The MCID of the innermost marked-content sequence; -1 if there is no such MCID.
+   */
+  public int getCurrentMcid() {
+    if (this.markedContentStack.isEmpty()) {
+      return -1;
+    }
+    return this.markedContentStack.get(this.markedContentStack.size() - 1);
+  }
+
+  /**
+   * Checks whether the structure tree of the given page is usable, that is if the block-level
+   * elements of the structure tree cover at least {@link #MIN_TAGGED_CHARACTERS_RATIO} of the
+   * characters of the page.
+   * 
+   * @param page The page to check.
+   * 
+   * @return True if the structure tree of the page is usable; false otherwise.
+   */
+  protected boolean isStructureTreeUsable(Page page) {
+    List<TaggedBlock> blocks = page.getTaggedBlocks();
+    if (blocks == null || blocks.isEmpty() || page.getCharacters().isEmpty()) {
+      return false;
+    }
+
+    TIntSet mcids = new TIntHashSet();
+    for (TaggedBlock block : blocks) {
+      mcids.addAll(block.getMcids());
+    }
+
+    int numTaggedCharacters = 0;
+    for (Character character : page.getCharacters()) {
+      if (character.getMcid() >= 0 && mcids.contains(character.getMcid())) {
+        numTaggedCharacters++;
+      }
+    }
+    return numTaggedCharacters >= MIN_TAGGED_CHARACTERS_RATIO * page.getCharacters().size();
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Sets the flag that indicates whether the structure tree of tagged PDFs should be read.
+   * 
+   * @param isStructureTreeUsed True if the structure tree should be read; false otherwise.
+   */
+  public void setIsStructureTreeUsed(boolean isStructureTreeUsed) {
+    this.isStructureTreeUsed = isStructureTreeUsed;
+  }
+
+  /**
+   * Returns the flag that indicates whether the structure tree of tagged PDFs should be read.
+   * 
+   * @return True if the structure tree should be read; false otherwise.
+   */
+  public boolean isStructureTreeUsed() {
+    return this.isStructureTreeUsed;
+  }
+
+  /**
+   * Sets the range of the pages to parse. The pages outside of the range are skipped (they are
+   * not added to the document).
+   * 
+   * @param firstPageNumber The number of the first page to parse (1-based).
+   * @param lastPageNumber  The number of the last page to parse (1-based, inclusive).
+   */
+  public void setPageRange(int firstPageNumber, int lastPageNumber) {
+    this.firstPageNumber = firstPageNumber;
+    this.lastPageNumber = lastPageNumber;
+  }
+
+  /**
+   * Returns the number of the first page to parse.
+   * 
+   * @return The number of the first page to parse (1-based).
+   */
+  public int getFirstPageNumber() {
+    return this.firstPageNumber;
+  }
+
+  /**
+   * Returns the number of the last page to parse.
+   * 
+   * @return The number of the last page to parse (1-based, inclusive).
+   */
+  public int getLastPageNumber() {
+    return this.lastPageNumber;
+  }
+
+  /**
+   * Sets the flag that indicates whether the figures and shapes should be extracted. If not, no
+   * figures and shapes are added to the pages. The images are still decoded, so that the colors
+   * are registered in the color manager in the same order in either case.
+   * 
+   * @param isExtractingGraphics True if the figures and shapes should be extracted; false if
+   *                             only the characters should be extracted.
+   */
+  public void setIsExtractingGraphics(boolean isExtractingGraphics) {
+    this.isExtractingGraphics = isExtractingGraphics;
+  }
+
+  /**
+   * Returns the flag that indicates whether the figures and shapes should be extracted.
+   * 
+   * @return True if the figures and shapes should be extracted; false otherwise.
+   */
+  public boolean isExtractingGraphics() {
+    return this.isExtractingGraphics;
+  }
+
   // ==============================================================================================
   // Methods related to resources.
 
@@ -550,6 +765,15 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
     return this.resources;
   }
 
+  /**
+   * Returns the registry of the colors of the parsed document.
+   * 
+   * @return The registry of the colors.
+   */
+  public ColorManager getColorManager() {
+    return this.colorManager;
+  }
+
   // ==============================================================================================
   // Methods related to the graphics stack.
 
@@ -849,6 +1073,12 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
    * @param page The page to process.
    */
   public void handlePdfPageEnd(Document pdf, Page page) {
+    // Fall back to the detection from the geometry if the structure tree of the page is unusable.
+    if (page.getTaggedBlocks() != null && !isStructureTreeUsable(page)) {
+      log.debug("The structure tree of page %d is not usable.", page.getPageNumber());
+      page.setTaggedBlocks(null);
+    }
+
     // Compute the character statistics for the page.
     page.setCharacterStatistic(this.statistician.compute(page));
   }
@@ -861,6 +1091,7 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
    * @param c    The character to process.
    */
   public void handlePdfCharacter(Document pdf, Page page, Character c) {
+    c.setMcid(getCurrentMcid());
     page.addCharacter(c);
     this.numCharacters++;
   }
@@ -873,6 +1104,9 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
    * @param figure The figure to process.
    */
   public void handlePdfFigure(Document pdf, Page page, Figure figure) {
+    if (!this.isExtractingGraphics) {
+      return;
+    }
     page.addFigure(figure);
     this.numFigures++;
   }
@@ -885,6 +1119,9 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
    * @param shape The shape to process.
    */
   public void handlePdfShape(Document pdf, Page page, Shape shape) {
+    if (!this.isExtractingGraphics) {
+      return;
+    }
     page.addShape(shape);
     this.numShapes++;
   }
@@ -57,6 +57,7 @@ public class PDFontFaceConverter {
 
     // The font face is not known. Create a new font face.
     FontFace newFontFace = new FontFace(font, fontSize);
+    newFontFace.setIndex(this.knownFontFaces.size());
 
     // Add the new font face to the map of known font faces.
     this.knownFontFaces.put(font.getId() + ":" + fontSize, newFontFace);
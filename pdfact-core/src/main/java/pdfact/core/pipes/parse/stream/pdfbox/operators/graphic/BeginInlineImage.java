@@ -22,7 +22,6 @@ import pdfact.core.model.Shape;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.OperatorProcessor;
 import pdfact.core.pipes.parse.stream.pdfbox.utils.ColorUtils;
 import pdfact.core.util.PdfActUtils;
-import pdfact.core.util.color.ColorManager;
 
 /**
  * BI: Begin inline image.
@@ -74,7 +73,7 @@ public class BeginInlineImage extends OperatorProcessor {
       Position position = new Position(page, ll, ur);
 
       if (exclusiveColor != null) {
-        Color color = ColorManager.getColor(exclusiveColor);
+        Color color = this.engine.getColorManager().getColor(exclusiveColor);
 
         log.debug("The inline image consists only of the color " + color + ". "
             + "Considering it as a shape.");
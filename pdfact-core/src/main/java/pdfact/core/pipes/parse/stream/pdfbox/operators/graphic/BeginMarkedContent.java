@@ -19,7 +19,8 @@ public class BeginMarkedContent extends OperatorProcessor {
   @Override
   public void process(Document pdf, Page page, Operator op,
       List<COSBase> args) throws IOException {
-    // context.beginMarkedContent();
+    // A marked-content sequence without properties has no MCID.
+    this.engine.beginMarkedContent(-1);
   }
 
   @Override
@@ -0,0 +1,45 @@
+package pdfact.core.pipes.parse.stream.pdfbox.operators.graphic;
+
+import java.io.IOException;
+import java.util.List;
+import org.apache.pdfbox.contentstream.operator.Operator;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.documentinterchange.markedcontent.PDPropertyList;
+import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+import pdfact.core.pipes.parse.stream.pdfbox.operators.OperatorProcessor;
+
+/**
+ * BDC: begin marked content with a property list. The property list is given either inline or
+ * as the name of a property list in the Properties sub-dictionary of the current resource
+ * dictionary. In tagged PDFs, the property list contains the MCID that identifies the
+ * marked-content sequence in the structure tree.
+ * 
+ * @author Claudius Korzen
+ */
+public class BeginMarkedContentWithProperties extends OperatorProcessor {
+  @Override
+  public void process(Document pdf, Page page, Operator op,
+      List<COSBase> args) throws IOException {
+    COSDictionary properties = null;
+    if (args.size() > 1) {
+      COSBase arg = args.get(1);
+      if (arg instanceof COSDictionary) {
+        properties = (COSDictionary) arg;
+      } else if (arg instanceof COSName) {
+        PDResources resources = this.engine.getResources();
+        PDPropertyList list = resources != null ? resources.getProperties((COSName) arg) : null;
+        properties = list != null ? list.getCOSObject() : null;
+      }
+    }
+    this.engine.beginMarkedContent(properties != null ? properties.getInt(COSName.MCID, -1) : -1);
+  }
+
+  @Override
+  public String getName() {
+    return "BDC";
+  }
+}
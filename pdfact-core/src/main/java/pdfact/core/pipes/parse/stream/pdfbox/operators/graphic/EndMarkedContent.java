@@ -19,7 +19,7 @@ public class EndMarkedContent extends OperatorProcessor {
   @Override
   public void process(Document pdf, Page page, Operator op,
       List<COSBase> args) throws IOException {
-    // context.endMarkedContent();
+    this.engine.endMarkedContent();
   }
 
   @Override
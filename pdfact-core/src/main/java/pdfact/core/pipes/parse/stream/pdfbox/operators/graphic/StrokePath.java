@@ -19,7 +19,6 @@ import pdfact.core.model.Position;
 import pdfact.core.model.Shape;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.OperatorProcessor;
 import pdfact.core.util.PdfActUtils;
-import pdfact.core.util.color.ColorManager;
 
 /**
  * S: Stroke the path.
@@ -52,7 +51,7 @@ public class StrokePath extends OperatorProcessor {
     }
 
     // Convert the color.
-    Color color = ColorManager.getColor(c, cs);
+    Color color = this.engine.getColorManager().getColor(c, cs);
     GeneralPath linePath = this.engine.getLinePath();
 
     PathIterator itr;
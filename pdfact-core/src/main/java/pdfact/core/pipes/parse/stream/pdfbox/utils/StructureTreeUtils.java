@@ -0,0 +1,300 @@
+package pdfact.core.pipes.parse.stream.pdfbox.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentCatalog;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.documentinterchange.logicalstructure.PDMarkInfo;
+import org.apache.pdfbox.pdmodel.documentinterchange.logicalstructure.PDMarkedContentReference;
+import org.apache.pdfbox.pdmodel.documentinterchange.logicalstructure.PDStructureElement;
+import org.apache.pdfbox.pdmodel.documentinterchange.logicalstructure.PDStructureTreeRoot;
+import pdfact.core.model.SemanticRole;
+import pdfact.core.model.TaggedBlock;
+
+/**
+ * A collection of utility methods that deal with the structure tree of tagged PDFs.
+ *
+ * @author Claudius Korzen
+ */
+public class StructureTreeUtils {
+  /**
+   * The standard structure types of the block-level elements, mapped to the semantic roles they
+   * imply (null if the type doesn't imply a role). All content below a block-level element
+   * (including nested block-level elements, like the paragraphs of a list item) belongs to the
+   * block of the element. The content of all other elements (like "Sect" or "Div") belongs to an
+   * anonymous block per element, except for the content of their block-level descendants.
+   */
+  protected static final Map<String, SemanticRole> BLOCK_TYPES = new HashMap<>();
+
+  static {
+    BLOCK_TYPES.put("P", null);
+    BLOCK_TYPES.put("BlockQuote", null);
+    BLOCK_TYPES.put("H", SemanticRole.HEADING);
+    BLOCK_TYPES.put("H1", SemanticRole.HEADING);
+    BLOCK_TYPES.put("H2", SemanticRole.HEADING);
+    BLOCK_TYPES.put("H3", SemanticRole.HEADING);
+    BLOCK_TYPES.put("H4", SemanticRole.HEADING);
+    BLOCK_TYPES.put("H5", SemanticRole.HEADING);
+    BLOCK_TYPES.put("H6", SemanticRole.HEADING);
+    BLOCK_TYPES.put("Title", SemanticRole.TITLE);
+    BLOCK_TYPES.put("Caption", SemanticRole.CAPTION);
+    BLOCK_TYPES.put("Note", SemanticRole.FOOTNOTE);
+    BLOCK_TYPES.put("FENote", SemanticRole.FOOTNOTE);
+    BLOCK_TYPES.put("BibEntry", SemanticRole.REFERENCE);
+    // A "Reference" is an inline element; it is a block only if not contained in another block.
+    BLOCK_TYPES.put("Reference", SemanticRole.REFERENCE);
+    BLOCK_TYPES.put("LI", SemanticRole.ITEMIZE_ITEM);
+    BLOCK_TYPES.put("TOCI", SemanticRole.TABLE_OF_CONTENTS);
+    BLOCK_TYPES.put("TH", SemanticRole.TABLE);
+    BLOCK_TYPES.put("TD", SemanticRole.TABLE);
+    BLOCK_TYPES.put("Figure", SemanticRole.FIGURE);
+    BLOCK_TYPES.put("Formula", SemanticRole.FORMULA);
+  }
+
+  /**
+   * The maximum depth of the structure tree to traverse, to stop on malformed (cyclic) trees.
+   */
+  protected static final int MAX_DEPTH = 256;
+
+  /**
+   * The key of a marked-content reference to the content stream (of a form XObject) that
+   * contains the marked-content sequence.
+   */
+  protected static final COSName STM = COSName.getPDFName("Stm");
+
+  /**
+   * Reads the block-level elements of the structure tree of the given document, per page and in
+   * the order of the structure tree (the logical reading order). Marked-content sequences in form
+   * XObjects are not considered.
+   *
+   * @param doc
+   *        The document to process.
+   *
+   * @return The list of the block-level elements per page; null if the document isn't tagged
+   *         (or marked as suspect of containing an unreliable structure tree).
+   */
+  public static List<List<TaggedBlock>> readTaggedBlocks(PDDocument doc) {
+    if (doc == null) {
+      return null;
+    }
+
+    PDDocumentCatalog catalog = doc.getDocumentCatalog();
+    PDMarkInfo markInfo = catalog.getMarkInfo();
+    PDStructureTreeRoot root = catalog.getStructureTreeRoot();
+    if (root == null || markInfo == null || !markInfo.isMarked() || markInfo.isSuspect()) {
+      return null;
+    }
+
+    List<List<TaggedBlock>> blocksPerPage = new ArrayList<>();
+    Map<COSBase, Integer> pageIndexes = new IdentityHashMap<>();
+    for (PDPage page : doc.getPages()) {
+      pageIndexes.put(page.getCOSObject(), blocksPerPage.size());
+      blocksPerPage.add(new ArrayList<>());
+    }
+
+    Set<COSBase> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+    TreeContext context = new TreeContext(blocksPerPage, pageIndexes, visited);
+    for (Object kid : root.getKids()) {
+      visit(context, kid, null, -1, 0);
+    }
+    return blocksPerPage;
+  }
+
+  /**
+   * Visits the given node of the structure tree and adds the MCIDs below the node to the blocks
+   * of the enclosing block-level elements.
+   *
+   * @param context
+   *        The context of the traversal.
+   * @param node
+   *        The node to visit (a structure element, a marked-content reference or an MCID).
+   * @param element
+   *        The enclosing element; null if there is no enclosing element.
+   * @param pageIndex
+   *        The index of the page of the enclosing element; -1 if the page is unknown.
+   * @param depth
+   *        The depth of the node in the structure tree.
+   */
+  protected static void visit(TreeContext context, Object node, BlockOwner element, int pageIndex,
+      int depth) {
+    if (node instanceof Integer) {
+      addMcid(context, element, pageIndex, (Integer) node);
+    } else if (node instanceof PDMarkedContentReference) {
+      PDMarkedContentReference mcr = (PDMarkedContentReference) node;
+      if (mcr.getCOSObject().containsKey(STM)) {
+        return;
+      }
+      int mcrPageIndex = getPageIndex(context, mcr.getPage(), pageIndex);
+      addMcid(context, element, mcrPageIndex, mcr.getMCID());
+    } else if (node instanceof PDStructureElement) {
+      PDStructureElement structElement = (PDStructureElement) node;
+      if (depth > MAX_DEPTH || !context.visited.add(structElement.getCOSObject())) {
+        return;
+      }
+
+      String type = structElement.getStandardStructureType();
+      BlockOwner kidsElement;
+      if (element != null && !element.isAnonymous) {
+        // The element is contained in a block-level element.
+        kidsElement = element;
+      } else if (type != null && BLOCK_TYPES.containsKey(type)) {
+        kidsElement = new BlockOwner(type, BLOCK_TYPES.get(type), false);
+      } else {
+        kidsElement = new BlockOwner(type, null, true);
+      }
+
+      int elementPageIndex = getPageIndex(context, structElement.getPage(), pageIndex);
+      for (Object kid : structElement.getKids()) {
+        visit(context, kid, kidsElement, elementPageIndex, depth + 1);
+      }
+    }
+  }
+
+  /**
+   * Adds the given MCID to the block of the given element on the given page.
+   *
+   * @param context
+   *        The context of the traversal.
+   * @param element
+   *        The element.
+   * @param pageIndex
+   *        The index of the page.
+   * @param mcid
+   *        The MCID.
+   */
+  protected static void addMcid(TreeContext context, BlockOwner element, int pageIndex, int mcid) {
+    if (element == null || pageIndex < 0 || mcid < 0) {
+      return;
+    }
+
+    TaggedBlock block = element.blocksPerPage.get(pageIndex);
+    if (block == null) {
+      // The blocks are added in the order in which their first MCIDs appear in the tree.
+      block = new TaggedBlock(element.type, element.role);
+      // An element that spans more than one page continues its block on the previous page.
+      block.setPreviousBlock(element.lastBlock);
+      element.blocksPerPage.put(pageIndex, block);
+      element.lastBlock = block;
+      context.blocksPerPage.get(pageIndex).add(block);
+    }
+    block.addMcid(mcid);
+  }
+
+  /**
+   * Returns the index of the given page.
+   *
+   * @param context
+   *        The context of the traversal.
+   * @param page
+   *        The page.
+   * @param defaultIndex
+   *        The index to return if the page is null or unknown.
+   *
+   * @return The index of the given page.
+   */
+  protected static int getPageIndex(TreeContext context, PDPage page, int defaultIndex) {
+    if (page == null) {
+      return defaultIndex;
+    }
+    Integer index = context.pageIndexes.get(page.getCOSObject());
+    return index != null ? index : defaultIndex;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * The context of a traversal of a structure tree.
+   *
+   * @author Claudius Korzen
+   */
+  protected static class TreeContext {
+    /**
+     * The blocks per page.
+     */
+    protected final List<List<TaggedBlock>> blocksPerPage;
+
+    /**
+     * The indexes of the pages, per page dictionary.
+     */
+    protected final Map<COSBase, Integer> pageIndexes;
+
+    /**
+     * The dictionaries of the visited structure elements.
+     */
+    protected final Set<COSBase> visited;
+
+    /**
+     * Creates a new context.
+     *
+     * @param blocksPerPage
+     *        The blocks per page.
+     * @param pageIndexes
+     *        The indexes of the pages, per page dictionary.
+     * @param visited
+     *        The dictionaries of the visited structure elements.
+     */
+    protected TreeContext(List<List<TaggedBlock>> blocksPerPage,
+        Map<COSBase, Integer> pageIndexes, Set<COSBase> visited) {
+      this.blocksPerPage = blocksPerPage;
+      this.pageIndexes = pageIndexes;
+      this.visited = visited;
+    }
+  }
+
+  /**
+   * An element of the structure tree that owns blocks: a block-level element or an anonymous
+   * element that owns the content not contained in a block-level element.
+   *
+   * @author Claudius Korzen
+   */
+  protected static class BlockOwner {
+    /**
+     * The standard structure type of the element.
+     */
+    protected final String type;
+
+    /**
+     * The semantic role implied by the structure type.
+     */
+    protected final SemanticRole role;
+
+    /**
+     * True if the element isn't a block-level element.
+     */
+    protected final boolean isAnonymous;
+
+    /**
+     * The blocks of this element, per page index.
+     */
+    protected final Map<Integer, TaggedBlock> blocksPerPage = new HashMap<>();
+
+    /**
+     * The block of this element that was created last; null if no block was created yet.
+     */
+    protected TaggedBlock lastBlock;
+
+    /**
+     * Creates a new element.
+     *
+     * @param type
+     *        The standard structure type of the element.
+     * @param role
+     *        The semantic role implied by the structure type.
+     * @param isAnonymous
+     *        True if the element isn't a block-level element.
+     */
+    protected BlockOwner(String type, SemanticRole role, boolean isAnonymous) {
+      this.type = type;
+      this.role = role;
+      this.isAnonymous = isAnonymous;
+    }
+  }
+}
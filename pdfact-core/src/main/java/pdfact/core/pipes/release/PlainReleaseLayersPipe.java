@@ -0,0 +1,304 @@
+package pdfact.core.pipes.release;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pdfact.core.model.CharacterStatistic;
+import pdfact.core.model.Document;
+import pdfact.core.model.IntermediateLayer;
+import pdfact.core.model.Page;
+import pdfact.core.model.Paragraph;
+import pdfact.core.model.TextBlock;
+import pdfact.core.model.TextLine;
+import pdfact.core.model.Word;
+import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.list.ElementList;
+
+/**
+ * A plain implementation of {@link ReleaseLayersPipe}.
+ *
+ * @author Claudius Korzen
+ */
+public class PlainReleaseLayersPipe implements ReleaseLayersPipe {
+  /**
+   * The logger.
+   */
+  protected static Logger log = LogManager.getLogger(PlainReleaseLayersPipe.class);
+
+  /**
+   * The layers to release.
+   */
+  protected Set<IntermediateLayer> layers;
+
+  /**
+   * The number of released page characters.
+   */
+  protected int numReleasedPageCharacters;
+
+  /**
+   * The number of released text areas.
+   */
+  protected int numReleasedTextAreas;
+
+  /**
+   * The number of released statistics of text lines.
+   */
+  protected int numReleasedTextLineStatistics;
+
+  /**
+   * The number of released characters of text lines and words.
+   */
+  protected int numReleasedCharacters;
+
+  /**
+   * The number of words, text lines, text blocks and paragraphs whose texts were released.
+   */
+  protected int numReleasedTexts;
+
+  // ==============================================================================================
+
+  /**
+   * Creates a new pipe that releases no layers.
+   */
+  public PlainReleaseLayersPipe() {
+    this(EnumSet.noneOf(IntermediateLayer.class));
+  }
+
+  /**
+   * Creates a new pipe that releases the given layers.
+   *
+   * @param layers
+   *        The layers to release.
+   */
+  public PlainReleaseLayersPipe(Set<IntermediateLayer> layers) {
+    this.layers = layers;
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public Document execute(Document pdf) throws PdfActException {
+    log.debug("Start of pipe: " + getClass().getSimpleName() + ".");
+
+    log.debug("Process: Releasing the layers " + this.layers + ".");
+    releaseLayers(pdf);
+
+    log.debug("Releasing the layers done.");
+    if (this.layers.contains(IntermediateLayer.PAGE_CHARACTERS)) {
+      log.debug("# released page characters     : " + this.numReleasedPageCharacters);
+    }
+    if (this.layers.contains(IntermediateLayer.TEXT_AREAS)) {
+      log.debug("# released text areas          : " + this.numReleasedTextAreas);
+    }
+    if (this.layers.contains(IntermediateLayer.TEXT_LINE_STATISTICS)) {
+      log.debug("# released text line statistics: " + this.numReleasedTextLineStatistics);
+    }
+    if (this.layers.contains(IntermediateLayer.CHARACTERS)) {
+      log.debug("# released word characters     : " + this.numReleasedCharacters);
+    }
+    if (this.layers.contains(IntermediateLayer.TEXTS)) {
+      log.debug("# released texts               : " + this.numReleasedTexts);
+    }
+
+    log.debug("End of pipe: " + getClass().getSimpleName() + ".");
+    return pdf;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Releases the layers of the given PDF document.
+   *
+   * @param pdf
+   *        The PDF document to process.
+   */
+  protected void releaseLayers(Document pdf) {
+    if (pdf == null || this.layers.isEmpty()) {
+      return;
+    }
+
+    List<Page> pages = pdf.getPages();
+    if (pages == null) {
+      return;
+    }
+
+    for (Page page : pages) {
+      if (page == null) {
+        continue;
+      }
+
+      if (this.layers.contains(IntermediateLayer.PAGE_CHARACTERS)) {
+        this.numReleasedPageCharacters += page.getCharacters().size();
+        // This also releases the spatial index over the characters.
+        page.setCharacters(new ElementList<>(0));
+        // The statistic of the page is computed lazily from the characters of the page.
+        releaseCharacters(page.getCharacterStatistic());
+      }
+
+      if (this.layers.contains(IntermediateLayer.TEXT_AREAS)) {
+        this.numReleasedTextAreas += page.getTextAreas().size();
+        page.setTextAreas(new ElementList<>(0));
+      }
+
+      if (this.layers.contains(IntermediateLayer.TEXT_LINE_STATISTICS)) {
+        // The statistics of the text blocks are merged lazily from the statistics of the text
+        // lines, so compute them, to not keep the statistics of the text lines alive.
+        for (TextBlock block : page.getTextBlocks()) {
+          if (block.getCharacterStatistic() != null) {
+            block.getCharacterStatistic().releaseSources();
+          }
+        }
+        for (TextLine line : page.getTextLines()) {
+          if (line.getCharacterStatistic() != null) {
+            this.numReleasedTextLineStatistics++;
+            line.setCharacterStatistic(null);
+          }
+        }
+      }
+
+      if (this.layers.contains(IntermediateLayer.CHARACTERS)) {
+        // The statistics computed lazily from the characters would keep the characters alive.
+        releaseCharacters(page.getCharacterStatistic());
+        for (TextLine line : page.getTextLines()) {
+          line.setCharacters(new ElementList<>(0));
+          releaseCharacters(line.getCharacterStatistic());
+          for (Word word : line.getWords()) {
+            releaseCharacters(word);
+          }
+        }
+        for (TextBlock block : page.getTextBlocks()) {
+          releaseCharacters(block.getCharacterStatistic());
+        }
+      }
+
+      // The characters are released first, since this materializes the texts of the words.
+      if (this.layers.contains(IntermediateLayer.TEXTS)) {
+        for (TextLine line : page.getTextLines()) {
+          countReleasedText(line.releaseText());
+          for (Word word : line.getWords()) {
+            countReleasedText(word.releaseText());
+          }
+        }
+        for (TextBlock block : page.getTextBlocks()) {
+          countReleasedText(block.releaseText());
+        }
+      }
+    }
+
+    // The paragraphs may contain words that aren't contained in a text line (for example, the
+    // words merged on dehyphenation).
+    if (this.layers.contains(IntermediateLayer.CHARACTERS) && pdf.getParagraphs() != null) {
+      for (Paragraph paragraph : pdf.getParagraphs()) {
+        for (Word word : paragraph.getWords()) {
+          releaseCharacters(word);
+        }
+      }
+    }
+
+    if (this.layers.contains(IntermediateLayer.TEXTS) && pdf.getParagraphs() != null) {
+      for (Paragraph paragraph : pdf.getParagraphs()) {
+        countReleasedText(paragraph.releaseText());
+        for (Word word : paragraph.getWords()) {
+          countReleasedText(word.releaseText());
+        }
+      }
+    }
+  }
+
+  /**
+   * Releases the characters of the given word.
+   *
+   * @param word
+   *        The word to process.
+   */
+  protected void releaseCharacters(Word word) {
+    this.numReleasedCharacters += word.getNumCharacters();
+    word.releaseCharacters();
+    releaseCharacters(word.getCharacterStatistic());
+  }
+
+  /**
+   * Releases the characters from which the given statistic is computed lazily.
+   *
+   * @param statistic
+   *        The statistic to process; may be null.
+   */
+  protected void releaseCharacters(CharacterStatistic statistic) {
+    if (statistic != null) {
+      statistic.releaseCharacters();
+    }
+  }
+
+  /**
+   * Counts a released text.
+   *
+   * @param isReleased
+   *        True if a text was released; false otherwise.
+   */
+  protected void countReleasedText(boolean isReleased) {
+    if (isReleased) {
+      this.numReleasedTexts++;
+    }
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public Set<IntermediateLayer> getLayers() {
+    return this.layers;
+  }
+
+  @Override
+  public void setLayers(Set<IntermediateLayer> layers) {
+    this.layers = layers;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the number of released page characters.
+   *
+   * @return The number of released page characters.
+   */
+  public int getNumReleasedPageCharacters() {
+    return this.numReleasedPageCharacters;
+  }
+
+  /**
+   * Returns the number of released text areas.
+   *
+   * @return The number of released text areas.
+   */
+  public int getNumReleasedTextAreas() {
+    return this.numReleasedTextAreas;
+  }
+
+  /**
+   * Returns the number of released statistics of text lines.
+   *
+   * @return The number of released statistics of text lines.
+   */
+  public int getNumReleasedTextLineStatistics() {
+    return this.numReleasedTextLineStatistics;
+  }
+
+  /**
+   * Returns the number of released characters of words.
+   *
+   * @return The number of released characters of words.
+   */
+  public int getNumReleasedCharacters() {
+    return this.numReleasedCharacters;
+  }
+
+  /**
+   * Returns the number of words, text lines, text blocks and paragraphs whose texts were released.
+   *
+   * @return The number of words, text lines, text blocks and paragraphs whose texts were released.
+   */
+  public int getNumReleasedTexts() {
+    return this.numReleasedTexts;
+  }
+}
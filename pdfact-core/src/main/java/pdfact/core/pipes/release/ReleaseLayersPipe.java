@@ -0,0 +1,27 @@
+package pdfact.core.pipes.release;
+
+import java.util.Set;
+import pdfact.core.model.IntermediateLayer;
+import pdfact.core.util.pipeline.Pipe;
+
+/**
+ * A pipe that releases intermediate layers of a PDF document that are no longer needed.
+ *
+ * @author Claudius Korzen
+ */
+public interface ReleaseLayersPipe extends Pipe {
+  /**
+   * Returns the layers to release.
+   *
+   * @return The layers to release.
+   */
+  Set<IntermediateLayer> getLayers();
+
+  /**
+   * Sets the layers to release.
+   *
+   * @param layers
+   *        The layers to release.
+   */
+  void setLayers(Set<IntermediateLayer> layers);
+}
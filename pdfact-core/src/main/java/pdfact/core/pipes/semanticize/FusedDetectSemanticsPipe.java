@@ -0,0 +1,491 @@
+package pdfact.core.pipes.semanticize;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pdfact.core.model.Character;
+import pdfact.core.model.CharacterStatistic;
+import pdfact.core.model.Document;
+import pdfact.core.model.FontFace;
+import pdfact.core.model.Page;
+import pdfact.core.model.SemanticRole;
+import pdfact.core.model.TaggedBlock;
+import pdfact.core.model.TextBlock;
+import pdfact.core.model.TextLine;
+import pdfact.core.model.Word;
+import pdfact.core.pipes.semanticize.modules.AbstractModule;
+import pdfact.core.pipes.semanticize.modules.AcknowledgmentsModule;
+import pdfact.core.pipes.semanticize.modules.BodyTextModule;
+import pdfact.core.pipes.semanticize.modules.CategoriesModule;
+import pdfact.core.pipes.semanticize.modules.FootnoteModule;
+import pdfact.core.pipes.semanticize.modules.GeneralTermsModule;
+import pdfact.core.pipes.semanticize.modules.KeywordsModule;
+import pdfact.core.pipes.semanticize.modules.OtherRoleModule;
+import pdfact.core.pipes.semanticize.modules.ReferenceModule;
+import pdfact.core.pipes.semanticize.modules.SectionModule;
+import pdfact.core.pipes.semanticize.template.LayoutFingerprint;
+import pdfact.core.pipes.semanticize.template.LayoutTemplate;
+import pdfact.core.pipes.semanticize.template.LayoutTemplateCache;
+import pdfact.core.util.counter.ObjectCounter;
+import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.list.ElementList;
+import pdfact.core.util.statistician.CharacterStatistician;
+
+/**
+ * An implementation of {@link DetectSemanticsPipe} that applies the rules of the semanticizer
+ * modules (see {@link PlainDetectSemanticsPipe}) in two passes over the text blocks, instead of
+ * one pass per module.
+ *
+ * The first pass computes the features of each text block once (see {@link TextBlockFeatures})
+ * and collects the document-level facts the rules depend on: the title candidate, the lowest and
+ * topmost text blocks of the pages and the font face of the section headings. The second pass
+ * assigns the roles block by block, in document order. The rules are applied per block in the
+ * order of the modules; since each rule depends only on the block itself, on the document-level
+ * facts and (for the sections like the abstract) on the roles of the preceding blocks, the
+ * assigned roles are the same as assigned by {@link PlainDetectSemanticsPipe}. The per-block rules
+ * are shared with the modules: the sections are tracked by the same {@link SectionModule}s, and
+ * the caption, footnote, body text and fallback rules are static methods of the modules.
+ *
+ * Optionally, the pipe can be given a {@link LayoutTemplateCache}. On processing a document whose
+ * layout template is not in the cache yet, the learned parameters (the font faces of the title
+ * and the section headings and the texts of the page headers and footers) are added to the
+ * cache. On processing a document whose template is in the cache, the cached parameters are used
+ * instead of rediscovering them from the document (if the cached font faces occur in the
+ * document), which is cheaper and results in a more consistent detection across the documents
+ * of the same template.
+ *
+ * @author Claudius Korzen
+ */
+public class FusedDetectSemanticsPipe implements DetectSemanticsPipe {
+  /**
+   * The logger.
+   */
+  protected static Logger log = LogManager.getFormatterLogger("role-detection");
+
+  /**
+   * The character statistician.
+   */
+  protected CharacterStatistician charStatistician;
+
+  /**
+   * The cache of the layout templates learned from processed documents; null if no templates
+   * should be learned.
+   */
+  protected LayoutTemplateCache templateCache;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * The default constructor.
+   */
+  public FusedDetectSemanticsPipe() {
+    this.charStatistician = new CharacterStatistician();
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public Document execute(Document pdf) throws PdfActException {
+    detectSemantics(pdf);
+    return pdf;
+  }
+
+  /**
+   * Detects the semantics of the text blocks in the given PDF document.
+   *
+   * @param pdf
+   *        The PDF document to process.
+   *
+   * @return The processed PDF document.
+   */
+  protected Document detectSemantics(Document pdf) {
+    if (pdf == null) {
+      return pdf;
+    }
+
+    List<Page> pages = pdf.getPages();
+    if (pages == null) {
+      return pdf;
+    }
+
+    FontFace pdfFontFace = pdf.getCharacterStatistic().getMostCommonFontFace();
+
+    // Look up the template of the document, if there is a template cache.
+    String fingerprint = null;
+    LayoutTemplate template = null;
+    if (this.templateCache != null) {
+      fingerprint = LayoutFingerprint.compute(pdf);
+      if (fingerprint != null) {
+        template = this.templateCache.get(fingerprint);
+      }
+    }
+    String cachedTitleKey = template != null ? template.getTitleFontFaceKey() : null;
+    String cachedHeadingKey = template != null ? template.getHeadingFontFaceKey() : null;
+    TextBlockFeatures cachedTitleBlock = null;
+    FontFace cachedHeadingFontFace = null;
+
+    // The first pass: compute the features of the text blocks and the document-level facts.
+    List<TextBlockFeatures> features = new ArrayList<>();
+    List<TextBlockFeatures> lowestBlocks = new ArrayList<>(pages.size());
+    List<TextBlockFeatures> topMostBlocks = new ArrayList<>(pages.size());
+    TextBlockFeatures titleBlock = null;
+    TextBlockFeatures taggedTitleBlock = null;
+    ElementList<Character> headingChars = new ElementList<>();
+
+    for (int i = 0; i < pages.size(); i++) {
+      Page page = pages.get(i);
+      if (page == null) {
+        continue;
+      }
+
+      List<TextBlock> textBlocks = page.getTextBlocks();
+      if (textBlocks == null) {
+        continue;
+      }
+
+      // The document may be a window of the pages of a larger document (see
+      // WindowedPdfActCorePipe), so the first page in the list isn't necessarily the first page.
+      boolean isFirstPage = i == 0 && page.getPageNumber() <= 1;
+      float largestFontSize = -Float.MAX_VALUE;
+      TextBlockFeatures lowestBlock = null;
+      TextBlockFeatures topMostBlock = null;
+
+      for (TextBlock block : textBlocks) {
+        if (block == null) {
+          continue;
+        }
+
+        TextBlockFeatures f = new TextBlockFeatures(block);
+        features.add(f);
+
+        // The title is the block tagged as title (see Page.getTaggedBlocks()), or else the block
+        // with the largest font size on the first page.
+        if (block.getSemanticRole() == SemanticRole.TITLE) {
+          taggedTitleBlock = f;
+        }
+        if (isFirstPage && f.getFontFace().getFontSize() > largestFontSize) {
+          largestFontSize = f.getFontFace().getFontSize();
+          titleBlock = f;
+        }
+
+        // The page footer candidate is the first block with the smallest minY value, the page
+        // header candidate is the last block with the largest minY value.
+        if (block.getPosition() != null) {
+          if (lowestBlock == null || f.getMinY() < lowestBlock.getMinY()) {
+            lowestBlock = f;
+          }
+          if (topMostBlock == null || f.getMinY() >= topMostBlock.getMinY()) {
+            topMostBlock = f;
+          }
+        }
+
+        // Resolve the font faces of the template in the document.
+        if (cachedTitleKey != null && isFirstPage && cachedTitleBlock == null
+            && cachedTitleKey.equals(LayoutTemplate.getFontFaceKey(f.getFontFace()))) {
+          cachedTitleBlock = f;
+        }
+        if (cachedHeadingKey != null && cachedHeadingFontFace == null
+            && cachedHeadingKey.equals(LayoutTemplate.getFontFaceKey(f.getFontFace()))) {
+          cachedHeadingFontFace = f.getFontFace();
+        }
+
+        // Collect the characters of the known section headings with a larger font size.
+        if (cachedHeadingKey == null && pdfFontFace != null && f.getKnownHeadingRole() != null
+            && f.getFontFace() != null
+            && f.getFontFace().getFontSize() - pdfFontFace.getFontSize() > 1) {
+          for (TextLine line : block.getTextLines()) {
+            for (Word word : line.getWords()) {
+              headingChars.addAll(word.getCharacters());
+            }
+          }
+        }
+      }
+
+      if (lowestBlock != null) {
+        lowestBlocks.add(lowestBlock);
+        topMostBlocks.add(topMostBlock);
+      }
+    }
+
+    FontFace headingFontFace = cachedHeadingFontFace;
+    if (headingFontFace == null && cachedHeadingKey != null && pdfFontFace != null) {
+      // The cached heading font face doesn't occur in the document. Compute it.
+      collectKnownHeadingCharacters(features, pdfFontFace, headingChars);
+    }
+    if (headingFontFace == null && pdfFontFace != null) {
+      headingFontFace = this.charStatistician.compute(headingChars).getMostCommonFontFace();
+    }
+
+    if (cachedTitleBlock != null && cachedTitleBlock.getText().length() > 3) {
+      titleBlock = cachedTitleBlock;
+    }
+    if (taggedTitleBlock != null) {
+      titleBlock = taggedTitleBlock;
+    } else if (titleBlock != null && titleBlock.getText().length() > 3) {
+      assignRole(titleBlock, SemanticRole.TITLE, "the block exhibits the largest font size.");
+    } else {
+      titleBlock = null;
+    }
+    detectPageHeadersAndFooters(lowestBlocks, SemanticRole.PAGE_FOOTER,
+        template != null ? template.getPageFooterTexts() : null);
+    detectPageHeadersAndFooters(topMostBlocks, SemanticRole.PAGE_HEADER,
+        template != null ? template.getPageHeaderTexts() : null);
+
+    // The second pass: apply the rules to the text blocks, in document order.
+    List<SectionModule> sections = createSectionModules();
+    for (TextBlockFeatures f : features) {
+      TextBlock block = f.getTextBlock();
+
+      // The block is a heading if it exhibits the detected section heading font face.
+      if (block.getSemanticRole() == null && headingFontFace == f.getFontFace()) {
+        assignRole(f, SemanticRole.HEADING, "the block exhibits the detected heading font face");
+        if (f.getKnownHeadingRole() != null) {
+          block.setSecondarySemanticRole(f.getKnownHeadingRole());
+        }
+      }
+
+      // The roles of tagged blocks are given by the structure tree, but not their secondary roles.
+      if (block.getSecondarySemanticRole() == null) {
+        if (block.getSemanticRole() == SemanticRole.HEADING && f.getKnownHeadingRole() != null) {
+          block.setSecondarySemanticRole(f.getKnownHeadingRole());
+        } else if (block.getSemanticRole() == SemanticRole.CAPTION) {
+          block.setSecondarySemanticRole(f.getCaptionRole());
+        }
+      }
+
+      // The sections start with their known heading and end with the next heading.
+      for (SectionModule section : sections) {
+        if (section.isSectionMember(block)) {
+          assignRole(f, section.getRole(), "the block is located between the detected start/end "
+              + "of the section");
+        }
+      }
+
+      if (block.getSemanticRole() != null) {
+        continue;
+      }
+
+      if (f.getCaptionRole() != null) {
+        assignRole(f, SemanticRole.CAPTION, "the text matches a caption pattern");
+        block.setSecondarySemanticRole(f.getCaptionRole());
+        continue;
+      }
+
+      if (FootnoteModule.isFootnote(block, f.getFontFace())) {
+        assignRole(f, SemanticRole.FOOTNOTE, "the first character is raised compared to the "
+            + "first text line and doesn't exhibit the font most commonly used in the text block");
+        continue;
+      }
+
+      if (BodyTextModule.isBodyTextFontFace(pdfFontFace, f.getFontFace())) {
+        assignRole(f, SemanticRole.BODY_TEXT, "the block exhibits the most common font face");
+        continue;
+      }
+
+      assignRole(f, OtherRoleModule.findRole(pdfFontFace, f.getFontFace()), "the block wasn't "
+          + "assigned to any other role yet (a heading if its font face is larger than the most "
+          + "common font face).");
+    }
+
+    // Learn the template of the document, if it is not cached yet.
+    if (fingerprint != null && template == null) {
+      this.templateCache.put(learnTemplate(fingerprint, titleBlock, headingFontFace,
+          lowestBlocks, topMostBlocks));
+    }
+
+    return pdf;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Creates the modules that detect the sections starting with a known section heading, in the
+   * order in which {@link PlainDetectSemanticsPipe} applies them.
+   *
+   * @return The modules to detect the sections.
+   */
+  protected List<SectionModule> createSectionModules() {
+    List<SectionModule> sections = new ArrayList<>();
+    sections.add(new AbstractModule());
+    sections.add(new KeywordsModule());
+    sections.add(new CategoriesModule());
+    sections.add(new GeneralTermsModule());
+    sections.add(new AcknowledgmentsModule());
+    sections.add(new ReferenceModule());
+    return sections;
+  }
+
+  /**
+   * Adds the characters of the text blocks with a known section heading text and a font size
+   * larger than the most common font size to the given list.
+   *
+   * @param features
+   *        The features of all text blocks.
+   * @param pdfFontFace
+   *        The most common font face in the document.
+   * @param headingChars
+   *        The list to fill.
+   */
+  protected void collectKnownHeadingCharacters(List<TextBlockFeatures> features,
+      FontFace pdfFontFace, ElementList<Character> headingChars) {
+    for (TextBlockFeatures f : features) {
+      if (f.getKnownHeadingRole() == null || f.getFontFace() == null
+          || f.getFontFace().getFontSize() - pdfFontFace.getFontSize() <= 1) {
+        continue;
+      }
+      for (TextLine line : f.getTextBlock().getTextLines()) {
+        for (Word word : line.getWords()) {
+          headingChars.addAll(word.getCharacters());
+        }
+      }
+    }
+  }
+
+  /**
+   * Creates a layout template from the parameters detected in a document.
+   *
+   * @param fingerprint
+   *        The fingerprint of the document.
+   * @param titleBlock
+   *        The block detected as the title; null if there is no such block.
+   * @param headingFontFace
+   *        The detected font face of the section headings.
+   * @param lowestBlocks
+   *        The lowest text blocks of the pages.
+   * @param topMostBlocks
+   *        The topmost text blocks of the pages.
+   *
+   * @return The created template.
+   */
+  protected LayoutTemplate learnTemplate(String fingerprint, TextBlockFeatures titleBlock,
+      FontFace headingFontFace, List<TextBlockFeatures> lowestBlocks,
+      List<TextBlockFeatures> topMostBlocks) {
+    LayoutTemplate template = new LayoutTemplate(fingerprint, System.currentTimeMillis());
+    template.setHeadingFontFaceKey(LayoutTemplate.getFontFaceKey(headingFontFace));
+    if (titleBlock != null) {
+      template.setTitleFontFaceKey(LayoutTemplate.getFontFaceKey(titleBlock.getFontFace()));
+    }
+    for (TextBlockFeatures f : lowestBlocks) {
+      if (f.getTextBlock().getSemanticRole() == SemanticRole.PAGE_FOOTER) {
+        template.getPageFooterTexts().add(f.getTextWithoutDigits());
+      }
+    }
+    for (TextBlockFeatures f : topMostBlocks) {
+      if (f.getTextBlock().getSemanticRole() == SemanticRole.PAGE_HEADER) {
+        template.getPageHeaderTexts().add(f.getTextWithoutDigits());
+      }
+    }
+    return template;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Assigns the given role to each of the given lowest (or topmost) text blocks of the pages
+   * whose text (without digits) occurs on at least a third of the pages or is one of the given
+   * known texts.
+   *
+   * @param blocks
+   *        The lowest (or topmost) text blocks of the pages.
+   * @param role
+   *        The semantic role to assign to the related text blocks.
+   * @param knownTexts
+   *        The texts (without digits) of the page headers (or page footers) known from the
+   *        layout template of the document; null if there is no such template.
+   */
+  protected void detectPageHeadersAndFooters(List<TextBlockFeatures> blocks, SemanticRole role,
+      Set<String> knownTexts) {
+    if (blocks.isEmpty()) {
+      return;
+    }
+
+    // Count the frequencies of texts in the blocks.
+    ObjectCounter<String> textCounter = new ObjectCounter<>();
+    for (TextBlockFeatures f : blocks) {
+      textCounter.add(f.getTextWithoutDigits());
+    }
+
+    for (TextBlockFeatures f : blocks) {
+      // The content of tagged blocks isn't marked as an artifact, so it isn't a page header or
+      // footer.
+      if (f.getTextBlock().getTaggedBlock() != null) {
+        continue;
+      }
+      if (textCounter.getFrequency(f.getTextWithoutDigits()) >= blocks.size() / 3) {
+        assignRole(f, role, "the text occurs on more than a third of the pages.");
+      } else if (knownTexts != null && knownTexts.contains(f.getTextWithoutDigits())) {
+        assignRole(f, role, "the text is a known text of the layout template.");
+      }
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the cache of the layout templates.
+   *
+   * @return The cache of the layout templates; null if no templates are learned.
+   */
+  public LayoutTemplateCache getLayoutTemplateCache() {
+    return this.templateCache;
+  }
+
+  /**
+   * Sets the cache of the layout templates to learn the templates of the processed documents
+   * and to seed the detection in documents of known templates.
+   *
+   * @param cache
+   *        The cache of the layout templates; null if no templates should be learned.
+   */
+  public void setLayoutTemplateCache(LayoutTemplateCache cache) {
+    this.templateCache = cache;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Assigns the given role to the text block of the given features.
+   *
+   * @param features
+   *        The features of the text block.
+   * @param role
+   *        The role to assign.
+   * @param reason
+   *        The reason why the role is assigned, for logging purposes.
+   */
+  protected void assignRole(TextBlockFeatures features, SemanticRole role, String reason) {
+    TextBlock block = features.getTextBlock();
+    if (isRoleGivenByStructureTree(block)) {
+      // Don't overwrite the roles given by the structure tree.
+      return;
+    }
+    if (log.isDebugEnabled()) {
+      log.debug("-----------------------------------------------------");
+      log.debug("Text block: \"%s\" ...", features.getText());
+      log.debug("... page:          %d", block.getPosition().getPageNumber());
+      log.debug("... font face:     %s", features.getFontFace());
+      log.debug("... assigned role: %s", role);
+      log.debug("... role reason:   %s", reason);
+    }
+    block.setSemanticRole(role);
+  }
+
+  /**
+   * Checks whether the role of the given text block is given by the structure tree of a tagged
+   * PDF, that is if the block was created from a block-level element whose structure type implies
+   * a role.
+   *
+   * @param block
+   *        The text block to check.
+   *
+   * @return True if the role of the given text block is given by the structure tree; false
+   *         otherwise.
+   */
+  protected static boolean isRoleGivenByStructureTree(TextBlock block) {
+    TaggedBlock taggedBlock = block.getTaggedBlock();
+    return taggedBlock != null && taggedBlock.getSemanticRole() != null;
+  }
+}
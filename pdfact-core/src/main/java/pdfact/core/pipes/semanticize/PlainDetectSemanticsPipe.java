@@ -5,6 +5,10 @@ import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+import pdfact.core.model.SemanticRole;
+import pdfact.core.model.TaggedBlock;
+import pdfact.core.model.TextBlock;
 import pdfact.core.pipes.semanticize.modules.AbstractModule;
 import pdfact.core.pipes.semanticize.modules.AcknowledgmentsModule;
 import pdfact.core.pipes.semanticize.modules.BodyTextModule;
@@ -77,9 +81,55 @@ public class PlainDetectSemanticsPipe
    * @return The processed PDF document.
    */
   protected Document detectSemantics(Document pdf) {
+    List<TextBlock> taggedBlocks = getBlocksWithTaggedRoles(pdf);
+
+    // The roles of tagged blocks are given by the structure tree, but not their secondary roles.
+    for (TextBlock block : taggedBlocks) {
+      if (block.getSemanticRole() == SemanticRole.HEADING) {
+        String text = HeadingModule.normalizeText(block.getText());
+        block.setSecondarySemanticRole(HeadingModule.findKnownHeadingRole(text));
+      } else if (block.getSemanticRole() == SemanticRole.CAPTION) {
+        block.setSecondarySemanticRole(CaptionModule.findCaptionRole(block.getText()));
+      }
+    }
+
     for (PdfTextSemanticizerModule module : this.modules) {
       module.semanticize(pdf);
+
+      // Don't let the modules overwrite the roles given by the structure tree.
+      for (TextBlock block : taggedBlocks) {
+        block.setSemanticRole(block.getTaggedBlock().getSemanticRole());
+      }
     }
     return pdf;
   }
+
+  /**
+   * Returns the text blocks of the given PDF document whose roles are given by the structure tree
+   * of a tagged PDF, that is the blocks created from block-level elements whose structure types
+   * imply a role.
+   * 
+   * @param pdf
+   *        The PDF document to process.
+   * 
+   * @return The text blocks whose roles are given by the structure tree.
+   */
+  protected List<TextBlock> getBlocksWithTaggedRoles(Document pdf) {
+    List<TextBlock> blocks = new ArrayList<>();
+    if (pdf == null || pdf.getPages() == null) {
+      return blocks;
+    }
+    for (Page page : pdf.getPages()) {
+      if (page == null || page.getTaggedBlocks() == null) {
+        continue;
+      }
+      for (TextBlock block : page.getTextBlocks()) {
+        TaggedBlock taggedBlock = block.getTaggedBlock();
+        if (taggedBlock != null && taggedBlock.getSemanticRole() != null) {
+          blocks.add(block);
+        }
+      }
+    }
+    return blocks;
+  }
 }
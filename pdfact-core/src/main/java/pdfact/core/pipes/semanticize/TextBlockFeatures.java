@@ -0,0 +1,156 @@
+package pdfact.core.pipes.semanticize;
+
+import pdfact.core.model.CharacterStatistic;
+import pdfact.core.model.FontFace;
+import pdfact.core.model.Position;
+import pdfact.core.model.SemanticRole;
+import pdfact.core.model.TextBlock;
+import pdfact.core.pipes.semanticize.modules.CaptionModule;
+import pdfact.core.pipes.semanticize.modules.HeadingModule;
+import pdfact.core.pipes.semanticize.modules.PageHeaderFooterModule;
+
+/**
+ * The features of a text block that are used by the rules to detect the semantic roles, computed
+ * once per text block.
+ *
+ * @author Claudius Korzen
+ */
+public class TextBlockFeatures {
+  /**
+   * The text block.
+   */
+  protected final TextBlock block;
+
+  /**
+   * The text of the text block.
+   */
+  protected final String text;
+
+  /**
+   * The text of the text block, normalized to compare it with the known section headings.
+   */
+  protected final String headingText;
+
+  /**
+   * The text of the text block without digits, to compare page headers and footers.
+   */
+  protected final String textWithoutDigits;
+
+  /**
+   * The most common font face in the text block.
+   */
+  protected final FontFace fontFace;
+
+  /**
+   * The minY value of the text block.
+   */
+  protected final float minY;
+
+  /**
+   * The role of the known section heading with the text of the text block, if any.
+   */
+  protected final SemanticRole knownHeadingRole;
+
+  /**
+   * The secondary role of the caption with the text of the text block, if any.
+   */
+  protected final SemanticRole captionRole;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Computes the features of the given text block.
+   *
+   * @param block
+   *        The text block.
+   */
+  public TextBlockFeatures(TextBlock block) {
+    this.block = block;
+    this.text = block.getText();
+    this.headingText = HeadingModule.normalizeText(this.text);
+    this.textWithoutDigits = PageHeaderFooterModule.removeDigits(this.text);
+    this.knownHeadingRole = HeadingModule.findKnownHeadingRole(this.headingText);
+    this.captionRole = CaptionModule.findCaptionRole(this.text);
+
+    CharacterStatistic statistic = block.getCharacterStatistic();
+    this.fontFace = statistic != null ? statistic.getMostCommonFontFace() : null;
+
+    Position position = block.getPosition();
+    this.minY = position != null ? position.getRectangle().getMinY() : Float.NaN;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the text block.
+   *
+   * @return The text block.
+   */
+  public TextBlock getTextBlock() {
+    return this.block;
+  }
+
+  /**
+   * Returns the text of the text block.
+   *
+   * @return The text of the text block.
+   */
+  public String getText() {
+    return this.text;
+  }
+
+  /**
+   * Returns the text of the text block, normalized to compare it with the known section headings.
+   *
+   * @return The normalized text.
+   */
+  public String getHeadingText() {
+    return this.headingText;
+  }
+
+  /**
+   * Returns the text of the text block without digits.
+   *
+   * @return The text of the text block without digits.
+   */
+  public String getTextWithoutDigits() {
+    return this.textWithoutDigits;
+  }
+
+  /**
+   * Returns the most common font face in the text block.
+   *
+   * @return The most common font face in the text block.
+   */
+  public FontFace getFontFace() {
+    return this.fontFace;
+  }
+
+  /**
+   * Returns the minY value of the text block.
+   *
+   * @return The minY value of the text block.
+   */
+  public float getMinY() {
+    return this.minY;
+  }
+
+  /**
+   * Returns the role of the known section heading with the text of the text block.
+   *
+   * @return The role of the known section heading or null if the text is not a known heading.
+   */
+  public SemanticRole getKnownHeadingRole() {
+    return this.knownHeadingRole;
+  }
+
+  /**
+   * Returns the secondary role of the caption with the text of the text block.
+   *
+   * @return The secondary role of the caption or null if the text is not a caption.
+   */
+  public SemanticRole getCaptionRole() {
+    return this.captionRole;
+  }
+}
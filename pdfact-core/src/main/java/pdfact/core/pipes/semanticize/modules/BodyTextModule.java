@@ -61,16 +61,7 @@ public class BodyTextModule implements PdfTextSemanticizerModule {
         // equal to the most common font face.
         CharacterStatistic blockCharStats = block.getCharacterStatistic();
         FontFace blockFontFace = blockCharStats.getMostCommonFontFace();
-
-        Font pdfFont = pdfFontFace.getFont();
-        Font blockFont = blockFontFace.getFont();
-        if (pdfFont != blockFont) {
-          continue;
-        }
-
-        float pdfFontSize = pdfFontFace.getFontSize();
-        float blockFontSize = blockFontFace.getFontSize();
-        if (Math.abs(pdfFontSize - blockFontSize) > 0.05 * pdfFontSize) {
+        if (!isBodyTextFontFace(pdfFontFace, blockFontFace)) {
           continue;
         }
 
@@ -84,4 +75,27 @@ public class BodyTextModule implements PdfTextSemanticizerModule {
       }
     }
   }
+
+  /**
+   * Returns true if the given font face of a text block is (nearly) equal to the most common font
+   * face in the PDF document: if the fonts are equal and the font sizes differ by at most 5%.
+   * 
+   * @param pdfFontFace
+   *        The most common font face in the PDF document.
+   * @param blockFontFace
+   *        The most common font face in the text block.
+   * 
+   * @return True if the font face of the block is the font face of the body text.
+   */
+  public static boolean isBodyTextFontFace(FontFace pdfFontFace, FontFace blockFontFace) {
+    Font pdfFont = pdfFontFace.getFont();
+    Font blockFont = blockFontFace.getFont();
+    if (pdfFont != blockFont) {
+      return false;
+    }
+
+    float pdfFontSize = pdfFontFace.getFontSize();
+    float blockFontSize = blockFontFace.getFontSize();
+    return Math.abs(pdfFontSize - blockFontSize) <= 0.05 * pdfFontSize;
+  }
 }
@@ -40,6 +40,11 @@ public class CaptionModule implements PdfTextSemanticizerModule {
     CAPTION_PATTERNS.put(SemanticRole.TABLE, tableCaptionPattern);
   }
 
+  /**
+   * The characters a caption can start with.
+   */
+  protected static final String CAPTION_INITIALS = "faFAtT";
+
   // ==============================================================================================
 
   @Override
@@ -73,23 +78,46 @@ public class CaptionModule implements PdfTextSemanticizerModule {
         }
 
         // The text block is a caption if its text matches to one of the given patterns.
-        for (SemanticRole role : CAPTION_PATTERNS.keySet()) {
-          Pattern captionPattern = CAPTION_PATTERNS.get(role);
-          Matcher captionMatcher = captionPattern.matcher(block.getText());
-          if (captionMatcher.find()) {
-            log.debug("-----------------------------------------------------");
-            log.debug("Text block: \"%s\" ...", block.getText());
-            log.debug("... page:          %d", block.getPosition().getPageNumber());
-            log.debug("... assigned role: %s", SemanticRole.CAPTION);
-            log.debug("... role reason:   the text matches the regex '%s'", captionPattern);
-            block.setSemanticRole(SemanticRole.CAPTION);
-            // Set also the secondary role, e.g. "figure" for a figures
-            // caption.
-            block.setSecondarySemanticRole(role);
-            break;
-          }
+        SemanticRole role = findCaptionRole(block.getText());
+        if (role != null) {
+          log.debug("-----------------------------------------------------");
+          log.debug("Text block: \"%s\" ...", block.getText());
+          log.debug("... page:          %d", block.getPosition().getPageNumber());
+          log.debug("... assigned role: %s", SemanticRole.CAPTION);
+          log.debug("... role reason:   the text matches the regex '%s'",
+              CAPTION_PATTERNS.get(role));
+          block.setSemanticRole(SemanticRole.CAPTION);
+          // Set also the secondary role, e.g. "figure" for a figures
+          // caption.
+          block.setSecondarySemanticRole(role);
         }
       }
     }
   }
+
+  /**
+   * Returns the secondary role (e.g., "figure" for a figure caption) of the caption with the
+   * given text.
+   * 
+   * @param text
+   *        The text of a text block.
+   * 
+   * @return The secondary role of the caption or null if the text is not a caption.
+   */
+  public static SemanticRole findCaptionRole(String text) {
+    // All patterns start with "fig", "abbildung", "table" or "tabelle". Check the first character
+    // before applying the patterns.
+    if (text == null || text.isEmpty() || CAPTION_INITIALS.indexOf(text.charAt(0)) < 0) {
+      return null;
+    }
+
+    for (SemanticRole role : CAPTION_PATTERNS.keySet()) {
+      Pattern captionPattern = CAPTION_PATTERNS.get(role);
+      Matcher captionMatcher = captionPattern.matcher(text);
+      if (captionMatcher.find()) {
+        return role;
+      }
+    }
+    return null;
+  }
 }
@@ -4,7 +4,6 @@ import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import pdfact.core.model.Character;
-import pdfact.core.model.CharacterStatistic;
 import pdfact.core.model.Document;
 import pdfact.core.model.FontFace;
 import pdfact.core.model.Line;
@@ -56,44 +55,21 @@ public class FootnoteModule implements PdfTextSemanticizerModule {
           continue;
         }
 
-        // Obtain the first character of the text block.
-        TextLine firstTextLine = block.getFirstTextLine();
-        if (firstTextLine == null) {
-          continue;
-        }
-
-        Line firstBaseLine = firstTextLine.getBaseline();
-        if (firstBaseLine == null) {
-          continue;
-        }
-
-        Character firstChar = firstTextLine.getFirstWord().getFirstCharacter();
-        Rectangle firstCharBox = firstChar.getPosition().getRectangle();
-        float firstCharMinY = firstCharBox.getMinY();
-        float lineBaseLineY = firstBaseLine.getStartY();
-
-        // The block is *not* a footnote, if the first char is not raised.
-        // TODO
-        if (PdfActUtils.isSmallerOrEqual(firstCharMinY, lineBaseLineY, 1)) {
-          continue;
-        }
-
-        CharacterStatistic blockCharStats = block.getCharacterStatistic();
-        FontFace blockFontFace = blockCharStats.getMostCommonFontFace();
-        FontFace firstCharFontFace = firstChar.getFontFace();
-        // The text block is *not* a footnote, if the font face of the 1st char
-        // is equal to the most common font face in the text line.
-        if (firstCharFontFace == blockFontFace) {
+        FontFace blockFontFace = block.getCharacterStatistic().getMostCommonFontFace();
+        if (!isFootnote(block, blockFontFace)) {
           continue;
         }
 
+        Character firstChar = block.getFirstTextLine().getFirstWord().getFirstCharacter();
         log.debug("-----------------------------------------------------");
         log.debug("Text block: \"%s\" ...", block.getText());
         log.debug("... page:                       %d", block.getPosition().getPageNumber());
         log.debug("... font face:                  %s", blockFontFace);
-        log.debug("... min-y of 1st character:     %.1f", firstCharMinY);
-        log.debug("... min-y of 1st text line:     %.1f", lineBaseLineY);
-        log.debug("... font face of 1st character: %s", firstCharFontFace);
+        log.debug("... min-y of 1st character:     %.1f",
+            firstChar.getPosition().getRectangle().getMinY());
+        log.debug("... min-y of 1st text line:     %.1f",
+            block.getFirstTextLine().getBaseline().getStartY());
+        log.debug("... font face of 1st character: %s", firstChar.getFontFace());
         log.debug("... assigned role:              %s", SemanticRole.FOOTNOTE);
         log.debug("... role reason:                the first character is raised compared to the "
           + "first text line and doesn't exhibit the font most commonly used in the text block");
@@ -101,4 +77,44 @@ public class FootnoteModule implements PdfTextSemanticizerModule {
       }
     }
   }
+
+  /**
+   * Returns true if the given text block is a footnote, that is: if the first character of the
+   * block is raised compared to the first text line and if it doesn't exhibit the font face most
+   * commonly used in the text block.
+   * 
+   * @param block
+   *        The text block to check.
+   * @param blockFontFace
+   *        The most common font face in the text block.
+   * 
+   * @return True if the given text block is a footnote; false otherwise.
+   */
+  public static boolean isFootnote(TextBlock block, FontFace blockFontFace) {
+    // Obtain the first character of the text block.
+    TextLine firstTextLine = block.getFirstTextLine();
+    if (firstTextLine == null) {
+      return false;
+    }
+
+    Line firstBaseLine = firstTextLine.getBaseline();
+    if (firstBaseLine == null) {
+      return false;
+    }
+
+    Character firstChar = firstTextLine.getFirstWord().getFirstCharacter();
+    Rectangle firstCharBox = firstChar.getPosition().getRectangle();
+    float firstCharMinY = firstCharBox.getMinY();
+    float lineBaseLineY = firstBaseLine.getStartY();
+
+    // The block is *not* a footnote, if the first char is not raised.
+    // TODO
+    if (PdfActUtils.isSmallerOrEqual(firstCharMinY, lineBaseLineY, 1)) {
+      return false;
+    }
+
+    // The text block is *not* a footnote, if the font face of the 1st char
+    // is equal to the most common font face in the text line.
+    return firstChar.getFontFace() != blockFontFace;
+  }
 }
@@ -155,13 +155,10 @@ public class HeadingModule implements PdfTextSemanticizerModule {
           log.debug("... assigned role: %s", SemanticRole.HEADING);
           log.debug("... role reason:   the block exhibits the detected heading font face");
           block.setSemanticRole(SemanticRole.HEADING);
-          // Iterate through the known headings to obtain the secondary role.
-          for (SemanticRole role : KNOWN_HEADINGS.keySet()) {
-            Set<String> headings = KNOWN_HEADINGS.get(role);
-            if (headings.contains(text)) {
-              block.setSecondarySemanticRole(role);
-              break;
-            }
+          // Look up the known headings to obtain the secondary role.
+          SemanticRole role = findKnownHeadingRole(text);
+          if (role != null) {
+            block.setSecondarySemanticRole(role);
           }
         }
       }
@@ -232,14 +229,28 @@ public class HeadingModule implements PdfTextSemanticizerModule {
    *         heading.
    */
   protected boolean hasKnownSectionHeadingText(TextBlock block) {
-    String text = toNormalizedText(block);
+    return findKnownHeadingRole(toNormalizedText(block)) != null;
+  }
+
+  /**
+   * Returns the (secondary) role of the known section heading with the given normalized text.
+   * 
+   * @param normalizedText
+   *        The normalized text of a text block (see {@link #normalizeText(String)}).
+   * 
+   * @return The role of the known section heading or null if the text is not a known heading.
+   */
+  public static SemanticRole findKnownHeadingRole(String normalizedText) {
+    if (normalizedText == null) {
+      return null;
+    }
     for (SemanticRole role : KNOWN_HEADINGS.keySet()) {
       Set<String> headings = KNOWN_HEADINGS.get(role);
-      if (headings.contains(text)) {
-        return true;
+      if (headings.contains(normalizedText)) {
+        return role;
       }
     }
-    return false;
+    return null;
   }
 
   /**
@@ -251,9 +262,33 @@ public class HeadingModule implements PdfTextSemanticizerModule {
    */
   @Deprecated
   protected static String toNormalizedText(TextBlock block) {
-    if (block == null || block.getText() == null) {
+    if (block == null) {
       return null;
     }
-    return block.getText().replaceAll("[^A-Za-z]", "").toLowerCase().trim();
+    return normalizeText(block.getText());
+  }
+
+  /**
+   * Normalizes the given text of a text block to compare it with the known section headings:
+   * removes all characters but the Latin letters and lower-cases the letters.
+   * 
+   * @param text
+   *        The text to normalize.
+   * @return The normalized text or null if the given text is null.
+   */
+  public static String normalizeText(String text) {
+    if (text == null) {
+      return null;
+    }
+    StringBuilder sb = new StringBuilder(text.length());
+    for (int i = 0; i < text.length(); i++) {
+      char ch = text.charAt(i);
+      if (ch >= 'A' && ch <= 'Z') {
+        sb.append((char) (ch + ('a' - 'A')));
+      } else if (ch >= 'a' && ch <= 'z') {
+        sb.append(ch);
+      }
+    }
+    return sb.toString();
   }
 }
@@ -25,14 +25,7 @@ public class OtherRoleModule implements PdfTextSemanticizerModule {
   /**
    * A comparator to compare font faces.
    */
-  protected FontFaceComparator fontFaceComparator;
-
-  /**
-   * Creates a new module.
-   */
-  public OtherRoleModule() {
-    this.fontFaceComparator = new FontFaceComparator();
-  }
+  protected static final FontFaceComparator FONT_FACE_COMPARATOR = new FontFaceComparator();
 
   @Override
   public void semanticize(Document pdf) {
@@ -70,18 +63,36 @@ public class OtherRoleModule implements PdfTextSemanticizerModule {
         log.debug("Text block: \"%s\" ...", block.getText());
         log.debug("... page:          %d", block.getPosition().getPageNumber());
 
-        if (this.fontFaceComparator.compare(pdfFontFace, blockFontFace) < 0) {
+        SemanticRole role = findRole(pdfFontFace, blockFontFace);
+        if (role == SemanticRole.HEADING) {
           log.debug("... assigned role: %s", SemanticRole.HEADING);
           log.debug("... role reason:   the block wasn't assigned to any role yet and its font "
                   + "face is larger than the most common font face).");
-          // The font face of the block is "larger" than the most common font face in the document.
-          block.setSemanticRole(SemanticRole.HEADING);
         } else {
           log.debug("... assigned role: %s", SemanticRole.OTHER);
           log.debug("... role reason:   the block wasn't assigned to any other role yet.");
-          block.setSemanticRole(SemanticRole.OTHER);
         }
+        block.setSemanticRole(role);
       }
     }
   }
+
+  /**
+   * Returns the role of a text block that wasn't assigned to any other role: "heading" if the
+   * font face of the block is "larger" than the most common font face in the document, "other"
+   * otherwise.
+   * 
+   * @param pdfFontFace
+   *        The most common font face in the PDF document.
+   * @param blockFontFace
+   *        The most common font face in the text block.
+   * 
+   * @return The role of the text block.
+   */
+  public static SemanticRole findRole(FontFace pdfFontFace, FontFace blockFontFace) {
+    if (FONT_FACE_COMPARATOR.compare(pdfFontFace, blockFontFace) < 0) {
+      return SemanticRole.HEADING;
+    }
+    return SemanticRole.OTHER;
+  }
 }
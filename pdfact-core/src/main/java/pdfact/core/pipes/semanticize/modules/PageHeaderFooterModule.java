@@ -1,7 +1,6 @@
 package pdfact.core.pipes.semanticize.modules;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -9,8 +8,8 @@ import pdfact.core.model.Document;
 import pdfact.core.model.Page;
 import pdfact.core.model.SemanticRole;
 import pdfact.core.model.TextBlock;
-import pdfact.core.util.comparator.MinYComparator;
 import pdfact.core.util.counter.ObjectCounter;
+import pdfact.core.util.index.SpatialIndex;
 
 /**
  * A module that identifies the text blocks with the semantic role "page header"
@@ -49,12 +48,14 @@ public class PageHeaderFooterModule implements PdfTextSemanticizerModule {
         continue;
       }
 
-      // Sort the blocks by minY to obtain the lowest and topmost block.
-      List<TextBlock> sortedBlocks = new ArrayList<>(textBlocks);
-      Collections.sort(sortedBlocks, new MinYComparator());
+      // Obtain the lowest and topmost block (by minY) from the spatial index of the page.
+      SpatialIndex<TextBlock> index = page.getTextBlockIndex();
+      if (index.size() == 0) {
+        continue;
+      }
 
-      lowestBlocks.add(sortedBlocks.get(0));
-      topMostBlocks.add(sortedBlocks.get(sortedBlocks.size() - 1));
+      lowestBlocks.add(index.getElementWithSmallestMinY());
+      topMostBlocks.add(index.getElementWithLargestMinY());
     }
 
     semanticizeBlocks(lowestBlocks, SemanticRole.PAGE_FOOTER);
@@ -89,6 +90,11 @@ public class PageHeaderFooterModule implements PdfTextSemanticizerModule {
     }
 
     for (TextBlock block : blocks) {
+      // The content of tagged blocks isn't marked as an artifact, so it isn't a page header or
+      // footer.
+      if (block.getTaggedBlock() != null) {
+        continue;
+      }
       String normalizedText = getNormalizedText(block);
       if (textCounter.getFrequency(normalizedText) >= blocks.size() / 3) {
         log.debug("-----------------------------------------------------");
@@ -116,11 +122,29 @@ public class PageHeaderFooterModule implements PdfTextSemanticizerModule {
       return null;
     }
 
-    String text = block.getText();
+    return removeDigits(block.getText());
+  }
+
+  /**
+   * Removes the digits (0-9) from the given text.
+   * 
+   * @param text
+   *        The text to process.
+   * 
+   * @return The text without digits, or null if the given text is null.
+   */
+  public static String removeDigits(String text) {
     if (text == null) {
       return null;
     }
 
-    return text.replaceAll("\\d", "");
+    StringBuilder sb = new StringBuilder(text.length());
+    for (int i = 0; i < text.length(); i++) {
+      char ch = text.charAt(i);
+      if (ch < '0' || ch > '9') {
+        sb.append(ch);
+      }
+    }
+    return sb.toString();
   }
 }
@@ -0,0 +1,124 @@
+package pdfact.core.pipes.semanticize.modules;
+
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+import pdfact.core.model.SemanticRole;
+import pdfact.core.model.TextBlock;
+
+/**
+ * A module that identifies the text blocks of a section that starts with a known section heading
+ * (for example, the heading "Abstract") and ends with the next heading. The text blocks between
+ * both headings get the (secondary) role of the known section heading.
+ *
+ * @author Claudius Korzen
+ */
+public class SectionModule implements PdfTextSemanticizerModule {
+  /**
+   * The logger.
+   */
+  protected static Logger log = LogManager.getFormatterLogger("role-detection");
+
+  /**
+   * The role of the section.
+   */
+  protected SemanticRole role;
+
+  /**
+   * A boolean flag that indicates whether the current text block is a member of the section or
+   * not.
+   */
+  protected boolean isInSection = false;
+
+  /**
+   * Creates a new module that identifies the text blocks of the section with the given role.
+   *
+   * @param role
+   *        The role of the section.
+   */
+  public SectionModule(SemanticRole role) {
+    this.role = role;
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public void semanticize(Document pdf) {
+    log.debug("=====================================================");
+    log.debug("Detecting text blocks of semantic role '%s' ...", this.role);
+    log.debug("=====================================================");
+
+    if (pdf == null) {
+      return;
+    }
+
+    List<Page> pages = pdf.getPages();
+    if (pages == null) {
+      return;
+    }
+
+    for (Page page : pages) {
+      if (page == null) {
+        continue;
+      }
+
+      for (TextBlock block : page.getTextBlocks()) {
+        if (block == null) {
+          continue;
+        }
+
+        if (isSectionMember(block)) {
+          log.debug("-----------------------------------------------------");
+          log.debug("Text block: \"%s\" ...", block.getText());
+          log.debug("... page:          %d", block.getPosition().getPageNumber());
+          log.debug("... assigned role: %s", this.role);
+          log.debug("... role reason:   the block is located between the detected "
+              + "start/end of the %s section", this.role);
+          block.setSemanticRole(this.role);
+        }
+      }
+    }
+  }
+
+  /**
+   * Checks whether the given text block is a member of the section. The text blocks must be
+   * given in document order, since a section starts with its known heading and ends with the
+   * next heading.
+   *
+   * @param block
+   *        The text block to check.
+   *
+   * @return True if the given text block is a member of the section; false otherwise.
+   */
+  public boolean isSectionMember(TextBlock block) {
+    SemanticRole role = block.getSemanticRole();
+    SemanticRole secondaryRole = block.getSecondarySemanticRole();
+
+    // Check if the current block is a section heading (which would denote the end of the
+    // section).
+    if (this.isInSection && role == SemanticRole.HEADING) {
+      this.isInSection = false;
+    }
+
+    boolean isSectionMember = this.isInSection;
+
+    // Check if the current block is the heading of the section (which would denote the start of
+    // the section).
+    if (role == SemanticRole.HEADING && secondaryRole == this.role) {
+      this.isInSection = true;
+    }
+
+    return isSectionMember;
+  }
+
+  /**
+   * Returns the role of the section.
+   *
+   * @return The role of the section.
+   */
+  public SemanticRole getRole() {
+    return this.role;
+  }
+}
@@ -38,9 +38,21 @@ public class TitleModule implements PdfTextSemanticizerModule {
       return;
     }
 
+    // Don't search for the title if it is given by the structure tree of a tagged PDF.
+    for (Page page : pages) {
+      if (page == null || page.getTextBlocks() == null) {
+        continue;
+      }
+      for (TextBlock block : page.getTextBlocks()) {
+        if (block != null && block.getSemanticRole() == SemanticRole.TITLE) {
+          return;
+        }
+      }
+    }
+
     // Search the text blocks of only the first page.
     Page firstPage = pages.get(0);
-    if (firstPage == null) {
+    if (firstPage == null || firstPage.getPageNumber() > 1) {
       return;
     }
 
@@ -0,0 +1,125 @@
+package pdfact.core.pipes.semanticize.template;
+
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import pdfact.core.model.CharacterStatistic;
+import pdfact.core.model.Document;
+import pdfact.core.model.FontFace;
+import pdfact.core.model.Page;
+import pdfact.core.model.Position;
+import pdfact.core.model.TextBlock;
+import pdfact.core.util.counter.ObjectCounter;
+
+/**
+ * Computes the fingerprint of the layout template of a document, that is: a string that is equal
+ * for documents of the same template (for example, the papers of a conference) and that is used
+ * as the key of the template in a {@link LayoutTemplateCache}.
+ *
+ * The fingerprint consists of (1) the set of fonts which are the most common font in at least
+ * {@link #MIN_NUM_BLOCKS_PER_FONT} text blocks, (2) the size of the first page, (3) the most
+ * common font face in the document and (4) the number of columns, estimated from the left edges
+ * of the text blocks in the most common font face. Since it is computed from the text blocks, the
+ * fingerprint can be computed only after the text blocks were detected.
+ *
+ * @author Claudius Korzen
+ */
+public class LayoutFingerprint {
+  /**
+   * The minimum number of text blocks in which a font must be the most common font to be part of
+   * the fingerprint (fonts used in single blocks only, e.g. for a formula, are ignored).
+   */
+  protected static final int MIN_NUM_BLOCKS_PER_FONT = 2;
+
+  /**
+   * The number of horizontal slices of a page in which the left edges of text blocks are counted
+   * to estimate the number of columns.
+   */
+  protected static final int NUM_COLUMN_SLICES = 8;
+
+  /**
+   * The minimum share of the text blocks whose left edges must be located in a slice such that the
+   * slice is considered as the start of a column.
+   */
+  protected static final float MIN_COLUMN_SHARE = 0.2f;
+
+  /**
+   * Computes the fingerprint of the layout template of the given document.
+   *
+   * @param pdf
+   *        The document.
+   *
+   * @return The fingerprint of the layout template of the given document or null if the document
+   *         doesn't contain any text.
+   */
+  public static String compute(Document pdf) {
+    if (pdf == null || pdf.getPages() == null || pdf.getPages().isEmpty()) {
+      return null;
+    }
+
+    CharacterStatistic pdfCharStats = pdf.getCharacterStatistic();
+    FontFace pdfFontFace = pdfCharStats != null ? pdfCharStats.getMostCommonFontFace() : null;
+    if (pdfFontFace == null) {
+      return null;
+    }
+
+    ObjectCounter<String> fontCounter = new ObjectCounter<>();
+    int[] columnSliceCounts = new int[NUM_COLUMN_SLICES];
+    int numBodyBlocks = 0;
+
+    List<Page> pages = pdf.getPages();
+    for (Page page : pages) {
+      if (page == null || page.getTextBlocks() == null) {
+        continue;
+      }
+
+      for (TextBlock block : page.getTextBlocks()) {
+        if (block == null || block.getCharacterStatistic() == null) {
+          continue;
+        }
+
+        FontFace fontFace = block.getCharacterStatistic().getMostCommonFontFace();
+        if (fontFace == null || fontFace.getFont() == null) {
+          continue;
+        }
+        fontCounter.add(LayoutTemplate.getFontKey(fontFace.getFont()));
+
+        Position position = block.getPosition();
+        if (fontFace != pdfFontFace || position == null || page.getWidth() <= 0) {
+          continue;
+        }
+
+        // Count the left edges of the body text blocks per slice of the page.
+        float minX = position.getRectangle().getMinX();
+        int slice = (int) (minX / page.getWidth() * NUM_COLUMN_SLICES);
+        columnSliceCounts[Math.max(0, Math.min(NUM_COLUMN_SLICES - 1, slice))]++;
+        numBodyBlocks++;
+      }
+    }
+
+    SortedSet<String> fonts = new TreeSet<>();
+    for (Object font : fontCounter.getObjects()) {
+      if (fontCounter.getFrequency((String) font) >= MIN_NUM_BLOCKS_PER_FONT) {
+        fonts.add((String) font);
+      }
+    }
+
+    int numColumns = 0;
+    for (int count : columnSliceCounts) {
+      if (count > 0 && count >= MIN_COLUMN_SHARE * numBodyBlocks) {
+        numColumns++;
+      }
+    }
+
+    Page firstPage = pages.get(0);
+    StringBuilder sb = new StringBuilder();
+    sb.append("fonts=").append(String.join(",", fonts));
+    if (firstPage != null) {
+      sb.append(";page=").append(Math.round(firstPage.getWidth()));
+      sb.append("x").append(Math.round(firstPage.getHeight()));
+    }
+    sb.append(";body=").append(LayoutTemplate.getFontFaceKey(pdfFontFace));
+    sb.append(";columns=").append(Math.max(1, numColumns));
+    return sb.toString();
+  }
+}
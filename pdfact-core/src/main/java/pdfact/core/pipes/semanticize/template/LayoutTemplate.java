@@ -0,0 +1,192 @@
+package pdfact.core.pipes.semanticize.template;
+
+import java.util.HashSet;
+import java.util.Set;
+import pdfact.core.model.Font;
+import pdfact.core.model.FontFace;
+
+/**
+ * The layout parameters learned from a document of a specific layout template (for example, the
+ * template of a conference), which are used to seed the detection of the semantic roles in
+ * further documents of the same template.
+ *
+ * Font faces are stored by their keys (see {@link #getFontFaceKey(FontFace)}), since the
+ * {@link FontFace} objects are created per document.
+ *
+ * @author Claudius Korzen
+ */
+public class LayoutTemplate {
+  /**
+   * The fingerprint of the layout template (see {@link LayoutFingerprint}).
+   */
+  protected String fingerprint;
+
+  /**
+   * The time in milliseconds at which this template was learned.
+   */
+  protected long creationTime;
+
+  /**
+   * The key of the font face of the section headings; null if unknown.
+   */
+  protected String headingFontFaceKey;
+
+  /**
+   * The key of the font face of the title; null if unknown.
+   */
+  protected String titleFontFaceKey;
+
+  /**
+   * The texts (without digits) of the page headers.
+   */
+  protected Set<String> pageHeaderTexts;
+
+  /**
+   * The texts (without digits) of the page footers.
+   */
+  protected Set<String> pageFooterTexts;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new, empty layout template.
+   *
+   * @param fingerprint
+   *        The fingerprint of the layout template.
+   * @param creationTime
+   *        The time in milliseconds at which the template was learned.
+   */
+  public LayoutTemplate(String fingerprint, long creationTime) {
+    this.fingerprint = fingerprint;
+    this.creationTime = creationTime;
+    this.pageHeaderTexts = new HashSet<>();
+    this.pageFooterTexts = new HashSet<>();
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the fingerprint of the layout template.
+   *
+   * @return The fingerprint of the layout template.
+   */
+  public String getFingerprint() {
+    return this.fingerprint;
+  }
+
+  /**
+   * Returns the time in milliseconds at which this template was learned.
+   *
+   * @return The time in milliseconds at which this template was learned.
+   */
+  public long getCreationTime() {
+    return this.creationTime;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the key of the font face of the section headings.
+   *
+   * @return The key of the font face of the section headings or null if unknown.
+   */
+  public String getHeadingFontFaceKey() {
+    return this.headingFontFaceKey;
+  }
+
+  /**
+   * Sets the key of the font face of the section headings.
+   *
+   * @param key
+   *        The key of the font face of the section headings.
+   */
+  public void setHeadingFontFaceKey(String key) {
+    this.headingFontFaceKey = key;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the key of the font face of the title.
+   *
+   * @return The key of the font face of the title or null if unknown.
+   */
+  public String getTitleFontFaceKey() {
+    return this.titleFontFaceKey;
+  }
+
+  /**
+   * Sets the key of the font face of the title.
+   *
+   * @param key
+   *        The key of the font face of the title.
+   */
+  public void setTitleFontFaceKey(String key) {
+    this.titleFontFaceKey = key;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the texts (without digits) of the page headers.
+   *
+   * @return The texts of the page headers.
+   */
+  public Set<String> getPageHeaderTexts() {
+    return this.pageHeaderTexts;
+  }
+
+  /**
+   * Returns the texts (without digits) of the page footers.
+   *
+   * @return The texts of the page footers.
+   */
+  public Set<String> getPageFooterTexts() {
+    return this.pageFooterTexts;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns a key of the given font, which is equal for the same fonts in different documents.
+   *
+   * @param font
+   *        The font.
+   *
+   * @return The key of the given font or null if the given font is null.
+   */
+  public static String getFontKey(Font font) {
+    if (font == null) {
+      return null;
+    }
+    StringBuilder sb = new StringBuilder();
+    sb.append(font.getNormalizedName());
+    if (font.isBold()) {
+      sb.append("+bold");
+    }
+    if (font.isItalic()) {
+      sb.append("+italic");
+    }
+    if (font.isType3Font()) {
+      sb.append("+type3");
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Returns a key of the given font face, which is equal for the same font faces in different
+   * documents.
+   *
+   * @param fontFace
+   *        The font face.
+   *
+   * @return The key of the given font face or null if the given font face is null.
+   */
+  public static String getFontFaceKey(FontFace fontFace) {
+    if (fontFace == null) {
+      return null;
+    }
+    return getFontKey(fontFace.getFont()) + "@" + fontFace.getFontSize();
+  }
+}
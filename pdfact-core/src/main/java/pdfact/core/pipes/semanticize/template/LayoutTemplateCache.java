@@ -0,0 +1,486 @@
+package pdfact.core.pipes.semanticize.template;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.exception.PdfActIoException;
+
+/**
+ * A cache of the layout templates learned from processed documents, keyed by their fingerprints
+ * (see {@link LayoutFingerprint}). The cache is bounded in size (the least recently used
+ * templates are evicted first) and in time (templates older than the time-to-live are treated as
+ * missing and evicted on access). The cache can be saved to and loaded from a file, to share the
+ * learned templates between multiple runs of PdfAct.
+ *
+ * The cache is thread-safe, so it can be shared by pipes processing multiple documents in
+ * parallel.
+ *
+ * @author Claudius Korzen
+ */
+public class LayoutTemplateCache {
+  /**
+   * The logger.
+   */
+  protected static Logger log = LogManager.getFormatterLogger("role-detection");
+
+  /**
+   * The default maximum number of templates in the cache.
+   */
+  public static final int DEFAULT_MAX_SIZE = 1000;
+
+  /**
+   * The default time-to-live of a template in milliseconds (30 days).
+   */
+  public static final long DEFAULT_TIME_TO_LIVE = 30L * 24 * 60 * 60 * 1000;
+
+  /**
+   * The header of a cache file, to identify the file format and its version.
+   */
+  protected static final int FILE_HEADER = 0x50544301;
+
+  /**
+   * The templates, in the order of their last access.
+   */
+  protected LinkedHashMap<String, LayoutTemplate> templates;
+
+  /**
+   * The maximum number of templates in the cache.
+   */
+  protected int maxSize;
+
+  /**
+   * The time-to-live of a template in milliseconds.
+   */
+  protected long timeToLive;
+
+  /**
+   * The number of lookups that found a template.
+   */
+  protected int numHits;
+
+  /**
+   * The number of lookups that didn't find a (live) template.
+   */
+  protected int numMisses;
+
+  /**
+   * The number of templates evicted from the cache, because the cache was full or the templates
+   * were expired.
+   */
+  protected int numEvictions;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new layout template cache with the default size and time-to-live.
+   */
+  public LayoutTemplateCache() {
+    this(DEFAULT_MAX_SIZE, DEFAULT_TIME_TO_LIVE);
+  }
+
+  /**
+   * Creates a new layout template cache.
+   *
+   * @param maxSize
+   *        The maximum number of templates in the cache.
+   * @param timeToLive
+   *        The time-to-live of a template in milliseconds.
+   */
+  public LayoutTemplateCache(int maxSize, long timeToLive) {
+    this.templates = new LinkedHashMap<>(16, 0.75f, true);
+    this.maxSize = maxSize;
+    this.timeToLive = timeToLive;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the template with the given fingerprint.
+   *
+   * @param fingerprint
+   *        The fingerprint of the template.
+   *
+   * @return The template with the given fingerprint or null if there is no such template or if
+   *         the template is expired.
+   */
+  public synchronized LayoutTemplate get(String fingerprint) {
+    LayoutTemplate template = fingerprint != null ? this.templates.get(fingerprint) : null;
+    if (template != null && isExpired(template, System.currentTimeMillis())) {
+      this.templates.remove(fingerprint);
+      this.numEvictions++;
+      template = null;
+    }
+
+    if (template != null) {
+      this.numHits++;
+      log.debug("Layout template cache hit: %s", fingerprint);
+    } else {
+      this.numMisses++;
+      log.debug("Layout template cache miss: %s", fingerprint);
+    }
+    return template;
+  }
+
+  /**
+   * Adds the given template to the cache. Replaces the template with the same fingerprint, if
+   * any, and evicts the least recently used templates if the cache is full.
+   *
+   * @param template
+   *        The template to add.
+   */
+  public synchronized void put(LayoutTemplate template) {
+    if (template == null || template.getFingerprint() == null) {
+      return;
+    }
+    this.templates.put(template.getFingerprint(), template);
+    evict(System.currentTimeMillis());
+  }
+
+  /**
+   * Returns the number of templates in the cache.
+   *
+   * @return The number of templates in the cache.
+   */
+  public synchronized int size() {
+    return this.templates.size();
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the number of lookups that found a template.
+   *
+   * @return The number of lookups that found a template.
+   */
+  public synchronized int getNumHits() {
+    return this.numHits;
+  }
+
+  /**
+   * Returns the number of lookups that didn't find a (live) template.
+   *
+   * @return The number of lookups that didn't find a template.
+   */
+  public synchronized int getNumMisses() {
+    return this.numMisses;
+  }
+
+  /**
+   * Returns the number of templates evicted from the cache.
+   *
+   * @return The number of templates evicted from the cache.
+   */
+  public synchronized int getNumEvictions() {
+    return this.numEvictions;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "LayoutTemplateCache(size: " + this.templates.size() + ", hits: " + this.numHits
+        + ", misses: " + this.numMisses + ", evictions: " + this.numEvictions + ")";
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns true if the given template is expired at the given time.
+   *
+   * @param template
+   *        The template to check.
+   * @param now
+   *        The current time in milliseconds.
+   *
+   * @return True if the given template is expired; false otherwise.
+   */
+  protected boolean isExpired(LayoutTemplate template, long now) {
+    return now - template.getCreationTime() > this.timeToLive;
+  }
+
+  /**
+   * Evicts the expired templates and the least recently used templates exceeding the maximum
+   * size of the cache.
+   *
+   * @param now
+   *        The current time in milliseconds.
+   */
+  protected void evict(long now) {
+    Iterator<LayoutTemplate> itr = this.templates.values().iterator();
+    int size = this.templates.size();
+    while (itr.hasNext()) {
+      LayoutTemplate template = itr.next();
+      if (size > this.maxSize || isExpired(template, now)) {
+        itr.remove();
+        size--;
+        this.numEvictions++;
+      }
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Loads the templates from the given file into this cache. Does nothing if the file doesn't
+   * exist. Expired templates are skipped.
+   *
+   * @param path
+   *        The path to the cache file.
+   *
+   * @throws PdfActException
+   *         If the file couldn't be read.
+   */
+  public synchronized void load(Path path) throws PdfActException {
+    if (path == null || !Files.exists(path)) {
+      return;
+    }
+
+    try {
+      readTemplates(path, this.templates);
+    } catch (IOException e) {
+      throw new PdfActIoException("Couldn't read the layout template cache.", e);
+    }
+    evict(System.currentTimeMillis());
+    log.debug("Loaded %d layout templates from %s", this.templates.size(), path);
+  }
+
+  /**
+   * Saves the templates of this cache to the given file.
+   *
+   * Multiple runs of PdfAct may share the same cache file, so the file is locked (by a lock file
+   * next to it) while saving, and the templates in the file (which may have been saved by another
+   * run since this cache was loaded) are merged into this cache first. On merging, the more
+   * recently created template wins; the templates from the file are treated as less recently
+   * used than the templates of this cache. The file is written to a unique temporary file first
+   * and then moved atomically to the given path, so a concurrent reader never sees a partial
+   * file.
+   *
+   * @param path
+   *        The path to the cache file.
+   *
+   * @throws PdfActException
+   *         If the file couldn't be written.
+   */
+  public synchronized void save(Path path) throws PdfActException {
+    if (path == null) {
+      return;
+    }
+
+    Path dir = path.toAbsolutePath().getParent();
+    Path lockPath = path.resolveSibling(path.getFileName() + ".lock");
+    // A file lock is held per JVM, so the caches of the same JVM must be synchronized as well.
+    synchronized (LayoutTemplateCache.class) {
+      try (FileChannel lockChannel = FileChannel.open(lockPath, StandardOpenOption.CREATE,
+          StandardOpenOption.WRITE); FileLock lock = lockChannel.lock()) {
+        if (Files.exists(path)) {
+          mergeTemplates(path);
+        }
+
+        Path tmpPath = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+        try {
+          writeTemplates(tmpPath);
+          moveAtomically(tmpPath, path);
+        } finally {
+          Files.deleteIfExists(tmpPath);
+        }
+      } catch (IOException e) {
+        throw new PdfActIoException("Couldn't write the layout template cache.", e);
+      }
+    }
+    log.debug("Saved %d layout templates to %s", this.templates.size(), path);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Merges the templates of the given cache file into this cache.
+   *
+   * @param path
+   *        The path to the cache file.
+   *
+   * @throws IOException
+   *         If the file couldn't be read.
+   */
+  protected void mergeTemplates(Path path) throws IOException {
+    LinkedHashMap<String, LayoutTemplate> merged = new LinkedHashMap<>(16, 0.75f, true);
+    readTemplates(path, merged);
+    for (LayoutTemplate template : this.templates.values()) {
+      LayoutTemplate other = merged.get(template.getFingerprint());
+      if (other == null || other.getCreationTime() <= template.getCreationTime()) {
+        merged.put(template.getFingerprint(), template);
+      }
+    }
+    this.templates = merged;
+    evict(System.currentTimeMillis());
+  }
+
+  /**
+   * Reads the templates from the given cache file into the given map.
+   *
+   * @param path
+   *        The path to the cache file.
+   * @param templates
+   *        The map to fill, keyed by the fingerprints of the templates.
+   *
+   * @throws IOException
+   *         If the file couldn't be read or isn't a cache file.
+   */
+  protected static void readTemplates(Path path, LinkedHashMap<String, LayoutTemplate> templates)
+      throws IOException {
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(path)))) {
+      if (in.readInt() != FILE_HEADER) {
+        throw new IOException("Not a layout template cache file: " + path);
+      }
+      int numTemplates = in.readInt();
+      for (int i = 0; i < numTemplates; i++) {
+        LayoutTemplate template = new LayoutTemplate(readString(in), in.readLong());
+        template.setHeadingFontFaceKey(readString(in));
+        template.setTitleFontFaceKey(readString(in));
+        readStrings(in, template.getPageHeaderTexts());
+        readStrings(in, template.getPageFooterTexts());
+        templates.put(template.getFingerprint(), template);
+      }
+    }
+  }
+
+  /**
+   * Writes the templates of this cache to the given file.
+   *
+   * @param path
+   *        The path to the file.
+   *
+   * @throws IOException
+   *         If the file couldn't be written.
+   */
+  protected void writeTemplates(Path path) throws IOException {
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(path)))) {
+      out.writeInt(FILE_HEADER);
+      out.writeInt(this.templates.size());
+      for (LayoutTemplate template : this.templates.values()) {
+        writeString(out, template.getFingerprint());
+        out.writeLong(template.getCreationTime());
+        writeString(out, template.getHeadingFontFaceKey());
+        writeString(out, template.getTitleFontFaceKey());
+        writeStrings(out, template.getPageHeaderTexts());
+        writeStrings(out, template.getPageFooterTexts());
+      }
+    }
+  }
+
+  /**
+   * Moves the given source file to the given target path, replacing the target file if it
+   * exists. The file is moved atomically, if the file system supports it.
+   *
+   * @param source
+   *        The file to move.
+   * @param target
+   *        The target path.
+   *
+   * @throws IOException
+   *         If the file couldn't be moved.
+   */
+  protected static void moveAtomically(Path source, Path target) throws IOException {
+    try {
+      Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Writes the given string (which may be null) to the given stream.
+   *
+   * @param out
+   *        The stream to write to.
+   * @param str
+   *        The string to write.
+   *
+   * @throws IOException
+   *         If writing the string fails.
+   */
+  protected static void writeString(DataOutputStream out, String str) throws IOException {
+    if (str == null) {
+      out.writeInt(-1);
+      return;
+    }
+    byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  /**
+   * Writes the given set of strings to the given stream.
+   *
+   * @param out
+   *        The stream to write to.
+   * @param strs
+   *        The strings to write.
+   *
+   * @throws IOException
+   *         If writing the strings fails.
+   */
+  protected static void writeStrings(DataOutputStream out, Set<String> strs) throws IOException {
+    out.writeInt(strs.size());
+    for (String str : strs) {
+      writeString(out, str);
+    }
+  }
+
+  /**
+   * Reads a string (which may be null) from the given stream.
+   *
+   * @param in
+   *        The stream to read from.
+   *
+   * @return The string read.
+   *
+   * @throws IOException
+   *         If reading the string fails.
+   */
+  protected static String readString(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Reads a set of strings from the given stream into the given set.
+   *
+   * @param in
+   *        The stream to read from.
+   * @param strs
+   *        The set to fill.
+   *
+   * @throws IOException
+   *         If reading the strings fails.
+   */
+  protected static void readStrings(DataInputStream in, Set<String> strs) throws IOException {
+    int numStrings = in.readInt();
+    for (int i = 0; i < numStrings; i++) {
+      strs.add(readString(in));
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package pdfact.core.pipes.spill;
+
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+import pdfact.core.model.TextArea;
+import pdfact.core.model.TextLine;
+import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.spill.CharacterSpillStore;
+
+/**
+ * A plain implementation of {@link SpillCharactersPipe}. Spills the characters of the pages,
+ * text areas, text lines and words of a document tokenized into text blocks to a new
+ * {@link CharacterSpillStore}, page by page. Each character is written once per layer: the words
+ * of a text line refer to their parts of the spilled characters of the text line (see
+ * {@link TextLine#spillCharacters(CharacterSpillStore)}). The statistics of the elements refer
+ * to the spilled characters of their elements, or are computed eagerly if they are computed from
+ * other characters. The statistics merged from other statistics (of the text blocks, the
+ * paragraphs and the document) don't reference any characters and are left untouched.
+ *
+ * @author Claudius Korzen
+ */
+public class PlainSpillCharactersPipe implements SpillCharactersPipe {
+  /**
+   * The logger.
+   */
+  protected static Logger log = LogManager.getLogger(PlainSpillCharactersPipe.class);
+
+  /**
+   * The number of spilled characters.
+   */
+  protected int numSpilledCharacters;
+
+  /**
+   * The number of bytes of the spill file.
+   */
+  protected long numSpilledBytes;
+
+  // ==============================================================================================
+
+  @Override
+  public Document execute(Document pdf) throws PdfActException {
+    log.debug("Start of pipe: " + getClass().getSimpleName() + ".");
+
+    log.debug("Process: Spilling the characters.");
+    spillCharacters(pdf);
+
+    log.debug("Spilling the characters done.");
+    log.debug("# spilled characters: " + this.numSpilledCharacters);
+    log.debug("# spilled bytes     : " + this.numSpilledBytes);
+
+    log.debug("End of pipe: " + getClass().getSimpleName() + ".");
+    return pdf;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Spills the characters of the given PDF document.
+   *
+   * @param pdf
+   *        The PDF document to process.
+   *
+   * @throws PdfActException
+   *         If the characters couldn't be spilled.
+   */
+  protected void spillCharacters(Document pdf) throws PdfActException {
+    if (pdf == null) {
+      return;
+    }
+
+    List<Page> pages = pdf.getPages();
+    if (pages == null) {
+      return;
+    }
+
+    // The spilled characters stay readable after the store was closed.
+    try (CharacterSpillStore store = new CharacterSpillStore()) {
+      for (Page page : pages) {
+        spillCharacters(page, store);
+      }
+
+      this.numSpilledCharacters += store.getNumSpilledCharacters();
+      this.numSpilledBytes += store.getFileSize();
+    }
+  }
+
+  /**
+   * Spills the characters of the given page and of its text areas, text lines and words.
+   *
+   * @param page
+   *        The page to process; may be null.
+   * @param store
+   *        The store to which the characters should be spilled.
+   *
+   * @throws PdfActException
+   *         If the characters couldn't be spilled.
+   */
+  protected void spillCharacters(Page page, CharacterSpillStore store) throws PdfActException {
+    if (page == null) {
+      return;
+    }
+
+    page.spillCharacters(store);
+    for (TextArea area : page.getTextAreas()) {
+      area.spillCharacters(store);
+    }
+    // The text lines spill the characters of their words.
+    for (TextLine line : page.getTextLines()) {
+      line.spillCharacters(store);
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the number of spilled characters.
+   *
+   * @return The number of spilled characters.
+   */
+  public int getNumSpilledCharacters() {
+    return this.numSpilledCharacters;
+  }
+
+  /**
+   * Returns the number of bytes of the spill files.
+   *
+   * @return The number of bytes of the spill files.
+   */
+  public long getNumSpilledBytes() {
+    return this.numSpilledBytes;
+  }
+}
@@ -0,0 +1,13 @@
+package pdfact.core.pipes.spill;
+
+import pdfact.core.util.pipeline.Pipe;
+
+/**
+ * A pipe that spills the characters of a PDF document from the heap into a memory-mapped file,
+ * from which they are read again on request.
+ *
+ * @author Claudius Korzen
+ */
+public interface SpillCharactersPipe extends Pipe {
+  
+}
@@ -0,0 +1,222 @@
+package pdfact.core.pipes.tokenize.areas;
+
+import java.util.List;
+import pdfact.core.model.Character;
+import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+import pdfact.core.model.Rectangle;
+import pdfact.core.util.list.ElementList;
+import pdfact.core.util.xycut.PresortedCharacters;
+
+/**
+ * An implementation of {@link TokenizeToTextAreasPipe} that proposes the cuts of the XYCut by
+ * projection profiles instead of sweeping all characters of a block.
+ *
+ * The extents of the characters of a block are rasterized into a x-projection profile (resp.
+ * y-projection profile), with a resolution of the half of the smallest lane accepted by
+ * {@link #assessVerticalCut(Document, Page, List)} (resp.
+ * {@link #assessHorizontalCut(Document, Page, List)}). Each run of empty bins in a profile is a
+ * candidate for a gutter (resp. a gap). Since each lane that is wide enough to be accepted covers
+ * at least one empty bin, no valid cut gets lost. The existing rules only need to assess the
+ * (few) candidates.
+ *
+ * @author Claudius Korzen
+ */
+public class ProjectionProfileTokenizeToTextAreasPipe extends XYCutTokenizeToTextAreasPipe {
+  /**
+   * The smallest resolution of the projection profiles, to bound the number of bins.
+   */
+  protected static final float MIN_RESOLUTION = 0.1f;
+
+  // ==============================================================================================
+
+  @Override
+  protected int xCut(Document pdf, Page page, PresortedCharacters sorted, int from, int to) {
+    if (to - from < 2) {
+      return -1;
+    }
+
+    float pdfCharWidth = pdf.getCharacterStatistic().getMostCommonWidth();
+    float pageCharWidth = page.getCharacterStatistic().getMostCommonWidth();
+    float resolution = Math.max(pdfCharWidth, pageCharWidth) / 2f;
+    if (Float.isNaN(resolution) || resolution < MIN_RESOLUTION) {
+      // Fall back to the sweep.
+      return super.xCut(pdf, page, sorted, from, to);
+    }
+
+    // The characters, sorted by minX.
+    ElementList<Character> chars = sorted.getXOrder(from, to);
+    int numChars = chars.size();
+    float[] mins = new float[numChars];
+    float[] maxs = new float[numChars];
+    for (int i = 0; i < numChars; i++) {
+      Rectangle rect = chars.get(i).getPosition().getRectangle();
+      mins[i] = rect.getMinX();
+      maxs[i] = rect.getMaxX();
+    }
+
+    // The gutters, given in ascending order.
+    float[] gutters = computeGaps(mins, maxs, resolution);
+
+    // The score of the best cut found so far.
+    float bestCutScore = 0;
+    // The index of the best cut found so far.
+    int bestCutIndex = -1;
+
+    for (int i = 0; i < gutters.length; i += 2) {
+      // All characters left to the gutter have a minX smaller than the start of the gutter.
+      int index = lowerBound(mins, gutters[i]);
+      if (index <= 0 || index >= numChars) {
+        continue;
+      }
+
+      float cutScore = assessVerticalCut(pdf, page, sorted, from + index, to, chars.cut(index));
+      if (cutScore > bestCutScore) {
+        bestCutScore = cutScore;
+        bestCutIndex = index;
+      }
+    }
+
+    if (bestCutIndex < 0) {
+      return -1;
+    }
+    // A cut was found. Bring the y-ordering of the range in line with the halves.
+    sorted.cutVertically(from, from + bestCutIndex, to);
+    return from + bestCutIndex;
+  }
+
+  @Override
+  protected int yCut(Document pdf, Page page, PresortedCharacters sorted, int from, int to) {
+    if (to - from < 2) {
+      return -1;
+    }
+
+    float pdfCharHeight = pdf.getCharacterStatistic().getMostCommonHeight();
+    float pageCharHeight = page.getCharacterStatistic().getMostCommonHeight();
+    float resolution = Math.min(pdfCharHeight, pageCharHeight) / 2f;
+    if (Float.isNaN(resolution) || resolution < MIN_RESOLUTION) {
+      // Fall back to the sweep.
+      return super.yCut(pdf, page, sorted, from, to);
+    }
+
+    // The characters, sorted by maxY in descending order. Negate the coordinates, such that the
+    // profile can be computed and searched in ascending order.
+    ElementList<Character> chars = sorted.getYOrder(from, to);
+    int numChars = chars.size();
+    float[] mins = new float[numChars];
+    float[] maxs = new float[numChars];
+    for (int i = 0; i < numChars; i++) {
+      Rectangle rect = chars.get(i).getPosition().getRectangle();
+      mins[i] = -rect.getMaxY();
+      maxs[i] = -rect.getMinY();
+    }
+
+    // The gaps, given from top to bottom.
+    float[] gaps = computeGaps(mins, maxs, resolution);
+
+    // The score of the best cut found so far.
+    float bestCutScore = 0;
+    // The index of the best cut found so far.
+    int bestCutIndex = -1;
+
+    for (int i = 0; i < gaps.length; i += 2) {
+      // All characters above the gap have a (negated) maxY smaller than the start of the gap.
+      int index = lowerBound(mins, gaps[i]);
+      if (index <= 0 || index >= numChars) {
+        continue;
+      }
+
+      float cutScore = assessHorizontalCut(pdf, page, chars.cut(index));
+      if (cutScore > bestCutScore) {
+        bestCutScore = cutScore;
+        bestCutIndex = index;
+      }
+    }
+
+    if (bestCutIndex < 0) {
+      return -1;
+    }
+    // A cut was found. Bring the x-ordering of the range in line with the halves.
+    sorted.cutHorizontally(from, from + bestCutIndex, to);
+    return from + bestCutIndex;
+  }
+
+  // ==============================================================================================
+  // Utility methods.
+
+  /**
+   * Rasterizes the given extents into a projection profile with the given resolution and returns
+   * the runs of empty bins.
+   *
+   * @param mins
+   *        The start coordinates of the extents.
+   * @param maxs
+   *        The end coordinates of the extents.
+   * @param resolution
+   *        The width of a single bin.
+   *
+   * @return The runs of empty bins in ascending order, given as pairs of start and end
+   *         coordinates: [start1, end1, start2, end2, ...].
+   */
+  protected static float[] computeGaps(float[] mins, float[] maxs, float resolution) {
+    float origin = Float.MAX_VALUE;
+    float end = -Float.MAX_VALUE;
+    for (int i = 0; i < mins.length; i++) {
+      origin = Math.min(origin, mins[i]);
+      end = Math.max(end, maxs[i]);
+    }
+
+    // Count the extents per bin by a difference array, to be linear in the number of extents
+    // and bins.
+    int numBins = (int) ((end - origin) / resolution) + 1;
+    int[] profile = new int[numBins + 1];
+    for (int i = 0; i < mins.length; i++) {
+      profile[(int) ((mins[i] - origin) / resolution)]++;
+      profile[(int) ((maxs[i] - origin) / resolution) + 1]--;
+    }
+
+    float[] gaps = new float[numBins];
+    int numGaps = 0;
+    int occupancy = 0;
+    int gapStart = -1;
+    for (int bin = 0; bin < numBins; bin++) {
+      occupancy += profile[bin];
+      if (occupancy == 0 && gapStart < 0) {
+        gapStart = bin;
+      } else if (occupancy > 0 && gapStart >= 0) {
+        gaps[numGaps++] = origin + gapStart * resolution;
+        gaps[numGaps++] = origin + bin * resolution;
+        gapStart = -1;
+      }
+    }
+
+    float[] result = new float[numGaps];
+    System.arraycopy(gaps, 0, result, 0, numGaps);
+    return result;
+  }
+
+  /**
+   * Returns the number of values in the given sorted array that are smaller than the given
+   * value.
+   *
+   * @param values
+   *        The values, sorted in ascending order.
+   * @param value
+   *        The value to search for.
+   *
+   * @return The index of the first value that is not smaller than the given value.
+   */
+  protected static int lowerBound(float[] values, float value) {
+    int low = 0;
+    int high = values.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (values[mid] < value) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+}
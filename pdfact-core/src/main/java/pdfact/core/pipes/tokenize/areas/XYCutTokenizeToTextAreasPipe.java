@@ -1,8 +1,12 @@
 package pdfact.core.pipes.tokenize.areas;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import gnu.trove.iterator.TIntIterator;
+import gnu.trove.map.TIntIntMap;
+import gnu.trove.map.hash.TIntIntHashMap;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import pdfact.core.model.Character;
@@ -11,11 +15,15 @@ import pdfact.core.model.Document;
 import pdfact.core.model.Page;
 import pdfact.core.model.Position;
 import pdfact.core.model.Rectangle;
+import pdfact.core.model.TaggedBlock;
 import pdfact.core.model.TextArea;
 import pdfact.core.util.PdfActUtils;
+import pdfact.core.util.concurrent.HasPerPageExecutor;
+import pdfact.core.util.concurrent.PerPageExecutor;
 import pdfact.core.util.exception.PdfActException;
 import pdfact.core.util.list.ElementList;
 import pdfact.core.util.statistician.CharacterStatistician;
+import pdfact.core.util.xycut.PresortedCharacters;
 import pdfact.core.util.xycut.XYCut;
 
 /**
@@ -23,7 +31,8 @@ import pdfact.core.util.xycut.XYCut;
  * 
  * @author Claudius Korzen
  */
-public class XYCutTokenizeToTextAreasPipe extends XYCut implements TokenizeToTextAreasPipe {
+public class XYCutTokenizeToTextAreasPipe extends XYCut
+    implements TokenizeToTextAreasPipe, HasPerPageExecutor {
   /**
    * The logger.
    */
@@ -34,6 +43,11 @@ public class XYCutTokenizeToTextAreasPipe extends XYCut implements TokenizeToTex
    */
   protected CharacterStatistician characterStatistician;
 
+  /**
+   * The executor to tokenize the pages in parallel.
+   */
+  protected PerPageExecutor perPageExecutor;
+
   /**
    * The number of processed pages.
    */
@@ -50,6 +64,7 @@ public class XYCutTokenizeToTextAreasPipe extends XYCut implements TokenizeToTex
    */
   public XYCutTokenizeToTextAreasPipe() {
     this.characterStatistician = new CharacterStatistician();
+    this.perPageExecutor = new PerPageExecutor();
   }
 
   // ==============================================================================================
@@ -90,16 +105,22 @@ public class XYCutTokenizeToTextAreasPipe extends XYCut implements TokenizeToTex
       return;
     }
 
-    for (Page page : pages) {
-      if (page == null) {
+    // The statistic of the document is computed lazily. Compute it upfront, such that the pages
+    // can be tokenized in parallel and only read it.
+    prepareStatistic(pdf.getCharacterStatistic());
+
+    List<ElementList<TextArea>> textAreasPerPage = this.perPageExecutor.execute(pages,
+        page -> tokenizeToTextAreas(pdf, page));
+
+    for (int i = 0; i < pages.size(); i++) {
+      ElementList<TextArea> textAreas = textAreasPerPage.get(i);
+      if (textAreas == null) {
         continue;
       }
 
       this.numProcessedPages++;
 
-      ElementList<TextArea> textAreas = tokenizeToTextAreas(pdf, page);
-
-      page.setTextAreas(textAreas);
+      pages.get(i).setTextAreas(textAreas);
       this.numTokenizedTextAreas += textAreas.size();
     }
   }
@@ -119,6 +140,10 @@ public class XYCutTokenizeToTextAreasPipe extends XYCut implements TokenizeToTex
    */
   protected ElementList<TextArea> tokenizeToTextAreas(Document pdf,
       Page page) throws PdfActException {
+    if (page.getTaggedBlocks() != null) {
+      return tokenizeTaggedPageToTextAreas(pdf, page);
+    }
+
     ElementList<TextArea> result = new ElementList<>();
 
     ElementList<Character> characters = page.getCharacters();
@@ -136,6 +161,102 @@ public class XYCutTokenizeToTextAreasPipe extends XYCut implements TokenizeToTex
     return result;
   }
 
+  /**
+   * Tokenizes the given page with a usable structure tree into text areas: Each block-level
+   * element of the structure tree results in a text area, in the order of the structure tree. The
+   * characters not contained in any such element (for example, page headers and footers marked as
+   * artifacts) are tokenized by the XYCut. Each resulting text area is inserted before the first
+   * text area of an element whose characters were all extracted after the area.
+   * 
+   * @param pdf
+   *        The PDF document to which the given page belongs to.
+   * @param page
+   *        The PDF page to process.
+   * 
+   * @return The list of text areas.
+   * 
+   * @throws PdfActException
+   *         If something went wrong while tokenization.
+   */
+  protected ElementList<TextArea> tokenizeTaggedPageToTextAreas(Document pdf, Page page)
+      throws PdfActException {
+    List<TaggedBlock> blocks = page.getTaggedBlocks();
+
+    // Map the MCIDs to the blocks.
+    TIntIntMap blockIndexes = new TIntIntHashMap(16, 0.5f, -1, -1);
+    for (int i = 0; i < blocks.size(); i++) {
+      TIntIterator itr = blocks.get(i).getMcids().iterator();
+      while (itr.hasNext()) {
+        blockIndexes.put(itr.next(), i);
+      }
+    }
+
+    List<ElementList<Character>> blockCharsList = new ArrayList<>(blocks.size());
+    for (int i = 0; i < blocks.size(); i++) {
+      blockCharsList.add(new ElementList<>());
+    }
+    ElementList<Character> untaggedChars = new ElementList<>();
+    for (Character character : page.getCharacters()) {
+      int blockIndex = character.getMcid() >= 0 ? blockIndexes.get(character.getMcid()) : -1;
+      if (blockIndex >= 0) {
+        blockCharsList.get(blockIndex).add(character);
+      } else {
+        untaggedChars.add(character);
+      }
+    }
+
+    ElementList<TextArea> result = new ElementList<>();
+    for (int i = 0; i < blocks.size(); i++) {
+      ElementList<Character> blockChars = blockCharsList.get(i);
+      if (!blockChars.isEmpty()) {
+        TextArea area = new TextArea();
+        area.setCharacters(blockChars);
+        area.setPosition(computePosition(pdf, page, area));
+        area.setCharacterStatistic(computeCharacterStatistic(pdf, page, area));
+        area.setTaggedBlock(blocks.get(i));
+        result.add(area);
+      }
+    }
+
+    if (!untaggedChars.isEmpty()) {
+      List<ElementList<Character>> areaCharsList = cut(pdf, page, untaggedChars);
+      if (areaCharsList != null) {
+        for (ElementList<Character> areaChars : areaCharsList) {
+          TextArea area = new TextArea();
+          area.setCharacters(areaChars);
+          area.setPosition(computePosition(pdf, page, area));
+          area.setCharacterStatistic(computeCharacterStatistic(pdf, page, area));
+
+          int rank = getMinExtractionRank(area);
+          int index = 0;
+          while (index < result.size() && (result.get(index).getTaggedBlock() == null
+              || getMinExtractionRank(result.get(index)) < rank)) {
+            index++;
+          }
+          result.add(index, area);
+        }
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns the smallest extraction rank of the characters in the given text area.
+   * 
+   * @param area
+   *        The text area to process.
+   * 
+   * @return The smallest extraction rank of the characters in the given text area.
+   */
+  protected static int getMinExtractionRank(TextArea area) {
+    int minRank = Integer.MAX_VALUE;
+    for (Character character : area.getCharacters()) {
+      minRank = Math.min(minRank, character.getExtractionRank());
+    }
+    return minRank;
+  }
+
   /**
    * Computes the position for the given text area.
    * 
@@ -176,6 +297,12 @@ public class XYCutTokenizeToTextAreasPipe extends XYCut implements TokenizeToTex
   @Override
   public float assessVerticalCut(Document pdf, Page page,
       List<ElementList<Character>> halves) {
+    return assessVerticalCut(pdf, page, null, -1, -1, halves);
+  }
+
+  @Override
+  protected float assessVerticalCut(Document pdf, Page page, PresortedCharacters sorted,
+      int cut, int to, List<ElementList<Character>> halves) {
     // Compute the statistics for the characters in the left half.
     ElementList<Character> left = halves.get(0);
     CharacterStatistic leftStats = this.characterStatistician.compute(left);
@@ -209,7 +336,11 @@ public class XYCutTokenizeToTextAreasPipe extends XYCut implements TokenizeToTex
     }
 
     // Don't allow the lane, if it separates consecutive chars.
-    if (separatesConsecutiveCharacters(left, leftStats, right, rightStats)) {
+    if (sorted != null && sorted.isRankIndexed()) {
+      if (separatesConsecutiveCharacters(sorted, cut, to, left, leftStats, rightStats)) {
+        return -1;
+      }
+    } else if (separatesConsecutiveCharacters(left, leftStats, right, rightStats)) {
       return -1;
     }
 
@@ -253,6 +384,61 @@ public class XYCutTokenizeToTextAreasPipe extends XYCut implements TokenizeToTex
   // ==============================================================================================
   // Utility methods.
 
+  /**
+   * Checks if there is a character in the left half with an extraction order number i and a
+   * character in the right half with extraction order number i + 1, where both characters
+   * overlap vertically. Looks up the character with number i + 1 (and its position in the
+   * x-ordering) by the rank index of the presorted characters, instead of comparing all pairs of
+   * characters at the boundaries of the halves.
+   * 
+   * @param sorted
+   *        The presorted characters.
+   * @param cut
+   *        The (absolute) index of the cut in the x-ordering.
+   * @param to
+   *        The end index of the range to cut, exclusive.
+   * @param left
+   *        The characters in the left half.
+   * @param leftStats
+   *        The statistics about the characters in the left half.
+   * @param rightStats
+   *        The statistics about the characters in the right half.
+   * @return True if there is such a character pair, false otherwise.
+   */
+  protected boolean separatesConsecutiveCharacters(PresortedCharacters sorted, int cut, int to,
+      ElementList<Character> left, CharacterStatistic leftStats, CharacterStatistic rightStats) {
+    float largestMaxX = leftStats.getLargestMaxX();
+    float leftTolerance = 3 * leftStats.getMostCommonWidth();
+    float smallestMinX = rightStats.getSmallestMinX();
+    float rightTolerance = 3 * rightStats.getMostCommonWidth();
+
+    for (Character leftChar : left) {
+      Rectangle leftCharBox = leftChar.getPosition().getRectangle();
+      if (!PdfActUtils.isEqual(leftCharBox.getMaxX(), largestMaxX, leftTolerance)) {
+        continue;
+      }
+
+      // Check if the consecutive character is part of the right half.
+      int rightCharNum = leftChar.getExtractionRank() + 1;
+      int rightCharPos = sorted.getXPositionByRank(rightCharNum);
+      if (rightCharPos < cut || rightCharPos >= to) {
+        continue;
+      }
+
+      Character rightChar = sorted.getCharacterByRank(rightCharNum);
+      Rectangle rightCharBox = rightChar.getPosition().getRectangle();
+      if (!PdfActUtils.isEqual(rightCharBox.getMinX(), smallestMinX, rightTolerance)) {
+        continue;
+      }
+
+      // Check if the characters overlap.
+      if (leftCharBox.overlapsVertically(rightCharBox)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Checks if there is a character in the first given list of characters with
    * an extraction order number i and a character in the second given list of
@@ -310,4 +496,27 @@ public class XYCutTokenizeToTextAreasPipe extends XYCut implements TokenizeToTex
     }
     return false;
   }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the executor to tokenize the pages in parallel.
+   * 
+   * @return The executor to tokenize the pages in parallel.
+   */
+  @Override
+  public PerPageExecutor getPerPageExecutor() {
+    return this.perPageExecutor;
+  }
+
+  /**
+   * Sets the executor to tokenize the pages in parallel.
+   * 
+   * @param executor
+   *        The executor to tokenize the pages in parallel.
+   */
+  @Override
+  public void setPerPageExecutor(PerPageExecutor executor) {
+    this.perPageExecutor = executor;
+  }
 }
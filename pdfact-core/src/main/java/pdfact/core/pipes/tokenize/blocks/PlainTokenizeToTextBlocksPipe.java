@@ -1,12 +1,15 @@
 package pdfact.core.pipes.tokenize.blocks;
 
 import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Pattern;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import pdfact.core.model.Character;
 import pdfact.core.model.CharacterStatistic;
 import pdfact.core.model.Color;
 import pdfact.core.model.Document;
@@ -16,10 +19,13 @@ import pdfact.core.model.Line;
 import pdfact.core.model.Page;
 import pdfact.core.model.Position;
 import pdfact.core.model.Rectangle;
+import pdfact.core.model.TextArea;
 import pdfact.core.model.TextBlock;
 import pdfact.core.model.TextLine;
 import pdfact.core.model.TextLineStatistic;
-import pdfact.core.util.PdfActUtils;
+import pdfact.core.util.JoinedText;
+import pdfact.core.util.concurrent.HasPerPageExecutor;
+import pdfact.core.util.concurrent.PerPageExecutor;
 import pdfact.core.util.exception.PdfActException;
 import pdfact.core.util.list.ElementList;
 import pdfact.core.util.statistician.CharacterStatistician;
@@ -30,7 +36,8 @@ import pdfact.core.util.statistician.TextLineStatistician;
  *
  * @author Claudius Korzen
  */
-public class PlainTokenizeToTextBlocksPipe implements TokenizeToTextBlocksPipe {
+public class PlainTokenizeToTextBlocksPipe
+    implements TokenizeToTextBlocksPipe, HasPerPageExecutor {
   /**
    * The logger.
    */
@@ -46,6 +53,11 @@ public class PlainTokenizeToTextBlocksPipe implements TokenizeToTextBlocksPipe {
    */
   protected TextLineStatistician textLineStatistician;
 
+  /**
+   * The executor to tokenize the pages in parallel.
+   */
+  protected PerPageExecutor perPageExecutor;
+
   /**
    * The number of processed text lines.
    */
@@ -62,6 +74,7 @@ public class PlainTokenizeToTextBlocksPipe implements TokenizeToTextBlocksPipe {
   public PlainTokenizeToTextBlocksPipe() {
     this.characterStatistician = new CharacterStatistician();
     this.textLineStatistician = new TextLineStatistician();
+    this.perPageExecutor = new PerPageExecutor();
   }
 
   // ==============================================================================================
@@ -120,13 +133,27 @@ public class PlainTokenizeToTextBlocksPipe implements TokenizeToTextBlocksPipe {
       return;
     }
 
-    for (Page page : pages) {
-      if (page == null) {
+    // Tokenize the pages sequentially if the debug output is enabled, to keep the debug output of
+    // the pages apart.
+    PerPageExecutor executor = log.isDebugEnabled() ? new PerPageExecutor(null)
+        : this.perPageExecutor;
+
+    List<ElementList<TextBlock>> textBlocksPerPage = executor.execute(pages, page -> {
+      log.debug("====================== Page %d ======================", page.getPageNumber());
+      return tokenizeToTextBlocks(pdf, page);
+    });
+
+    for (int i = 0; i < pages.size(); i++) {
+      ElementList<TextBlock> textBlocks = textBlocksPerPage.get(i);
+      if (textBlocks == null) {
         continue;
       }
 
-      log.debug("====================== Page %d ======================", page.getPageNumber());
-      page.setTextBlocks(tokenizeToTextBlocks(pdf, page));
+      Page page = pages.get(i);
+      page.setTextBlocks(textBlocks);
+
+      this.numProcessedTextLines += page.getTextLines().size();
+      this.numTokenizedTextBlocks += textBlocks.size();
     }
   }
 
@@ -147,20 +174,32 @@ public class PlainTokenizeToTextBlocksPipe implements TokenizeToTextBlocksPipe {
     ElementList<TextBlock> textBlocks = new ElementList<>();
     TextBlock textBlock = new TextBlock();
 
+    // On pages with a usable structure tree, the text lines of a text area created from a
+    // block-level element of the structure tree form a text block.
+    Map<Character, TextArea> taggedAreas = getTaggedTextAreasPerCharacter(page);
+    TextArea prevArea = null;
+
     ElementList<TextLine> lines = page.getTextLines();
     for (int i = 0; i < lines.size(); i++) {
       TextLine prev = i > 0 ? lines.get(i - 1) : null;
       TextLine line = lines.get(i);
       TextLine next = i < lines.size() - 1 ? lines.get(i + 1) : null;
 
-      this.numProcessedTextLines++;
+      TextArea area = taggedAreas != null ? taggedAreas.get(line.getFirstCharacter()) : null;
+      boolean isNewTextBlock = area != null || prevArea != null ? area != prevArea
+          : introducesNewTextBlock(pdf, page, textBlock, prev, line, next);
+      prevArea = area;
 
-      if (introducesNewTextBlock(pdf, page, textBlock, prev, line, next)) {
+      if (isNewTextBlock) {
         if (!textBlock.getTextLines().isEmpty()) {
           textBlocks.add(textBlock);
         }
         // Create a new text block.
         textBlock = new TextBlock();
+        if (area != null) {
+          textBlock.setTaggedBlock(area.getTaggedBlock());
+          textBlock.setSemanticRole(area.getTaggedBlock().getSemanticRole());
+        }
       }
       // Add the current line to the current text block.
       textBlock.addTextLine(line);
@@ -179,11 +218,34 @@ public class PlainTokenizeToTextBlocksPipe implements TokenizeToTextBlocksPipe {
       block.setText(computeText(block));
     }
 
-    this.numTokenizedTextBlocks += textBlocks.size();
-
     return textBlocks;
   }
 
+  /**
+   * Maps the characters of the text areas created from the block-level elements of the structure
+   * tree of the given page to their text areas.
+   *
+   * @param page The PDF page to process.
+   *
+   * @return The map of the characters to their text areas; null if the page has no usable
+   *         structure tree.
+   */
+  protected Map<Character, TextArea> getTaggedTextAreasPerCharacter(Page page) {
+    if (page.getTaggedBlocks() == null) {
+      return null;
+    }
+
+    Map<Character, TextArea> areas = new IdentityHashMap<>();
+    for (TextArea area : page.getTextAreas()) {
+      if (area.getTaggedBlock() != null) {
+        for (Character character : area.getCharacters()) {
+          areas.put(character, area);
+        }
+      }
+    }
+    return areas;
+  }
+
   // ==============================================================================================
 
   /**
@@ -216,8 +278,8 @@ public class PlainTokenizeToTextBlocksPipe implements TokenizeToTextBlocksPipe {
    * @return The position for the given text block.
    */
   protected Position computePosition(Page page, TextBlock block) {
-    ElementList<TextLine> textLines = block.getTextLines();
-    Rectangle rect = Rectangle.fromHasPositionElements(textLines);
+    // The bounding box around the text lines is maintained by the block while adding the lines.
+    Rectangle rect = new Rectangle(block.getTextLinesRectangle());
     return new Position(page, rect);
   }
 
@@ -225,10 +287,10 @@ public class PlainTokenizeToTextBlocksPipe implements TokenizeToTextBlocksPipe {
    * Computes the text for the given text block.
    *
    * @param block The text block to process.
-   * @return The text for the given text block.
+   * @return The text for the given text block, materialized on the first access.
    */
-  protected String computeText(TextBlock block) {
-    return PdfActUtils.join(block.getTextLines(), " ");
+  protected CharSequence computeText(TextBlock block) {
+    return new JoinedText(block.getTextLines(), " ");
   }
 
   // ==============================================================================================
@@ -349,8 +411,8 @@ public class PlainTokenizeToTextBlocksPipe implements TokenizeToTextBlocksPipe {
       return false;
     }
 
-    ElementList<TextLine> lines = block.getTextLines();
-    Rectangle blockBox = Rectangle.fromHasPositionElements(lines);
+    // Use the bounding box maintained by the block instead of recomputing it from all its lines.
+    Rectangle blockBox = block.getTextLinesRectangle();
     Rectangle lineBox = line.getPosition().getRectangle();
     if (blockBox == null || lineBox == null) {
       return false;
@@ -689,4 +751,27 @@ public class PlainTokenizeToTextBlocksPipe implements TokenizeToTextBlocksPipe {
     // TODO
     return Math.abs(rectangle1.getMinX() - rectangle2.getMinX()) < 1;
   }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the executor to tokenize the pages in parallel.
+   * 
+   * @return The executor to tokenize the pages in parallel.
+   */
+  @Override
+  public PerPageExecutor getPerPageExecutor() {
+    return this.perPageExecutor;
+  }
+
+  /**
+   * Sets the executor to tokenize the pages in parallel.
+   * 
+   * @param executor
+   *        The executor to tokenize the pages in parallel.
+   */
+  @Override
+  public void setPerPageExecutor(PerPageExecutor executor) {
+    this.perPageExecutor = executor;
+  }
 }
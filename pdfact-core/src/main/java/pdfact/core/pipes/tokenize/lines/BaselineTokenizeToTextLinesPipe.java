@@ -0,0 +1,126 @@
+package pdfact.core.pipes.tokenize.lines;
+
+import java.util.Collections;
+import java.util.Comparator;
+import pdfact.core.model.Character;
+import pdfact.core.model.Document;
+import pdfact.core.model.HasPosition;
+import pdfact.core.model.Line;
+import pdfact.core.model.Page;
+import pdfact.core.model.Position;
+import pdfact.core.model.Rectangle;
+import pdfact.core.model.TextArea;
+import pdfact.core.model.TextLine;
+import pdfact.core.util.comparator.MaxYComparator;
+import pdfact.core.util.comparator.MinXComparator;
+import pdfact.core.util.counter.FloatCounter;
+import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.lexicon.CharacterLexicon;
+import pdfact.core.util.list.ElementList;
+
+/**
+ * An implementation of {@link TokenizeToTextLinesPipe} that groups the characters of a text area
+ * into text lines by a single sweep over the vertical extents of the characters, instead of
+ * cutting the text area recursively by the XYCut.
+ *
+ * The XYCut of {@link PlainTokenizeToTextLinesPipe} cuts a text area at the widest gap between the
+ * smallest minY of the characters above the cut and the largest maxY of the characters below the
+ * cut (if there is a positive gap), and then cuts both halves recursively. Since the gaps within a
+ * half are the same as the gaps within the whole text area, this is equivalent to sorting the
+ * characters by their maxY values once and starting a new line at each character whose maxY is
+ * smaller than the smallest minY of all characters above it, that is: at each character that
+ * doesn't overlap the characters above it vertically. The baseline and the bounding box of a line
+ * are computed in a single pass over the characters of the line.
+ *
+ * @author Claudius Korzen
+ */
+public class BaselineTokenizeToTextLinesPipe extends PlainTokenizeToTextLinesPipe {
+  /**
+   * The comparator to sort the characters by their maxY values in descending order.
+   */
+  protected static final Comparator<HasPosition> MAX_Y_COMPARATOR =
+      new MaxYComparator().reversed();
+
+  // ==============================================================================================
+
+  @Override
+  protected ElementList<TextLine> tokenizeToTextLines(Document pdf, Page page)
+      throws PdfActException {
+    ElementList<TextLine> result = new ElementList<>();
+
+    for (TextArea area : page.getTextAreas()) {
+      ElementList<Character> characters = area.getCharacters();
+      if (characters == null || characters.isEmpty()) {
+        continue;
+      }
+      int numChars = characters.size();
+
+      // Sort the characters from top to bottom (stable, as the XYCut does).
+      ElementList<Character> yOrder = new ElementList<>(numChars);
+      yOrder.addAll(characters);
+      yOrder.sort(MAX_Y_COMPARATOR);
+
+      // Sweep the characters from top to bottom and start a new line at each character that
+      // doesn't overlap the characters above it.
+      int lineStart = 0;
+      float smallestMinY = Float.MAX_VALUE;
+      for (int i = 0; i < numChars; i++) {
+        Rectangle rect = yOrder.get(i).getPosition().getRectangle();
+        if (i > 0 && smallestMinY - rect.getMaxY() > 0) {
+          result.add(createTextLine(page, yOrder.subList(lineStart, i)));
+          lineStart = i;
+        }
+        smallestMinY = Math.min(smallestMinY, rect.getMinY());
+      }
+      // Don't forget the last line.
+      result.add(createTextLine(page, yOrder.subList(lineStart, numChars)));
+    }
+
+    return result;
+  }
+
+  /**
+   * Creates a text line from the given characters.
+   *
+   * @param page
+   *        The PDF page in which the text line is located.
+   * @param characters
+   *        The characters of the text line.
+   *
+   * @return The created text line.
+   */
+  protected TextLine createTextLine(Page page, ElementList<Character> characters) {
+    Collections.sort(characters, new MinXComparator());
+
+    // Compute the bounding box and the baseline in a single pass.
+    float minX = Float.MAX_VALUE;
+    float minY = Float.MAX_VALUE;
+    float maxX = -Float.MAX_VALUE;
+    float maxY = -Float.MAX_VALUE;
+    FloatCounter baselineMinYCounter = new FloatCounter();
+    for (Character character : characters) {
+      Rectangle rect = character.getPosition().getRectangle();
+      minX = Math.min(minX, rect.getMinX());
+      minY = Math.min(minY, rect.getMinY());
+      maxX = Math.max(maxX, rect.getMaxX());
+      maxY = Math.max(maxY, rect.getMaxY());
+
+      if (CharacterLexicon.isBaselineCharacter(character)) {
+        baselineMinYCounter.add(rect.getMinY());
+      }
+    }
+
+    Line baseline = null;
+    if (!baselineMinYCounter.isEmpty()) {
+      float baselineMinY = baselineMinYCounter.getMostCommonFloat();
+      baseline = new Line(minX, baselineMinY, maxX, baselineMinY);
+    }
+
+    TextLine textLine = new TextLine();
+    textLine.setCharacters(characters);
+    textLine.setBaseline(baseline);
+    textLine.setCharacterStatistic(computeCharacterStatistic(characters));
+    textLine.setPosition(new Position(page, new Rectangle(minX, minY, maxX, maxY)));
+    return textLine;
+  }
+}
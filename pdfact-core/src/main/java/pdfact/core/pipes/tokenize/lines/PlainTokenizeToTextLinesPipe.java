@@ -14,6 +14,8 @@ import pdfact.core.model.Rectangle;
 import pdfact.core.model.TextArea;
 import pdfact.core.model.TextLine;
 import pdfact.core.util.comparator.MinXComparator;
+import pdfact.core.util.concurrent.HasPerPageExecutor;
+import pdfact.core.util.concurrent.PerPageExecutor;
 import pdfact.core.util.counter.FloatCounter;
 import pdfact.core.util.exception.PdfActException;
 import pdfact.core.util.lexicon.CharacterLexicon;
@@ -27,7 +29,8 @@ import pdfact.core.util.xycut.XYCut;
  * 
  * @author Claudius Korzen
  */
-public class PlainTokenizeToTextLinesPipe extends XYCut implements TokenizeToTextLinesPipe {
+public class PlainTokenizeToTextLinesPipe extends XYCut
+    implements TokenizeToTextLinesPipe, HasPerPageExecutor {
   /**
    * The logger.
    */
@@ -43,6 +46,11 @@ public class PlainTokenizeToTextLinesPipe extends XYCut implements TokenizeToTex
    */
   protected TextLineStatistician textLineStatistician;
 
+  /**
+   * The executor to tokenize the pages in parallel.
+   */
+  protected PerPageExecutor perPageExecutor;
+
   /**
    * The number of processed text areas.
    */
@@ -59,6 +67,7 @@ public class PlainTokenizeToTextLinesPipe extends XYCut implements TokenizeToTex
   public PlainTokenizeToTextLinesPipe() {
     this.characterStatistician = new CharacterStatistician();
     this.textLineStatistician = new TextLineStatistician();
+    this.perPageExecutor = new PerPageExecutor();
   }
 
   // ==============================================================================================
@@ -89,15 +98,27 @@ public class PlainTokenizeToTextLinesPipe extends XYCut implements TokenizeToTex
       return;
     }
 
-    for (Page page : pages) {
-      if (page == null) {
+    // The statistic of the document is computed lazily. Compute it upfront, such that the pages
+    // can be tokenized in parallel and only read it.
+    prepareStatistic(pdf.getCharacterStatistic());
+
+    List<ElementList<TextLine>> textLinesPerPage = this.perPageExecutor.execute(pages,
+        page -> tokenizeToTextLines(pdf, page));
+
+    for (int i = 0; i < pages.size(); i++) {
+      ElementList<TextLine> textLines = textLinesPerPage.get(i);
+      if (textLines == null) {
         continue;
       }
 
-      ElementList<TextLine> textLines = tokenizeToTextLines(pdf, page);
+      Page page = pages.get(i);
       page.setTextLineStatistic(this.textLineStatistician.compute(textLines));
       page.setTextLines(textLines);
+
+      this.numProcessedTextAreas += page.getTextAreas().size();
+      this.numTokenizedTextLines += textLines.size();
     }
+    // Aggregate the statistics of the pages after all pages were tokenized.
     pdf.setTextLineStatistic(this.textLineStatistician.aggregate(pages));
   }
 
@@ -119,8 +140,6 @@ public class PlainTokenizeToTextLinesPipe extends XYCut implements TokenizeToTex
       ElementList<Character> characters = area.getCharacters();
       List<ElementList<Character>> charLists = cut(pdf, page, characters);
 
-      this.numProcessedTextAreas++;
-
       for (ElementList<Character> charList : charLists) {
         // Create a PdfTextLine object.
         TextLine textLine = new TextLine();
@@ -132,8 +151,6 @@ public class PlainTokenizeToTextLinesPipe extends XYCut implements TokenizeToTex
       }
     }
 
-    this.numTokenizedTextLines += result.size();
-
     return result;
   }
 
@@ -215,4 +232,27 @@ public class PlainTokenizeToTextLinesPipe extends XYCut implements TokenizeToTex
 
     return upperMinY - lowerMaxY;
   }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the executor to tokenize the pages in parallel.
+   * 
+   * @return The executor to tokenize the pages in parallel.
+   */
+  @Override
+  public PerPageExecutor getPerPageExecutor() {
+    return this.perPageExecutor;
+  }
+
+  /**
+   * Sets the executor to tokenize the pages in parallel.
+   * 
+   * @param executor
+   *        The executor to tokenize the pages in parallel.
+   */
+  @Override
+  public void setPerPageExecutor(PerPageExecutor executor) {
+    this.perPageExecutor = executor;
+  }
 }
@@ -2,11 +2,11 @@ package pdfact.core.pipes.tokenize.paragraphs;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import gnu.trove.set.TIntSet;
-import gnu.trove.set.hash.TIntHashSet;
 import pdfact.core.model.Character;
 import pdfact.core.model.CharacterStatistic;
 import pdfact.core.model.Color;
@@ -16,10 +16,11 @@ import pdfact.core.model.Page;
 import pdfact.core.model.Paragraph;
 import pdfact.core.model.Position;
 import pdfact.core.model.SemanticRole;
+import pdfact.core.model.TaggedBlock;
 import pdfact.core.model.TextBlock;
 import pdfact.core.model.TextLine;
 import pdfact.core.model.Word;
-import pdfact.core.util.PdfActUtils;
+import pdfact.core.util.JoinedText;
 import pdfact.core.util.exception.PdfActException;
 import pdfact.core.util.lexicon.CharacterLexicon;
 import pdfact.core.util.list.ElementList;
@@ -139,10 +140,10 @@ public class PlainTokenizeToParagraphsPipe implements TokenizeToParagraphsPipe {
    * 
    * @param p
    *        The paragraph to process.
-   * @return The text for the given paragraph.
+   * @return The text for the given paragraph, materialized on the first access.
    */
-  protected String computeText(Paragraph p) {
-    return PdfActUtils.join(p.getWords(), " ");
+  protected CharSequence computeText(Paragraph p) {
+    return new JoinedText(p.getWords(), " ");
   }
 
   /**
@@ -208,43 +209,90 @@ public class PlainTokenizeToParagraphsPipe implements TokenizeToParagraphsPipe {
       allTextBlocks.addAll(page.getTextBlocks());
     }
 
-    TIntSet indexesOfAlreadyProcessedBlocks = new TIntHashSet();
+    int numBlocks = allTextBlocks.size();
+
+    // The indexes of the body text blocks, in reading order.
+    int[] bodyTextBlockIndexes = new int[numBlocks];
+    int numBodyTextBlocks = 0;
+    for (int i = 0; i < numBlocks; i++) {
+      if (allTextBlocks.get(i).getSemanticRole() == SemanticRole.BODY_TEXT) {
+        bodyTextBlockIndexes[numBodyTextBlocks++] = i;
+      }
+    }
+
+    // For each block, the index of the next block that can't be crossed by a paragraph (a
+    // heading or an itemize item); numBlocks if there is no such block.
+    int[] nextBarrierIndexes = new int[numBlocks];
+    int nextBarrierIndex = numBlocks;
+    for (int i = numBlocks - 1; i >= 0; i--) {
+      nextBarrierIndexes[i] = nextBarrierIndex;
+      SemanticRole role = allTextBlocks.get(i).getSemanticRole();
+      if (role == SemanticRole.HEADING || role == SemanticRole.ITEMIZE_ITEM) {
+        nextBarrierIndex = i;
+      }
+    }
+
+    boolean[] isAlreadyProcessed = new boolean[numBlocks];
+    // The position of the next body text block in bodyTextBlockIndexes.
+    int nextBodyTextBlock = 0;
+    // The paragraphs of the block-level elements of the structure tree, per tagged block.
+    Map<TaggedBlock, List<TextBlock>> taggedParagraphs = new IdentityHashMap<>();
 
     // Identify the paragraphs from the text blocks.
-    for (int i = 0; i < allTextBlocks.size(); i++) {
+    for (int i = 0; i < numBlocks; i++) {
       TextBlock block = allTextBlocks.get(i);
 
       this.numProcessedTextBlocks++;
 
-      if (indexesOfAlreadyProcessedBlocks.contains(i)) {
+      if (isAlreadyProcessed[i]) {
         // The block was already added to a paragraph. Ignore it.
         continue;
       }
 
+      // A block created from a block-level element of the structure tree forms a paragraph
+      // together with the blocks of the same element on the previous pages, without merging.
+      TaggedBlock taggedBlock = block.getTaggedBlock();
+      if (taggedBlock != null) {
+        List<TextBlock> paragraphBlocks = taggedBlock.getPreviousBlock() != null
+            ? taggedParagraphs.get(taggedBlock.getPreviousBlock()) : null;
+        if (paragraphBlocks == null) {
+          paragraphBlocks = new ArrayList<>();
+          result.add(paragraphBlocks);
+        }
+        paragraphBlocks.add(block);
+        taggedParagraphs.put(taggedBlock, paragraphBlocks);
+        isAlreadyProcessed[i] = true;
+        continue;
+      }
+
       // Create a new paragraph.
       List<TextBlock> paragraphBlocks = new ArrayList<>();
       paragraphBlocks.add(block);
-      indexesOfAlreadyProcessedBlocks.add(i);
+      isAlreadyProcessed[i] = true;
 
-      // If the role of the block is "body text", check if there is another
-      // block in the remaining blocks that belongs to the same paragraph.
+      // If the role of the block is "body text", check if the next body text blocks (up to the
+      // next heading or itemize item) belong to the same paragraph.
       if (block.getSemanticRole() == SemanticRole.BODY_TEXT) {
-        for (int j = i + 1; j < allTextBlocks.size(); j++) {
-          TextBlock otherBlock = allTextBlocks.get(j);
-          if (otherBlock.getSemanticRole() == SemanticRole.HEADING) {
+        while (nextBodyTextBlock < numBodyTextBlocks
+            && bodyTextBlockIndexes[nextBodyTextBlock] <= i) {
+          nextBodyTextBlock++;
+        }
+        for (int k = nextBodyTextBlock; k < numBodyTextBlocks; k++) {
+          int j = bodyTextBlockIndexes[k];
+          if (j >= nextBarrierIndexes[i]) {
             break;
           }
-          if (otherBlock.getSemanticRole() == SemanticRole.ITEMIZE_ITEM) {
+          TextBlock otherBlock = allTextBlocks.get(j);
+          if (otherBlock.getTaggedBlock() != null) {
+            // The paragraphs of tagged blocks are given by the structure tree.
             break;
           }
-          if (otherBlock.getSemanticRole() == SemanticRole.BODY_TEXT) {
-            if (!belongsToParagraph(otherBlock, paragraphBlocks)) {
-              break;
-            }
-            // Add the block to the existing paragraph.
-            paragraphBlocks.add(otherBlock);
-            indexesOfAlreadyProcessedBlocks.add(j);
+          if (!belongsToParagraph(otherBlock, paragraphBlocks)) {
+            break;
           }
+          // Add the block to the existing paragraph.
+          paragraphBlocks.add(otherBlock);
+          isAlreadyProcessed[j] = true;
         }
       }
       result.add(paragraphBlocks);
@@ -0,0 +1,128 @@
+package pdfact.core.pipes.tokenize.words;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import pdfact.core.model.Character;
+import pdfact.core.model.Document;
+import pdfact.core.model.HasPosition;
+import pdfact.core.model.Page;
+import pdfact.core.model.Rectangle;
+import pdfact.core.model.TextLine;
+import pdfact.core.model.Word;
+import pdfact.core.util.comparator.MaxYComparator;
+import pdfact.core.util.comparator.MinXComparator;
+import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.list.ElementList;
+import pdfact.core.util.list.ElementListSorter;
+
+/**
+ * An implementation of {@link TokenizeToWordsPipe} that splits a text line into words by a single
+ * left-to-right scan of the gaps between the characters, instead of cutting the line recursively
+ * by the XYCut.
+ *
+ * The XYCut of {@link XYCutTokenizeToWordsPipe} cuts a line at the widest gap between the largest
+ * maxX of the characters left of the cut and the smallest minX of the characters right of the cut,
+ * as long as this gap is at least {@link #MIN_GAP_WIDTH} wide, and then cuts both halves
+ * recursively. Since the gaps within a half are the same as the gaps within the whole line, this
+ * is equivalent to cutting the line at each such gap. So the characters are sorted once and each
+ * gap is compared against the threshold, without computing any statistics.
+ *
+ * @author Claudius Korzen
+ */
+public class GapTokenizeToWordsPipe extends XYCutTokenizeToWordsPipe {
+  /**
+   * The minimum width of a gap between two words.
+   */
+  protected static final float MIN_GAP_WIDTH = 1f;
+
+  /**
+   * The comparator to sort the characters by their minX values.
+   */
+  protected static final Comparator<HasPosition> MIN_X_COMPARATOR = new MinXComparator();
+
+  /**
+   * The comparator to sort the characters by their maxY values in descending order.
+   */
+  protected static final Comparator<HasPosition> MAX_Y_COMPARATOR =
+      new MaxYComparator().reversed();
+
+  // ==============================================================================================
+
+  @Override
+  public ElementList<Word> tokenizeToWords(Document pdf, Page page, TextLine line)
+      throws PdfActException {
+    ElementList<Word> result = new ElementList<>();
+
+    ElementList<Character> characters = line.getCharacters();
+    if (characters == null || characters.isEmpty()) {
+      return result;
+    }
+    int numChars = characters.size();
+
+    // Sort the characters by their maxY values, such that the characters of each word are in the
+    // same order as in the words computed by the XYCut (the order of characters with the same
+    // minX in the text of a word depends on it).
+    int[] yIds = ElementListSorter.sortIndexes(characters, 0, numChars, MAX_Y_COMPARATOR);
+    Character[] yOrder = new Character[numChars];
+    for (int i = 0; i < numChars; i++) {
+      yOrder[i] = characters.get(yIds[i]);
+    }
+
+    // Sort the characters by their minX values to scan the gaps from left to right.
+    int[] xOrder = ElementListSorter.sortIndexes(Arrays.asList(yOrder), 0, numChars,
+        MIN_X_COMPARATOR);
+
+    // Assign each character to a word, by cutting at each gap that is wide enough.
+    int[] wordNums = new int[numChars];
+    int numWords = 1;
+    float largestMaxX = -Float.MAX_VALUE;
+    for (int i = 0; i < numChars; i++) {
+      Rectangle rect = yOrder[xOrder[i]].getPosition().getRectangle();
+      if (i > 0 && rect.getMinX() - largestMaxX >= MIN_GAP_WIDTH) {
+        numWords++;
+      }
+      largestMaxX = Math.max(largestMaxX, rect.getMaxX());
+      wordNums[xOrder[i]] = numWords - 1;
+    }
+
+    List<ElementList<Character>> wordChars = new ArrayList<>(numWords);
+    for (int i = 0; i < numWords; i++) {
+      wordChars.add(new ElementList<>());
+    }
+    for (int i = 0; i < numChars; i++) {
+      wordChars.get(wordNums[i]).add(yOrder[i]);
+    }
+
+    Word word = null;
+    for (ElementList<Character> chars : wordChars) {
+      word = createWord(page, chars);
+      result.add(word);
+    }
+
+    // Check if the last word in the line is hyphenated.
+    word.setIsHyphenated(computeIsHyphenated(word));
+
+    return result;
+  }
+
+  /**
+   * Creates a word from the given characters.
+   *
+   * @param page
+   *        The PDF page in which the word is located.
+   * @param characters
+   *        The characters of the word.
+   *
+   * @return The created word.
+   */
+  protected Word createWord(Page page, ElementList<Character> characters) {
+    Word word = new Word();
+    word.setCharacters(characters);
+    word.setText(computeText(word));
+    word.setPositions(computePositions(page, word));
+    word.setCharacterStatistic(computeCharStatistics(word));
+    return word;
+  }
+}
@@ -16,8 +16,10 @@ import pdfact.core.model.Position;
 import pdfact.core.model.Rectangle;
 import pdfact.core.model.TextLine;
 import pdfact.core.model.Word;
-import pdfact.core.util.PdfActUtils;
+import pdfact.core.util.JoinedText;
 import pdfact.core.util.comparator.MinXComparator;
+import pdfact.core.util.concurrent.HasPerPageExecutor;
+import pdfact.core.util.concurrent.PerPageExecutor;
 import pdfact.core.util.exception.PdfActException;
 import pdfact.core.util.lexicon.CharacterLexicon;
 import pdfact.core.util.list.ElementList;
@@ -29,7 +31,8 @@ import pdfact.core.util.xycut.XYCut;
  * 
  * @author Claudius Korzen
  */
-public class XYCutTokenizeToWordsPipe extends XYCut implements TokenizeToWordsPipe {
+public class XYCutTokenizeToWordsPipe extends XYCut
+    implements TokenizeToWordsPipe, HasPerPageExecutor {
   /**
    * The loggers.
    */
@@ -41,6 +44,11 @@ public class XYCutTokenizeToWordsPipe extends XYCut implements TokenizeToWordsPi
    */
   protected CharacterStatistician charStatistician;
 
+  /**
+   * The executor to tokenize the pages in parallel.
+   */
+  protected PerPageExecutor perPageExecutor;
+
   /**
    * The number of processed text lines.
    */
@@ -56,6 +64,7 @@ public class XYCutTokenizeToWordsPipe extends XYCut implements TokenizeToWordsPi
    */
   public XYCutTokenizeToWordsPipe() {
     this.charStatistician = new CharacterStatistician();
+    this.perPageExecutor = new PerPageExecutor();
   }
 
   // ==============================================================================================
@@ -141,16 +150,51 @@ public class XYCutTokenizeToWordsPipe extends XYCut implements TokenizeToWordsPi
       return;
     }
 
-    for (Page page : pdf.getPages()) {
-      for (TextLine line : page.getTextLines()) {
-        ElementList<Word> words = tokenizeToWords(pdf, page, line);
-        line.setWords(words);
-        line.setText(PdfActUtils.join(words, " "));
+    List<Page> pages = pdf.getPages();
+    if (pages == null) {
+      return;
+    }
 
-        this.numProcessedTextLines++;
-        this.numTokenizedWords += words.size();
+    // The statistic of the document is computed lazily. Compute it upfront, such that the pages
+    // can be tokenized in parallel and only read it.
+    prepareStatistic(pdf.getCharacterStatistic());
+
+    List<Integer> numWordsPerPage = this.perPageExecutor.execute(pages,
+        page -> tokenizeToWords(pdf, page));
+
+    for (int i = 0; i < pages.size(); i++) {
+      Integer numWords = numWordsPerPage.get(i);
+      if (numWords == null) {
+        continue;
       }
+
+      this.numProcessedTextLines += pages.get(i).getTextLines().size();
+      this.numTokenizedWords += numWords;
+    }
+  }
+
+  /**
+   * Tokenizes the text lines in the given page into words.
+   * 
+   * @param pdf
+   *        The PDF document to which the given page belongs to.
+   * @param page
+   *        The PDF page to process.
+   * 
+   * @return The number of tokenized words.
+   * 
+   * @throws PdfActException
+   *         If something went wrong while tokenization.
+   */
+  protected int tokenizeToWords(Document pdf, Page page) throws PdfActException {
+    int numWords = 0;
+    for (TextLine line : page.getTextLines()) {
+      ElementList<Word> words = tokenizeToWords(pdf, page, line);
+      line.setWords(words);
+      line.setText(new JoinedText(words, " "));
+      numWords += words.size();
     }
+    return numWords;
   }
 
   /**
@@ -244,8 +288,8 @@ public class XYCutTokenizeToWordsPipe extends XYCut implements TokenizeToWordsPi
    */
   protected List<Position> computePositions(Page page, Word word) {
     List<Position> positions = new ArrayList<>();
-    ElementList<Character> characters = word.getCharacters();
-    Rectangle rect = Rectangle.fromHasPositionElements(characters);
+    // The bounding box around the characters is maintained by the word while adding them.
+    Rectangle rect = new Rectangle(word.getCharactersRectangle());
     Position position = new Position(page, rect);
     positions.add(position);
     return positions;
@@ -256,11 +300,11 @@ public class XYCutTokenizeToWordsPipe extends XYCut implements TokenizeToWordsPi
    * 
    * @param word
    *        The word to process.
-   * @return The text for the given word.
+   * @return The text for the given word, materialized on the first access.
    */
-  protected String computeText(Word word) {
+  protected CharSequence computeText(Word word) {
     Collections.sort(word.getCharacters(), new MinXComparator());
-    return PdfActUtils.join(word.getCharacters(), "");
+    return new JoinedText(word.getCharacters(), "");
   }
 
   /**
@@ -282,4 +326,27 @@ public class XYCutTokenizeToWordsPipe extends XYCut implements TokenizeToWordsPi
 
     return CharacterLexicon.isHyphen(word.getLastCharacter());
   }
-}
\ No newline at end of file
+
+  // ==============================================================================================
+
+  /**
+   * Returns the executor to tokenize the pages in parallel.
+   * 
+   * @return The executor to tokenize the pages in parallel.
+   */
+  @Override
+  public PerPageExecutor getPerPageExecutor() {
+    return this.perPageExecutor;
+  }
+
+  /**
+   * Sets the executor to tokenize the pages in parallel.
+   * 
+   * @param executor
+   *        The executor to tokenize the pages in parallel.
+   */
+  @Override
+  public void setPerPageExecutor(PerPageExecutor executor) {
+    this.perPageExecutor = executor;
+  }
+}
@@ -0,0 +1,178 @@
+package pdfact.core.pipes.translate;
+
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pdfact.core.model.Character;
+import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+import pdfact.core.pipes.filter.characters.PlainFilterCharactersPipe;
+import pdfact.core.pipes.translate.characters.PlainStandardizeCharactersPipe;
+import pdfact.core.pipes.translate.diacritics.PlainMergeDiacriticsPipe;
+import pdfact.core.pipes.translate.ligatures.PlainSplitLigaturesPipe;
+import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.list.ElementList;
+
+/**
+ * A plain implementation of {@link TranslateCharactersPipe}.
+ *
+ * Applies the rules of {@link PlainMergeDiacriticsPipe}, {@link PlainSplitLigaturesPipe},
+ * {@link PlainStandardizeCharactersPipe} and {@link PlainFilterCharactersPipe} in a single pass
+ * over the characters of a page, instead of one pass (and one copy of the list of characters) per
+ * pipe. A diacritic is merged with the previous or the next character, so a character is final
+ * only after its next character was processed. Hence, each character is kept back by one step
+ * before its ligatures are split, it is standardized and it is filtered. This gives the same
+ * results as executing the four pipes one after another.
+ *
+ * @author Claudius Korzen
+ */
+public class PlainTranslateCharactersPipe implements TranslateCharactersPipe {
+  /**
+   * The logger.
+   */
+  protected static Logger log = LogManager.getLogger("char-extraction");
+
+  /**
+   * The pipe to merge the diacritics.
+   */
+  protected PlainMergeDiacriticsPipe mergeDiacriticsPipe;
+
+  /**
+   * The pipe to split the ligatures.
+   */
+  protected PlainSplitLigaturesPipe splitLigaturesPipe;
+
+  /**
+   * The pipe to standardize the characters.
+   */
+  protected PlainStandardizeCharactersPipe standardizeCharactersPipe;
+
+  /**
+   * The number of processed characters.
+   */
+  protected int numProcessedCharacters;
+
+  /**
+   * The number of merged diacritics.
+   */
+  protected int numMergedDiacritics;
+
+  /**
+   * The number of filtered characters.
+   */
+  protected int numFilteredCharacters;
+
+  /**
+   * Creates a new pipe that translates the characters in a single pass.
+   */
+  public PlainTranslateCharactersPipe() {
+    this.mergeDiacriticsPipe = new PlainMergeDiacriticsPipe();
+    this.splitLigaturesPipe = new PlainSplitLigaturesPipe();
+    this.standardizeCharactersPipe = new PlainStandardizeCharactersPipe();
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public Document execute(Document pdf) throws PdfActException {
+    translateCharacters(pdf);
+
+    log.debug("# processed characters: " + this.numProcessedCharacters);
+    log.debug("# merged diacritics   : " + this.numMergedDiacritics);
+    log.debug("# filtered characters : " + this.numFilteredCharacters);
+
+    return pdf;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Translates the characters of the pages of the given PDF document.
+   *
+   * @param pdf
+   *        The PDF document to process.
+   */
+  protected void translateCharacters(Document pdf) {
+    if (pdf == null) {
+      return;
+    }
+
+    List<Page> pages = pdf.getPages();
+    if (pages == null) {
+      return;
+    }
+
+    for (Page page : pages) {
+      if (page == null) {
+        continue;
+      }
+
+      ElementList<Character> characters = page.getCharacters();
+      if (characters != null) {
+        page.setCharacters(translateCharacters(characters));
+      }
+    }
+  }
+
+  /**
+   * Translates the given characters of a page.
+   *
+   * @param before
+   *        The characters to translate.
+   *
+   * @return The translated characters, without the merged diacritics and the filtered
+   *         characters.
+   */
+  protected ElementList<Character> translateCharacters(ElementList<Character> before) {
+    ElementList<Character> after = new ElementList<>(before.size());
+
+    // The previous character, if it is not a diacritic (and hence not final yet).
+    Character pending = null;
+    for (int i = 0; i < before.size(); i++) {
+      Character prev = i > 0 ? before.get(i - 1) : null;
+      Character character = before.get(i);
+      Character next = i < before.size() - 1 ? before.get(i + 1) : null;
+
+      if (PlainMergeDiacriticsPipe.isDiacritic(character)) {
+        // Merge the diacritic with the previous or the next character.
+        this.mergeDiacriticsPipe.mergeDiacritic(prev, character, next);
+        this.numMergedDiacritics++;
+        character = null;
+      }
+      this.numProcessedCharacters++;
+
+      // The previous character can't be changed anymore by a diacritic.
+      if (pending != null) {
+        translateCharacter(pending, after);
+      }
+      pending = character;
+    }
+
+    // Don't forget the last character.
+    if (pending != null) {
+      translateCharacter(pending, after);
+    }
+
+    return after;
+  }
+
+  /**
+   * Splits the given (final) character if it is a ligature, standardizes it and adds it to the
+   * given list, if it should not be filtered.
+   *
+   * @param character
+   *        The character to translate.
+   * @param after
+   *        The list of characters to fill.
+   */
+  protected void translateCharacter(Character character, ElementList<Character> after) {
+    this.splitLigaturesPipe.splitLigature(character);
+    this.standardizeCharactersPipe.standardizeCharacter(character);
+
+    if (PlainFilterCharactersPipe.isFilterCharacter(character)) {
+      this.numFilteredCharacters++;
+      return;
+    }
+    after.add(character);
+  }
+}
@@ -0,0 +1,13 @@
+package pdfact.core.pipes.translate;
+
+import pdfact.core.util.pipeline.Pipe;
+
+/**
+ * A pipe that translates the characters of the pages (merges diacritics, splits ligatures,
+ * standardizes characters and filters characters) in a single pass.
+ *
+ * @author Claudius Korzen
+ */
+public interface TranslateCharactersPipe extends Pipe {
+
+}
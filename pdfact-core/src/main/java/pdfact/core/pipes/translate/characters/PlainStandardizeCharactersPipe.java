@@ -107,7 +107,7 @@ public class PlainStandardizeCharactersPipe
    * @param ch
    *        The character to process.
    */
-  protected void standardizeCharacter(Character ch) {
+  public void standardizeCharacter(Character ch) {
     if (ch == null) {
       return;
     }
@@ -104,7 +104,7 @@ public class PlainSplitLigaturesPipe implements SplitLigaturesPipe {
    * @param character
    *        The PDF character to process.
    */
-  protected void splitLigature(Character character) {
+  public void splitLigature(Character character) {
     if (isLigature(character)) {
       String resolved = getResolvedLigatureText(character);
 
@@ -0,0 +1,197 @@
+package pdfact.core.util;
+
+import gnu.trove.set.TCharSet;
+
+/**
+ * A mutable window on a range of a char array, to look up a part of a text (for example, a
+ * normalized word or a prefix of it) without creating a new string. The window can be moved to
+ * another range by {@link #set(char[], int, int)}, so a single window can be reused for many
+ * lookups.
+ *
+ * The hash code of a window is equal to the hash code of the string with the same characters, so
+ * windows and strings can be used interchangeably as keys in hash maps with a content-based
+ * hashing strategy (see {@link pdfact.core.util.counter.CharSequenceCounter}). Since the window is
+ * mutable, it must never be stored as a key; use {@link #toString()} to obtain an immutable copy.
+ *
+ * @author Claudius Korzen
+ */
+public class CharSequenceWindow implements CharSequence {
+  /**
+   * The char array.
+   */
+  protected char[] array;
+
+  /**
+   * The start of the window in the array.
+   */
+  protected int offset;
+
+  /**
+   * The length of the window.
+   */
+  protected int length;
+
+  /**
+   * Creates a new, empty window.
+   */
+  public CharSequenceWindow() {
+    this.array = new char[0];
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Moves this window to the given range of the given array.
+   *
+   * @param array
+   *        The char array.
+   * @param offset
+   *        The start of the window in the array.
+   * @param length
+   *        The length of the window.
+   *
+   * @return This window.
+   */
+  public CharSequenceWindow set(char[] array, int offset, int length) {
+    this.array = array;
+    this.offset = offset;
+    this.length = length;
+    return this;
+  }
+
+  /**
+   * Moves this window to the given range of the given window.
+   *
+   * @param window
+   *        The window.
+   * @param start
+   *        The start of the range in the given window.
+   * @param length
+   *        The length of the range.
+   *
+   * @return This window.
+   */
+  public CharSequenceWindow set(CharSequenceWindow window, int start, int length) {
+    return set(window.array, window.offset + start, length);
+  }
+
+  /**
+   * Returns the index of the first character in this window that is contained in the given set.
+   *
+   * @param chars
+   *        The characters to search for.
+   * @param fromIndex
+   *        The index to start the search from.
+   *
+   * @return The index of the first occurrence or -1 if there is no such character.
+   */
+  public int indexOf(TCharSet chars, int fromIndex) {
+    for (int i = Math.max(0, fromIndex); i < this.length; i++) {
+      if (chars.contains(this.array[this.offset + i])) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the index of the last character in this window that is contained in the given set.
+   *
+   * @param chars
+   *        The characters to search for.
+   *
+   * @return The index of the last occurrence or -1 if there is no such character.
+   */
+  public int lastIndexOf(TCharSet chars) {
+    for (int i = this.length - 1; i >= 0; i--) {
+      if (chars.contains(this.array[this.offset + i])) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public int length() {
+    return this.length;
+  }
+
+  @Override
+  public char charAt(int index) {
+    if (index < 0 || index >= this.length) {
+      throw new IndexOutOfBoundsException("index: " + index + ", length: " + this.length);
+    }
+    return this.array[this.offset + index];
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    return toString().substring(start, end);
+  }
+
+  @Override
+  public String toString() {
+    return new String(this.array, this.offset, this.length);
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public int hashCode() {
+    return hashCode(this);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof CharSequence && contentEquals(this, (CharSequence) other);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Computes the hash code of the given char sequence, which is equal to the hash code of the
+   * string with the same characters.
+   *
+   * @param seq
+   *        The char sequence.
+   *
+   * @return The hash code of the given char sequence.
+   */
+  public static int hashCode(CharSequence seq) {
+    if (seq instanceof String) {
+      return seq.hashCode();
+    }
+    int hash = 0;
+    for (int i = 0; i < seq.length(); i++) {
+      hash = 31 * hash + seq.charAt(i);
+    }
+    return hash;
+  }
+
+  /**
+   * Returns true if the given char sequences contain the same characters.
+   *
+   * @param seq1
+   *        The first char sequence.
+   * @param seq2
+   *        The second char sequence.
+   *
+   * @return True if the given char sequences contain the same characters; false otherwise.
+   */
+  public static boolean contentEquals(CharSequence seq1, CharSequence seq2) {
+    if (seq1 == seq2) {
+      return true;
+    }
+    if (seq1 == null || seq2 == null || seq1.length() != seq2.length()) {
+      return false;
+    }
+    for (int i = 0; i < seq1.length(); i++) {
+      if (seq1.charAt(i) != seq2.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
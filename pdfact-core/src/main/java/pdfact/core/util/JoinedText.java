@@ -0,0 +1,91 @@
+package pdfact.core.util;
+
+import java.util.List;
+import pdfact.core.model.HasText;
+
+/**
+ * A view of the text of some text elements (for example, the characters of a word or the words of
+ * a text line), joined by a delimiter. The joined string is computed on the first access only and
+ * then cached, so the text of elements whose text is never read is never materialized. The cached
+ * string can be released (for example after serializing the element) and will be recomputed on
+ * the next access.
+ *
+ * Note that this is a view: changes to the text elements that happen before the text is
+ * materialized (or after it was released) are reflected by the text.
+ *
+ * @author Claudius Korzen
+ */
+public class JoinedText implements CharSequence {
+  /**
+   * The text elements to join.
+   */
+  protected final List<? extends HasText> elements;
+
+  /**
+   * The delimiter to put between the texts of the elements.
+   */
+  protected final String delimiter;
+
+  /**
+   * The joined text, or null if it was not materialized yet.
+   */
+  protected String text;
+
+  /**
+   * Creates a new view of the text of the given elements, joined by the given delimiter.
+   *
+   * @param elements
+   *        The text elements to join.
+   * @param delimiter
+   *        The delimiter to put between the texts of the elements.
+   */
+  public JoinedText(List<? extends HasText> elements, String delimiter) {
+    this.elements = elements;
+    this.delimiter = delimiter;
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public int length() {
+    return toString().length();
+  }
+
+  @Override
+  public char charAt(int index) {
+    return toString().charAt(index);
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    return toString().subSequence(start, end);
+  }
+
+  @Override
+  public String toString() {
+    String text = this.text;
+    if (text == null) {
+      text = PdfActUtils.join(this.elements, this.delimiter);
+      this.text = text;
+    }
+    return text;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns true if the joined text is materialized.
+   *
+   * @return True if the joined text is materialized, false otherwise.
+   */
+  public boolean isMaterialized() {
+    return this.text != null;
+  }
+
+  /**
+   * Releases the materialized text. It will be recomputed on the next access.
+   */
+  public void release() {
+    this.text = null;
+  }
+}
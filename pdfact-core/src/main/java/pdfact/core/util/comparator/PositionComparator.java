@@ -0,0 +1,176 @@
+package pdfact.core.util.comparator;
+
+import java.io.Serializable;
+import java.util.Comparator;
+
+import pdfact.core.model.HasPosition;
+import pdfact.core.model.Page;
+import pdfact.core.model.Position;
+import pdfact.core.model.Rectangle;
+
+/**
+ * A comparator that compares elements by their page numbers and then by a single float value of
+ * their bounding boxes (for example, the minX value).
+ *
+ * Besides comparing two elements, the float value can be translated into an int key (see
+ * {@link #getSortKey(Rectangle)}) that is ordered in the same way as the elements are ordered by
+ * this comparator. This allows to sort the elements of a page by primitive keys (which are
+ * extracted only once per element), instead of comparing the elements pairwise.
+ *
+ * @author Claudius Korzen
+ */
+public abstract class PositionComparator implements Comparator<HasPosition>, Serializable {
+  /**
+   * The serial id.
+   */
+  protected static final long serialVersionUID = 2307496235683046817L;
+
+  @Override
+  public int compare(HasPosition element1, HasPosition element2) {
+    if (element1 == null && element2 == null) {
+      return 0;
+    }
+    if (element1 == null) {
+      return 1;
+    }
+    if (element2 == null) {
+      return -1;
+    }
+
+    Position pos1 = element1.getPosition();
+    Position pos2 = element2.getPosition();
+    if (pos1 == null && pos2 == null) {
+      return 0;
+    }
+    if (pos1 == null) {
+      return 1;
+    }
+    if (pos2 == null) {
+      return -1;
+    }
+
+    Page page1 = pos1.getPage();
+    Page page2 = pos2.getPage();
+    if (page1 == null && page2 == null) {
+      return 0;
+    }
+    if (page1 == null) {
+      return 1;
+    }
+    if (page2 == null) {
+      return -1;
+    }
+
+    int pageNum1 = page1.getPageNumber();
+    int pageNum2 = page2.getPageNumber();
+    if (pageNum1 != pageNum2) {
+      return pageNum1 - pageNum2;
+    }
+
+    Rectangle rect1 = pos1.getRectangle();
+    Rectangle rect2 = pos2.getRectangle();
+    if (rect1 == null && rect2 == null) {
+      return 0;
+    }
+    if (rect1 == null) {
+      return 1;
+    }
+    if (rect2 == null) {
+      return -1;
+    }
+
+    return Float.compare(getValue(rect1), getValue(rect2));
+  }
+
+  /**
+   * Returns the value of the given rectangle to compare.
+   *
+   * @param rect
+   *        The rectangle.
+   *
+   * @return The value of the given rectangle to compare.
+   */
+  protected abstract float getValue(Rectangle rect);
+
+  /**
+   * Returns an int key for the given rectangle. The keys of two rectangles (of elements on the
+   * same page) are ordered in the same way as the elements are ordered by this comparator.
+   *
+   * @param rect
+   *        The rectangle.
+   *
+   * @return The key of the given rectangle.
+   */
+  public int getSortKey(Rectangle rect) {
+    return toSortKey(getValue(rect));
+  }
+
+  /**
+   * Translates the given float value into an int key, such that the keys of two values compare
+   * as the values compare by {@link Float#compare(float, float)}.
+   *
+   * @param value
+   *        The value to translate.
+   *
+   * @return The key of the given value.
+   */
+  public static int toSortKey(float value) {
+    // Flip the magnitude bits of negative values, such that the bits compare as Float.compare().
+    int bits = Float.floatToIntBits(value);
+    return bits ^ ((bits >> 31) & 0x7fffffff);
+  }
+
+  @Override
+  public PositionComparator reversed() {
+    return new ReversedPositionComparator(this);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * A comparator that imposes the reverse ordering of a given {@link PositionComparator}.
+   *
+   * @author Claudius Korzen
+   */
+  protected static class ReversedPositionComparator extends PositionComparator {
+    /**
+     * The serial id.
+     */
+    protected static final long serialVersionUID = -4117795634285201532L;
+
+    /**
+     * The comparator to reverse.
+     */
+    protected final PositionComparator comparator;
+
+    /**
+     * Creates a comparator that imposes the reverse ordering of the given comparator.
+     *
+     * @param comparator
+     *        The comparator to reverse.
+     */
+    protected ReversedPositionComparator(PositionComparator comparator) {
+      this.comparator = comparator;
+    }
+
+    @Override
+    public int compare(HasPosition element1, HasPosition element2) {
+      return this.comparator.compare(element2, element1);
+    }
+
+    @Override
+    protected float getValue(Rectangle rect) {
+      return this.comparator.getValue(rect);
+    }
+
+    @Override
+    public int getSortKey(Rectangle rect) {
+      return ~this.comparator.getSortKey(rect);
+    }
+
+    @Override
+    public PositionComparator reversed() {
+      return this.comparator;
+    }
+  }
+}
@@ -0,0 +1,24 @@
+package pdfact.core.util.concurrent;
+
+/**
+ * An interface to implement by pipes that process the pages of a PDF document in parallel by
+ * using a {@link PerPageExecutor}.
+ *
+ * @author Claudius Korzen
+ */
+public interface HasPerPageExecutor {
+  /**
+   * Returns the executor to process the pages in parallel.
+   * 
+   * @return The executor to process the pages in parallel.
+   */
+  PerPageExecutor getPerPageExecutor();
+
+  /**
+   * Sets the executor to process the pages in parallel.
+   * 
+   * @param executor
+   *        The executor to process the pages in parallel.
+   */
+  void setPerPageExecutor(PerPageExecutor executor);
+}
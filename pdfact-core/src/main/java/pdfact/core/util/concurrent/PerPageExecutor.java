@@ -0,0 +1,180 @@
+package pdfact.core.util.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import pdfact.core.PdfActCoreSettings;
+import pdfact.core.model.Page;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * A class that executes a task per page of a PDF document, in parallel on an executor service.
+ *
+ * The tasks must be independent of each other, that is: a task must only modify the page it was
+ * called for (any state shared by the tasks, like the statistics of the document, must be
+ * computed beforehand and must only be read by the tasks). The results are returned in the order
+ * of the pages, such that the caller can merge them (e.g., set them to the pages, sum up
+ * counters or aggregate statistics) after all tasks are finished, in the same order as in a
+ * sequential execution.
+ *
+ * @author Claudius Korzen
+ */
+public class PerPageExecutor {
+  /**
+   * The exit code to use when the execution was interrupted.
+   */
+  protected static final int EXIT_CODE_INTERRUPTED = 1;
+
+  /**
+   * The executor service on which the tasks are executed; null to execute the tasks
+   * sequentially in the calling thread.
+   */
+  protected ExecutorService executor;
+
+  /**
+   * Creates a new executor that executes the tasks on the common fork/join pool.
+   */
+  public PerPageExecutor() {
+    this(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Creates a new executor that executes the tasks on the given executor service.
+   *
+   * @param executor
+   *        The executor service on which the tasks are executed; null to execute the tasks
+   *        sequentially in the calling thread.
+   */
+  public PerPageExecutor(ExecutorService executor) {
+    this.executor = executor;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * A task to execute per page.
+   *
+   * @param <T> The type of the result of the task.
+   */
+  public interface PageTask<T> {
+    /**
+     * Processes the given page.
+     *
+     * @param page
+     *        The page to process.
+     *
+     * @return The result of the task.
+     *
+     * @throws PdfActException
+     *         If something went wrong while processing the page.
+     */
+    T process(Page page) throws PdfActException;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Executes the given task for each of the given pages.
+   *
+   * @param <T>   The type of the results of the task.
+   * @param pages
+   *        The pages to process.
+   * @param task
+   *        The task to execute per page.
+   *
+   * @return The results of the task, in the order of the given pages (null for pages that are
+   *         null).
+   *
+   * @throws PdfActException
+   *         If a task threw an exception (the exception of the first failed page is rethrown).
+   */
+  public <T> List<T> execute(List<Page> pages, PageTask<T> task) throws PdfActException {
+    List<T> results = new ArrayList<>(pages.size());
+
+    if (!isParallel(pages)) {
+      for (Page page : pages) {
+        results.add(page != null ? task.process(page) : null);
+      }
+      return results;
+    }
+
+    List<Future<T>> futures = new ArrayList<>(pages.size());
+    for (Page page : pages) {
+      futures.add(page != null ? this.executor.submit(() -> task.process(page)) : null);
+    }
+
+    try {
+      for (Future<T> future : futures) {
+        results.add(future != null ? future.get() : null);
+      }
+    } catch (ExecutionException e) {
+      cancel(futures);
+      Throwable cause = e.getCause();
+      if (cause instanceof PdfActException) {
+        throw (PdfActException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IllegalStateException(cause);
+    } catch (InterruptedException e) {
+      cancel(futures);
+      Thread.currentThread().interrupt();
+      throw new PdfActException(EXIT_CODE_INTERRUPTED, "Interrupted while processing pages.", e);
+    }
+    return results;
+  }
+
+  /**
+   * Checks if the given pages should be processed in parallel.
+   *
+   * @param pages
+   *        The pages to process.
+   *
+   * @return True, if the given pages should be processed in parallel; false otherwise.
+   */
+  protected boolean isParallel(List<Page> pages) {
+    return this.executor != null && pages.size() >= PdfActCoreSettings.PAGE_PARALLELISM_THRESHOLD;
+  }
+
+  /**
+   * Cancels the given futures.
+   *
+   * @param futures
+   *        The futures to cancel.
+   */
+  protected static void cancel(List<? extends Future<?>> futures) {
+    for (Future<?> future : futures) {
+      if (future != null) {
+        future.cancel(false);
+      }
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the executor service on which the tasks are executed.
+   *
+   * @return The executor service; null if the tasks are executed sequentially.
+   */
+  public ExecutorService getExecutor() {
+    return this.executor;
+  }
+
+  /**
+   * Sets the executor service on which the tasks are executed.
+   *
+   * @param executor
+   *        The executor service; null to execute the tasks sequentially.
+   */
+  public void setExecutor(ExecutorService executor) {
+    this.executor = executor;
+  }
+}
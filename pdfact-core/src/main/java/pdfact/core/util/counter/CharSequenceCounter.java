@@ -0,0 +1,127 @@
+package pdfact.core.util.counter;
+
+import gnu.trove.iterator.TObjectIntIterator;
+import gnu.trove.map.custom_hash.TObjectIntCustomHashMap;
+import gnu.trove.strategy.HashingStrategy;
+import pdfact.core.util.CharSequenceWindow;
+
+/**
+ * A counter to count char sequences by their content. In contrast to an
+ * {@link ObjectCounter} of strings, a char sequence can be counted (and looked
+ * up) via a reusable {@link CharSequenceWindow}, without creating a new string.
+ * A string is created only when a char sequence is added that is not yet
+ * contained in this counter, so the keys of this counter are always strings.
+ *
+ * @author Claudius Korzen
+ */
+public class CharSequenceCounter extends TObjectIntCustomHashMap<CharSequence> {
+  /**
+   * The serial id.
+   */
+  private static final long serialVersionUID = 4914036127325958167L;
+
+  /**
+   * The default initial capacity of this counter.
+   */
+  protected static final int DEFAULT_INITIAL_CAPACITY = 10;
+
+  /**
+   * The strategy to hash and compare char sequences by their content.
+   */
+  protected static final HashingStrategy<CharSequence> CONTENT_HASHING_STRATEGY =
+      new ContentHashingStrategy();
+
+  /**
+   * Creates a new CharSequenceCounter with the default initial capacity.
+   */
+  public CharSequenceCounter() {
+    this(DEFAULT_INITIAL_CAPACITY);
+  }
+
+  /**
+   * Creates a new CharSequenceCounter with the given initial capacity.
+   *
+   * @param initialCapacity
+   *        The initial capacity.
+   */
+  public CharSequenceCounter(int initialCapacity) {
+    super(CONTENT_HASHING_STRATEGY, initialCapacity, DEFAULT_LOAD_FACTOR, 0);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Adds the given char sequence to this counter. The char sequence is copied
+   * to a string if it is not yet contained in this counter.
+   *
+   * @param seq
+   *        The char sequence to add.
+   */
+  public void add(CharSequence seq) {
+    if (!increment(seq)) {
+      put(seq.toString(), 1);
+    }
+  }
+
+  /**
+   * Adds the given CharSequenceCounter to this counter.
+   *
+   * @param counter
+   *        The counter to add.
+   */
+  public void add(CharSequenceCounter counter) {
+    TObjectIntIterator<CharSequence> itr = counter.iterator();
+    while (itr.hasNext()) {
+      itr.advance();
+      adjustOrPutValue(itr.key(), itr.value(), itr.value());
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the char sequences in this counter (as strings).
+   *
+   * @return The char sequences in this counter.
+   */
+  public Object[] getObjects() {
+    return keys();
+  }
+
+  /**
+   * Returns the frequency of the given char sequence in this counter.
+   *
+   * @param seq
+   *        The char sequence to process.
+   *
+   * @return The frequency of the given char sequence in this counter.
+   */
+  public int getFrequency(CharSequence seq) {
+    return get(seq);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * A strategy to hash and compare char sequences by their content, compatible
+   * with the hash codes of strings.
+   *
+   * @author Claudius Korzen
+   */
+  protected static class ContentHashingStrategy implements HashingStrategy<CharSequence> {
+    /**
+     * The serial id.
+     */
+    private static final long serialVersionUID = -2651482391733527108L;
+
+    @Override
+    public int computeHashCode(CharSequence seq) {
+      return CharSequenceWindow.hashCode(seq);
+    }
+
+    @Override
+    public boolean equals(CharSequence seq1, CharSequence seq2) {
+      return CharSequenceWindow.contentEquals(seq1, seq2);
+    }
+  }
+}
@@ -1,49 +1,91 @@
 package pdfact.core.util.counter;
 
-import gnu.trove.iterator.TFloatIntIterator;
-import gnu.trove.map.hash.TFloatIntHashMap;
+import gnu.trove.iterator.TIntIntIterator;
+import gnu.trove.map.hash.TIntIntHashMap;
+import pdfact.core.PdfActCoreSettings;
 
 /**
  * A counter to compute some statistics about float values.
  * 
+ * The floats are quantized to the precision given by
+ * {@link PdfActCoreSettings#FLOATING_NUMBER_PRECISION} (all coordinates are already rounded to
+ * this precision on parsing), such that each float is represented by an integer key. The
+ * frequencies of the keys are stored in a dense array of buckets that covers the range of the
+ * common keys. Keys outside of this range (outliers) are stored in a sparse map. The most common
+ * float and the average float are maintained incrementally, so they stay correct when further
+ * floats are added. Ties between equally common floats are broken in favor of the smallest
+ * float, so the most common float doesn't depend on the order in which the floats were added
+ * (or in which counters were merged). NaN values are not counted.
+ * 
  * @author Claudius Korzen
  */
-public class FloatCounter extends TFloatIntHashMap {
+public class FloatCounter {
   /**
-   * The default initial capacity of this counter.
+   * The factor to multiply a float with in order to get its key.
    */
-  protected static final int DEFAULT_INITIAL_CAPACITY = 10;
+  protected static final float SCALE = (float) Math.pow(10,
+      PdfActCoreSettings.FLOATING_NUMBER_PRECISION);
 
   /**
-   * The most common float.
+   * The initial number of dense buckets.
    */
-  protected float mostCommonFloat = Float.NaN;
+  protected static final int INITIAL_NUM_BUCKETS = 16;
 
   /**
-   * The average float.
+   * The maximum number of dense buckets.
    */
-  protected float averageFloat = Float.NaN;
+  protected static final int MAX_NUM_BUCKETS = 1024;
 
   /**
-   * A flag that indicates whether the statistics were already computed.
+   * The largest absolute key that can be stored in the dense buckets (larger keys are always
+   * stored in the sparse map, to avoid overflows in the index computations).
    */
-  protected boolean isStatisticsComputed;
+  protected static final int MAX_ABS_BUCKET_KEY = 1 << 30;
 
   /**
-   * Creates a new FloatCounter with the default initial capacity.
+   * The frequencies of the keys in the range [bucketsOffset, bucketsOffset + buckets.length).
    */
-  public FloatCounter() {
-    this(DEFAULT_INITIAL_CAPACITY);
-  }
+  protected int[] buckets;
 
   /**
-   * Creates a new FloatCounter with the given initial capacity.
-   * 
-   * @param initialCapacity
-   *        The initial capacity.
+   * The key of the first dense bucket.
+   */
+  protected int bucketsOffset;
+
+  /**
+   * The frequencies of the keys outside of the range of the dense buckets.
+   */
+  protected TIntIntHashMap overflow;
+
+  /**
+   * The number of distinct keys in this counter.
+   */
+  protected int numKeys;
+
+  /**
+   * The sum of all frequencies.
+   */
+  protected long sumFrequencies;
+
+  /**
+   * The sum of all keys, weighted by their frequencies.
+   */
+  protected long sumKeys;
+
+  /**
+   * The key of the most common float. On ties, the smallest key.
+   */
+  protected int mostCommonKey;
+
+  /**
+   * The frequency of the most common float.
+   */
+  protected int mostCommonFrequency;
+
+  /**
+   * Creates a new FloatCounter.
    */
-  public FloatCounter(int initialCapacity) {
-    super(initialCapacity, DEFAULT_LOAD_FACTOR, 0, 0);
+  public FloatCounter() {
   }
 
   // ==============================================================================================
@@ -55,7 +97,10 @@ public class FloatCounter extends TFloatIntHashMap {
    *        The float to add.
    */
   public void add(float f) {
-    adjustOrPutValue(f, 1, 1);
+    if (Float.isNaN(f)) {
+      return;
+    }
+    add(toKey(f), 1);
   }
 
   /**
@@ -65,11 +110,106 @@ public class FloatCounter extends TFloatIntHashMap {
    *        The float to add.
    */
   public void add(FloatCounter f) {
-    for (float key : f.getFloats()) {
-      adjustOrPutValue(key, f.getFrequency(key), f.getFrequency(key));
+    if (f.buckets != null) {
+      for (int i = 0; i < f.buckets.length; i++) {
+        if (f.buckets[i] > 0) {
+          add(f.bucketsOffset + i, f.buckets[i]);
+        }
+      }
+    }
+    if (f.overflow != null) {
+      TIntIntIterator itr = f.overflow.iterator();
+      while (itr.hasNext()) {
+        itr.advance();
+        add(itr.key(), itr.value());
+      }
     }
   }
 
+  /**
+   * Adds the given frequency to the given key.
+   * 
+   * @param key
+   *        The key.
+   * @param frequency
+   *        The frequency to add.
+   */
+  protected void add(int key, int frequency) {
+    int newFrequency;
+    if (fitsIntoBuckets(key)) {
+      int index = key - this.bucketsOffset;
+      if (this.buckets[index] == 0) {
+        this.numKeys++;
+      }
+      newFrequency = this.buckets[index] += frequency;
+    } else {
+      if (this.overflow == null) {
+        this.overflow = new TIntIntHashMap();
+      }
+      newFrequency = this.overflow.adjustOrPutValue(key, frequency, frequency);
+      if (newFrequency == frequency) {
+        this.numKeys++;
+      }
+    }
+
+    this.sumFrequencies += frequency;
+    this.sumKeys += (long) key * frequency;
+
+    if (newFrequency > this.mostCommonFrequency
+        || (newFrequency == this.mostCommonFrequency && key < this.mostCommonKey)) {
+      this.mostCommonKey = key;
+      this.mostCommonFrequency = newFrequency;
+    }
+  }
+
+  /**
+   * Checks if the given key fits into the dense buckets and grows the buckets if necessary (and
+   * possible).
+   * 
+   * @param key
+   *        The key to check.
+   * 
+   * @return True, if the given key fits into the dense buckets; false otherwise.
+   */
+  protected boolean fitsIntoBuckets(int key) {
+    if (key > MAX_ABS_BUCKET_KEY || key < -MAX_ABS_BUCKET_KEY) {
+      return false;
+    }
+
+    if (this.buckets == null) {
+      this.buckets = new int[INITIAL_NUM_BUCKETS];
+      this.bucketsOffset = key - INITIAL_NUM_BUCKETS / 2;
+      return true;
+    }
+
+    int numBuckets = this.buckets.length;
+    if (key >= this.bucketsOffset && key < this.bucketsOffset + numBuckets) {
+      return true;
+    }
+
+    // Check if the buckets can be grown to cover the key.
+    int minKey = Math.min(key, this.bucketsOffset);
+    int maxKey = Math.max(key, this.bucketsOffset + numBuckets - 1);
+    long numRequiredBuckets = (long) maxKey - minKey + 1;
+    if (numRequiredBuckets > MAX_NUM_BUCKETS) {
+      return false;
+    }
+
+    int newNumBuckets = numBuckets;
+    while (newNumBuckets < numRequiredBuckets) {
+      newNumBuckets *= 2;
+    }
+    int newOffset = key < this.bucketsOffset
+        ? this.bucketsOffset + numBuckets - newNumBuckets : this.bucketsOffset;
+    int[] newBuckets = new int[newNumBuckets];
+    System.arraycopy(this.buckets, 0, newBuckets, this.bucketsOffset - newOffset, numBuckets);
+    this.buckets = newBuckets;
+    this.bucketsOffset = newOffset;
+    // The keys in the sparse map are never covered by the grown buckets: they were more than
+    // MAX_NUM_BUCKETS keys away from the buckets when they were added.
+    return true;
+  }
+
   // ==============================================================================================
 
   /**
@@ -79,10 +219,10 @@ public class FloatCounter extends TFloatIntHashMap {
    *         is empty.
    */
   public float getMostCommonFloat() {
-    if (!this.isStatisticsComputed) {
-      computeStatistic();
+    if (isEmpty()) {
+      return Float.NaN;
     }
-    return this.mostCommonFloat;
+    return toFloat(this.mostCommonKey);
   }
 
   /**
@@ -91,7 +231,7 @@ public class FloatCounter extends TFloatIntHashMap {
    * @return The frequency of the most common float in this counter.
    */
   public float getMostCommonFloatFrequency() {
-    return getFrequency(getMostCommonFloat());
+    return this.mostCommonFrequency;
   }
 
   // ==============================================================================================
@@ -102,10 +242,10 @@ public class FloatCounter extends TFloatIntHashMap {
    * @return The average value of the float values.
    */
   public float getAverageFloat() {
-    if (!this.isStatisticsComputed) {
-      computeStatistic();
+    if (isEmpty()) {
+      return 0;
     }
-    return this.averageFloat;
+    return (float) (this.sumKeys / (double) this.sumFrequencies / SCALE);
   }
 
   // ==============================================================================================
@@ -116,7 +256,21 @@ public class FloatCounter extends TFloatIntHashMap {
    * @return The floats in this counter.
    */
   public float[] getFloats() {
-    return keys();
+    float[] floats = new float[this.numKeys];
+    int i = 0;
+    if (this.buckets != null) {
+      for (int j = 0; j < this.buckets.length; j++) {
+        if (this.buckets[j] > 0) {
+          floats[i++] = toFloat(this.bucketsOffset + j);
+        }
+      }
+    }
+    if (this.overflow != null) {
+      for (int key : this.overflow.keys()) {
+        floats[i++] = toFloat(key);
+      }
+    }
+    return floats;
   }
 
   /**
@@ -128,35 +282,91 @@ public class FloatCounter extends TFloatIntHashMap {
    * @return The frequency of the given float in this counter.
    */
   public int getFrequency(float value) {
-    return get(value);
+    if (Float.isNaN(value)) {
+      return 0;
+    }
+    int key = toKey(value);
+    if (this.buckets != null) {
+      int index = key - this.bucketsOffset;
+      if (index >= 0 && index < this.buckets.length) {
+        return this.buckets[index];
+      }
+    }
+    return this.overflow != null ? this.overflow.get(key) : 0;
+  }
+
+  /**
+   * Returns the number of distinct floats in this counter.
+   * 
+   * @return The number of distinct floats in this counter.
+   */
+  public int size() {
+    return this.numKeys;
+  }
+
+  /**
+   * Returns true if this counter doesn't contain any float.
+   * 
+   * @return True if this counter doesn't contain any float; false otherwise.
+   */
+  public boolean isEmpty() {
+    return this.numKeys == 0;
   }
 
   // ==============================================================================================
 
   /**
-   * Computes the statistic about the float values.
+   * Returns the key of the given float.
+   * 
+   * @param f
+   *        The float.
+   * 
+   * @return The key of the given float.
+   */
+  protected static int toKey(float f) {
+    return Math.round(f * SCALE);
+  }
+
+  /**
+   * Returns the float of the given key.
+   * 
+   * @param key
+   *        The key.
+   * 
+   * @return The float of the given key.
    */
-  protected void computeStatistic() {
-    float sumFloats = 0;
-    float sumFreqs = 0;
-    int largestFreq = -1;
+  protected static float toFloat(int key) {
+    return key / SCALE;
+  }
 
-    TFloatIntIterator itr = iterator();
-    while (itr.hasNext()) {
-      itr.advance();
-      float f = itr.key();
-      int freq = itr.value();
+  // ==============================================================================================
 
-      if (freq > largestFreq) {
-        this.mostCommonFloat = f;
-        largestFreq = freq;
+  @Override
+  public boolean equals(Object other) {
+    if (other == this) {
+      return true;
+    }
+    if (!(other instanceof FloatCounter)) {
+      return false;
+    }
+    FloatCounter otherCounter = (FloatCounter) other;
+    if (otherCounter.numKeys != this.numKeys) {
+      return false;
+    }
+    for (float f : getFloats()) {
+      if (getFrequency(f) != otherCounter.getFrequency(f)) {
+        return false;
       }
-
-      sumFloats += freq * f;
-      sumFreqs += freq;
     }
+    return true;
+  }
 
-    this.averageFloat = sumFreqs > 0 ? sumFloats / sumFreqs : 0;
-    this.isStatisticsComputed = true;
+  @Override
+  public int hashCode() {
+    int hashCode = 0;
+    for (float f : getFloats()) {
+      hashCode += toKey(f) ^ getFrequency(f);
+    }
+    return hashCode;
   }
 }
@@ -0,0 +1,172 @@
+package pdfact.core.util.counter;
+
+import java.util.Arrays;
+import pdfact.core.model.HasIndex;
+
+/**
+ * A counter to compute some statistics about resources with dense integer ids (like font faces
+ * and colors). The frequencies are stored in an array indexed by the ids of the resources, so
+ * counting and merging are array operations. Resources without an id (and null) are counted in a
+ * separate {@link ObjectCounter}.
+ *
+ * @param <T> The type of the resources to count.
+ *
+ * @author Claudius Korzen
+ */
+public class IndexCounter<T extends HasIndex> {
+  /**
+   * The default initial capacity of this counter.
+   */
+  protected static final int DEFAULT_INITIAL_CAPACITY = 8;
+
+  /**
+   * The frequencies of the resources, indexed by the ids of the resources.
+   */
+  protected int[] frequencies;
+
+  /**
+   * The resources, indexed by their ids.
+   */
+  protected Object[] objects;
+
+  /**
+   * The frequencies of the resources without an id.
+   */
+  protected ObjectCounter<T> unindexed;
+
+  /**
+   * Creates a new IndexCounter.
+   */
+  public IndexCounter() {
+    this.frequencies = new int[DEFAULT_INITIAL_CAPACITY];
+    this.objects = new Object[DEFAULT_INITIAL_CAPACITY];
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Adds the given object to this counter.
+   *
+   * @param o
+   *        The object to add.
+   */
+  public void add(T o) {
+    add(o, 1);
+  }
+
+  /**
+   * Adds the given IndexCounter to this counter.
+   *
+   * @param o
+   *        The counter to add.
+   */
+  @SuppressWarnings("unchecked")
+  public void add(IndexCounter<T> o) {
+    for (int i = 0; i < o.frequencies.length; i++) {
+      if (o.frequencies[i] > 0) {
+        add((T) o.objects[i], o.frequencies[i]);
+      }
+    }
+    if (o.unindexed != null) {
+      if (this.unindexed == null) {
+        this.unindexed = new ObjectCounter<>();
+      }
+      this.unindexed.add(o.unindexed);
+    }
+  }
+
+  /**
+   * Adds the given frequency to the given object.
+   *
+   * @param o
+   *        The object.
+   * @param frequency
+   *        The frequency to add.
+   */
+  protected void add(T o, int frequency) {
+    int index = o != null ? o.getIndex() : -1;
+    if (index < 0) {
+      if (this.unindexed == null) {
+        this.unindexed = new ObjectCounter<>();
+      }
+      this.unindexed.adjustOrPutValue(o, frequency, frequency);
+      this.unindexed.isStatisticsComputed = false;
+      return;
+    }
+
+    if (index >= this.frequencies.length) {
+      int capacity = Math.max(index + 1, 2 * this.frequencies.length);
+      this.frequencies = Arrays.copyOf(this.frequencies, capacity);
+      this.objects = Arrays.copyOf(this.objects, capacity);
+    }
+    this.frequencies[index] += frequency;
+    this.objects[index] = o;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the most common object. On ties, the object with the smallest id is returned.
+   *
+   * @return The most common object in this counter or null if the counter is empty.
+   */
+  @SuppressWarnings("unchecked")
+  public T getMostCommonObject() {
+    T mostCommonObject = null;
+    int largestFreq = 0;
+    for (int i = 0; i < this.frequencies.length; i++) {
+      if (this.frequencies[i] > largestFreq) {
+        mostCommonObject = (T) this.objects[i];
+        largestFreq = this.frequencies[i];
+      }
+    }
+    if (this.unindexed != null && !this.unindexed.isEmpty()) {
+      T mostCommonUnindexed = this.unindexed.getMostCommonObject();
+      if (this.unindexed.getFrequency(mostCommonUnindexed) > largestFreq) {
+        mostCommonObject = mostCommonUnindexed;
+      }
+    }
+    return mostCommonObject;
+  }
+
+  /**
+   * Returns the frequency of the most common object.
+   *
+   * @return The frequency of the most common object in this counter.
+   */
+  public int getMostCommonObjectFrequency() {
+    return getFrequency(getMostCommonObject());
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the frequency of the given object in this counter.
+   *
+   * @param object
+   *        The object to process.
+   *
+   * @return The frequency of the given object in this counter.
+   */
+  public int getFrequency(T object) {
+    int index = object != null ? object.getIndex() : -1;
+    if (index < 0) {
+      return this.unindexed != null ? this.unindexed.getFrequency(object) : 0;
+    }
+    return index < this.frequencies.length ? this.frequencies[index] : 0;
+  }
+
+  /**
+   * Returns true if this counter doesn't contain any object.
+   *
+   * @return True if this counter doesn't contain any object; false otherwise.
+   */
+  public boolean isEmpty() {
+    for (int frequency : this.frequencies) {
+      if (frequency > 0) {
+        return false;
+      }
+    }
+    return this.unindexed == null || this.unindexed.isEmpty();
+  }
+}
@@ -54,6 +54,7 @@ public class ObjectCounter<T> extends TObjectIntHashMap<T> {
    */
   public void add(T o) {
     adjustOrPutValue(o, 1, 1);
+    this.isStatisticsComputed = false;
   }
 
   /**
@@ -70,6 +71,7 @@ public class ObjectCounter<T> extends TObjectIntHashMap<T> {
       int count = itr.value();
       adjustOrPutValue(key, count, count);
     }
+    this.isStatisticsComputed = false;
   }
 
   // ==============================================================================================
@@ -0,0 +1,42 @@
+package pdfact.core.util.exception;
+
+/**
+ * The exception to throw on errors while reading or writing the auxiliary files of PdfAct (for
+ * example, a layout template cache or a word frequency lexicon).
+ * 
+ * @author Claudius Korzen
+ */
+public class PdfActIoException extends PdfActException {
+  /**
+   * The serial id.
+   */
+  protected static final long serialVersionUID = -2817455213396519364L;
+
+  /**
+   * The default exit code of this exception. Note that the exit codes 10-50 are used by the
+   * other exceptions of PdfAct (including those of the command line interface).
+   */
+  protected static final int EXIT_CODE = 60;
+
+  /**
+   * Creates a new I/O exception.
+   * 
+   * @param message
+   *        The error message to show when the exception was caught.
+   */
+  public PdfActIoException(String message) {
+    super(EXIT_CODE, message);
+  }
+
+  /**
+   * Creates a new I/O exception.
+   * 
+   * @param message
+   *        The error message to show when the exception was caught.
+   * @param cause
+   *        The cause of this exception (can be used to trace the error).
+   */
+  public PdfActIoException(String message, Throwable cause) {
+    super(EXIT_CODE, message, cause);
+  }
+}
@@ -0,0 +1,572 @@
+package pdfact.core.util.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import gnu.trove.list.TIntList;
+import gnu.trove.list.array.TIntArrayList;
+import pdfact.core.model.HasPosition;
+import pdfact.core.model.Position;
+import pdfact.core.model.Rectangle;
+import pdfact.core.util.comparator.PositionComparator;
+
+/**
+ * A spatial index over the elements of a page (for example, the characters or the text blocks),
+ * which allows to search the elements by their bounding boxes without scanning all elements.
+ *
+ * The index is a packed R-tree, built in bulk by the Sort-Tile-Recursive algorithm: the bounding
+ * boxes are sorted by their x-midpoints and tiled into vertical slices, each slice is sorted by
+ * the y-midpoints and packed into nodes of {@link #NODE_CAPACITY} entries. The nodes are packed
+ * in the same way, level by level, until a single level of at most {@link #NODE_CAPACITY} nodes
+ * is left. Each level is stored in primitive arrays.
+ *
+ * The index is immutable: it reflects the elements at the time it was built. Elements without a
+ * position (or with a NaN coordinate, since they don't overlap any area) are not indexed. The
+ * elements returned by the range queries are in the order of the list from which the index was
+ * built.
+ *
+ * @param <T> The type of the indexed elements.
+ *
+ * @author Claudius Korzen
+ */
+public class SpatialIndex<T extends HasPosition> {
+  /**
+   * The maximum number of entries per node.
+   */
+  protected static final int NODE_CAPACITY = 16;
+
+  /**
+   * The indexed elements, in the order of the list from which the index was built.
+   */
+  protected final List<T> elements;
+
+  /**
+   * The levels of the tree, from the bottom to the top. The entries of the bottom level are the
+   * bounding boxes of the elements; the entries of the other levels are nodes that span a range
+   * of entries of the level below.
+   */
+  protected final List<Level> levels;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new spatial index over the given elements.
+   *
+   * @param elements
+   *        The elements to index.
+   */
+  public SpatialIndex(List<T> elements) {
+    this.elements = elements != null ? new ArrayList<>(elements) : new ArrayList<>();
+    this.levels = new ArrayList<>();
+
+    // Create the entries of the bottom level, one per element with a position.
+    Level level = new Level(this.elements.size());
+    for (int i = 0; i < this.elements.size(); i++) {
+      T element = this.elements.get(i);
+      Position position = element != null ? element.getPosition() : null;
+      Rectangle rect = position != null ? position.getRectangle() : null;
+      if (rect != null && !hasNaN(rect)) {
+        level.add(rect.getMinX(), rect.getMinY(), rect.getMaxX(), rect.getMaxY(), i, i + 1);
+      }
+    }
+
+    // Pack the entries into nodes, level by level.
+    level = pack(level);
+    this.levels.add(level);
+    while (level.size > NODE_CAPACITY) {
+      level = pack(group(level));
+      this.levels.add(level);
+    }
+  }
+
+  // ==============================================================================================
+  // Queries.
+
+  /**
+   * Returns the number of indexed elements.
+   *
+   * @return The number of indexed elements.
+   */
+  public int size() {
+    return this.levels.get(0).size;
+  }
+
+  /**
+   * Returns the elements whose bounding boxes overlap the given area (see
+   * {@link Rectangle#overlaps(Rectangle)}).
+   *
+   * @param area
+   *        The area to search.
+   *
+   * @return The elements that overlap the given area, in the order of the indexed list.
+   */
+  public List<T> getElements(Rectangle area) {
+    if (area == null) {
+      return Collections.emptyList();
+    }
+
+    TIntList ids = new TIntArrayList();
+    int topLevel = this.levels.size() - 1;
+    collect(topLevel, 0, this.levels.get(topLevel).size, area, ids);
+    ids.sort();
+
+    List<T> result = new ArrayList<>(ids.size());
+    for (int i = 0; i < ids.size(); i++) {
+      result.add(this.elements.get(ids.get(i)));
+    }
+    return result;
+  }
+
+  /**
+   * Returns the k elements whose bounding boxes are closest to the given rectangle, ordered by
+   * their distances (elements with the same distance are ordered as in the indexed list). The
+   * distance of two overlapping rectangles is 0.
+   *
+   * @param rect
+   *        The rectangle.
+   * @param k
+   *        The number of elements to return.
+   *
+   * @return The k elements closest to the given rectangle.
+   */
+  public List<T> getNearestElements(Rectangle rect, int k) {
+    List<T> result = new ArrayList<>(Math.max(0, k));
+    if (rect == null || k <= 0) {
+      return result;
+    }
+
+    // Visit the entries by increasing distance. A node is visited before the elements with the
+    // same distance, such that ties are broken by the order of the indexed list.
+    PriorityQueue<Candidate> queue = new PriorityQueue<>(Candidate.ASCENDING);
+    offerAll(queue, this.levels.size() - 1, rect, null);
+    while (!queue.isEmpty() && result.size() < k) {
+      Candidate candidate = queue.poll();
+      if (candidate.level < 0) {
+        result.add(this.elements.get(candidate.index));
+      } else {
+        offerChildren(queue, candidate, rect, null);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the element whose bounding box is closest to the given rectangle.
+   *
+   * @param rect
+   *        The rectangle.
+   *
+   * @return The element closest to the given rectangle or null if the index is empty.
+   */
+  public T getNearestElement(Rectangle rect) {
+    List<T> nearest = getNearestElements(rect, 1);
+    return nearest.isEmpty() ? null : nearest.get(0);
+  }
+
+  /**
+   * Returns the element with the smallest minY value. If there are multiple such elements,
+   * returns the first of them in the indexed list (that is, the first element when the list is
+   * sorted stably by the minY values).
+   *
+   * @return The element with the smallest minY value or null if the index is empty.
+   */
+  public T getElementWithSmallestMinY() {
+    // A node's minY is the smallest minY of its elements.
+    PriorityQueue<Candidate> queue = new PriorityQueue<>(Candidate.ASCENDING);
+    return searchMinY(queue, false);
+  }
+
+  /**
+   * Returns the element with the largest minY value. If there are multiple such elements, returns
+   * the last of them in the indexed list (that is, the last element when the list is sorted
+   * stably by the minY values).
+   *
+   * @return The element with the largest minY value or null if the index is empty.
+   */
+  public T getElementWithLargestMinY() {
+    // A node's maxY is an upper bound of the minY values of its elements.
+    PriorityQueue<Candidate> queue = new PriorityQueue<>(Candidate.DESCENDING);
+    return searchMinY(queue, true);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Adds the ids of the elements in the given range of entries of the given level, which overlap
+   * the given area, to the given list.
+   *
+   * @param levelNum
+   *        The number of the level.
+   * @param from
+   *        The start of the range of entries, inclusive.
+   * @param to
+   *        The end of the range of entries, exclusive.
+   * @param area
+   *        The area to search.
+   * @param ids
+   *        The list to fill.
+   */
+  protected void collect(int levelNum, int from, int to, Rectangle area, TIntList ids) {
+    Level level = this.levels.get(levelNum);
+    for (int i = from; i < to; i++) {
+      // The same test as in Rectangle.overlaps(), such that a NaN coordinate never overlaps.
+      if (!(level.maxX[i] >= area.getMinX() && level.minX[i] <= area.getMaxX()
+          && level.maxY[i] >= area.getMinY() && level.minY[i] <= area.getMaxY())) {
+        continue;
+      }
+      if (levelNum == 0) {
+        ids.add(level.from[i]);
+      } else {
+        collect(levelNum - 1, level.from[i], level.to[i], area, ids);
+      }
+    }
+  }
+
+  /**
+   * Searches the element with the smallest (or the largest) minY value by visiting the entries
+   * in the order of the given queue.
+   *
+   * @param queue
+   *        The queue, ordered ascending (to search the smallest value) or descending.
+   * @param largest
+   *        True to search the largest minY value, false to search the smallest.
+   *
+   * @return The element found or null if the index is empty.
+   */
+  protected T searchMinY(PriorityQueue<Candidate> queue, boolean largest) {
+    offerAll(queue, this.levels.size() - 1, null, largest);
+    while (!queue.isEmpty()) {
+      Candidate candidate = queue.poll();
+      if (candidate.level < 0) {
+        return this.elements.get(candidate.index);
+      }
+      offerChildren(queue, candidate, null, largest);
+    }
+    return null;
+  }
+
+  /**
+   * Offers all entries of the given level to the given queue.
+   *
+   * @param queue
+   *        The queue.
+   * @param levelNum
+   *        The number of the level.
+   * @param rect
+   *        The rectangle to compute the distances to, or null to order by the minY values.
+   * @param largest
+   *        On ordering by the minY values: true to use the upper bounds of the minY values.
+   */
+  protected void offerAll(PriorityQueue<Candidate> queue, int levelNum, Rectangle rect,
+      Boolean largest) {
+    offerRange(queue, levelNum, 0, this.levels.get(levelNum).size, rect, largest);
+  }
+
+  /**
+   * Offers the children of the given node to the given queue.
+   *
+   * @param queue
+   *        The queue.
+   * @param node
+   *        The node.
+   * @param rect
+   *        The rectangle to compute the distances to, or null to order by the minY values.
+   * @param largest
+   *        On ordering by the minY values: true to use the upper bounds of the minY values.
+   */
+  protected void offerChildren(PriorityQueue<Candidate> queue, Candidate node, Rectangle rect,
+      Boolean largest) {
+    Level level = this.levels.get(node.level);
+    offerRange(queue, node.level - 1, level.from[node.index], level.to[node.index], rect,
+        largest);
+  }
+
+  /**
+   * Offers the entries in the given range of the given level to the given queue. The entries of
+   * the bottom level are offered as elements (with level -1 and the id of the element as index).
+   *
+   * @param queue
+   *        The queue.
+   * @param levelNum
+   *        The number of the level.
+   * @param from
+   *        The start of the range of entries, inclusive.
+   * @param to
+   *        The end of the range of entries, exclusive.
+   * @param rect
+   *        The rectangle to compute the distances to, or null to order by the minY values.
+   * @param largest
+   *        On ordering by the minY values: true to use the upper bounds of the minY values.
+   */
+  protected void offerRange(PriorityQueue<Candidate> queue, int levelNum, int from, int to,
+      Rectangle rect, Boolean largest) {
+    Level level = this.levels.get(levelNum);
+    for (int i = from; i < to; i++) {
+      float key;
+      if (rect != null) {
+        float dx = Math.max(0, Math.max(level.minX[i] - rect.getMaxX(),
+            rect.getMinX() - level.maxX[i]));
+        float dy = Math.max(0, Math.max(level.minY[i] - rect.getMaxY(),
+            rect.getMinY() - level.maxY[i]));
+        key = dx * dx + dy * dy;
+      } else {
+        key = levelNum > 0 && largest ? level.maxY[i] : level.minY[i];
+      }
+      if (levelNum == 0) {
+        queue.add(new Candidate(key, -1, level.from[i]));
+      } else {
+        queue.add(new Candidate(key, levelNum, i));
+      }
+    }
+  }
+
+  // ==============================================================================================
+  // Bulk loading.
+
+  /**
+   * Returns true if any coordinate of the given rectangle is NaN.
+   *
+   * @param rect
+   *        The rectangle.
+   *
+   * @return True if any coordinate of the given rectangle is NaN; false otherwise.
+   */
+  protected static boolean hasNaN(Rectangle rect) {
+    return Float.isNaN(rect.getMinX()) || Float.isNaN(rect.getMinY())
+        || Float.isNaN(rect.getMaxX()) || Float.isNaN(rect.getMaxY());
+  }
+
+  /**
+   * Sorts the entries of the given level by the Sort-Tile-Recursive order, such that each
+   * {@link #NODE_CAPACITY} consecutive entries are close to each other.
+   *
+   * @param level
+   *        The level to pack.
+   *
+   * @return The packed level.
+   */
+  protected static Level pack(Level level) {
+    int n = level.size;
+    if (n <= NODE_CAPACITY) {
+      return level;
+    }
+
+    int numNodes = (n + NODE_CAPACITY - 1) / NODE_CAPACITY;
+    int numSlices = (int) Math.ceil(Math.sqrt(numNodes));
+    int sliceSize = numSlices * NODE_CAPACITY;
+
+    float[] xMidpoints = new float[n];
+    float[] yMidpoints = new float[n];
+    int[] order = new int[n];
+    for (int i = 0; i < n; i++) {
+      xMidpoints[i] = (level.minX[i] + level.maxX[i]) / 2f;
+      yMidpoints[i] = (level.minY[i] + level.maxY[i]) / 2f;
+      order[i] = i;
+    }
+
+    // Tile the entries into vertical slices and sort each slice from top to bottom.
+    sort(order, 0, n, xMidpoints);
+    for (int from = 0; from < n; from += sliceSize) {
+      sort(order, from, Math.min(from + sliceSize, n), yMidpoints);
+    }
+
+    Level packed = new Level(n);
+    for (int i : order) {
+      packed.add(level.minX[i], level.minY[i], level.maxX[i], level.maxY[i], level.from[i],
+          level.to[i]);
+    }
+    return packed;
+  }
+
+  /**
+   * Groups each {@link #NODE_CAPACITY} consecutive entries of the given (packed) level into a
+   * node. The bounding box of a node encloses all coordinates of its entries, such that it bounds
+   * the minY values of the entries from above also if an entry is inverted (minY > maxY).
+   *
+   * @param level
+   *        The level to group.
+   *
+   * @return The level of the created nodes.
+   */
+  protected static Level group(Level level) {
+    int numNodes = (level.size + NODE_CAPACITY - 1) / NODE_CAPACITY;
+    Level nodes = new Level(numNodes);
+    for (int from = 0; from < level.size; from += NODE_CAPACITY) {
+      int to = Math.min(from + NODE_CAPACITY, level.size);
+      float minX = Float.MAX_VALUE;
+      float minY = Float.MAX_VALUE;
+      float maxX = -Float.MAX_VALUE;
+      float maxY = -Float.MAX_VALUE;
+      for (int i = from; i < to; i++) {
+        minX = Math.min(minX, Math.min(level.minX[i], level.maxX[i]));
+        minY = Math.min(minY, Math.min(level.minY[i], level.maxY[i]));
+        maxX = Math.max(maxX, Math.max(level.minX[i], level.maxX[i]));
+        maxY = Math.max(maxY, Math.max(level.minY[i], level.maxY[i]));
+      }
+      nodes.add(minX, minY, maxX, maxY, from, to);
+    }
+    return nodes;
+  }
+
+  /**
+   * Sorts the given range of the given entry numbers by the given keys.
+   *
+   * @param order
+   *        The entry numbers to sort.
+   * @param from
+   *        The start of the range, inclusive.
+   * @param to
+   *        The end of the range, exclusive.
+   * @param keys
+   *        The keys, indexed by the entry numbers.
+   */
+  protected static void sort(int[] order, int from, int to, float[] keys) {
+    long[] packed = new long[to - from];
+    for (int i = from; i < to; i++) {
+      packed[i - from] = ((long) PositionComparator.toSortKey(keys[order[i]]) << 32) | order[i];
+    }
+    Arrays.sort(packed);
+    for (int i = from; i < to; i++) {
+      order[i] = (int) packed[i - from];
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * A level of the tree, with the bounding boxes of its entries and the ranges of entries in the
+   * level below (or the ids of the elements, in the bottom level).
+   *
+   * @author Claudius Korzen
+   */
+  protected static class Level {
+    /**
+     * The minX values of the entries.
+     */
+    protected final float[] minX;
+
+    /**
+     * The minY values of the entries.
+     */
+    protected final float[] minY;
+
+    /**
+     * The maxX values of the entries.
+     */
+    protected final float[] maxX;
+
+    /**
+     * The maxY values of the entries.
+     */
+    protected final float[] maxY;
+
+    /**
+     * The start of the range of each entry in the level below (or the id of the element).
+     */
+    protected final int[] from;
+
+    /**
+     * The end of the range of each entry in the level below, exclusive.
+     */
+    protected final int[] to;
+
+    /**
+     * The number of entries.
+     */
+    protected int size;
+
+    /**
+     * Creates a new level with the given capacity.
+     *
+     * @param capacity
+     *        The maximum number of entries.
+     */
+    protected Level(int capacity) {
+      this.minX = new float[capacity];
+      this.minY = new float[capacity];
+      this.maxX = new float[capacity];
+      this.maxY = new float[capacity];
+      this.from = new int[capacity];
+      this.to = new int[capacity];
+    }
+
+    /**
+     * Adds an entry to this level.
+     */
+    protected void add(float minX, float minY, float maxX, float maxY, int from, int to) {
+      this.minX[this.size] = minX;
+      this.minY[this.size] = minY;
+      this.maxX[this.size] = maxX;
+      this.maxY[this.size] = maxY;
+      this.from[this.size] = from;
+      this.to[this.size] = to;
+      this.size++;
+    }
+  }
+
+  /**
+   * An entry of the tree to visit on a best-first search.
+   *
+   * @author Claudius Korzen
+   */
+  protected static class Candidate {
+    /**
+     * The order by increasing keys. On equal keys, nodes come first, then the elements in the
+     * order of the indexed list.
+     */
+    protected static final Comparator<Candidate> ASCENDING = (c1, c2) -> {
+      int cmp = Float.compare(c1.key, c2.key);
+      if (cmp != 0) {
+        return cmp;
+      }
+      if ((c1.level < 0) != (c2.level < 0)) {
+        return c1.level < 0 ? 1 : -1;
+      }
+      return Integer.compare(c1.index, c2.index);
+    };
+
+    /**
+     * The order by decreasing keys. On equal keys, nodes come first, then the elements in the
+     * reverse order of the indexed list.
+     */
+    protected static final Comparator<Candidate> DESCENDING = (c1, c2) -> {
+      int cmp = Float.compare(c2.key, c1.key);
+      if (cmp != 0) {
+        return cmp;
+      }
+      if ((c1.level < 0) != (c2.level < 0)) {
+        return c1.level < 0 ? 1 : -1;
+      }
+      return Integer.compare(c2.index, c1.index);
+    };
+
+    /**
+     * The key of this entry (a distance or a bound of the minY values).
+     */
+    protected final float key;
+
+    /**
+     * The number of the level of this node, or -1 if this entry is an element.
+     */
+    protected final int level;
+
+    /**
+     * The index of this node in its level, or the id of the element.
+     */
+    protected final int index;
+
+    /**
+     * Creates a new candidate.
+     */
+    protected Candidate(float key, int level, int index) {
+      this.key = key;
+      this.level = level;
+      this.index = index;
+    }
+  }
+}
@@ -440,6 +440,178 @@ public class CharacterLexicon {
     MATH_SYMBOLS.add("Ω");
   }
 
+  // ==============================================================================================
+  // Character classes.
+
+  /**
+   * The class bit of letters.
+   */
+  public static final int LETTER = 1;
+
+  /**
+   * The class bit of digits.
+   */
+  public static final int DIGIT = 1 << 1;
+
+  /**
+   * The class bit of Latin letters.
+   */
+  public static final int LATIN_LETTER = 1 << 2;
+
+  /**
+   * The class bit of upper-cased characters.
+   */
+  public static final int UPPERCASE = 1 << 3;
+
+  /**
+   * The class bit of lower-cased characters.
+   */
+  public static final int LOWERCASE = 1 << 4;
+
+  /**
+   * The class bit of the punctuation marks that are aligned to the base line.
+   */
+  public static final int BASELINE_PUNCTUATION_MARK = 1 << 5;
+
+  /**
+   * The class bit of the punctuation marks that are aligned to the mean line.
+   */
+  public static final int MEANLINE_PUNCTUATION_MARK = 1 << 6;
+
+  /**
+   * The class bit of the punctuation marks that terminate a sentence.
+   */
+  public static final int TERMINATING_PUNCTUATION_MARK = 1 << 7;
+
+  /**
+   * The class bit of ascenders.
+   */
+  public static final int ASCENDER = 1 << 8;
+
+  /**
+   * The class bit of descenders.
+   */
+  public static final int DESCENDER = 1 << 9;
+
+  /**
+   * The class bit of the characters that are aligned to the mean line.
+   */
+  public static final int MEANLINE_CHARACTER = 1 << 10;
+
+  /**
+   * The class bit of the characters that are aligned to the base line.
+   */
+  public static final int BASELINE_CHARACTER = 1 << 11;
+
+  /**
+   * The class bit of hyphens.
+   */
+  public static final int HYPHEN = 1 << 12;
+
+  /**
+   * The class bit of mathematical symbols.
+   */
+  public static final int MATH_SYMBOL = 1 << 13;
+
+  /**
+   * The class bits of the characters of the Basic Multilingual Plane, indexed by the characters.
+   * The table is computed once from the sets above, so changes to the sets at runtime are not
+   * reflected by the class bits.
+   */
+  protected static final int[] CLASSES = new int[java.lang.Character.MAX_VALUE + 1];
+
+  static {
+    for (int i = 0; i < CLASSES.length; i++) {
+      char ch = (char) i;
+      int classes = 0;
+      if (java.lang.Character.isLetter(ch)) {
+        classes |= LETTER;
+      }
+      if (java.lang.Character.isDigit(ch)) {
+        classes |= DIGIT;
+      }
+      if ((ch >= 'A' && ch <= 'Z') || (ch >= 'a' && ch <= 'z')) {
+        classes |= LATIN_LETTER;
+      }
+      if (java.lang.Character.isUpperCase(ch)) {
+        classes |= UPPERCASE;
+      }
+      if (java.lang.Character.isLowerCase(ch)) {
+        classes |= LOWERCASE;
+      }
+      if (BASELINE_PUNCTUATION_MARKS.contains(ch)) {
+        classes |= BASELINE_PUNCTUATION_MARK;
+      }
+      if (MEANLINE_PUNCTUATION_MARKS.contains(ch)) {
+        classes |= MEANLINE_PUNCTUATION_MARK;
+      }
+      if (TERMINATING_PUNCTUATION_MARKS.contains(ch)) {
+        classes |= TERMINATING_PUNCTUATION_MARK;
+      }
+      if (java.lang.Character.isUpperCase(ch) || java.lang.Character.isDigit(ch)
+          || ASCENDERS.contains(ch)) {
+        classes |= ASCENDER;
+      }
+      if (DESCENDERS.contains(ch)) {
+        classes |= DESCENDER;
+      }
+      if (MEANLINE_CHARACTERS.contains(ch)) {
+        classes |= MEANLINE_CHARACTER;
+      }
+      if (BASELINE_CHARACTERS.contains(ch)) {
+        classes |= BASELINE_CHARACTER;
+      }
+      if (HYPHENS.contains(ch)) {
+        classes |= HYPHEN;
+      }
+      String str = String.valueOf(ch);
+      if (MATH_SYMBOLS.contains(str) || MATH_OPERATORS.contains(str)) {
+        classes |= MATH_SYMBOL;
+      }
+      CLASSES[i] = classes;
+    }
+  }
+
+  /**
+   * Computes the class bits of the given text of a character. All classes but
+   * {@link #MATH_SYMBOL} are given by the first char of the text; a text is a math symbol if the
+   * whole text is a math symbol or operator (for example, "sin").
+   *
+   * @param text
+   *        The text of a character.
+   *
+   * @return The class bits of the given text.
+   */
+  public static int computeClasses(String text) {
+    if (text == null || text.isEmpty()) {
+      return CLASSES[NULL];
+    }
+
+    int classes = CLASSES[text.charAt(0)];
+    if (text.length() > 1) {
+      classes &= ~MATH_SYMBOL;
+      if (MATH_SYMBOLS.contains(text) || MATH_OPERATORS.contains(text)) {
+        classes |= MATH_SYMBOL;
+      }
+    }
+    return classes;
+  }
+
+  /**
+   * Returns true if the given character belongs to at least one of the given classes.
+   *
+   * @param character
+   *        The character to process.
+   * @param classes
+   *        The class bits.
+   *
+   * @return True if the given character belongs to one of the given classes; false otherwise.
+   */
+  public static boolean hasClass(Character character, int classes) {
+    int characterClasses = character != null ? character.getCharacterClasses() : CLASSES[NULL];
+    return (characterClasses & classes) != 0;
+  }
+
   // ==============================================================================================
 
   /**
@@ -451,7 +623,7 @@ public class CharacterLexicon {
    * @return True if the given character is a letter; false otherwise.
    */
   public static boolean isLetter(Character character) {
-    return java.lang.Character.isLetter(toChar(character));
+    return hasClass(character, LETTER);
   }
 
   /**
@@ -463,7 +635,7 @@ public class CharacterLexicon {
    * @return True if the given character is a digit; false otherwise.
    */
   public static boolean isDigit(Character character) {
-    return java.lang.Character.isDigit(toChar(character));
+    return hasClass(character, DIGIT);
   }
 
   /**
@@ -475,8 +647,7 @@ public class CharacterLexicon {
    * @return True if the given character is a latin letter; false otherwise.
    */
   public static boolean isLatinLetter(Character character) {
-    char ch = toChar(character);
-    return (ch >= 'A' && ch <= 'Z') || (ch >= 'a' && ch <= 'z');
+    return hasClass(character, LATIN_LETTER);
   }
 
   /**
@@ -489,7 +660,7 @@ public class CharacterLexicon {
    *         otherwise.
    */
   public static boolean isLetterOrDigit(Character character) {
-    return java.lang.Character.isLetterOrDigit(toChar(character));
+    return hasClass(character, LETTER | DIGIT);
   }
 
   /**
@@ -502,7 +673,7 @@ public class CharacterLexicon {
    *         otherwise.
    */
   public static boolean isLatinLetterOrDigit(Character character) {
-    return isLatinLetter(character) || isDigit(character);
+    return hasClass(character, LATIN_LETTER | DIGIT);
   }
 
   /**
@@ -514,9 +685,7 @@ public class CharacterLexicon {
    * @return True if the given character is a punctuation mark; false otherwise.
    */
   public static boolean isPunctuationMark(Character character) {
-    char ch = toChar(character);
-    return BASELINE_PUNCTUATION_MARKS.contains(ch)
-        || MEANLINE_PUNCTUATION_MARKS.contains(ch);
+    return hasClass(character, BASELINE_PUNCTUATION_MARK | MEANLINE_PUNCTUATION_MARK);
   }
 
   /**
@@ -529,8 +698,7 @@ public class CharacterLexicon {
    * @return True if the given character is a terminating punctuation mark; false otherwise.
    */
   public static boolean isTerminatingPunctuationMark(Character character) {
-    char ch = toChar(character);
-    return TERMINATING_PUNCTUATION_MARKS.contains(ch);
+    return hasClass(character, TERMINATING_PUNCTUATION_MARK);
   }
 
   /**
@@ -544,7 +712,7 @@ public class CharacterLexicon {
    *         mean line; false otherwise.
    */
   public static boolean isMeanlinePunctuationMark(Character character) {
-    return MEANLINE_PUNCTUATION_MARKS.contains(toChar(character));
+    return hasClass(character, MEANLINE_PUNCTUATION_MARK);
   }
 
   /**
@@ -558,7 +726,7 @@ public class CharacterLexicon {
    *         base line; false otherwise.
    */
   public static boolean isBaselinePunctuationMark(Character character) {
-    return BASELINE_PUNCTUATION_MARKS.contains(toChar(character));
+    return hasClass(character, BASELINE_PUNCTUATION_MARK);
   }
 
   /**
@@ -571,7 +739,7 @@ public class CharacterLexicon {
    *         otherwise.
    */
   public static boolean isAscenderOrDescender(Character character) {
-    return isAscender(character) || isDescender(character);
+    return hasClass(character, ASCENDER | DESCENDER);
   }
 
   /**
@@ -583,7 +751,7 @@ public class CharacterLexicon {
    * @return True if the given character is a descender.
    */
   public static boolean isDescender(Character character) {
-    return DESCENDERS.contains(toChar(character));
+    return hasClass(character, DESCENDER);
   }
 
   /**
@@ -595,10 +763,7 @@ public class CharacterLexicon {
    * @return True if the given character is an ascender; false otherwise
    */
   public static boolean isAscender(Character character) {
-    char ch = toChar(character);
-    return java.lang.Character.isUpperCase(ch)
-        || java.lang.Character.isDigit(ch)
-        || ASCENDERS.contains(ch);
+    return hasClass(character, ASCENDER);
   }
 
   /**
@@ -611,7 +776,7 @@ public class CharacterLexicon {
    *         otherwise.
    */
   public static boolean isMeanlineCharacter(Character character) {
-    return MEANLINE_CHARACTERS.contains(toChar(character));
+    return hasClass(character, MEANLINE_CHARACTER);
   }
 
   /**
@@ -624,7 +789,7 @@ public class CharacterLexicon {
    *         otherwise.
    */
   public static boolean isBaselineCharacter(Character character) {
-    return BASELINE_CHARACTERS.contains(toChar(character));
+    return hasClass(character, BASELINE_CHARACTER);
   }
 
   /**
@@ -637,7 +802,7 @@ public class CharacterLexicon {
    *         otherwise.
    */
   public static boolean isUppercase(Character character) {
-    return java.lang.Character.isUpperCase(toChar(character));
+    return hasClass(character, UPPERCASE);
   }
 
   /**
@@ -650,7 +815,7 @@ public class CharacterLexicon {
    *         otherwise.
    */
   public static boolean isLowercase(Character character) {
-    return java.lang.Character.isLowerCase(toChar(character));
+    return hasClass(character, LOWERCASE);
   }
 
   /**
@@ -664,8 +829,7 @@ public class CharacterLexicon {
    */
   // TODO: Pass a Word instead of a character here?
   public static boolean isMathSymbol(Character character) {
-    String ch = character.getText();
-    return MATH_SYMBOLS.contains(ch) || MATH_OPERATORS.contains(ch);
+    return hasClass(character, MATH_SYMBOL);
   }
 
   /**
@@ -677,7 +841,7 @@ public class CharacterLexicon {
    * @return True if the given character is a hyphen; false otherwise.
    */
   public static boolean isHyphen(Character character) {
-    return HYPHENS.contains(toChar(character));
+    return hasClass(character, HYPHEN);
   }
 
   // ==============================================================================================
@@ -0,0 +1,261 @@
+package pdfact.core.util.lexicon;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.exception.PdfActIoException;
+
+/**
+ * A read-only lexicon of word frequencies aggregated from a corpus of documents, to be consulted
+ * on dehyphenating words in documents with only little evidence of their own. The lexicon
+ * consists of three tables: the frequencies of the normal words (words without a hyphen), of the
+ * compound words (words with an inner hyphen) and of the prefixes of the compound words.
+ *
+ * The lexicon is stored in a file as sorted string tables (see
+ * {@link WordFrequencyLexiconBuilder}) and is memory-mapped on opening, so it is not loaded onto
+ * the heap. The words are looked up by binary search over the mapped tables. Since the lookups
+ * read the mapped buffer only by absolute positions, a lexicon can be shared by all threads.
+ *
+ * A table of a lexicon file is laid out as follows (all ints in big-endian order):
+ * <ul>
+ * <li>the number n of words in the table,</li>
+ * <li>n + 1 offsets of the (UTF-8 encoded) words in the word data, in ascending order,</li>
+ * <li>n frequencies, in the order of the words,</li>
+ * <li>the length of the word data in bytes, followed by the word data.</li>
+ * </ul>
+ * The words of a table are sorted by the unsigned lexicographical order of their UTF-8 bytes.
+ *
+ * @author Claudius Korzen
+ */
+public class WordFrequencyLexicon {
+  /**
+   * The header of a lexicon file, to identify the file format and its version.
+   */
+  protected static final int FILE_HEADER = 0x50574c01;
+
+  /**
+   * The table of the normal words.
+   */
+  protected Table normalWords;
+
+  /**
+   * The table of the compound words.
+   */
+  protected Table compoundWords;
+
+  /**
+   * The table of the prefixes of compound words.
+   */
+  protected Table prefixes;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new lexicon from the given buffer.
+   *
+   * @param buffer
+   *        The buffer that contains the lexicon file.
+   *
+   * @throws PdfActException
+   *         If the buffer doesn't contain a valid lexicon.
+   */
+  protected WordFrequencyLexicon(ByteBuffer buffer) throws PdfActException {
+    buffer.order(ByteOrder.BIG_ENDIAN);
+    if (buffer.capacity() < 4 || buffer.getInt(0) != FILE_HEADER) {
+      throw new PdfActIoException("Not a word frequency lexicon file.");
+    }
+    this.normalWords = new Table(buffer, 4);
+    this.compoundWords = new Table(buffer, this.normalWords.end);
+    this.prefixes = new Table(buffer, this.compoundWords.end);
+  }
+
+  /**
+   * Opens the lexicon stored in the given file, by mapping the file into memory.
+   *
+   * @param path
+   *        The path to the lexicon file.
+   *
+   * @return The opened lexicon.
+   *
+   * @throws PdfActException
+   *         If the file couldn't be read or doesn't contain a valid lexicon.
+   */
+  public static WordFrequencyLexicon open(Path path) throws PdfActException {
+    // The mapping stays valid after the channel is closed.
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      return new WordFrequencyLexicon(buffer);
+    } catch (IOException | IllegalArgumentException | IndexOutOfBoundsException e) {
+      throw new PdfActIoException("Couldn't read the word frequency lexicon.", e);
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the frequency of the given normal word (a word without a hyphen).
+   *
+   * @param word
+   *        The normalized word.
+   *
+   * @return The frequency of the given word, 0 if the word is unknown.
+   */
+  public int getNormalWordFrequency(String word) {
+    return this.normalWords.getFrequency(word);
+  }
+
+  /**
+   * Returns the frequency of the given compound word (a word with an inner hyphen).
+   *
+   * @param word
+   *        The normalized compound word.
+   *
+   * @return The frequency of the given word, 0 if the word is unknown.
+   */
+  public int getCompoundWordFrequency(String word) {
+    return this.compoundWords.getFrequency(word);
+  }
+
+  /**
+   * Returns the frequency of the given prefix of compound words.
+   *
+   * @param prefix
+   *        The normalized prefix.
+   *
+   * @return The frequency of the given prefix, 0 if the prefix is unknown.
+   */
+  public int getPrefixFrequency(String prefix) {
+    return this.prefixes.getFrequency(prefix);
+  }
+
+  /**
+   * Returns the number of words in this lexicon (normal words, compound words and prefixes).
+   *
+   * @return The number of words in this lexicon.
+   */
+  public int size() {
+    return this.normalWords.size + this.compoundWords.size + this.prefixes.size;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * A sorted string table in the mapped lexicon file.
+   *
+   * @author Claudius Korzen
+   */
+  protected static class Table {
+    /**
+     * The buffer of the lexicon file.
+     */
+    protected final ByteBuffer buffer;
+
+    /**
+     * The number of words in this table.
+     */
+    protected final int size;
+
+    /**
+     * The position of the word offsets.
+     */
+    protected final int offsetsPos;
+
+    /**
+     * The position of the frequencies.
+     */
+    protected final int frequenciesPos;
+
+    /**
+     * The position of the word data.
+     */
+    protected final int dataPos;
+
+    /**
+     * The position after the end of this table.
+     */
+    protected final int end;
+
+    /**
+     * Reads the header of the table starting at the given position of the given buffer.
+     *
+     * @param buffer
+     *        The buffer of the lexicon file.
+     * @param pos
+     *        The position of the table.
+     */
+    protected Table(ByteBuffer buffer, int pos) {
+      this.buffer = buffer;
+      this.size = buffer.getInt(pos);
+      this.offsetsPos = pos + 4;
+      this.frequenciesPos = this.offsetsPos + 4 * (this.size + 1);
+      int dataLength = buffer.getInt(this.frequenciesPos + 4 * this.size);
+      this.dataPos = this.frequenciesPos + 4 * this.size + 4;
+      this.end = this.dataPos + dataLength;
+      if (this.size < 0 || dataLength < 0 || this.end > buffer.capacity()) {
+        throw new IllegalArgumentException("Invalid table in word frequency lexicon.");
+      }
+    }
+
+    /**
+     * Returns the frequency of the given word.
+     *
+     * @param word
+     *        The word.
+     *
+     * @return The frequency of the given word, 0 if the word is not contained in this table.
+     */
+    protected int getFrequency(String word) {
+      if (word == null || this.size == 0) {
+        return 0;
+      }
+      byte[] key = word.getBytes(StandardCharsets.UTF_8);
+
+      int low = 0;
+      int high = this.size - 1;
+      while (low <= high) {
+        int mid = (low + high) >>> 1;
+        int cmp = compare(mid, key);
+        if (cmp < 0) {
+          low = mid + 1;
+        } else if (cmp > 0) {
+          high = mid - 1;
+        } else {
+          return this.buffer.getInt(this.frequenciesPos + 4 * mid);
+        }
+      }
+      return 0;
+    }
+
+    /**
+     * Compares the i-th word of this table with the given key, by the unsigned lexicographical
+     * order of their bytes.
+     *
+     * @param i
+     *        The index of the word in this table.
+     * @param key
+     *        The key to compare.
+     *
+     * @return A negative integer, zero, or a positive integer as the word is less than, equal
+     *         to, or greater than the key.
+     */
+    protected int compare(int i, byte[] key) {
+      int start = this.dataPos + this.buffer.getInt(this.offsetsPos + 4 * i);
+      int length = this.dataPos + this.buffer.getInt(this.offsetsPos + 4 * (i + 1)) - start;
+      int n = Math.min(length, key.length);
+      for (int j = 0; j < n; j++) {
+        int cmp = (this.buffer.get(start + j) & 0xff) - (key[j] & 0xff);
+        if (cmp != 0) {
+          return cmp;
+        }
+      }
+      return length - key.length;
+    }
+  }
+}
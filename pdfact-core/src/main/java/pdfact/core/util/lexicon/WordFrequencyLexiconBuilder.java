@@ -0,0 +1,185 @@
+package pdfact.core.util.lexicon;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import pdfact.core.util.counter.CharSequenceCounter;
+import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.exception.PdfActIoException;
+
+/**
+ * A builder that aggregates the word frequencies of multiple documents and writes them to a file
+ * in the format of a {@link WordFrequencyLexicon}.
+ *
+ * @author Claudius Korzen
+ */
+public class WordFrequencyLexiconBuilder {
+  /**
+   * The frequencies of the normal words.
+   */
+  protected CharSequenceCounter normalWords;
+
+  /**
+   * The frequencies of the compound words.
+   */
+  protected CharSequenceCounter compoundWords;
+
+  /**
+   * The frequencies of the prefixes of compound words.
+   */
+  protected CharSequenceCounter prefixes;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new, empty lexicon builder.
+   */
+  public WordFrequencyLexiconBuilder() {
+    this.normalWords = new CharSequenceCounter();
+    this.compoundWords = new CharSequenceCounter();
+    this.prefixes = new CharSequenceCounter();
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Adds the given word frequencies (for example, the frequencies counted in a single document).
+   *
+   * @param normalWords
+   *        The frequencies of the normal words.
+   * @param compoundWords
+   *        The frequencies of the compound words.
+   * @param prefixes
+   *        The frequencies of the prefixes of compound words.
+   */
+  public void add(CharSequenceCounter normalWords, CharSequenceCounter compoundWords,
+      CharSequenceCounter prefixes) {
+    if (normalWords != null) {
+      this.normalWords.add(normalWords);
+    }
+    if (compoundWords != null) {
+      this.compoundWords.add(compoundWords);
+    }
+    if (prefixes != null) {
+      this.prefixes.add(prefixes);
+    }
+  }
+
+  /**
+   * Returns the number of words added to this builder (normal words, compound words and
+   * prefixes).
+   *
+   * @return The number of words added to this builder.
+   */
+  public int size() {
+    return this.normalWords.size() + this.compoundWords.size() + this.prefixes.size();
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Writes the lexicon to the given file. The file is written to a unique temporary file first
+   * and then moved atomically to the given path, so that a lexicon mapped by a running process is
+   * never changed and concurrent writers don't corrupt each other's files.
+   *
+   * @param path
+   *        The path to the lexicon file.
+   *
+   * @throws PdfActException
+   *         If the file couldn't be written.
+   */
+  public void write(Path path) throws PdfActException {
+    try {
+      Path dir = path.toAbsolutePath().getParent();
+      Path tmpPath = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+      try {
+        try (DataOutputStream out = new DataOutputStream(
+            new BufferedOutputStream(Files.newOutputStream(tmpPath)))) {
+          out.writeInt(WordFrequencyLexicon.FILE_HEADER);
+          writeTable(out, this.normalWords);
+          writeTable(out, this.compoundWords);
+          writeTable(out, this.prefixes);
+        }
+        try {
+          Files.move(tmpPath, path, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+          Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+      } finally {
+        Files.deleteIfExists(tmpPath);
+      }
+    } catch (IOException e) {
+      throw new PdfActIoException("Couldn't write the word frequency lexicon.", e);
+    }
+  }
+
+  /**
+   * Writes the given word frequencies as a sorted string table to the given stream.
+   *
+   * @param out
+   *        The stream to write to.
+   * @param counter
+   *        The word frequencies.
+   *
+   * @throws IOException
+   *         If writing the table fails.
+   */
+  protected static void writeTable(DataOutputStream out, CharSequenceCounter counter)
+      throws IOException {
+    // Sort the words by the unsigned lexicographical order of their bytes.
+    Object[] words = counter.getObjects();
+    byte[][] keys = new byte[words.length][];
+    for (int i = 0; i < words.length; i++) {
+      keys[i] = words[i].toString().getBytes(StandardCharsets.UTF_8);
+    }
+    Integer[] order = new Integer[keys.length];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (i, j) -> compare(keys[i], keys[j]));
+
+    out.writeInt(keys.length);
+    int offset = 0;
+    out.writeInt(offset);
+    for (Integer i : order) {
+      offset += keys[i].length;
+      out.writeInt(offset);
+    }
+    for (Integer i : order) {
+      out.writeInt(counter.getFrequency((CharSequence) words[i]));
+    }
+    out.writeInt(offset);
+    for (Integer i : order) {
+      out.write(keys[i]);
+    }
+  }
+
+  /**
+   * Compares the given byte arrays by their unsigned lexicographical order.
+   *
+   * @param a
+   *        The first array.
+   * @param b
+   *        The second array.
+   *
+   * @return A negative integer, zero, or a positive integer as the first array is less than,
+   *         equal to, or greater than the second array.
+   */
+  protected static int compare(byte[] a, byte[] b) {
+    int n = Math.min(a.length, b.length);
+    for (int i = 0; i < n; i++) {
+      int cmp = (a[i] & 0xff) - (b[i] & 0xff);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return a.length - b.length;
+  }
+}
@@ -8,6 +8,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 import pdfact.core.model.Element;
 
@@ -24,13 +25,13 @@ public class ElementList<T extends Element> implements List<T> {
   /**
    * The underlying list.
    */
-  protected final ArrayList<T> list;
+  protected final CountingArrayList<T> list;
 
   /**
    * Creates an empty list.
    */
   public ElementList() {
-    this.list = new ArrayList<>();
+    this.list = new CountingArrayList<>();
   }
 
   /**
@@ -39,7 +40,7 @@ public class ElementList<T extends Element> implements List<T> {
    * @param initialCapacity The initial capacity of the list
    */
   public ElementList(int initialCapacity) {
-    this.list = new ArrayList<>(initialCapacity);
+    this.list = new CountingArrayList<>(initialCapacity);
   }
 
   // ==============================================================================================
@@ -79,7 +80,18 @@ public class ElementList<T extends Element> implements List<T> {
 
   @Override
   public void sort(Comparator<? super T> c) {
-    Quicksort.sort(this, c);
+    sort(0, size(), c);
+  }
+
+  /**
+   * Sorts the elements between the given indexes stably, by using the given comparator.
+   * 
+   * @param fromIndex The start index of the range to sort, inclusive.
+   * @param toIndex   The end index of the range to sort, exclusive.
+   * @param c         The comparator to use.
+   */
+  public void sort(int fromIndex, int toIndex, Comparator<? super T> c) {
+    ElementListSorter.sort(this, fromIndex, toIndex, c);
   }
 
   /**
@@ -212,10 +224,21 @@ public class ElementList<T extends Element> implements List<T> {
   // ==============================================================================================
 
   @Override
-  public List<T> subList(int fromIndex, int toIndex) {
+  public ElementList<T> subList(int fromIndex, int toIndex) {
     return new ElementListView<>(this, fromIndex, toIndex);
   }
 
+  /**
+   * Returns a view of this list that can't be modified, neither by changing its size nor by
+   * replacing or reordering its elements. Each attempt to modify the view throws an
+   * {@link UnsupportedOperationException}.
+   * 
+   * @return An unmodifiable view of this list.
+   */
+  public ElementList<T> asUnmodifiableList() {
+    return new UnmodifiableElementListView<>(this, 0, size());
+  }
+
   // ==============================================================================================
 
   /**
@@ -244,6 +267,20 @@ public class ElementList<T extends Element> implements List<T> {
 
   // ==============================================================================================
 
+  /**
+   * Returns the number of modifications of this list so far. The number is increased on each
+   * change of the content of this list, that is: on adding, removing, replacing and reordering
+   * elements, through any method of this list, its views or its iterators. It can be used to
+   * detect whether a structure computed from this list (for example, a spatial index) is stale.
+   * 
+   * @return The number of modifications of this list.
+   */
+  public int getModificationCount() {
+    return this.list.getModificationCount();
+  }
+
+  // ==============================================================================================
+
   @Override
   public boolean equals(Object other) {
     return this.list.equals(other);
@@ -316,8 +353,13 @@ public class ElementList<T extends Element> implements List<T> {
 
     @Override
     public S set(int index, S element) {
-      // Don't allow to change the content of the list.
-      throw new UnsupportedOperationException();
+      // Allow to replace elements (e.g., on sorting), but not to change the size of the list.
+      return this.parent.set(this.from + index, element);
+    }
+
+    @Override
+    public int getModificationCount() {
+      return this.parent.getModificationCount();
     }
 
     // ============================================================================================
@@ -435,8 +477,17 @@ public class ElementList<T extends Element> implements List<T> {
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <X> X[] toArray(X[] a) {
-      throw new UnsupportedOperationException();
+      Object[] elements = toArray();
+      if (a.length < elements.length) {
+        return (X[]) Arrays.copyOf(elements, elements.length, a.getClass());
+      }
+      System.arraycopy(elements, 0, a, 0, elements.length);
+      if (a.length > elements.length) {
+        a[elements.length] = null;
+      }
+      return a;
     }
 
     // ============================================================================================
@@ -511,8 +562,8 @@ public class ElementList<T extends Element> implements List<T> {
 
     // ============================================================================================
 
-    // @Override
-    public List<S> subList(int from, int to) {
+    @Override
+    public ElementList<S> subList(int from, int to) {
       return this.parent.subList(this.from + from, this.from + to);
     }
 
@@ -542,8 +593,9 @@ public class ElementList<T extends Element> implements List<T> {
     }
 
     @Override
-    public void sort(Comparator<? super S> c) {
-      Quicksort.sort(this, c);
+    public void sort(int fromIndex, int toIndex, Comparator<? super S> c) {
+      // Sort the range in place in the parent list.
+      this.parent.sort(this.from + fromIndex, this.from + toIndex, c);
     }
 
     @Override
@@ -588,112 +640,138 @@ public class ElementList<T extends Element> implements List<T> {
       return hashCode;
     }
   }
-}
 
-/**
- * A custom implementation of Quicksort.
- * 
- * @author Claudius Korzen
- */
-class Quicksort {
+  // ==============================================================================================
+
   /**
-   * Sorts the given array using QuickSort.
+   * A view of a PdfElementList that doesn't allow to replace or reorder its elements (in addition
+   * to changing its size).
    * 
-   * @param list The list to sort.
-   * @param c    The comparator to use.
+   * @author Claudius Korzen
+   *
+   * @param <S> The type of the PDF elements in this list.
    */
-  public static <T extends Element> void sort(ElementList<T> list, Comparator<? super T> c) {
-    // Do nothing, if the array is not set.
-    if (list == null) {
-      return;
+  class UnmodifiableElementListView<S extends Element> extends ElementListView<S> {
+    /**
+     * The serial id.
+     */
+    protected static final long serialVersionUID = -4907385174262150719L;
+
+    /**
+     * Creates a new unmodifiable view based on the given parent list.
+     * 
+     * @param parent    The parent list.
+     * @param fromIndex The start index in the parent list.
+     * @param toIndex   The end index in the parent list.
+     */
+    UnmodifiableElementListView(ElementList<S> parent, int fromIndex, int toIndex) {
+      super(parent, fromIndex, toIndex);
     }
 
-    // Do nothing, if the array contains less than 2 elements.
-    if (list.size() < 2) {
-      return;
+    // ============================================================================================
+
+    @Override
+    public S set(int index, S element) {
+      // Don't allow to change the content of the list.
+      throw new UnsupportedOperationException();
     }
 
-    quickSortRecursive(list, c, 0, list.size() - 1);
-  }
+    @Override
+    public void swap(int i, int j) {
+      // Don't allow to change the content of the list.
+      throw new UnsupportedOperationException();
+    }
 
-  // ___________________________________________________________________________
+    @Override
+    public void sort(int fromIndex, int toIndex, Comparator<? super S> c) {
+      // Don't allow to change the content of the list.
+      throw new UnsupportedOperationException();
+    }
 
-  /**
-   * Recursive method for Quicksort. Each call gets the full array plus two
-   * variables specifying which range of the array should be sorted, where l is
-   * the index of the leftmost element in the range, and r is the index of the
-   * rightmost element in the range. The public method above just calls this one
-   * with l = 0 and r = n - 1, where n is the size of the array.
-   * 
-   * @param list The list to process.
-   * @param c    The comparator to use.
-   * @param l    The start index.
-   * @param r    The end index.
-   */
-  protected static <T extends Element> void quickSortRecursive(ElementList<T> list, 
-      Comparator<? super T> c, int l,
-      int r) {
-    // Do nothing, if the range contains no more than 1 element.
-    int index = quickSortDivide(list, c, l, r);
+    // ============================================================================================
 
-    if (index > l + 1) {
-      quickSortRecursive(list, c, l, index - 1);
+    @Override
+    public ElementList<S> subList(int from, int to) {
+      return new UnmodifiableElementListView<>(this.parent, this.from + from, this.from + to);
     }
-    if (index < r - 1) {
-      quickSortRecursive(list, c, index + 1, r);
+
+    @Override
+    public List<ElementList<S>> cut(int index) {
+      int left = this.from;
+      int cut = this.from + index;
+      int right = this.from + size();
+      ElementListView<S> v1 = new UnmodifiableElementListView<S>(this.parent, left, cut);
+      ElementListView<S> v2 = new UnmodifiableElementListView<S>(this.parent, cut, right);
+      return Arrays.asList(v1, v2);
+    }
+
+    @Override
+    public ElementList<S> asUnmodifiableList() {
+      return this;
     }
   }
 
+  // ==============================================================================================
+
   /**
-   * Method for dividing the given range of the given array into two parts such
-   * that all elements in the left part are smaller than all elements in the right
-   * part. Returns the index m of the dividing element, that is left part
-   * array[l..m] and right part = array[m+1..r].
+   * An array list that counts its modifications. The modCount of {@link ArrayList} counts the
+   * structural modifications only (including the modifications through iterators and sorting),
+   * so the replacements of elements are counted in addition. The replacements are counted
+   * atomically, since disjoint ranges of a list may be filled by set() from several threads (for
+   * example, by the parallel XYCut).
    * 
-   * @param list The list to process.
-   * @param c    The comparator to use.
-   * @param l    The start index.
-   * @param r    The end index.
-   * @return The index of dividing element.
+   * @param <S> The type of the elements in this list.
+   * 
+   * @author Claudius Korzen
    */
-  protected static <T extends Element> int quickSortDivide(ElementList<T> list, 
-      Comparator<? super T> c, int l, int r) {
-    // Define the two pointers i and j.
-    int i = l;
-    int j = r - 1;
-
-    // Choose the pivot index: Take the leftmost element per default.
-    int pivotIndex = r;
-    T pivot = list.get(pivotIndex);
-
-    // Swap the pivot to the right.
-    list.swap(pivotIndex, r);
-
-    while (true) {
-      // Iterate the array from the left and search for the first element which
-      // is larger than the pivot.
-      while (i <= j && c.compare(list.get(i), pivot) < 0) {
-        i++;
-      }
+  protected static class CountingArrayList<S> extends ArrayList<S> {
+    /**
+     * The serial id.
+     */
+    protected static final long serialVersionUID = -1523962405872270131L;
 
-      // Iterate the array from the right and search for the first element
-      // which is smaller than the pivot.
-      while (i <= j && c.compare(list.get(j), pivot) >= 0) {
-        j--;
-      }
+    /**
+     * The updater to increase the number of replaced elements atomically.
+     */
+    @SuppressWarnings("rawtypes")
+    protected static final AtomicIntegerFieldUpdater<CountingArrayList> NUM_REPLACEMENTS =
+        AtomicIntegerFieldUpdater.newUpdater(CountingArrayList.class, "numReplacements");
 
-      if (i > j) {
-        break;
-      }
+    /**
+     * The number of replaced elements.
+     */
+    protected volatile int numReplacements;
+
+    /**
+     * Creates an empty list.
+     */
+    protected CountingArrayList() {
+      super();
+    }
 
-      // Swap the element in the left array which is larger than the pivot
-      // with the element in the right array which is smaller than the pivot.
-      list.swap(i, j);
+    /**
+     * Creates an empty list with the given initial capacity.
+     *
+     * @param initialCapacity The initial capacity of the list
+     */
+    protected CountingArrayList(int initialCapacity) {
+      super(initialCapacity);
     }
 
-    // Swap the pivot back.
-    list.swap(r, i);
+    @Override
+    public S set(int index, S element) {
+      // This is also called by ListIterator.set().
+      NUM_REPLACEMENTS.incrementAndGet(this);
+      return super.set(index, element);
+    }
 
-    return i;
+    /**
+     * Returns the number of modifications of this list so far.
+     * 
+     * @return The number of modifications of this list.
+     */
+    protected int getModificationCount() {
+      return this.modCount + this.numReplacements;
+    }
   }
 }
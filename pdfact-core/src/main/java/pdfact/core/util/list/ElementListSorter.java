@@ -0,0 +1,169 @@
+package pdfact.core.util.list;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import pdfact.core.model.Element;
+import pdfact.core.model.HasPosition;
+import pdfact.core.model.Page;
+import pdfact.core.model.Position;
+import pdfact.core.util.comparator.PositionComparator;
+
+/**
+ * A stable sort for lists of PDF elements.
+ *
+ * If the elements are compared by a {@link PositionComparator} and are located on the same page
+ * (which is the common case, for example on sorting the characters of a text line), the sort keys
+ * of the elements are extracted into a primitive array once. Each key is packed together with the
+ * index of its element into a long value and the long values are sorted by a dual-pivot
+ * quicksort, which gives a stable ordering without comparing the elements pairwise. Otherwise,
+ * the elements are sorted by a merge sort, by using the comparator.
+ *
+ * In both cases, the elements are written back to the list in a single pass.
+ *
+ * @author Claudius Korzen
+ */
+public class ElementListSorter {
+  /**
+   * Sorts the elements in the given range of the given list stably, by using the given
+   * comparator.
+   *
+   * @param list
+   *        The list to sort.
+   * @param fromIndex
+   *        The start index of the range to sort, inclusive.
+   * @param toIndex
+   *        The end index of the range to sort, exclusive.
+   * @param c
+   *        The comparator to use.
+   */
+  public static <T extends Element> void sort(ElementList<T> list, int fromIndex, int toIndex,
+      Comparator<? super T> c) {
+    if (list == null || toIndex - fromIndex < 2) {
+      return;
+    }
+
+    @SuppressWarnings("unchecked")
+    T[] sorted = (T[]) new Element[toIndex - fromIndex];
+
+    int[] keys = computeSortKeys(list, fromIndex, toIndex, c);
+    if (keys != null) {
+      long[] packed = sortPacked(keys);
+      for (int i = 0; i < sorted.length; i++) {
+        sorted[i] = list.get(fromIndex + (int) packed[i]);
+      }
+    } else {
+      for (int i = 0; i < sorted.length; i++) {
+        sorted[i] = list.get(fromIndex + i);
+      }
+      Arrays.sort(sorted, c);
+    }
+
+    for (int i = 0; i < sorted.length; i++) {
+      list.set(fromIndex + i, sorted[i]);
+    }
+  }
+
+  /**
+   * Sorts the indexes of the elements in the given range of the given list stably, by using the
+   * given comparator. The list is not changed.
+   *
+   * @param list
+   *        The list of elements.
+   * @param fromIndex
+   *        The start index of the range to sort, inclusive.
+   * @param toIndex
+   *        The end index of the range to sort, exclusive.
+   * @param c
+   *        The comparator to use.
+   *
+   * @return The indexes of the elements in the given range, in sorted order.
+   */
+  public static <T> int[] sortIndexes(List<? extends T> list, int fromIndex, int toIndex,
+      Comparator<? super T> c) {
+    int[] indexes = new int[Math.max(0, toIndex - fromIndex)];
+
+    int[] keys = computeSortKeys(list, fromIndex, toIndex, c);
+    if (keys != null) {
+      long[] packed = sortPacked(keys);
+      for (int i = 0; i < indexes.length; i++) {
+        indexes[i] = fromIndex + (int) packed[i];
+      }
+    } else {
+      Integer[] boxed = new Integer[indexes.length];
+      for (int i = 0; i < boxed.length; i++) {
+        boxed[i] = fromIndex + i;
+      }
+      Arrays.sort(boxed, (i, j) -> c.compare(list.get(i), list.get(j)));
+      for (int i = 0; i < indexes.length; i++) {
+        indexes[i] = boxed[i];
+      }
+    }
+    return indexes;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Computes the sort keys of the elements in the given range of the given list, if the given
+   * comparator is a {@link PositionComparator} and all elements are located on the same page.
+   *
+   * @param list
+   *        The list of elements.
+   * @param fromIndex
+   *        The start index of the range, inclusive.
+   * @param toIndex
+   *        The end index of the range, exclusive.
+   * @param c
+   *        The comparator to use.
+   *
+   * @return The sort keys of the elements or null if the elements can't be sorted by keys.
+   */
+  protected static int[] computeSortKeys(List<?> list, int fromIndex, int toIndex,
+      Comparator<?> c) {
+    if (!(c instanceof PositionComparator) || toIndex <= fromIndex) {
+      return null;
+    }
+    PositionComparator comparator = (PositionComparator) c;
+
+    int[] keys = new int[toIndex - fromIndex];
+    int pageNumber = 0;
+    for (int i = fromIndex; i < toIndex; i++) {
+      Object element = list.get(i);
+      if (!(element instanceof HasPosition)) {
+        return null;
+      }
+      Position position = ((HasPosition) element).getPosition();
+      if (position == null || position.getRectangle() == null) {
+        return null;
+      }
+      Page page = position.getPage();
+      if (page == null || (i > fromIndex && page.getPageNumber() != pageNumber)) {
+        return null;
+      }
+      pageNumber = page.getPageNumber();
+      keys[i - fromIndex] = comparator.getSortKey(position.getRectangle());
+    }
+    return keys;
+  }
+
+  /**
+   * Packs each of the given keys together with its index into a long value (the key in the upper
+   * 32 bits, the index in the lower 32 bits) and sorts the long values. Since the indexes are
+   * unique, the resulting order is stable.
+   *
+   * @param keys
+   *        The keys to sort.
+   *
+   * @return The sorted long values; the lower 32 bits of each value are the index of the key.
+   */
+  protected static long[] sortPacked(int[] keys) {
+    long[] packed = new long[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      packed[i] = ((long) keys[i] << 32) | i;
+    }
+    Arrays.sort(packed);
+    return packed;
+  }
+}
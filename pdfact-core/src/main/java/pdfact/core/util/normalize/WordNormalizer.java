@@ -3,6 +3,7 @@ package pdfact.core.util.normalize;
 import gnu.trove.set.TCharSet;
 import gnu.trove.set.hash.TCharHashSet;
 import pdfact.core.model.Word;
+import pdfact.core.util.CharSequenceWindow;
 
 /**
  * A word normalizer.
@@ -31,12 +32,18 @@ public class WordNormalizer {
    */
   protected TCharSet trailingCharactersToKeep;
 
+  /**
+   * The buffer to normalize the words in, reused for all words.
+   */
+  protected char[] buffer;
+
   /**
    * Creates a new word normalizer.
    */
   public WordNormalizer() {
     this.leadingCharactersToKeep = new TCharHashSet();
     this.trailingCharactersToKeep = new TCharHashSet();
+    this.buffer = new char[32];
   }
 
   /**
@@ -47,6 +54,23 @@ public class WordNormalizer {
    * @return The normalized string.
    */
   public String normalize(Word word) {
+    CharSequenceWindow window = normalize(word, new CharSequenceWindow());
+    return window != null ? window.toString() : null;
+  }
+
+  /**
+   * Normalizes the given word without creating a new string: The characters of the word are
+   * copied into an internal buffer that is reused on each call and the given window is moved to
+   * the range of the normalized word in this buffer. Hence, the window is valid only until the
+   * next call of this method.
+   * 
+   * @param word The word to normalize.
+   * @param window The window to move to the normalized word.
+   * 
+   * @return The given window (which is empty if the normalized word is empty) or null if the
+   *         word or its text is null.
+   */
+  public CharSequenceWindow normalize(Word word, CharSequenceWindow window) {
     if (word == null) {
       return null;
     }
@@ -56,56 +80,51 @@ public class WordNormalizer {
       return null;
     }
 
-    char[] array = text.toCharArray();
+    int length = text.length();
+    if (this.buffer.length < length) {
+      this.buffer = new char[Math.max(length, 2 * this.buffer.length)];
+    }
+    char[] array = this.buffer;
+    text.getChars(0, length, array, 0);
 
     int startIndex = 0;
-    int endIndex = array.length - 1;
+    int endIndex = length - 1;
 
     if (isToLowerCase()) {
-      array = toLowerCase(array);
+      toLowerCase(array, length);
     }
 
     if (hasLeadingCharactersToKeep()) {
-      startIndex = getIndexOfFirstLeadingCharacterToKeep(array);
+      startIndex = getIndexOfFirstLeadingCharacterToKeep(array, length);
     }
 
     if (hasTrailingCharactersToKeep()) {
-      endIndex = getIndexOfFirstTrailingCharacterToKeep(array);
+      endIndex = getIndexOfFirstTrailingCharacterToKeep(array, length);
     }
 
-    if (startIndex < 0 || endIndex < 0) {
-      return "";
+    if (startIndex < 0 || endIndex < startIndex) {
+      return window.set(array, 0, 0);
     }
 
-    if (startIndex >= array.length || endIndex >= array.length) {
-      return "";
+    if (startIndex >= length || endIndex >= length) {
+      return window.set(array, 0, 0);
     }
 
-    return new String(array, startIndex, endIndex - startIndex + 1);
-
-    // // Make sure that word contains only characters or hyphens.
-    // Pattern p = Pattern.compile("[a-zA-z\\-]+");
-    // Matcher m = p.matcher(wordStr);
-    // if (!m.matches()) {
-    //
-    // }
-    // return null;
+    return window.set(array, startIndex, endIndex - startIndex + 1);
   }
 
   // ==============================================================================================
 
   /**
-   * Transforms all characters in the given char array to lower cases.
+   * Transforms the first characters in the given char array to lower cases.
    * 
    * @param array The char array to process.
-   * 
-   * @return The char array after transforming the characters to lower cases.
+   * @param length The number of characters to process.
    */
-  protected char[] toLowerCase(char[] array) {
-    for (int i = 0; i < array.length; i++) {
+  protected void toLowerCase(char[] array, int length) {
+    for (int i = 0; i < length; i++) {
       array[i] = Character.toLowerCase(array[i]);
     }
-    return array;
   }
 
   // ==============================================================================================
@@ -116,13 +135,14 @@ public class WordNormalizer {
    * defined by setLeadingCharactersToKeep().
    * 
    * @param array The char array to process.
+   * @param length The number of characters to process.
    * 
    * @return The index of the first character which is covered by the set of
    *         characters defined by setLeadingCharactersToKeep()
    */
-  protected int getIndexOfFirstLeadingCharacterToKeep(char[] array) {
+  protected int getIndexOfFirstLeadingCharacterToKeep(char[] array, int length) {
     int i = 0;
-    for (; i < array.length; i++) {
+    for (; i < length; i++) {
       if (this.leadingCharactersToKeep.contains(array[i])) {
         break;
       }
@@ -136,12 +156,13 @@ public class WordNormalizer {
    * characters defined by setTrailingCharactersToKeep().
    * 
    * @param array The char array to process.
+   * @param length The number of characters to process.
    * 
    * @return The index of the first character which is covered by the set of
    *         characters defined by setTrailingCharactersToKeep()
    */
-  protected int getIndexOfFirstTrailingCharacterToKeep(char[] array) {
-    int i = array.length - 1;
+  protected int getIndexOfFirstTrailingCharacterToKeep(char[] array, int length) {
+    int i = length - 1;
     for (; i >= 0; i--) {
       if (this.trailingCharactersToKeep.contains(array[i])) {
         break;
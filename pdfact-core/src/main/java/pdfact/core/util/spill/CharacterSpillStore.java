@@ -0,0 +1,494 @@
+package pdfact.core.util.spill;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import pdfact.core.model.Character;
+import pdfact.core.model.Color;
+import pdfact.core.model.FontFace;
+import pdfact.core.model.Page;
+import pdfact.core.model.Position;
+import pdfact.core.model.Rectangle;
+import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.exception.PdfActIoException;
+import pdfact.core.util.list.ElementList;
+
+/**
+ * A store to spill lists of characters from the heap into a memory-mapped temporary file, from
+ * which they are read again on request. The store is meant to hold the characters of a processed
+ * document that are no longer needed by the pipeline, but may be requested afterwards (for
+ * example, on serializing the characters), so that the characters don't occupy the heap and the
+ * operating system can page them in and out as needed.
+ *
+ * A spilled list of characters is laid out as a sequence of characters (all numbers in big-endian
+ * order), each given by the length of its text (-1 if the text is null) followed by the UTF-16
+ * chars of the text, the four coordinates of its bounding box, the indexes of its page, font face
+ * and color in the object table of the store (-1 if null, the page index is -2 if the character
+ * has no position), its extraction rank and its MCID. The number of characters is kept by the
+ * {@link SpilledCharacters}, so that a contiguous part of a spilled list (for example, the
+ * characters of a word in the spilled characters of its text line) can be referred to without
+ * spilling it again (see {@link SpilledCharacters#subList(int, int)}).
+ *
+ * The pages, font faces and colors are not spilled, but kept in the object table of the store, so
+ * that the characters read from the store refer to the same objects as the spilled characters.
+ *
+ * The file is deleted on closing the store (where possible, already on creating the store). The
+ * spilled characters stay readable after the store was closed, since the mapping of a file stays
+ * valid until the mapped buffers are garbage collected. Spilling is not thread-safe, but reading
+ * is (the buffers are read only by absolute positions).
+ *
+ * @author Claudius Korzen
+ */
+public class CharacterSpillStore implements AutoCloseable {
+  /**
+   * The default size of a mapped region of the file, in bytes.
+   */
+  protected static final int DEFAULT_REGION_SIZE = 8 * 1024 * 1024;
+
+  /**
+   * The number of bytes of a character, without its text.
+   */
+  protected static final int CHARACTER_SIZE = 2 + 4 * 4 + 5 * 4;
+
+  /**
+   * The size of a mapped region of the file, in bytes.
+   */
+  protected int regionSize;
+
+  /**
+   * The path to the file of this store.
+   */
+  protected Path path;
+
+  /**
+   * The channel to the file of this store; null if the store was closed.
+   */
+  protected FileChannel channel;
+
+  /**
+   * The current size of the file.
+   */
+  protected long fileSize;
+
+  /**
+   * The mapped region of the file to which the characters are currently spilled.
+   */
+  protected MappedByteBuffer region;
+
+  /**
+   * The position in the current region at which the next characters are spilled.
+   */
+  protected int regionPosition;
+
+  /**
+   * The pages, font faces and colors referred to by the spilled characters.
+   */
+  protected List<Object> objects;
+
+  /**
+   * The indexes of the pages, font faces and colors in the object table, per object.
+   */
+  protected Map<Object, Integer> objectIndexes;
+
+  /**
+   * The number of spilled characters.
+   */
+  protected int numSpilledCharacters;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new store in a new temporary file.
+   *
+   * @throws PdfActException
+   *         If the temporary file couldn't be created.
+   */
+  public CharacterSpillStore() throws PdfActException {
+    this(DEFAULT_REGION_SIZE);
+  }
+
+  /**
+   * Creates a new store in a new temporary file, which is mapped in regions of the given size
+   * (a list of characters that is larger than a region is mapped in a region of its own size).
+   *
+   * @param regionSize
+   *        The size of a mapped region of the file, in bytes.
+   *
+   * @throws PdfActException
+   *         If the temporary file couldn't be created.
+   */
+  public CharacterSpillStore(int regionSize) throws PdfActException {
+    this.regionSize = regionSize;
+    this.objects = new ArrayList<>();
+    this.objectIndexes = new IdentityHashMap<>();
+
+    try {
+      this.path = Files.createTempFile("pdfact-", ".spill");
+      this.channel = FileChannel.open(this.path, StandardOpenOption.READ,
+          StandardOpenOption.WRITE);
+    } catch (IOException e) {
+      throw new PdfActIoException("Couldn't create the character spill file.", e);
+    }
+
+    // Delete the file right away, if the file system allows to delete open files.
+    try {
+      Files.delete(this.path);
+      this.path = null;
+    } catch (IOException e) {
+      this.path.toFile().deleteOnExit();
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Spills the given characters to this store. Each call writes the characters anew, so the
+   * callers are responsible for spilling the same characters only once (and for referring to
+   * parts of spilled lists by {@link SpilledCharacters#subList(int, int)}).
+   *
+   * @param characters
+   *        The characters to spill.
+   *
+   * @return The spilled characters, to read the characters again.
+   *
+   * @throws PdfActException
+   *         If the store was closed or the characters couldn't be written.
+   */
+  public SpilledCharacters spill(List<Character> characters) throws PdfActException {
+    int size = 0;
+    for (Character character : characters) {
+      String text = character.getText();
+      size += CHARACTER_SIZE + (text != null ? 2 * text.length() : 0);
+    }
+
+    ensureCapacity(size);
+    ByteBuffer buffer = this.region;
+    int start = this.regionPosition;
+
+    int pos = start;
+    for (Character character : characters) {
+      String text = character.getText();
+      if (text == null) {
+        buffer.putShort(pos, (short) -1);
+        pos += 2;
+      } else {
+        buffer.putShort(pos, (short) text.length());
+        pos += 2;
+        for (int i = 0; i < text.length(); i++) {
+          buffer.putChar(pos, text.charAt(i));
+          pos += 2;
+        }
+      }
+
+      Position position = character.getPosition();
+      Rectangle rectangle = position != null ? position.getRectangle() : null;
+      buffer.putFloat(pos, rectangle != null ? rectangle.getMinX() : 0);
+      buffer.putFloat(pos + 4, rectangle != null ? rectangle.getMinY() : 0);
+      buffer.putFloat(pos + 8, rectangle != null ? rectangle.getMaxX() : 0);
+      buffer.putFloat(pos + 12, rectangle != null ? rectangle.getMaxY() : 0);
+      buffer.putInt(pos + 16, position != null ? getObjectIndex(position.getPage()) : -2);
+      buffer.putInt(pos + 20, getObjectIndex(character.getFontFace()));
+      buffer.putInt(pos + 24, getObjectIndex(character.getColor()));
+      buffer.putInt(pos + 28, character.getExtractionRank());
+      buffer.putInt(pos + 32, character.getMcid());
+      pos += 36;
+    }
+    this.regionPosition = pos;
+    this.numSpilledCharacters += characters.size();
+
+    return new SpilledCharacters(this, buffer, start, characters.size());
+  }
+
+  /**
+   * Closes this store, that is: the file of this store. No further characters can be spilled,
+   * but the spilled characters can still be read.
+   *
+   * @throws PdfActException
+   *         If the file couldn't be closed.
+   */
+  @Override
+  public void close() throws PdfActException {
+    if (this.channel == null) {
+      return;
+    }
+
+    try {
+      this.channel.close();
+      this.channel = null;
+      if (this.path != null) {
+        Files.deleteIfExists(this.path);
+        this.path = null;
+      }
+    } catch (IOException e) {
+      throw new PdfActIoException("Couldn't close the character spill file.", e);
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Ensures that the current region has room for the given number of bytes. Maps a new region
+   * of the file if not.
+   *
+   * @param size
+   *        The number of bytes to write.
+   *
+   * @throws PdfActException
+   *         If the store was closed or the region couldn't be mapped.
+   */
+  protected void ensureCapacity(int size) throws PdfActException {
+    if (this.region != null && this.regionPosition + size <= this.region.capacity()) {
+      return;
+    }
+    if (this.channel == null) {
+      throw new PdfActIoException("The character spill store is closed.");
+    }
+
+    int regionSize = Math.max(this.regionSize, size);
+    try {
+      this.region = this.channel.map(FileChannel.MapMode.READ_WRITE, this.fileSize, regionSize);
+    } catch (IOException e) {
+      throw new PdfActIoException("Couldn't extend the character spill file.", e);
+    }
+    this.fileSize += regionSize;
+    this.regionPosition = 0;
+  }
+
+  /**
+   * Returns the index of the given object in the object table, adds it if it's not contained.
+   *
+   * @param object
+   *        The object (a page, font face or color).
+   *
+   * @return The index of the object in the object table; -1 if the object is null.
+   */
+  protected int getObjectIndex(Object object) {
+    if (object == null) {
+      return -1;
+    }
+    Integer index = this.objectIndexes.get(object);
+    if (index == null) {
+      index = this.objects.size();
+      this.objects.add(object);
+      this.objectIndexes.put(object, index);
+    }
+    return index;
+  }
+
+  /**
+   * Returns the object with the given index in the object table.
+   *
+   * @param index
+   *        The index of the object.
+   *
+   * @return The object; null if the index is negative.
+   */
+  protected Object getObject(int index) {
+    return index >= 0 ? this.objects.get(index) : null;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the number of spilled characters.
+   *
+   * @return The number of spilled characters.
+   */
+  public int getNumSpilledCharacters() {
+    return this.numSpilledCharacters;
+  }
+
+  /**
+   * Returns the size of the file of this store, in bytes.
+   *
+   * @return The size of the file of this store.
+   */
+  public long getFileSize() {
+    return this.fileSize;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * A list of characters spilled to a {@link CharacterSpillStore}.
+   *
+   * @author Claudius Korzen
+   */
+  public static class SpilledCharacters {
+    /**
+     * The store to which the characters were spilled.
+     */
+    protected final CharacterSpillStore store;
+
+    /**
+     * The mapped region that contains the characters.
+     */
+    protected final ByteBuffer buffer;
+
+    /**
+     * The position of the first character in the region.
+     */
+    protected final int position;
+
+    /**
+     * The number of characters.
+     */
+    protected final int size;
+
+    /**
+     * Creates a new list of spilled characters.
+     *
+     * @param store
+     *        The store to which the characters were spilled.
+     * @param buffer
+     *        The mapped region that contains the characters.
+     * @param position
+     *        The position of the first character in the region.
+     * @param size
+     *        The number of characters.
+     */
+    protected SpilledCharacters(CharacterSpillStore store, ByteBuffer buffer, int position,
+        int size) {
+      this.store = store;
+      this.buffer = buffer;
+      this.position = position;
+      this.size = size;
+    }
+
+    /**
+     * Reads the characters from the store. Each call creates new character objects (that are
+     * equal to the spilled characters), so the characters aren't kept on the heap by the store.
+     * The returned list can't be modified, since changes wouldn't be written back to the store.
+     *
+     * @return The characters, in an unmodifiable list.
+     */
+    public ElementList<Character> read() {
+      ElementList<Character> characters = new ElementList<>(this.size);
+
+      int pos = this.position;
+      for (int i = 0; i < this.size; i++) {
+        characters.add(readCharacter(pos));
+        pos = nextPosition(pos);
+      }
+
+      return characters.asUnmodifiableList();
+    }
+
+    /**
+     * Reads the character at the given index from the store, without reading the other
+     * characters. Each call creates a new character object.
+     *
+     * @param index
+     *        The index of the character.
+     *
+     * @return The character at the given index.
+     */
+    public Character get(int index) {
+      if (index < 0 || index >= this.size) {
+        throw new IndexOutOfBoundsException("index: " + index + ", size: " + this.size);
+      }
+
+      int pos = this.position;
+      for (int i = 0; i < index; i++) {
+        pos = nextPosition(pos);
+      }
+      return readCharacter(pos);
+    }
+
+    /**
+     * Returns the given part of these characters, without reading or spilling the characters.
+     *
+     * @param fromIndex
+     *        The index of the first character of the part (inclusive).
+     * @param toIndex
+     *        The index of the last character of the part (exclusive).
+     *
+     * @return The given part of these characters.
+     */
+    public SpilledCharacters subList(int fromIndex, int toIndex) {
+      if (fromIndex < 0 || toIndex > this.size || fromIndex > toIndex) {
+        throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex
+            + ", size: " + this.size);
+      }
+
+      // Skip the characters in front of the part (a character has a variable length).
+      int pos = this.position;
+      for (int i = 0; i < fromIndex; i++) {
+        pos = nextPosition(pos);
+      }
+      return new SpilledCharacters(this.store, this.buffer, pos, toIndex - fromIndex);
+    }
+
+    /**
+     * Returns the number of characters.
+     *
+     * @return The number of characters.
+     */
+    public int size() {
+      return this.size;
+    }
+
+    // ============================================================================================
+
+    /**
+     * Reads the character at the given position in the region.
+     *
+     * @param pos
+     *        The position of the character in the region.
+     *
+     * @return The character, as a new object.
+     */
+    protected Character readCharacter(int pos) {
+      ByteBuffer buffer = this.buffer;
+
+      String text = null;
+      int length = buffer.getShort(pos);
+      pos += 2;
+      if (length >= 0) {
+        char[] chars = new char[length];
+        for (int j = 0; j < length; j++) {
+          chars[j] = buffer.getChar(pos);
+          pos += 2;
+        }
+        text = new String(chars);
+      }
+
+      Character character = new Character();
+      character.setText(text);
+      int pageIndex = buffer.getInt(pos + 16);
+      if (pageIndex > -2) {
+        character.setPosition(new Position((Page) this.store.getObject(pageIndex),
+            buffer.getFloat(pos), buffer.getFloat(pos + 4), buffer.getFloat(pos + 8),
+            buffer.getFloat(pos + 12)));
+      }
+      character.setFontFace((FontFace) this.store.getObject(buffer.getInt(pos + 20)));
+      character.setColor((Color) this.store.getObject(buffer.getInt(pos + 24)));
+      character.setExtractionRank(buffer.getInt(pos + 28));
+      character.setMcid(buffer.getInt(pos + 32));
+      return character;
+    }
+
+    /**
+     * Returns the position of the character that follows the character at the given position in
+     * the region (a character has a variable length).
+     *
+     * @param pos
+     *        The position of a character in the region.
+     *
+     * @return The position of the next character.
+     */
+    protected int nextPosition(int pos) {
+      int length = this.buffer.getShort(pos);
+      return pos + CHARACTER_SIZE + 2 * Math.max(0, length);
+    }
+  }
+}
@@ -0,0 +1,307 @@
+package pdfact.core.util.xycut;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import pdfact.core.model.Character;
+import pdfact.core.util.comparator.MaxYComparator;
+import pdfact.core.util.comparator.MinXComparator;
+import pdfact.core.util.list.ElementList;
+import pdfact.core.util.list.ElementListSorter;
+
+/**
+ * The characters of a page, sorted once by their minX values and once by their (descending) maxY
+ * values. Each block considered by the XYCut occupies the same range [from, to) in both orderings.
+ * When a block is cut in one ordering, the other ordering is partitioned stably, such that both
+ * halves again occupy the same ranges in both orderings and remain sorted. This way, the
+ * characters need to be sorted only once per page instead of once per recursion level.
+ *
+ * @author Claudius Korzen
+ */
+public class PresortedCharacters {
+  /**
+   * The maximum ratio between the range of the extraction ranks and the number of characters, up
+   * to which the characters are indexed by their extraction ranks.
+   */
+  protected static final int MAX_RANKS_PER_CHARACTER = 8;
+
+  /**
+   * The characters, sorted by their minX values.
+   */
+  protected final ElementList<Character> xOrder;
+
+  /**
+   * The characters, sorted by their maxY values in descending order.
+   */
+  protected final ElementList<Character> yOrder;
+
+  /**
+   * The ids (the indexes in the original list) of the characters in xOrder.
+   */
+  protected final int[] xIds;
+
+  /**
+   * The ids (the indexes in the original list) of the characters in yOrder.
+   */
+  protected final int[] yIds;
+
+  /**
+   * The positions of the characters in xOrder, indexed by the ids of the characters.
+   */
+  protected final int[] xPositions;
+
+  /**
+   * The ids of the characters, indexed by their extraction ranks (shifted by minRank); -1 for
+   * ranks without a character. Null if the ranks are too sparse to be indexed by an array.
+   */
+  protected final int[] rankIds;
+
+  /**
+   * The smallest extraction rank of the characters.
+   */
+  protected final int minRank;
+
+  /**
+   * A flag per character id, used to mark the characters of the first half while partitioning.
+   */
+  protected final boolean[] marks;
+
+  /**
+   * A buffer for partitioning the ids of a range.
+   */
+  protected final int[] buffer;
+
+  /**
+   * The original list of characters.
+   */
+  protected final ElementList<Character> characters;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Sorts the given characters by their minX values and by their (descending) maxY values.
+   *
+   * @param characters
+   *        The characters to sort.
+   */
+  PresortedCharacters(ElementList<Character> characters) {
+    int n = characters.size();
+    this.characters = characters;
+    this.xIds = sort(characters, new MinXComparator());
+    this.yIds = sort(characters, new MaxYComparator().reversed());
+    this.xOrder = new ElementList<>(n);
+    this.yOrder = new ElementList<>(n);
+    for (int i = 0; i < n; i++) {
+      this.xOrder.add(characters.get(this.xIds[i]));
+      this.yOrder.add(characters.get(this.yIds[i]));
+    }
+    this.marks = new boolean[n];
+    this.buffer = new int[n];
+
+    this.xPositions = new int[n];
+    for (int i = 0; i < n; i++) {
+      this.xPositions[this.xIds[i]] = i;
+    }
+
+    int minRank = Integer.MAX_VALUE;
+    int maxRank = Integer.MIN_VALUE;
+    for (Character character : characters) {
+      minRank = Math.min(minRank, character.getExtractionRank());
+      maxRank = Math.max(maxRank, character.getExtractionRank());
+    }
+    this.minRank = minRank;
+    long numRanks = (long) maxRank - minRank + 1;
+    if (n > 0 && numRanks <= MAX_RANKS_PER_CHARACTER * (long) n) {
+      this.rankIds = new int[(int) numRanks];
+      Arrays.fill(this.rankIds, -1);
+      for (int i = 0; i < n; i++) {
+        this.rankIds[characters.get(i).getExtractionRank() - minRank] = i;
+      }
+    } else {
+      this.rankIds = null;
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the characters in the given range, sorted by their minX values.
+   *
+   * @param from
+   *        The start index of the range, inclusive.
+   * @param to
+   *        The end index of the range, exclusive.
+   *
+   * @return A view of the characters in the given range.
+   */
+  public ElementList<Character> getXOrder(int from, int to) {
+    return this.xOrder.subList(from, to);
+  }
+
+  /**
+   * Returns the characters in the given range, sorted by their maxY values in descending order.
+   *
+   * @param from
+   *        The start index of the range, inclusive.
+   * @param to
+   *        The end index of the range, exclusive.
+   *
+   * @return A view of the characters in the given range.
+   */
+  public ElementList<Character> getYOrder(int from, int to) {
+    return this.yOrder.subList(from, to);
+  }
+
+  /**
+   * Returns true if the characters could be indexed by their extraction ranks, that is: if
+   * {@link #getCharacterByRank(int)} and {@link #getXPositionByRank(int)} are available.
+   *
+   * @return True if the characters are indexed by their extraction ranks; false otherwise.
+   */
+  public boolean isRankIndexed() {
+    return this.rankIds != null;
+  }
+
+  /**
+   * Returns the character with the given extraction rank.
+   *
+   * @param rank
+   *        The extraction rank.
+   *
+   * @return The character with the given extraction rank or null if there is no such character.
+   */
+  public Character getCharacterByRank(int rank) {
+    int id = getIdByRank(rank);
+    return id < 0 ? null : this.characters.get(id);
+  }
+
+  /**
+   * Returns the current position of the character with the given extraction rank in the
+   * x-ordering.
+   *
+   * @param rank
+   *        The extraction rank.
+   *
+   * @return The position of the character with the given extraction rank in the x-ordering or -1
+   *         if there is no such character.
+   */
+  public int getXPositionByRank(int rank) {
+    int id = getIdByRank(rank);
+    return id < 0 ? -1 : this.xPositions[id];
+  }
+
+  /**
+   * Returns the id of the character with the given extraction rank.
+   *
+   * @param rank
+   *        The extraction rank.
+   *
+   * @return The id of the character with the given extraction rank or -1 if there is no such
+   *         character.
+   */
+  protected int getIdByRank(int rank) {
+    long index = (long) rank - this.minRank;
+    if (this.rankIds == null || index < 0 || index >= this.rankIds.length) {
+      return -1;
+    }
+    return this.rankIds[(int) index];
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Reflects a vertical cut of the range [from, to) at the given index of the x-ordering in the
+   * y-ordering, that is: rearranges the y-ordering of the range such that the characters left of
+   * the cut precede the characters right of the cut, keeping the relative order in both halves.
+   *
+   * @param from
+   *        The start index of the range, inclusive.
+   * @param cut
+   *        The index of the cut.
+   * @param to
+   *        The end index of the range, exclusive.
+   */
+  public void cutVertically(int from, int cut, int to) {
+    partition(this.xIds, this.yIds, this.yOrder, null, from, cut, to);
+  }
+
+  /**
+   * Reflects a horizontal cut of the range [from, to) at the given index of the y-ordering in the
+   * x-ordering, that is: rearranges the x-ordering of the range such that the characters above
+   * the cut precede the characters below the cut, keeping the relative order in both halves.
+   *
+   * @param from
+   *        The start index of the range, inclusive.
+   * @param cut
+   *        The index of the cut.
+   * @param to
+   *        The end index of the range, exclusive.
+   */
+  public void cutHorizontally(int from, int cut, int to) {
+    partition(this.yIds, this.xIds, this.xOrder, this.xPositions, from, cut, to);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Partitions the range [from, to) of the given target ordering stably, such that the characters
+   * contained in the range [from, cut) of the given source ordering come first.
+   *
+   * @param sourceIds
+   *        The ids of the ordering in which the cut was made.
+   * @param targetIds
+   *        The ids of the ordering to partition.
+   * @param target
+   *        The characters of the ordering to partition.
+   * @param targetPositions
+   *        The positions of the characters in the ordering to partition, to update; may be null.
+   * @param from
+   *        The start index of the range, inclusive.
+   * @param cut
+   *        The index of the cut.
+   * @param to
+   *        The end index of the range, exclusive.
+   */
+  protected void partition(int[] sourceIds, int[] targetIds, ElementList<Character> target,
+      int[] targetPositions, int from, int cut, int to) {
+    for (int i = from; i < cut; i++) {
+      this.marks[sourceIds[i]] = true;
+    }
+
+    int first = from;
+    int second = cut;
+    for (int i = from; i < to; i++) {
+      int id = targetIds[i];
+      if (this.marks[id]) {
+        this.buffer[first++] = id;
+      } else {
+        this.buffer[second++] = id;
+      }
+    }
+
+    for (int i = from; i < to; i++) {
+      int id = this.buffer[i];
+      targetIds[i] = id;
+      target.set(i, this.characters.get(id));
+      this.marks[id] = false;
+      if (targetPositions != null) {
+        targetPositions[id] = i;
+      }
+    }
+  }
+
+  /**
+   * Sorts the indexes of the given characters stably by using the given comparator.
+   *
+   * @param characters
+   *        The characters to sort.
+   * @param comparator
+   *        The comparator to use.
+   *
+   * @return The sorted indexes.
+   */
+  protected static int[] sort(ElementList<Character> characters,
+      Comparator<? super Character> comparator) {
+    return ElementListSorter.sortIndexes(characters, 0, characters.size(), comparator);
+  }
+}
@@ -2,13 +2,14 @@ package pdfact.core.util.xycut;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import pdfact.core.PdfActCoreSettings;
 import pdfact.core.model.Character;
+import pdfact.core.model.CharacterStatistic;
 import pdfact.core.model.Document;
 import pdfact.core.model.Page;
-import pdfact.core.util.comparator.MaxYComparator;
-import pdfact.core.util.comparator.MinXComparator;
 import pdfact.core.util.list.ElementList;
 
 /**
@@ -18,6 +19,13 @@ import pdfact.core.util.list.ElementList;
  * @author Claudius Korzen
  */
 public abstract class XYCut {
+  /**
+   * The minimum number of characters a range must contain in order to be cut in parallel.
+   */
+  protected int parallelismThreshold = PdfActCoreSettings.XYCUT_PARALLELISM_THRESHOLD;
+
+  // ==============================================================================================
+
   /**
    * Cuts the given characters into blocks of type T.
    * 
@@ -33,170 +41,385 @@ public abstract class XYCut {
   public List<ElementList<Character>> cut(Document pdf, Page page,
       ElementList<Character> characters) {
     List<ElementList<Character>> target = new ArrayList<>();
-    cut(pdf, page, characters, target);
+    if (characters != null && !characters.isEmpty()) {
+      // Sort the characters only once by x and once by y. The recursion works on ranges of these
+      // orderings, which are partitioned on each cut.
+      PresortedCharacters sorted = new PresortedCharacters(characters);
+      int size = characters.size();
+      if (size < this.parallelismThreshold) {
+        cut(pdf, page, sorted, 0, size, target);
+      } else {
+        // The statistics of the document and the page are computed lazily. Compute them upfront,
+        // such that the parallel tasks only read them.
+        prepareStatistic(pdf.getCharacterStatistic());
+        prepareStatistic(page.getCharacterStatistic());
+        target.addAll(ForkJoinPool.commonPool().invoke(new CutTask(pdf, page, sorted, 0, size)));
+      }
+    }
     return target;
   }
 
   /**
-   * Cuts the given characters into blocks of type T and adds them to the given
+   * Cuts the characters in the given range into blocks of type T and adds them to the given
    * result list.
    * 
    * @param pdf
    *        The PDF document to which the characters belong to.
    * @param page
    *        The page in which the characters are located.
-   * @param origin
-   *        The characters to be cut.
+   * @param sorted
+   *        The presorted characters.
+   * @param from
+   *        The start index of the range to cut, inclusive.
+   * @param to
+   *        The end index of the range to cut, exclusive.
    * @param target
    *        The list of blocks to fill.
    */
-  protected void cut(Document pdf, Page page, ElementList<Character> origin,
+  protected void cut(Document pdf, Page page, PresortedCharacters sorted, int from, int to,
       List<ElementList<Character>> target) {
+    int[] ranges = split(pdf, page, sorted, from, to);
+    if (ranges == null) {
+      // The characters could *not* be cut. Pack them and add them to the result list.
+      target.add(sorted.getYOrder(from, to));
+      return;
+    }
+    // The characters could be cut. Cut the resulted blocks recursively.
+    for (int i = 0; i < ranges.length - 1; i++) {
+      cut(pdf, page, sorted, ranges[i], ranges[i + 1], target);
+    }
+  }
+
+  /**
+   * Cuts the characters in the given range once vertically and then each resulting half once
+   * horizontally.
+   * 
+   * @param pdf
+   *        The PDF document to which the characters belong to.
+   * @param page
+   *        The page in which the characters are located.
+   * @param sorted
+   *        The presorted characters.
+   * @param from
+   *        The start index of the range to cut, inclusive.
+   * @param to
+   *        The end index of the range to cut, exclusive.
+   * 
+   * @return The boundaries of the resulting (non-empty) ranges in reading order, that is: the
+   *         i-th range is given by [ranges[i], ranges[i+1]). Null, if the characters could not be
+   *         cut at all.
+   */
+  protected int[] split(Document pdf, Page page, PresortedCharacters sorted, int from, int to) {
     // Cut the characters vertically (x-cut).
-    List<ElementList<Character>> xBlocks = xCut(pdf, page, origin);
+    int xCutIndex = xCut(pdf, page, sorted, from, to);
+    int[] xBlocks = xCutIndex < 0 ? new int[] { from, to } : new int[] { from, xCutIndex, to };
 
-    for (ElementList<Character> xBlock : xBlocks) {
+    int[] ranges = new int[5];
+    int numRanges = 0;
+    ranges[0] = from;
+    for (int i = 0; i < xBlocks.length - 1; i++) {
       // Cut the characters horizontally (y-cut).
-      List<ElementList<Character>> yBlocks = yCut(pdf, page, xBlock);
-      if (xBlocks.size() == 1 && yBlocks.size() == 1) {
-        // Both cuts results in a single blocks. So, the characters could *not*
-        // be cut. Pack them and add them to the result list.
-        ElementList<Character> block = yBlocks.get(0);
-        if (block != null && !block.isEmpty()) {
-          target.add(block);
-        }
-      } else {
-        // The characters could be cut. Cut the resulted blocks recursively.
-        for (ElementList<Character> yBlock : yBlocks) {
-          cut(pdf, page, yBlock, target);
-        }
+      int yCutIndex = yCut(pdf, page, sorted, xBlocks[i], xBlocks[i + 1]);
+      if (yCutIndex > -1) {
+        ranges[++numRanges] = yCutIndex;
       }
+      ranges[++numRanges] = xBlocks[i + 1];
     }
+
+    if (numRanges == 1) {
+      // Both cuts results in a single blocks. So, the characters could *not* be cut.
+      return null;
+    }
+    return Arrays.copyOf(ranges, numRanges + 1);
   }
 
   /**
-   * Takes a list of characters and iterates them by sweeping a lane in x
+   * Takes a range of characters and iterates them by sweeping a lane in x
    * direction in order to find a position to cut the characters vertically into
-   * a left half and a right half.
+   * a left half and a right half. If such a position was found, the y-ordering
+   * of the range is partitioned accordingly.
    * 
    * @param pdf
    *        The PDF document to which the characters belong to.
    * @param page
    *        The page in which the characters are located.
-   * @param chars
-   *        The characters to cut.
-   * @return A list of list of characters. In case of the characters could be
-   *         cut, this list has two inner lists representing the characters of
-   *         the two halves. In case of the characters could *not* be cut, the
-   *         list consists only of a single list, which is the original list of
-   *         characters.
+   * @param sorted
+   *        The presorted characters.
+   * @param from
+   *        The start index of the range to cut, inclusive.
+   * @param to
+   *        The end index of the range to cut, exclusive.
+   * @return The (absolute) index of the best cut in case of the characters
+   *         could be cut; -1 otherwise.
    */
-  protected List<ElementList<Character>> xCut(Document pdf, Page page,
-      ElementList<Character> chars) {
-    if (chars != null && !chars.isEmpty()) {
-      // Sort the characters by minX in order to sweep them in x direction.
-      Collections.sort(chars, new MinXComparator());
-
-      // The score of the best cut found so far.
-      float bestCutScore = 0;
-      // The index of the best cut found so far.
-      int bestCutIndex = -1;
-      // The current position in the list of characters.
-      float currentPos = chars.get(0).getPosition().getRectangle().getMaxX();
-
-      for (int index = 1; index < chars.size(); index++) {
-        Character character = chars.get(index);
-
-        if (character.getPosition().getRectangle().getMinX() > currentPos) {
-          List<ElementList<Character>> halves = chars.cut(index);
-          // Find the position of the "best" cut.
-          while (index < chars.size()) {
-            // The score of the current cut.
-            float cutScore = assessVerticalCut(pdf, page, halves);
-
-            if (cutScore < 0) {
-              break;
-            } else if (cutScore > bestCutScore) {
-              bestCutScore = cutScore;
-              bestCutIndex = index;
-            }
-            halves = chars.cut(++index);
+  protected int xCut(Document pdf, Page page, PresortedCharacters sorted, int from, int to) {
+    if (to - from < 2) {
+      return -1;
+    }
+    // The characters, sorted by minX in order to sweep them in x direction.
+    ElementList<Character> chars = sorted.getXOrder(from, to);
+
+    // The score of the best cut found so far.
+    float bestCutScore = 0;
+    // The index of the best cut found so far.
+    int bestCutIndex = -1;
+    // The current position in the list of characters.
+    float currentPos = chars.get(0).getPosition().getRectangle().getMaxX();
+
+    for (int index = 1; index < chars.size(); index++) {
+      Character character = chars.get(index);
+
+      if (character.getPosition().getRectangle().getMinX() > currentPos) {
+        List<ElementList<Character>> halves = chars.cut(index);
+        // Find the position of the "best" cut.
+        while (index < chars.size()) {
+          // The score of the current cut.
+          float cutScore = assessVerticalCut(pdf, page, sorted, from + index, to, halves);
+
+          if (cutScore < 0) {
+            break;
+          } else if (cutScore > bestCutScore) {
+            bestCutScore = cutScore;
+            bestCutIndex = index;
           }
+          halves = chars.cut(++index);
         }
-        currentPos = character.getPosition().getRectangle().getMaxX();
       }
+      currentPos = character.getPosition().getRectangle().getMaxX();
+    }
 
-      if (bestCutIndex > -1) {
-        // A cut was found. Return the resulting halves.
-        return chars.cut(bestCutIndex);
-      }
+    if (bestCutIndex < 0) {
+      return -1;
     }
-    return Arrays.asList(chars);
+    // A cut was found. Bring the y-ordering of the range in line with the halves.
+    sorted.cutVertically(from, from + bestCutIndex, to);
+    return from + bestCutIndex;
   }
 
   /**
-   * Takes a set of characters and sweeps the characters in y direction in order
-   * to find a position to cut the characters vertically into a upper half and a
-   * lower half. For more details about the approach of the sweep algorithm, see
-   * the examples given for xCut().
+   * Takes a range of characters and sweeps the characters in y direction in
+   * order to find a position to cut the characters horizontally into a upper
+   * half and a lower half. If such a position was found, the x-ordering of the
+   * range is partitioned accordingly. For more details about the approach of
+   * the sweep algorithm, see the examples given for xCut().
    * 
    * @param pdf
    *        The PDF document to which the characters belong to.
    * @param page
    *        The page in which the characters are located.
-   * @param chars
-   *        The characters to cut.
-   * @return A list of set of characters. In case of the characters could be
-   *         cut, this list consists of two inner sets, containing the
-   *         characters of the two halves. In case of the characters could not
-   *         be cut, the list consists only of a single set, representing a copy
-   *         of the original set of characters.
+   * @param sorted
+   *        The presorted characters.
+   * @param from
+   *        The start index of the range to cut, inclusive.
+   * @param to
+   *        The end index of the range to cut, exclusive.
+   * @return The (absolute) index of the best cut in case of the characters
+   *         could be cut; -1 otherwise.
    */
-  protected List<ElementList<Character>> yCut(Document pdf, Page page,
-      ElementList<Character> chars) {
-    if (chars != null && !chars.isEmpty()) {
-      // Sort the characters by minX in order to sweep them in x direction.
-      Collections.sort(chars, Collections.reverseOrder(new MaxYComparator()));
-
-      // The score of the best cut found so far.
-      float bestCutScore = 0;
-      // The index of the best cut found so far.
-      int bestCutIndex = -1;
-      // The current position in the list of characters.
-      float currentPos = chars.get(0).getPosition().getRectangle().getMinY();
-
-      for (int index = 1; index < chars.size(); index++) {
-        Character character = chars.get(index);
-
-        if (character.getPosition().getRectangle().getMaxY() < currentPos) {
-          List<ElementList<Character>> halves = chars.cut(index);
-          // Find the position of the "best" cut.
-          while (index < chars.size()) {
-            float cutScore = assessHorizontalCut(pdf, page, halves);
-
-            if (cutScore < 0) {
-              break;
-            } else if (cutScore > bestCutScore) {
-              bestCutScore = cutScore;
-              bestCutIndex = index;
-            }
-            halves = chars.cut(++index);
+  protected int yCut(Document pdf, Page page, PresortedCharacters sorted, int from, int to) {
+    if (to - from < 2) {
+      return -1;
+    }
+    // The characters, sorted by maxY in order to sweep them in y direction.
+    ElementList<Character> chars = sorted.getYOrder(from, to);
+
+    // The score of the best cut found so far.
+    float bestCutScore = 0;
+    // The index of the best cut found so far.
+    int bestCutIndex = -1;
+    // The current position in the list of characters.
+    float currentPos = chars.get(0).getPosition().getRectangle().getMinY();
+
+    for (int index = 1; index < chars.size(); index++) {
+      Character character = chars.get(index);
+
+      if (character.getPosition().getRectangle().getMaxY() < currentPos) {
+        List<ElementList<Character>> halves = chars.cut(index);
+        // Find the position of the "best" cut.
+        while (index < chars.size()) {
+          float cutScore = assessHorizontalCut(pdf, page, halves);
+
+          if (cutScore < 0) {
+            break;
+          } else if (cutScore > bestCutScore) {
+            bestCutScore = cutScore;
+            bestCutIndex = index;
           }
+          halves = chars.cut(++index);
         }
-        currentPos = character.getPosition().getRectangle().getMinY();
+      }
+      currentPos = character.getPosition().getRectangle().getMinY();
+    }
+
+    if (bestCutIndex < 0) {
+      return -1;
+    }
+    // A cut was found. Bring the x-ordering of the range in line with the halves.
+    sorted.cutHorizontally(from, from + bestCutIndex, to);
+    return from + bestCutIndex;
+  }
+
+  // ==============================================================================================
+  // Parallel cutting.
+
+  /**
+   * A task that cuts the characters in a given range. Ranges that contain at least
+   * {@link XYCut#getParallelismThreshold()} characters are cut in parallel, smaller ranges
+   * sequentially. Since the ranges are disjoint, the tasks don't interfere with each other.
+   * 
+   * @author Claudius Korzen
+   */
+  protected class CutTask extends RecursiveTask<List<ElementList<Character>>> {
+    /**
+     * The serial id.
+     */
+    protected static final long serialVersionUID = -2311907460425713442L;
+
+    /**
+     * The PDF document to which the characters belong to.
+     */
+    protected final Document pdf;
+
+    /**
+     * The page in which the characters are located.
+     */
+    protected final Page page;
+
+    /**
+     * The presorted characters.
+     */
+    protected final PresortedCharacters sorted;
+
+    /**
+     * The start index of the range to cut, inclusive.
+     */
+    protected final int from;
+
+    /**
+     * The end index of the range to cut, exclusive.
+     */
+    protected final int to;
+
+    /**
+     * Creates a new task that cuts the characters in the given range.
+     * 
+     * @param pdf
+     *        The PDF document to which the characters belong to.
+     * @param page
+     *        The page in which the characters are located.
+     * @param sorted
+     *        The presorted characters.
+     * @param from
+     *        The start index of the range to cut, inclusive.
+     * @param to
+     *        The end index of the range to cut, exclusive.
+     */
+    protected CutTask(Document pdf, Page page, PresortedCharacters sorted, int from, int to) {
+      this.pdf = pdf;
+      this.page = page;
+      this.sorted = sorted;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected List<ElementList<Character>> compute() {
+      List<ElementList<Character>> target = new ArrayList<>();
+      if (this.to - this.from < XYCut.this.parallelismThreshold) {
+        cut(this.pdf, this.page, this.sorted, this.from, this.to, target);
+        return target;
       }
 
-      if (bestCutIndex > -1) {
-        // A cut was found. Return the resulting halves.
-        return chars.cut(bestCutIndex);
+      int[] ranges = split(this.pdf, this.page, this.sorted, this.from, this.to);
+      if (ranges == null) {
+        target.add(this.sorted.getYOrder(this.from, this.to));
+        return target;
       }
+
+      List<CutTask> subtasks = new ArrayList<>();
+      for (int i = 0; i < ranges.length - 1; i++) {
+        subtasks.add(new CutTask(this.pdf, this.page, this.sorted, ranges[i], ranges[i + 1]));
+      }
+      invokeAll(subtasks);
+
+      // Collect the blocks in the order of the ranges, to keep the reading order deterministic.
+      for (CutTask subtask : subtasks) {
+        target.addAll(subtask.join());
+      }
+      return target;
     }
-    return Arrays.asList(chars);
+  }
+
+  /**
+   * Computes the (lazily computed) values of the given statistic.
+   * 
+   * @param statistic
+   *        The statistic to process.
+   */
+  protected static void prepareStatistic(CharacterStatistic statistic) {
+    if (statistic == null) {
+      return;
+    }
+    statistic.getMostCommonHeight();
+    statistic.getMostCommonWidth();
+    statistic.getMostCommonFontFace();
+    statistic.getMostCommonColor();
+    statistic.getAverageHeight();
+    statistic.getAverageWidth();
+    statistic.getAverageFontsize();
+    statistic.getSmallestMinX();
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the minimum number of characters a range must contain in order to be cut in parallel.
+   * 
+   * @return The minimum number of characters a range must contain in order to be cut in parallel.
+   */
+  public int getParallelismThreshold() {
+    return this.parallelismThreshold;
+  }
+
+  /**
+   * Sets the minimum number of characters a range must contain in order to be cut in parallel.
+   * Per default, this is {@link PdfActCoreSettings#XYCUT_PARALLELISM_THRESHOLD}. Set it to 0 to
+   * cut all ranges in parallel, or to {@link Integer#MAX_VALUE} to cut all ranges sequentially.
+   * 
+   * @param parallelismThreshold
+   *        The minimum number of characters a range must contain in order to be cut in parallel.
+   */
+  public void setParallelismThreshold(int parallelismThreshold) {
+    this.parallelismThreshold = parallelismThreshold;
   }
 
   // ==============================================================================================
   // Abstract methods.
 
+  /**
+   * Assesses the given vertical cut of the range [from, to) of the x-ordering at the given index.
+   * Subclasses can override this method to use the indexes of the presorted characters; per
+   * default, it delegates to {@link #assessVerticalCut(Document, Page, List)}.
+   * 
+   * @param pdf
+   *        The PDF document to which the characters belong to.
+   * @param page
+   *        The page in which the characters are located.
+   * @param sorted
+   *        The presorted characters.
+   * @param cut
+   *        The (absolute) index of the cut in the x-ordering.
+   * @param to
+   *        The end index of the range to cut, exclusive.
+   * @param halves
+   *        The characters of the two halves.
+   * @return A score that assesses the given cut.
+   */
+  protected float assessVerticalCut(Document pdf, Page page, PresortedCharacters sorted,
+      int cut, int to, List<ElementList<Character>> halves) {
+    return assessVerticalCut(pdf, page, halves);
+  }
+
   /**
    * Assesses the given vertical cut. Returns a positive score, if the cut is
    * valid and a negative score if the cut is invalid. The better the cut, the
@@ -0,0 +1,170 @@
+package pdfact.core.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.spill.CharacterSpillStore;
+
+/**
+ * A class that tests the {@link CharacterStatistic}.
+ */
+public class CharacterStatisticTest {
+  /**
+   * The font face of the most characters.
+   */
+  protected static final FontFace REGULAR = new FontFace(new Font(), 10f);
+
+  /**
+   * The font face of the other characters.
+   */
+  protected static final FontFace LARGE = new FontFace(new Font(), 12f);
+
+  /**
+   * The color of the most characters.
+   */
+  protected static final Color BLACK = new Color(0, 0, 0);
+
+  /**
+   * The color of the other characters.
+   */
+  protected static final Color RED = new Color(255, 0, 0);
+
+  /**
+   * Tests that a statistic whose characters were released computes the same frequencies and
+   * bounds as before, without referencing the characters.
+   */
+  @Test
+  public void testReleaseCharacters() {
+    CharacterStatistic expected = new CharacterStatistic(createCharacters());
+    CharacterStatistic statistic = new CharacterStatistic(createCharacters());
+    // A frequency computed before the release is kept.
+    assertEquals(expected.getMostCommonHeight(), statistic.getMostCommonHeight(), 0);
+
+    statistic.releaseCharacters();
+
+    assertNull(statistic.characters);
+    assertNotNull(statistic.attributes);
+    assertNull(statistic.attributes.heights);
+    assertEquals(expected.getMostCommonWidth(), statistic.getMostCommonWidth(), 0);
+    assertEquals(expected.getAverageWidth(), statistic.getAverageWidth(), 0);
+    assertSame(REGULAR, statistic.getMostCommonFontFace());
+    assertEquals(expected.getAverageFontsize(), statistic.getAverageFontsize(), 0);
+    assertSame(BLACK, statistic.getMostCommonColor());
+    assertEquals(expected.getSmallestMinX(), statistic.getSmallestMinX(), 0);
+    assertEquals(expected.getSmallestMinY(), statistic.getSmallestMinY(), 0);
+    assertEquals(expected.getLargestMaxX(), statistic.getLargestMaxX(), 0);
+    assertEquals(expected.getLargestMaxY(), statistic.getLargestMaxY(), 0);
+
+    // The attributes are released as soon as all frequencies are computed.
+    assertNull(statistic.attributes);
+  }
+
+  /**
+   * Tests that releasing the characters of a merged statistic releases the characters of the
+   * statistics from which it is merged.
+   */
+  @Test
+  public void testReleaseCharactersOfMergedStatistic() {
+    CharacterStatistic first = new CharacterStatistic(createCharacters());
+    CharacterStatistic second = new CharacterStatistic(createCharacters());
+    CharacterStatistic merged = new CharacterStatistic(new CharacterStatistic[] { first, second });
+
+    merged.releaseCharacters();
+
+    assertNull(first.characters);
+    assertNull(second.characters);
+    assertEquals(8, merged.getFontFaceFrequencies().getFrequency(REGULAR));
+    assertEquals(2, merged.getColorFrequencies().getFrequency(RED));
+    assertEquals(1f, merged.getSmallestMinX(), 0);
+    assertEquals(12f, merged.getLargestMaxY(), 0);
+  }
+
+  /**
+   * Tests that releasing the characters of a completely computed statistic doesn't keep any
+   * attributes.
+   */
+  @Test
+  public void testReleaseCharactersOfComputedStatistic() {
+    CharacterStatistic statistic = new CharacterStatistic(createCharacters());
+    statistic.getHeightFrequencies();
+    statistic.getWidthFrequencies();
+    statistic.getFontFaceFrequencies();
+    statistic.getFontSizeFrequencies();
+    statistic.getColorFrequencies();
+
+    statistic.releaseCharacters();
+
+    assertNull(statistic.characters);
+    assertNull(statistic.attributes);
+    assertEquals(1f, statistic.getSmallestMinX(), 0);
+  }
+
+  /**
+   * Tests that a statistic refers to the spilled characters it is computed from and reads them
+   * only once, on computing the first frequency.
+   */
+  @Test
+  public void testSpillCharacters() throws PdfActException {
+    CharacterStatistic expected = new CharacterStatistic(createCharacters());
+    Character[] characters = createCharacters();
+    CharacterStatistic statistic = new CharacterStatistic(characters);
+
+    try (CharacterSpillStore store = new CharacterSpillStore()) {
+      List<Character> list = Arrays.asList(characters);
+      statistic.spillCharacters(list, store.spill(list));
+    }
+
+    assertNull(statistic.characters);
+    assertNotNull(statistic.spilledCharacters);
+    assertEquals(expected.getMostCommonHeight(), statistic.getMostCommonHeight(), 0);
+    // The spilled characters are read once, and only their attributes are kept.
+    assertNull(statistic.spilledCharacters);
+    assertNull(statistic.characters);
+    assertSame(REGULAR, statistic.getMostCommonFontFace());
+    assertEquals(expected.getAverageWidth(), statistic.getAverageWidth(), 0);
+    assertEquals(expected.getLargestMaxY(), statistic.getLargestMaxY(), 0);
+  }
+
+  /**
+   * Tests that a statistic that is computed from other characters than the spilled characters is
+   * computed eagerly on spilling.
+   */
+  @Test
+  public void testSpillOtherCharacters() throws PdfActException {
+    Character[] characters = createCharacters();
+    CharacterStatistic statistic = new CharacterStatistic(characters);
+
+    try (CharacterSpillStore store = new CharacterSpillStore()) {
+      List<Character> others = Arrays.asList(characters).subList(0, 4);
+      statistic.spillCharacters(others, store.spill(others));
+    }
+
+    assertNull(statistic.characters);
+    assertNull(statistic.spilledCharacters);
+    assertEquals(1, statistic.getColorFrequencies().getFrequency(RED));
+    assertEquals(12f, statistic.getLargestMaxY(), 0);
+  }
+
+  /**
+   * Creates five characters, four of them with the regular font face and the color black.
+   */
+  protected static Character[] createCharacters() {
+    Character[] characters = new Character[5];
+    for (int i = 0; i < characters.length; i++) {
+      boolean isRegular = i < 4;
+      Character character = new Character();
+      character.setText(isRegular ? "a" : "B");
+      character.setPosition(new Position(null, 1 + 5 * i, 2, 5 + 5 * i, isRegular ? 9 : 12));
+      character.setFontFace(isRegular ? REGULAR : LARGE);
+      character.setColor(isRegular ? BLACK : RED);
+      characters[i] = character;
+    }
+    return characters;
+  }
+}
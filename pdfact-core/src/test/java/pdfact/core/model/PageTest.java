@@ -0,0 +1,156 @@
+package pdfact.core.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.ListIterator;
+import org.junit.Test;
+import pdfact.core.util.comparator.MinXComparator;
+import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.index.SpatialIndex;
+import pdfact.core.util.list.ElementList;
+import pdfact.core.util.spill.CharacterSpillStore;
+
+/**
+ * A class that tests that the spatial indexes of a {@link Page} are rebuilt on each modification
+ * of the indexed lists, and that the spilled characters of a page stay spilled.
+ */
+public class PageTest {
+  /**
+   * Tests that the index over the text blocks is reused as long as the text blocks are not
+   * modified, and is rebuilt after each kind of modification.
+   */
+  @Test
+  public void testTextBlockIndexIsRebuiltOnModification() {
+    Page page = new Page(1);
+    TextBlock block1 = createTextBlock(page, 0);
+    TextBlock block2 = createTextBlock(page, 10);
+    TextBlock block3 = createTextBlock(page, 20);
+    page.addTextBlock(block1);
+    page.addTextBlock(block2);
+
+    SpatialIndex<TextBlock> index = page.getTextBlockIndex();
+    assertEquals(2, index.size());
+    assertSame(index, page.getTextBlockIndex());
+
+    // Add an element to the list directly.
+    page.getTextBlocks().add(block3);
+    index = assertRebuilt(page, index, 3);
+
+    // Remove an element by an iterator.
+    Iterator<TextBlock> itr = page.getTextBlocks().iterator();
+    itr.next();
+    itr.remove();
+    index = assertRebuilt(page, index, 2);
+
+    // Replace an element.
+    page.getTextBlocks().set(0, block1);
+    index = assertRebuilt(page, index, 2);
+    assertEquals(Arrays.asList(block1), index.getElements(block1.getPosition().getRectangle()));
+
+    // Replace an element by a list iterator.
+    ListIterator<TextBlock> listItr = page.getTextBlocks().listIterator();
+    listItr.next();
+    listItr.set(block2);
+    index = assertRebuilt(page, index, 2);
+
+    // Reorder the elements.
+    page.getTextBlocks().sort(new MinXComparator().reversed());
+    index = assertRebuilt(page, index, 2);
+
+    // Replace an element through a view.
+    page.getTextBlocks().subList(1, 2).set(0, block1);
+    index = assertRebuilt(page, index, 2);
+
+    // Remove elements by a predicate and clear the list.
+    page.getTextBlocks().removeIf(block -> block == block1);
+    index = assertRebuilt(page, index, 1);
+    page.getTextBlocks().clear();
+    index = assertRebuilt(page, index, 0);
+
+    // Replace the list.
+    ElementList<TextBlock> blocks = new ElementList<>();
+    blocks.add(block3);
+    page.setTextBlocks(blocks);
+    index = assertRebuilt(page, index, 1);
+    assertSame(block3, index.getElementWithSmallestMinY());
+  }
+
+  /**
+   * Tests that the index over the characters is rebuilt after the characters were modified.
+   */
+  @Test
+  public void testCharacterIndexIsRebuiltOnModification() {
+    Page page = new Page(1);
+    Character character = new Character();
+    character.setPosition(new Position(page, 0, 0, 5, 5));
+    page.addCharacter(character);
+
+    SpatialIndex<Character> index = page.getCharacterIndex();
+    assertEquals(1, index.size());
+    assertSame(index, page.getCharacterIndex());
+
+    page.getCharacters().remove(0);
+    assertEquals(0, page.getCharacterIndex().size());
+  }
+
+  /**
+   * Tests that the characters of a page stay spilled when they are read or indexed, and that they
+   * can't be modified (only replaced).
+   */
+  @Test
+  public void testSpilledCharactersStaySpilled() throws PdfActException {
+    Page page = new Page(1);
+    Character character = new Character();
+    character.setText("a");
+    character.setPosition(new Position(page, 0, 0, 5, 5));
+    page.addCharacter(character);
+
+    try (CharacterSpillStore store = new CharacterSpillStore()) {
+      page.spillCharacters(store);
+    }
+
+    assertEquals(Arrays.asList(character), page.getCharacters());
+    assertNotSame(character, page.getCharacters().get(0));
+    assertEquals(1, page.getCharacterIndex().size());
+    // The characters are still spilled, so each call reads new character objects.
+    assertNotSame(page.getCharacters().get(0), page.getCharacters().get(0));
+
+    assertThrows(UnsupportedOperationException.class, () -> page.getCharacters().remove(0));
+    assertThrows(IllegalStateException.class, () -> page.addCharacter(new Character()));
+
+    ElementList<Character> characters = new ElementList<>();
+    characters.add(character);
+    page.setCharacters(characters);
+    page.addCharacter(new Character());
+    assertEquals(2, page.getCharacters().size());
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Asserts that the index over the text blocks of the given page was rebuilt and has the given
+   * size.
+   */
+  protected static SpatialIndex<TextBlock> assertRebuilt(Page page, SpatialIndex<TextBlock> old,
+      int size) {
+    SpatialIndex<TextBlock> index = page.getTextBlockIndex();
+    assertNotSame(old, index);
+    assertEquals(size, index.size());
+    assertSame(index, page.getTextBlockIndex());
+    return index;
+  }
+
+  /**
+   * Creates a text block on the given page with the given minX value.
+   */
+  protected static TextBlock createTextBlock(Page page, float minX) {
+    TextBlock block = new TextBlock();
+    block.setPosition(new Position(page, minX, minX, minX + 5, minX + 5));
+    return block;
+  }
+}
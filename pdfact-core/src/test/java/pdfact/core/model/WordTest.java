@@ -0,0 +1,58 @@
+package pdfact.core.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+
+import org.junit.Test;
+import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.spill.CharacterSpillStore;
+
+/**
+ * A class that tests the spilling of the characters of a {@link Word}.
+ */
+public class WordTest {
+  /**
+   * Tests that the first and the last character and the bounding box of a word are available
+   * without reading all spilled characters, and that the spilled characters can't be modified.
+   */
+  @Test
+  public void testSpilledWord() throws PdfActException {
+    Page page = new Page(1);
+    Word word = new Word();
+    Character first = createCharacter(page, "a", 0);
+    Character last = createCharacter(page, "b", 10);
+    word.addCharacter(first);
+    word.addCharacter(createCharacter(page, "-", 5));
+    word.addCharacter(last);
+
+    try (CharacterSpillStore store = new CharacterSpillStore()) {
+      word.spillCharacters(store);
+    }
+
+    assertEquals(first, word.getFirstCharacter());
+    assertEquals(last, word.getLastCharacter());
+    // The first and the last character are read only once.
+    assertSame(word.getFirstCharacter(), word.getFirstCharacter());
+    assertSame(word.getLastCharacter(), word.getLastCharacter());
+    assertEquals(new Rectangle(0, 0, 15, 5), word.getCharactersRectangle());
+    assertEquals(3, word.getNumCharacters());
+    assertEquals(first, word.getCharacters().get(0));
+    assertEquals(last, word.getCharacters().get(2));
+
+    assertThrows(UnsupportedOperationException.class, () -> word.getCharacters().clear());
+    assertThrows(IllegalStateException.class, () -> word.addCharacter(first));
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Creates a character on the given page with the given text and minX value.
+   */
+  protected static Character createCharacter(Page page, String text, float minX) {
+    Character character = new Character();
+    character.setText(text);
+    character.setPosition(new Position(page, minX, 0, minX + 5, 5));
+    return character;
+  }
+}
@@ -0,0 +1,115 @@
+package pdfact.core.pipes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+import pdfact.core.model.Paragraph;
+import pdfact.core.model.TextBlock;
+import pdfact.core.model.TextLine;
+import pdfact.core.model.Word;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * A class that tests the segmentation of the {@link PlainPdfActCorePipe} against known results.
+ */
+public class PlainPdfActCorePipeTest {
+  /**
+   * The PDF document to examine in this test.
+   */
+  protected static Document doc;
+
+  /**
+   * Processes the PDF document.
+   */
+  @BeforeClass
+  public static void setup() throws PdfActException {
+    doc = new PlainPdfActCorePipe().execute(new Document("src/test/resources/ACL_2004.pdf"));
+  }
+
+  /**
+   * Returns the text block on the given page that starts with the given text.
+   */
+  protected static TextBlock getTextBlock(int pageNum, String prefix) {
+    Page page = doc.getPages().get(pageNum - 1);
+    for (TextBlock block : page.getTextBlocks()) {
+      if (block.getText().startsWith(prefix)) {
+        return block;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Tests the number of text blocks per page.
+   */
+  @Test
+  public void testNumTextBlocks() {
+    int[] expectedNumBlocks = { 72, 59, 63, 54, 74, 74, 86, 74 };
+
+    assertEquals(expectedNumBlocks.length, doc.getPages().size());
+    for (int i = 0; i < expectedNumBlocks.length; i++) {
+      assertEquals("page " + (i + 1), expectedNumBlocks[i],
+          doc.getPages().get(i).getTextBlocks().size());
+    }
+  }
+
+  /**
+   * Tests the text block on page 4 whose lines are only grouped together if the line pitches and
+   * character heights are counted as quantized values and ties between equally common values are
+   * broken in favor of the smallest value.
+   */
+  @Test
+  public void testTextBlockPage04() {
+    TextBlock block = getTextBlock(4, "order features model dependencies better");
+
+    assertNotNull(block);
+    assertEquals("order features model dependencies better, but also creaatsewell as external "
+        + "lexicon features, all in one framework. more data sparse problem and require more "
+        + "memory Wine study all these features in our research paper extrac-", block.getText());
+    assertEquals(397.4f, block.getPosition().getRectangle().getMinY(), 0.01);
+    assertEquals(413.1f, block.getPosition().getRectangle().getMaxY(), 0.01);
+  }
+
+  /**
+   * Tests that processing the pages sequentially results in the same text lines, words, text
+   * blocks and paragraphs as processing them in parallel (the default).
+   */
+  @Test
+  public void testSequentialEqualsParallel() throws PdfActException {
+    PlainPdfActCorePipe pipe = new PlainPdfActCorePipe();
+    pipe.setIsProcessingInParallel(false);
+    Document sequentialDoc = pipe.execute(new Document("src/test/resources/ACL_2004.pdf"));
+
+    assertEquals(toStrings(doc), toStrings(sequentialDoc));
+  }
+
+  /**
+   * Returns the string representations (the text, the position and the semantic role, if any)
+   * of the text lines, words, text blocks and paragraphs of the given document.
+   */
+  protected static List<String> toStrings(Document doc) {
+    List<String> strings = new ArrayList<>();
+    for (Page page : doc.getPages()) {
+      for (TextBlock block : page.getTextBlocks()) {
+        strings.add("block " + block.getText() + " " + block.getPosition().getRectangle() + " "
+            + block.getSemanticRole());
+        for (TextLine line : block.getTextLines()) {
+          strings.add("line " + line.getText() + " " + line.getPosition().getRectangle());
+          for (Word word : line.getWords()) {
+            strings.add("word " + word.getText() + " " + word.getCharactersRectangle());
+          }
+        }
+      }
+    }
+    for (Paragraph paragraph : doc.getParagraphs()) {
+      strings.add("paragraph " + paragraph.getText() + " " + paragraph.getSemanticRole());
+    }
+    return strings;
+  }
+}
@@ -0,0 +1,157 @@
+package pdfact.core.pipes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import pdfact.core.model.Document;
+import pdfact.core.model.Paragraph;
+import pdfact.core.model.Position;
+import pdfact.core.model.Word;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * A class that tests the {@link WindowedPdfActCorePipe}.
+ */
+public class WindowedPdfActCorePipeTest {
+  /**
+   * The path to the PDF document to examine in this test.
+   */
+  protected static final String PATH = "src/test/resources/ACL_2004.pdf";
+
+  /**
+   * The paragraphs computed by the {@link PlainPdfActCorePipe}.
+   */
+  protected static List<String> expectedParagraphs;
+
+  /**
+   * The positions of the words of the paragraphs computed by the {@link PlainPdfActCorePipe}.
+   */
+  protected static List<String> expectedWordPositions;
+
+  /**
+   * Processes the PDF document as a whole.
+   */
+  @BeforeClass
+  public static void setup() throws PdfActException {
+    Document doc = new PlainPdfActCorePipe().execute(new Document(PATH));
+    expectedParagraphs = toStrings(doc.getParagraphs());
+    expectedWordPositions = toWordPositions(doc.getParagraphs());
+  }
+
+  /**
+   * Tests that processing the document in a single window results in the same paragraphs (with
+   * the same roles and positions) as processing the document as a whole.
+   */
+  @Test
+  public void testSingleWindowEqualsPlainPipe() throws PdfActException {
+    WindowedPdfActCorePipe pipe = new WindowedPdfActCorePipe(100, 1);
+    Document doc = pipe.execute(new Document(PATH));
+
+    assertEquals(8, pipe.getNumPages());
+    assertEquals(1, pipe.getNumWindows());
+    assertFalse(expectedParagraphs.isEmpty());
+    assertEquals(expectedParagraphs, toStrings(doc.getParagraphs()));
+  }
+
+  /**
+   * Tests that the paragraphs are passed to the paragraph consumer (in the order of the pages),
+   * instead of being added to the document, when processing the document in multiple windows.
+   */
+  @Test
+  public void testParagraphConsumer() throws PdfActException {
+    List<Paragraph> paragraphs = new ArrayList<>();
+    WindowedPdfActCorePipe pipe = new WindowedPdfActCorePipe(3, 1);
+    pipe.setParagraphConsumer(paragraphs::add);
+    Document doc = pipe.execute(new Document(PATH));
+
+    assertEquals(3, pipe.getNumWindows());
+    assertTrue(doc.getParagraphs().isEmpty());
+    assertFalse(paragraphs.isEmpty());
+    int prevPageNumber = 0;
+    for (Paragraph paragraph : paragraphs) {
+      int pageNumber = paragraph.getFirstPosition().getPageNumber();
+      assertFalse(pageNumber < prevPageNumber);
+      prevPageNumber = pageNumber;
+    }
+    assertEquals(8, prevPageNumber);
+  }
+
+  /**
+   * Tests that no words get lost or duplicated at the boundaries of the windows, when processing
+   * the document in multiple windows without overlapping pages.
+   */
+  @Test
+  public void testMultipleWindowsWithoutOverlap() throws PdfActException {
+    assertSameWordsAsPlainPipe(new WindowedPdfActCorePipe(3, 0));
+  }
+
+  /**
+   * Tests that no words get lost or duplicated at the boundaries of the windows, when processing
+   * the document in multiple windows with overlapping pages.
+   */
+  @Test
+  public void testMultipleWindowsWithOverlap() throws PdfActException {
+    assertSameWordsAsPlainPipe(new WindowedPdfActCorePipe(3, 1));
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Processes the document by using the given pipe and asserts that the paragraphs passed to the
+   * paragraph consumer contain the same words (at the same positions, each exactly once) as the
+   * paragraphs computed by the {@link PlainPdfActCorePipe}. The words are compared regardless of
+   * their order and the paragraphs they belong to, since the paragraphs are detected per window.
+   */
+  protected static void assertSameWordsAsPlainPipe(WindowedPdfActCorePipe pipe)
+      throws PdfActException {
+    List<Paragraph> paragraphs = new ArrayList<>();
+    pipe.setParagraphConsumer(paragraphs::add);
+    pipe.execute(new Document(PATH));
+
+    assertEquals(3, pipe.getNumWindows());
+    assertFalse(expectedWordPositions.isEmpty());
+    assertEquals(expectedWordPositions, toWordPositions(paragraphs));
+  }
+
+  /**
+   * Returns the string representations (the role, the positions and the text) of the given
+   * paragraphs.
+   */
+  protected static List<String> toStrings(List<Paragraph> paragraphs) {
+    List<String> strings = new ArrayList<>();
+    for (Paragraph paragraph : paragraphs) {
+      StringBuilder string = new StringBuilder();
+      string.append(paragraph.getSemanticRole());
+      for (Position position : paragraph.getPositions()) {
+        string.append(" " + position.getPageNumber() + " " + position.getRectangle());
+      }
+      string.append(" " + paragraph.getText());
+      strings.add(string.toString());
+    }
+    return strings;
+  }
+
+  /**
+   * Returns the positions (the page number and the rectangle) of the words of the given
+   * paragraphs, in sorted order. The positions of the words are used instead of their texts,
+   * since the texts of dehyphenated words depend on the word counts of the window.
+   */
+  protected static List<String> toWordPositions(List<Paragraph> paragraphs) {
+    List<String> strings = new ArrayList<>();
+    for (Paragraph paragraph : paragraphs) {
+      for (Word word : paragraph.getWords()) {
+        for (Position position : word.getPositions()) {
+          strings.add(position.getPageNumber() + " " + position.getRectangle());
+        }
+      }
+    }
+    Collections.sort(strings);
+    return strings;
+  }
+}
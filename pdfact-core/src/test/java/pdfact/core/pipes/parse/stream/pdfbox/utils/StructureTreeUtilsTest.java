@@ -0,0 +1,332 @@
+package pdfact.core.pipes.parse.stream.pdfbox.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.documentinterchange.logicalstructure.PDMarkInfo;
+import org.apache.pdfbox.pdmodel.documentinterchange.logicalstructure.PDMarkedContentReference;
+import org.apache.pdfbox.pdmodel.documentinterchange.logicalstructure.PDStructureElement;
+import org.apache.pdfbox.pdmodel.documentinterchange.logicalstructure.PDStructureNode;
+import org.apache.pdfbox.pdmodel.documentinterchange.logicalstructure.PDStructureTreeRoot;
+import org.apache.pdfbox.pdmodel.documentinterchange.markedcontent.PDPropertyList;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+import pdfact.core.model.Paragraph;
+import pdfact.core.model.SemanticRole;
+import pdfact.core.model.TaggedBlock;
+import pdfact.core.pipes.PlainPdfActCorePipe;
+import pdfact.core.pipes.parse.PlainParseDocumentPipe;
+import pdfact.core.pipes.semanticize.PlainDetectSemanticsPipe;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * A class that tests the {@link StructureTreeUtils} and the processing of tagged PDFs, on a
+ * tagged PDF generated by the test.
+ *
+ * The first two pages of the PDF are (almost completely) tagged; the only untagged text is a
+ * page footer, marked as an artifact. A paragraph starts on the first page and ends on the second
+ * page. The third page is mostly untagged, so its structure tree is not usable.
+ */
+public class StructureTreeUtilsTest {
+  /**
+   * The folder for the generated PDF.
+   */
+  @ClassRule
+  public static TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * The generated tagged PDF.
+   */
+  protected static File file;
+
+  /**
+   * Generates the tagged PDF.
+   */
+  @BeforeClass
+  public static void setup() throws IOException {
+    file = folder.newFile("tagged.pdf");
+
+    try (PDDocument doc = new PDDocument()) {
+      PDMarkInfo markInfo = new PDMarkInfo();
+      markInfo.setMarked(true);
+      doc.getDocumentCatalog().setMarkInfo(markInfo);
+      PDStructureTreeRoot root = new PDStructureTreeRoot();
+      doc.getDocumentCatalog().setStructureTreeRoot(root);
+
+      PDPage page1 = new PDPage();
+      PDPage page2 = new PDPage();
+      PDPage page3 = new PDPage();
+      doc.addPage(page1);
+      doc.addPage(page2);
+      doc.addPage(page3);
+
+      // A "Sect" isn't a block-level element, so its content belongs to its block-level kids.
+      PDStructureElement sect = addElement(root, "Sect");
+      PDStructureElement title = addElement(sect, "Title");
+      PDStructureElement heading = addElement(sect, "H1");
+      PDStructureElement paragraph = addElement(sect, "P");
+      // The paragraph nested in the list item belongs to the block of the list item.
+      PDStructureElement item = addElement(sect, "LI");
+      PDStructureElement label = addElement(item, "Lbl");
+      PDStructureElement itemBody = addElement(addElement(item, "LBody"), "P");
+      PDStructureElement secondParagraph = addElement(sect, "P");
+      PDStructureElement caption = addElement(sect, "Caption");
+      PDStructureElement untaggedPageParagraph = addElement(sect, "P");
+
+      try (PDPageContentStream cs = new PDPageContentStream(doc, page1)) {
+        showText(cs, 0, 20, 720, "A Study of Tagged Documents");
+        showText(cs, 1, 14, 680, "Abstract");
+        showText(cs, 2, 10, 650, "This paragraph starts on the first page");
+        showText(cs, 3, 10, 638, "and continues");
+        showText(cs, 4, 10, 600, "1.");
+        showText(cs, 5, 10, 588, "An item of the list.");
+        showText(cs, -1, 8, 50, "Page 1");
+      }
+      try (PDPageContentStream cs = new PDPageContentStream(doc, page2)) {
+        showText(cs, 0, 10, 720, "on the second page.");
+        showText(cs, 1, 10, 708, "and this is a second paragraph.");
+        showText(cs, 2, 10, 670, "Figure 1: A caption of a figure.");
+        showText(cs, -1, 8, 50, "Page 2");
+      }
+      try (PDPageContentStream cs = new PDPageContentStream(doc, page3)) {
+        showText(cs, 0, 10, 720, "Tagged.");
+        showText(cs, -1, 10, 708, "This is the first line of text that isn't tagged at all.");
+        showText(cs, -1, 10, 696, "This is the second line of text that isn't tagged at all.");
+      }
+
+      addMcids(title, page1, 0);
+      addMcids(heading, page1, 1);
+      addMcids(paragraph, page1, 2, 3);
+      addMcids(paragraph, page2, 0);
+      addMcids(label, page1, 4);
+      addMcids(itemBody, page1, 5);
+      addMcids(secondParagraph, page2, 1);
+      addMcids(caption, page2, 2);
+      addMcids(untaggedPageParagraph, page3, 0);
+
+      doc.save(file);
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Tests that the block-level elements are read per page, in the order of the structure tree,
+   * with the semantic roles implied by their structure types.
+   */
+  @Test
+  public void testReadTaggedBlocks() throws IOException {
+    List<List<TaggedBlock>> blocksPerPage;
+    try (PDDocument doc = PDDocument.load(file)) {
+      blocksPerPage = StructureTreeUtils.readTaggedBlocks(doc);
+    }
+
+    assertNotNull(blocksPerPage);
+    assertEquals(3, blocksPerPage.size());
+
+    List<TaggedBlock> page1 = blocksPerPage.get(0);
+    assertEquals(Arrays.asList("Title", "H1", "P", "LI"), getStructureTypes(page1));
+    assertEquals(Arrays.asList(SemanticRole.TITLE, SemanticRole.HEADING, null,
+        SemanticRole.ITEMIZE_ITEM), getSemanticRoles(page1));
+    assertEquals(2, page1.get(2).getMcids().size());
+    assertEquals(2, page1.get(3).getMcids().size());
+
+    List<TaggedBlock> page2 = blocksPerPage.get(1);
+    assertEquals(Arrays.asList("P", "P", "Caption"), getStructureTypes(page2));
+    assertEquals(Arrays.asList(null, null, SemanticRole.CAPTION), getSemanticRoles(page2));
+    // The paragraph continued from the first page is linked to its block on the first page.
+    assertSame(page1.get(2), page2.get(0).getPreviousBlock());
+    assertNull(page2.get(1).getPreviousBlock());
+    assertNull(page1.get(2).getPreviousBlock());
+
+    assertEquals(Arrays.asList("P"), getStructureTypes(blocksPerPage.get(2)));
+  }
+
+  /**
+   * Tests that a document that isn't marked as tagged has no tagged blocks.
+   */
+  @Test
+  public void testReadTaggedBlocksOfUnmarkedDocument() throws IOException {
+    try (PDDocument doc = PDDocument.load(file)) {
+      doc.getDocumentCatalog().getMarkInfo().setMarked(false);
+      assertNull(StructureTreeUtils.readTaggedBlocks(doc));
+    }
+  }
+
+  /**
+   * Tests that the structure tree is used only on the pages where it covers at least 80% of the
+   * characters.
+   */
+  @Test
+  public void testFallbackOnMostlyUntaggedPages() throws PdfActException {
+    PlainParseDocumentPipe pipe = new PlainParseDocumentPipe();
+    pipe.setIsStructureTreeUsed(true);
+    Document doc = pipe.execute(new Document(file.getPath()));
+
+    List<Page> pages = doc.getPages();
+    assertEquals(3, pages.size());
+    assertEquals(4, pages.get(0).getTaggedBlocks().size());
+    assertEquals(3, pages.get(1).getTaggedBlocks().size());
+    assertNull(pages.get(2).getTaggedBlocks());
+
+    // The structure tree isn't read if it isn't used.
+    Document untagged = new PlainParseDocumentPipe().execute(new Document(file.getPath()));
+    for (Page page : untagged.getPages()) {
+      assertNull(page.getTaggedBlocks());
+    }
+  }
+
+  /**
+   * Tests that the paragraphs of the tagged pages are given by the block-level elements, with the
+   * semantic roles implied by their structure types.
+   */
+  @Test
+  public void testParagraphsOfTaggedPages() throws PdfActException {
+    assertTaggedParagraphs(new PlainPdfActCorePipe());
+
+    PlainPdfActCorePipe pipe = new PlainPdfActCorePipe();
+    pipe.setDetectSemanticsPipe(new PlainDetectSemanticsPipe());
+    assertTaggedParagraphs(pipe);
+  }
+
+  /**
+   * Processes the tagged PDF with the given pipe (with the structure tree enabled) and checks its
+   * paragraphs.
+   *
+   * @param pipe
+   *        The pipe to process the tagged PDF with.
+   */
+  protected static void assertTaggedParagraphs(PlainPdfActCorePipe pipe) throws PdfActException {
+    pipe.setIsStructureTreeUsed(true);
+    Document doc = pipe.execute(new Document(file.getPath()));
+
+    Paragraph title = getParagraph(doc, "A Study");
+    assertEquals("A Study of Tagged Documents", title.getText());
+    assertEquals(SemanticRole.TITLE, title.getSemanticRole());
+
+    Paragraph heading = getParagraph(doc, "Abstract");
+    assertEquals(SemanticRole.HEADING, heading.getSemanticRole());
+
+    // The paragraph spans two pages. Its role isn't given by the structure tree, so it belongs to
+    // the section of the (tagged) heading.
+    Paragraph paragraph = getParagraph(doc, "This paragraph");
+    assertEquals("This paragraph starts on the first page and continues on the second page.",
+        paragraph.getText());
+    assertEquals(2, paragraph.getPositions().size());
+    assertEquals(SemanticRole.ABSTRACT, paragraph.getSemanticRole());
+
+    // The nested paragraph belongs to the list item.
+    Paragraph item = getParagraph(doc, "1.");
+    assertEquals("1. An item of the list.", item.getText());
+    assertEquals(SemanticRole.ITEMIZE_ITEM, item.getSemanticRole());
+
+    // The second paragraph starts lowercased, but isn't merged with the previous paragraph.
+    assertEquals("and this is a second paragraph.",
+        getParagraph(doc, "and this").getText());
+
+    // The role given by the structure tree isn't overwritten by the role of the section.
+    Paragraph caption = getParagraph(doc, "Figure 1");
+    assertEquals(SemanticRole.CAPTION, caption.getSemanticRole());
+
+    // The untagged lines of the mostly untagged page are processed from their geometry.
+    assertNotNull(getParagraph(doc, "Tagged."));
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Adds a new structure element of the given type to the given parent.
+   *
+   * @return The added structure element.
+   */
+  protected static PDStructureElement addElement(PDStructureNode parent, String type) {
+    PDStructureElement element = new PDStructureElement(type, parent);
+    parent.appendKid(element);
+    return element;
+  }
+
+  /**
+   * Adds references to the marked-content sequences with the given MCIDs on the given page to the
+   * given structure element.
+   */
+  protected static void addMcids(PDStructureElement element, PDPage page, int... mcids) {
+    for (int mcid : mcids) {
+      PDMarkedContentReference mcr = new PDMarkedContentReference();
+      mcr.setMCID(mcid);
+      mcr.setPage(page);
+      element.appendKid(mcr);
+    }
+  }
+
+  /**
+   * Shows the given text in a marked-content sequence with the given MCID (or in an artifact if
+   * the MCID is negative).
+   */
+  protected static void showText(PDPageContentStream cs, int mcid, float fontSize, float y,
+      String text) throws IOException {
+    if (mcid >= 0) {
+      COSDictionary properties = new COSDictionary();
+      properties.setInt(COSName.MCID, mcid);
+      cs.beginMarkedContent(COSName.P, PDPropertyList.create(properties));
+    } else {
+      cs.beginMarkedContent(COSName.getPDFName("Artifact"));
+    }
+    cs.beginText();
+    cs.setFont(PDType1Font.HELVETICA, fontSize);
+    cs.newLineAtOffset(72, y);
+    cs.showText(text);
+    cs.endText();
+    cs.endMarkedContent();
+  }
+
+  /**
+   * Returns the paragraph of the given document that starts with the given text.
+   */
+  protected static Paragraph getParagraph(Document doc, String prefix) {
+    for (Paragraph paragraph : doc.getParagraphs()) {
+      if (paragraph.getText().startsWith(prefix)) {
+        return paragraph;
+      }
+    }
+    throw new AssertionError("No paragraph starts with \"" + prefix + "\".");
+  }
+
+  /**
+   * Returns the structure types of the given blocks.
+   */
+  protected static List<String> getStructureTypes(List<TaggedBlock> blocks) {
+    List<String> types = new ArrayList<>();
+    for (TaggedBlock block : blocks) {
+      types.add(block.getStructureType());
+    }
+    return types;
+  }
+
+  /**
+   * Returns the semantic roles of the given blocks.
+   */
+  protected static List<SemanticRole> getSemanticRoles(List<TaggedBlock> blocks) {
+    List<SemanticRole> roles = new ArrayList<>();
+    for (TaggedBlock block : blocks) {
+      roles.add(block.getSemanticRole());
+    }
+    return roles;
+  }
+}
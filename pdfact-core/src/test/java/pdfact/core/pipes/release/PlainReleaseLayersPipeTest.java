@@ -0,0 +1,123 @@
+package pdfact.core.pipes.release;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import org.junit.Test;
+import pdfact.core.model.CharacterStatistic;
+import pdfact.core.model.Document;
+import pdfact.core.model.FontFace;
+import pdfact.core.model.IntermediateLayer;
+import pdfact.core.model.Page;
+import pdfact.core.model.Paragraph;
+import pdfact.core.model.TextBlock;
+import pdfact.core.model.TextLine;
+import pdfact.core.model.Word;
+import pdfact.core.pipes.PlainPdfActCorePipe;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * A class that tests the {@link PlainReleaseLayersPipe}.
+ */
+public class PlainReleaseLayersPipeTest {
+  /**
+   * Tests that the texts of the text lines, text blocks and paragraphs are recomputed unchanged
+   * after they were released, also if the characters were released before.
+   */
+  @Test
+  public void testReleasedTextsAreRecomputed() throws PdfActException {
+    Document doc = new PlainPdfActCorePipe().execute(
+        new Document("src/test/resources/ACL_2004.pdf"));
+    List<String> texts = getTexts(doc);
+
+    PlainReleaseLayersPipe pipe = new PlainReleaseLayersPipe(
+        EnumSet.of(IntermediateLayer.CHARACTERS, IntermediateLayer.TEXTS));
+    pipe.execute(doc);
+
+    assertTrue(pipe.getNumReleasedTexts() > 0);
+    assertEquals(texts, getTexts(doc));
+
+    // The texts are materialized again, so they can be released again.
+    pipe = new PlainReleaseLayersPipe(EnumSet.of(IntermediateLayer.TEXTS));
+    pipe.execute(doc);
+    assertTrue(pipe.getNumReleasedTexts() > 0);
+    assertEquals(texts, getTexts(doc));
+  }
+
+  /**
+   * Tests that the statistics of the pages, text blocks, words and paragraphs are unchanged if the
+   * layers from which they are computed lazily were released.
+   */
+  @Test
+  public void testStatisticsOfReleasedLayersAreUnchanged() throws PdfActException {
+    Document expected = new PlainPdfActCorePipe().execute(
+        new Document("src/test/resources/ACL_2004.pdf"));
+
+    PlainPdfActCorePipe pipe = new PlainPdfActCorePipe();
+    pipe.setLayersToRelease(EnumSet.allOf(IntermediateLayer.class));
+    Document actual = pipe.execute(new Document("src/test/resources/ACL_2004.pdf"));
+
+    assertEquals(getStatistics(expected), getStatistics(actual));
+  }
+
+  /**
+   * Returns the string representations of the statistics of the pages, text blocks, words and
+   * paragraphs of the given document.
+   */
+  protected static List<String> getStatistics(Document doc) {
+    List<String> statistics = new ArrayList<>();
+    statistics.add(toString(doc.getCharacterStatistic()));
+    for (Page page : doc.getPages()) {
+      statistics.add(toString(page.getCharacterStatistic()));
+      for (TextLine line : page.getTextLines()) {
+        for (Word word : line.getWords()) {
+          statistics.add(toString(word.getCharacterStatistic()));
+        }
+      }
+      for (TextBlock block : page.getTextBlocks()) {
+        statistics.add(toString(block.getCharacterStatistic()));
+      }
+    }
+    for (Paragraph paragraph : doc.getParagraphs()) {
+      statistics.add(toString(paragraph.getCharacterStatistic()));
+    }
+    return statistics;
+  }
+
+  /**
+   * Returns a string representation of the frequencies and bounds of the given statistic.
+   */
+  protected static String toString(CharacterStatistic statistic) {
+    FontFace fontFace = statistic.getMostCommonFontFace();
+    return statistic.getMostCommonHeight() + " " + statistic.getAverageHeight() + " "
+        + statistic.getMostCommonWidth() + " " + statistic.getAverageWidth() + " "
+        + fontFace.getFont().getBaseName() + " " + fontFace.getFontSize() + " "
+        + statistic.getAverageFontsize() + " "
+        + Arrays.toString(statistic.getMostCommonColor().getRGB()) + " "
+        + statistic.getSmallestMinX() + " " + statistic.getSmallestMinY() + " "
+        + statistic.getLargestMaxX() + " " + statistic.getLargestMaxY();
+  }
+
+  /**
+   * Returns the texts of the text lines, text blocks and paragraphs of the given document.
+   */
+  protected static List<String> getTexts(Document doc) {
+    List<String> texts = new ArrayList<>();
+    for (Page page : doc.getPages()) {
+      for (TextLine line : page.getTextLines()) {
+        texts.add(line.getText());
+      }
+      for (TextBlock block : page.getTextBlocks()) {
+        texts.add(block.getText());
+      }
+    }
+    for (Paragraph paragraph : doc.getParagraphs()) {
+      texts.add(paragraph.getText());
+    }
+    return texts;
+  }
+}
@@ -0,0 +1,99 @@
+package pdfact.core.pipes.semanticize;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+import pdfact.core.model.SemanticRole;
+import pdfact.core.model.TextBlock;
+import pdfact.core.pipes.PlainPdfActCorePipe;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * A class that tests that the {@link FusedDetectSemanticsPipe} assigns the same roles to the text
+ * blocks as the {@link PlainDetectSemanticsPipe}.
+ */
+public class FusedDetectSemanticsPipeTest {
+  /**
+   * The path to the PDF document to examine in this test.
+   */
+  protected static final String PATH = "src/test/resources/ACL_2004.pdf";
+
+  /**
+   * Tests that both pipes assign the same roles and secondary roles to each text block of the
+   * document.
+   */
+  @Test
+  public void testSameRolesAsPlainPipe() throws PdfActException {
+    Document doc = new PlainPdfActCorePipe().execute(new Document(PATH));
+
+    List<String> plainRoles = detectSemantics(new PlainDetectSemanticsPipe(), doc);
+    List<String> fusedRoles = detectSemantics(new FusedDetectSemanticsPipe(), doc);
+
+    assertEquals(plainRoles, fusedRoles);
+
+    // Make sure that the document exercises the rules of the different modules.
+    Set<SemanticRole> roles = EnumSet.noneOf(SemanticRole.class);
+    for (Page page : doc.getPages()) {
+      for (TextBlock block : page.getTextBlocks()) {
+        roles.add(block.getSemanticRole());
+      }
+    }
+    assertTrue(roles.toString(), roles.containsAll(EnumSet.of(SemanticRole.TITLE,
+        SemanticRole.HEADING, SemanticRole.ABSTRACT, SemanticRole.REFERENCE,
+        SemanticRole.BODY_TEXT, SemanticRole.CAPTION, SemanticRole.OTHER)));
+  }
+
+  /**
+   * Tests that both pipes assign the same roles and secondary roles to each text block of a
+   * document that doesn't start with the first page (like a window of the
+   * WindowedPdfActCorePipe), so that there is no title and the sections may start before the
+   * first page.
+   */
+  @Test
+  public void testSameRolesAsPlainPipeWithoutFirstPages() throws PdfActException {
+    Document doc = new PlainPdfActCorePipe().execute(new Document(PATH));
+    doc.getPages().subList(0, 2).clear();
+
+    List<String> plainRoles = detectSemantics(new PlainDetectSemanticsPipe(), doc);
+    List<String> fusedRoles = detectSemantics(new FusedDetectSemanticsPipe(), doc);
+
+    assertEquals(plainRoles, fusedRoles);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Resets the roles of the text blocks of the given document and detects them again by using the
+   * given pipe.
+   *
+   * @return The string representations (the page number, the text, the role and the secondary
+   *         role) of the text blocks.
+   */
+  protected static List<String> detectSemantics(DetectSemanticsPipe pipe, Document doc)
+      throws PdfActException {
+    for (Page page : doc.getPages()) {
+      for (TextBlock block : page.getTextBlocks()) {
+        block.setSemanticRole(null);
+        block.setSecondarySemanticRole(null);
+      }
+    }
+
+    pipe.execute(doc);
+
+    List<String> blocks = new ArrayList<>();
+    for (Page page : doc.getPages()) {
+      for (TextBlock block : page.getTextBlocks()) {
+        blocks.add(page.getPageNumber() + " " + block.getText() + " " + block.getSemanticRole()
+            + " " + block.getSecondarySemanticRole());
+      }
+    }
+    return blocks;
+  }
+}
@@ -0,0 +1,121 @@
+package pdfact.core.pipes.semanticize.template;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * A class that tests the saving and loading of a {@link LayoutTemplateCache}.
+ */
+public class LayoutTemplateCacheTest {
+  /**
+   * The directory of the cache file.
+   */
+  protected Path dir;
+
+  /**
+   * The path to the cache file.
+   */
+  protected Path path;
+
+  /**
+   * Creates a temporary directory for the cache file.
+   */
+  @Before
+  public void setup() throws IOException {
+    this.dir = Files.createTempDirectory("pdfact-template-cache");
+    this.path = this.dir.resolve("templates.cache");
+  }
+
+  /**
+   * Deletes the temporary directory.
+   */
+  @After
+  public void teardown() throws IOException {
+    try (Stream<Path> files = Files.list(this.dir)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        Files.delete(file);
+      }
+    }
+    Files.delete(this.dir);
+  }
+
+  /**
+   * Tests that two caches saved to the same file (for example, by two runs of PdfAct that loaded
+   * the file at the same time) don't overwrite each other's templates, and that the more recently
+   * created template wins.
+   */
+  @Test
+  public void testSaveMergesWithFile() throws PdfActException, IOException {
+    long now = System.currentTimeMillis();
+
+    LayoutTemplateCache cache1 = new LayoutTemplateCache();
+    cache1.load(this.path);
+    LayoutTemplateCache cache2 = new LayoutTemplateCache();
+    cache2.load(this.path);
+
+    cache1.put(createTemplate("a", now - 1000, "old heading"));
+    cache1.put(createTemplate("b", now, "b heading"));
+    cache2.put(createTemplate("a", now, "new heading"));
+    cache2.put(createTemplate("c", now, "c heading"));
+
+    cache1.save(this.path);
+    cache2.save(this.path);
+
+    LayoutTemplateCache loaded = new LayoutTemplateCache();
+    loaded.load(this.path);
+    assertEquals(3, loaded.size());
+    assertEquals("new heading", loaded.get("a").getHeadingFontFaceKey());
+    assertNotNull(loaded.get("b"));
+    assertNotNull(loaded.get("c"));
+
+    // The older template doesn't replace the newer template in the file.
+    LayoutTemplateCache cache3 = new LayoutTemplateCache();
+    cache3.put(createTemplate("a", now - 2000, "older heading"));
+    cache3.save(this.path);
+    loaded = new LayoutTemplateCache();
+    loaded.load(this.path);
+    assertEquals("new heading", loaded.get("a").getHeadingFontFaceKey());
+
+    // No temporary files are left.
+    try (Stream<Path> files = Files.list(this.dir)) {
+      assertTrue(files.noneMatch(file -> file.toString().endsWith(".tmp")));
+    }
+  }
+
+  /**
+   * Tests that a file that isn't a cache file is rejected with the exit code of I/O errors, which
+   * differs from the exit codes of the command line interface.
+   */
+  @Test
+  public void testInvalidFile() throws IOException {
+    Files.write(this.path, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+    try {
+      new LayoutTemplateCache().load(this.path);
+      fail("An exception was expected.");
+    } catch (PdfActException e) {
+      assertEquals(60, e.getExitCode());
+    }
+  }
+
+  /**
+   * Creates a template with the given fingerprint, creation time and heading font face key.
+   */
+  protected static LayoutTemplate createTemplate(String fingerprint, long creationTime,
+      String headingFontFaceKey) {
+    LayoutTemplate template = new LayoutTemplate(fingerprint, creationTime);
+    template.setHeadingFontFaceKey(headingFontFaceKey);
+    template.getPageHeaderTexts().add("header of " + fingerprint);
+    return template;
+  }
+}
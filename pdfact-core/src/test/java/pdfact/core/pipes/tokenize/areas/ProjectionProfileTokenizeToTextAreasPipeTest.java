@@ -0,0 +1,73 @@
+package pdfact.core.pipes.tokenize.areas;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+import pdfact.core.model.TextArea;
+import pdfact.core.pipes.filter.characters.PlainFilterCharactersPipe;
+import pdfact.core.pipes.parse.PlainParseDocumentPipe;
+import pdfact.core.pipes.translate.characters.PlainStandardizeCharactersPipe;
+import pdfact.core.pipes.translate.diacritics.PlainMergeDiacriticsPipe;
+import pdfact.core.pipes.translate.ligatures.PlainSplitLigaturesPipe;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * A class that tests that the {@link ProjectionProfileTokenizeToTextAreasPipe} computes the same
+ * text areas as the {@link XYCutTokenizeToTextAreasPipe}.
+ */
+public class ProjectionProfileTokenizeToTextAreasPipeTest {
+  /**
+   * The PDF document to examine in this test.
+   */
+  protected static Document doc;
+
+  /**
+   * Parses the PDF document and prepares its characters for the tokenization.
+   */
+  @BeforeClass
+  public static void setup() throws PdfActException {
+    doc = new Document("src/test/resources/ACL_2004.pdf");
+    new PlainParseDocumentPipe().execute(doc);
+    new PlainMergeDiacriticsPipe().execute(doc);
+    new PlainSplitLigaturesPipe().execute(doc);
+    new PlainStandardizeCharactersPipe().execute(doc);
+    new PlainFilterCharactersPipe().execute(doc);
+  }
+
+  /**
+   * Tests that both pipes compute the same text areas, in the same order.
+   */
+  @Test
+  public void testSameTextAreasAsXYCut() throws PdfActException {
+    List<String> xyCutAreas = tokenize(new XYCutTokenizeToTextAreasPipe());
+    List<String> profileAreas = tokenize(new ProjectionProfileTokenizeToTextAreasPipe());
+
+    assertFalse(xyCutAreas.isEmpty());
+    assertEquals(xyCutAreas, profileAreas);
+  }
+
+  /**
+   * Tokenizes the pages of the document into text areas by using the given pipe.
+   *
+   * @return The string representations (the page number, the bounding box and the number of
+   *         characters) of the computed text areas.
+   */
+  protected static List<String> tokenize(TokenizeToTextAreasPipe pipe) throws PdfActException {
+    pipe.execute(doc);
+
+    List<String> areas = new ArrayList<>();
+    for (Page page : doc.getPages()) {
+      for (TextArea area : page.getTextAreas()) {
+        areas.add(page.getPageNumber() + " " + area.getPosition().getRectangle() + " "
+            + area.getCharacters().size());
+      }
+    }
+    return areas;
+  }
+}
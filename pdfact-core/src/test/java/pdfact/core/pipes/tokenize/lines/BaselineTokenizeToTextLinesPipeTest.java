@@ -0,0 +1,81 @@
+package pdfact.core.pipes.tokenize.lines;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import pdfact.core.model.Character;
+import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+import pdfact.core.model.TextLine;
+import pdfact.core.pipes.filter.characters.PlainFilterCharactersPipe;
+import pdfact.core.pipes.parse.PlainParseDocumentPipe;
+import pdfact.core.pipes.tokenize.areas.XYCutTokenizeToTextAreasPipe;
+import pdfact.core.pipes.translate.characters.PlainStandardizeCharactersPipe;
+import pdfact.core.pipes.translate.diacritics.PlainMergeDiacriticsPipe;
+import pdfact.core.pipes.translate.ligatures.PlainSplitLigaturesPipe;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * A class that tests that the {@link BaselineTokenizeToTextLinesPipe} computes the same text
+ * lines as the {@link PlainTokenizeToTextLinesPipe}.
+ */
+public class BaselineTokenizeToTextLinesPipeTest {
+  /**
+   * The PDF document to examine in this test.
+   */
+  protected static Document doc;
+
+  /**
+   * Parses the PDF document and tokenizes its pages into text areas.
+   */
+  @BeforeClass
+  public static void setup() throws PdfActException {
+    doc = new Document("src/test/resources/ACL_2004.pdf");
+    new PlainParseDocumentPipe().execute(doc);
+    new PlainMergeDiacriticsPipe().execute(doc);
+    new PlainSplitLigaturesPipe().execute(doc);
+    new PlainStandardizeCharactersPipe().execute(doc);
+    new PlainFilterCharactersPipe().execute(doc);
+    new XYCutTokenizeToTextAreasPipe().execute(doc);
+  }
+
+  /**
+   * Tests that both pipes compute the same text lines (with the same baselines and the same order
+   * of characters), in the same order.
+   */
+  @Test
+  public void testSameTextLinesAsXYCut() throws PdfActException {
+    List<String> xyCutLines = tokenize(new PlainTokenizeToTextLinesPipe());
+    List<String> baselineLines = tokenize(new BaselineTokenizeToTextLinesPipe());
+
+    assertFalse(xyCutLines.isEmpty());
+    assertEquals(xyCutLines, baselineLines);
+  }
+
+  /**
+   * Tokenizes the text areas of the document into text lines by using the given pipe.
+   *
+   * @return The string representations (the page number, the bounding box, the baseline and the
+   *         characters) of the computed text lines.
+   */
+  protected static List<String> tokenize(TokenizeToTextLinesPipe pipe) throws PdfActException {
+    pipe.execute(doc);
+
+    List<String> lines = new ArrayList<>();
+    for (Page page : doc.getPages()) {
+      for (TextLine line : page.getTextLines()) {
+        StringBuilder text = new StringBuilder();
+        for (Character character : line.getCharacters()) {
+          text.append(character.getText());
+        }
+        lines.add(page.getPageNumber() + " " + line.getPosition().getRectangle() + " "
+            + line.getBaseline() + " " + text);
+      }
+    }
+    return lines;
+  }
+}
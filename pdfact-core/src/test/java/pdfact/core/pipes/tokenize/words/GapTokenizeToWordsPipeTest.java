@@ -0,0 +1,162 @@
+package pdfact.core.pipes.tokenize.words;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import pdfact.core.model.Character;
+import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+import pdfact.core.model.Position;
+import pdfact.core.model.TextLine;
+import pdfact.core.model.Word;
+import pdfact.core.pipes.filter.characters.PlainFilterCharactersPipe;
+import pdfact.core.pipes.parse.PlainParseDocumentPipe;
+import pdfact.core.pipes.tokenize.areas.XYCutTokenizeToTextAreasPipe;
+import pdfact.core.pipes.tokenize.lines.PlainTokenizeToTextLinesPipe;
+import pdfact.core.pipes.translate.characters.PlainStandardizeCharactersPipe;
+import pdfact.core.pipes.translate.diacritics.PlainMergeDiacriticsPipe;
+import pdfact.core.pipes.translate.ligatures.PlainSplitLigaturesPipe;
+import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.list.ElementList;
+
+/**
+ * A class that tests that the {@link GapTokenizeToWordsPipe} computes the same words as the
+ * {@link XYCutTokenizeToWordsPipe}.
+ */
+public class GapTokenizeToWordsPipeTest {
+  /**
+   * The path to the PDF document to examine in this test.
+   */
+  protected static final String PATH = "src/test/resources/ACL_2004.pdf";
+
+  /**
+   * The texts of the characters of the synthetic text lines: letters, the split ligature "fi"
+   * and merged diacritics.
+   */
+  protected static final String[] TEXTS = { "a", "b", "m", "-", "fi", "é", "ü" };
+
+  /**
+   * The widths of the characters of the synthetic text lines: zero, narrow, normal and wide (to
+   * overlap the following characters).
+   */
+  protected static final float[] WIDTHS = { 0f, 0.5f, 1f, 3f, 5f, 20f };
+
+  /**
+   * The PDF document, tokenized into text lines.
+   */
+  protected static Document doc;
+
+  /**
+   * Parses the PDF document and tokenizes its pages into text lines.
+   */
+  @BeforeClass
+  public static void setup() throws PdfActException {
+    doc = new Document(PATH);
+    new PlainParseDocumentPipe().execute(doc);
+    new PlainMergeDiacriticsPipe().execute(doc);
+    new PlainSplitLigaturesPipe().execute(doc);
+    new PlainStandardizeCharactersPipe().execute(doc);
+    new PlainFilterCharactersPipe().execute(doc);
+    new XYCutTokenizeToTextAreasPipe().execute(doc);
+    new PlainTokenizeToTextLinesPipe().execute(doc);
+  }
+
+  /**
+   * Tests that both pipes compute the same words (with the same characters in the same order,
+   * the same texts, positions and hyphenation flags) for the text lines of the PDF document.
+   */
+  @Test
+  public void testSameWordsAsXYCut() throws PdfActException {
+    List<String> xyCutWords = new ArrayList<>();
+    List<String> gapWords = new ArrayList<>();
+    for (Page page : doc.getPages()) {
+      for (TextLine line : page.getTextLines()) {
+        xyCutWords.addAll(tokenize(new XYCutTokenizeToWordsPipe(), page, line.getCharacters()));
+        gapWords.addAll(tokenize(new GapTokenizeToWordsPipe(), page, line.getCharacters()));
+      }
+    }
+
+    assertFalse(xyCutWords.isEmpty());
+    assertEquals(xyCutWords, gapWords);
+  }
+
+  /**
+   * Tests that both pipes compute the same words for random synthetic text lines with
+   * overlapping glyphs, zero-width characters, stacked characters (with the same minX),
+   * ligatures and diacritics, and gaps at the threshold.
+   */
+  @Test
+  public void testSameWordsAsXYCutOnSyntheticLines() throws PdfActException {
+    Random random = new Random(42);
+    Page page = new Page(1);
+
+    for (int i = 0; i < 2000; i++) {
+      ElementList<Character> characters = createCharacters(page, 1 + random.nextInt(30), random);
+
+      List<String> xyCutWords = tokenize(new XYCutTokenizeToWordsPipe(), page, characters);
+      List<String> gapWords = tokenize(new GapTokenizeToWordsPipe(), page, characters);
+
+      assertEquals("line " + i, xyCutWords, gapWords);
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Tokenizes a text line with the given characters into words by using the given pipe.
+   *
+   * @return The string representations (the indexes of the characters in the line, the text, the
+   *         positions and the hyphenation flag) of the computed words.
+   */
+  protected static List<String> tokenize(XYCutTokenizeToWordsPipe pipe, Page page,
+      ElementList<Character> characters) throws PdfActException {
+    Map<Character, Integer> indexes = new IdentityHashMap<>();
+    for (int i = 0; i < characters.size(); i++) {
+      indexes.put(characters.get(i), i);
+    }
+
+    TextLine line = new TextLine();
+    ElementList<Character> lineCharacters = new ElementList<>(characters.size());
+    lineCharacters.addAll(characters);
+    line.setCharacters(lineCharacters);
+
+    List<String> words = new ArrayList<>();
+    for (Word word : pipe.tokenizeToWords(doc, page, line)) {
+      List<Integer> wordIndexes = new ArrayList<>();
+      for (Character character : word.getCharacters()) {
+        wordIndexes.add(indexes.get(character));
+      }
+      words.add(page.getPageNumber() + " " + wordIndexes + " " + word.getText() + " "
+          + word.getPositions() + " " + word.isHyphenated());
+    }
+    return words;
+  }
+
+  /**
+   * Creates the given number of random characters in a single text line on the given page. The
+   * minX values are multiples of 0.5, so that many characters touch, overlap or have a gap of
+   * exactly the threshold between them.
+   */
+  protected static ElementList<Character> createCharacters(Page page, int n, Random random) {
+    ElementList<Character> characters = new ElementList<>(n);
+    for (int i = 0; i < n; i++) {
+      float minX = random.nextInt(100) * 0.5f;
+      float maxX = minX + WIDTHS[random.nextInt(WIDTHS.length)];
+      float minY = random.nextInt(3);
+      float maxY = minY + 8 + random.nextInt(3);
+
+      Character character = new Character();
+      character.setText(TEXTS[random.nextInt(TEXTS.length)]);
+      character.setPosition(new Position(page, minX, minY, maxX, maxY));
+      characters.add(character);
+    }
+    return characters;
+  }
+}
@@ -0,0 +1,161 @@
+package pdfact.core.pipes.translate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import pdfact.core.model.Character;
+import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+import pdfact.core.model.Position;
+import pdfact.core.pipes.filter.characters.PlainFilterCharactersPipe;
+import pdfact.core.pipes.parse.PlainParseDocumentPipe;
+import pdfact.core.pipes.translate.characters.PlainStandardizeCharactersPipe;
+import pdfact.core.pipes.translate.diacritics.PlainMergeDiacriticsPipe;
+import pdfact.core.pipes.translate.ligatures.PlainSplitLigaturesPipe;
+import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.list.ElementList;
+
+/**
+ * A class that tests that the {@link PlainTranslateCharactersPipe} translates the characters in
+ * the same way as the {@link PlainMergeDiacriticsPipe}, the {@link PlainSplitLigaturesPipe}, the
+ * {@link PlainStandardizeCharactersPipe} and the {@link PlainFilterCharactersPipe} executed one
+ * after another.
+ */
+public class PlainTranslateCharactersPipeTest {
+  /**
+   * The path to the PDF document to examine in this test.
+   */
+  protected static final String PATH = "src/test/resources/ACL_2004.pdf";
+
+  /**
+   * The texts and horizontal extents (minX, maxX) of the characters of the synthetic page. The
+   * page contains diacritics that are merged with the previous or the next character (also at
+   * the start and the end of the page, and one after another), ligatures (one of them with a
+   * diacritic, so that it is not split anymore) and characters to filter (with zero width and
+   * whitespace).
+   */
+  protected static final Object[][] CHARACTERS = {
+      { "ˆ", 0f, 3f }, // A circumflex merged with the next character.
+      { "o", 0f, 5f },
+      { "e", 10f, 15f },
+      { "´", 11f, 14f }, // An acute accent merged with the previous character.
+      { "¨", 20.5f, 23.5f }, // A diaeresis merged with the next character.
+      { "u", 20f, 25f },
+      { "ﬁ", 30f, 35f }, // The ligature "fi".
+      { "ﬂ", 40f, 45f }, // The ligature "fl", with a tilde.
+      { "˜", 41f, 44f },
+      { "’", 50f, 52f },
+      { "x", 60f, 60f }, // A character with zero width.
+      { "`", 59f, 61f }, // A grave accent next to the character with zero width.
+      { "a", 61f, 66f },
+      { " ", 70f, 72f }, // A whitespace.
+      { "´", 80f, 83f }, // Two diacritics one after another, see below.
+      { "¨", 80f, 83f },
+      { "i", 80f, 82f },
+      { "n", 90f, 95f },
+      { "¨", 91f, 94f }, // A diaeresis at the end of the page.
+  };
+
+  /**
+   * Tests that the characters of the synthetic page are translated in the same way by both paths
+   * and that the expected merges, splits and filterings happened. Of the two diacritics one
+   * after another, the first is merged with the second one, which then is a diacritic itself
+   * ("΅") and is merged with the first one (the previous character), so both get lost.
+   */
+  @Test
+  public void testSyntheticCharacters() throws PdfActException {
+    Document expectedDoc = new PlainFilterCharactersPipe().execute(
+        new PlainStandardizeCharactersPipe().execute(
+            new PlainSplitLigaturesPipe().execute(
+                new PlainMergeDiacriticsPipe().execute(createDocument()))));
+    Document actualDoc = new PlainTranslateCharactersPipe().execute(createDocument());
+
+    List<String> expected = toStrings(expectedDoc);
+    List<String> actual = toStrings(actualDoc);
+
+    assertEquals(expected, actual);
+    assertEquals("ô é ü fi ﬂ̃ ’ a i n̈", toTexts(actualDoc));
+  }
+
+  /**
+   * Tests that the characters of a real PDF document are translated in the same way by both
+   * paths.
+   */
+  @Test
+  public void testPdfCharacters() throws PdfActException {
+    Document expectedDoc = parse();
+    new PlainMergeDiacriticsPipe().execute(expectedDoc);
+    new PlainSplitLigaturesPipe().execute(expectedDoc);
+    new PlainStandardizeCharactersPipe().execute(expectedDoc);
+    new PlainFilterCharactersPipe().execute(expectedDoc);
+
+    Document actualDoc = parse();
+    new PlainTranslateCharactersPipe().execute(actualDoc);
+
+    List<String> expected = toStrings(expectedDoc);
+    assertFalse(expected.isEmpty());
+    assertEquals(expected, toStrings(actualDoc));
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Creates a document with a single page that contains the characters given by
+   * {@link #CHARACTERS}.
+   */
+  protected static Document createDocument() {
+    Page page = new Page(1);
+    ElementList<Character> characters = new ElementList<>();
+    for (Object[] values : CHARACTERS) {
+      Character character = new Character();
+      character.setText((String) values[0]);
+      character.setPosition(new Position(page, (float) values[1], 0, (float) values[2], 10));
+      characters.add(character);
+    }
+    page.setCharacters(characters);
+
+    Document doc = new Document(PATH);
+    doc.addPage(page);
+    return doc;
+  }
+
+  /**
+   * Parses the PDF document.
+   */
+  protected static Document parse() throws PdfActException {
+    Document doc = new Document(PATH);
+    new PlainParseDocumentPipe().execute(doc);
+    return doc;
+  }
+
+  /**
+   * Returns the string representations (the page number, the text and the rectangle) of the
+   * characters of the given document.
+   */
+  protected static List<String> toStrings(Document doc) {
+    List<String> strings = new ArrayList<>();
+    for (Page page : doc.getPages()) {
+      for (Character character : page.getCharacters()) {
+        strings.add(page.getPageNumber() + " " + character.getText() + " "
+            + character.getPosition().getRectangle());
+      }
+    }
+    return strings;
+  }
+
+  /**
+   * Returns the texts of the characters of the given document, separated by whitespaces.
+   */
+  protected static String toTexts(Document doc) {
+    List<String> texts = new ArrayList<>();
+    for (Page page : doc.getPages()) {
+      for (Character character : page.getCharacters()) {
+        texts.add(character.getText());
+      }
+    }
+    return String.join(" ", texts);
+  }
+}
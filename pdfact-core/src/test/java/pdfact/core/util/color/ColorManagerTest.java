@@ -0,0 +1,46 @@
+package pdfact.core.util.color;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+import pdfact.core.model.Color;
+
+/**
+ * A class that tests the {@link ColorManager}.
+ */
+public class ColorManagerTest {
+  /**
+   * Tests that the colors of a manager get dense indexes and are registered only once.
+   */
+  @Test
+  public void testDenseIndexes() {
+    ColorManager manager = new ColorManager();
+    Color black = manager.getColor(new int[] { 0, 0, 0 });
+    Color red = manager.getColor(new int[] { 255, 0, 0 });
+
+    assertEquals(0, black.getIndex());
+    assertEquals("color-0", black.getId());
+    assertEquals(1, red.getIndex());
+    assertEquals("color-1", red.getId());
+    assertSame(black, manager.getColor(new int[] { 0, 0, 0 }));
+  }
+
+  /**
+   * Tests that the registries of two managers (that is: of two documents) are independent.
+   */
+  @Test
+  public void testIndependentRegistries() {
+    ColorManager first = new ColorManager();
+    first.getColor(new int[] { 0, 0, 0 });
+    Color firstRed = first.getColor(new int[] { 255, 0, 0 });
+
+    ColorManager second = new ColorManager();
+    Color secondRed = second.getColor(new int[] { 255, 0, 0 });
+
+    assertEquals(1, firstRed.getIndex());
+    assertEquals(0, secondRed.getIndex());
+    assertNotSame(firstRed, secondRed);
+  }
+}
@@ -0,0 +1,97 @@
+package pdfact.core.util.comparator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import pdfact.core.model.Character;
+import pdfact.core.model.Page;
+import pdfact.core.model.Position;
+import pdfact.core.model.Rectangle;
+
+/**
+ * A class that tests the {@link PositionComparator}.
+ */
+public class PositionComparatorTest {
+  /**
+   * Some float values, including the special ones.
+   */
+  protected static final float[] VALUES = { Float.NEGATIVE_INFINITY, -Float.MAX_VALUE, -12.5f,
+      -1.0f, -Float.MIN_VALUE, -0.0f, 0.0f, Float.MIN_VALUE, 1.0f, 1.0000001f, 12.5f,
+      Float.MAX_VALUE, Float.POSITIVE_INFINITY, Float.NaN, Float.intBitsToFloat(0x7fc00001),
+      Float.intBitsToFloat(0xffc00000) };
+
+  /**
+   * Tests that the sort keys compare as the float values compare by Float.compare(), including
+   * -0.0 (which is smaller than 0.0) and NaN (which is larger than all other values and equal to
+   * all NaNs, regardless of their bits).
+   */
+  @Test
+  public void testSortKeysCompareAsFloatCompare() {
+    for (float value1 : VALUES) {
+      for (float value2 : VALUES) {
+        int expected = Integer.signum(Float.compare(value1, value2));
+        int actual = Integer.signum(Integer.compare(PositionComparator.toSortKey(value1),
+            PositionComparator.toSortKey(value2)));
+        assertEquals(value1 + " vs. " + value2, expected, actual);
+      }
+    }
+    assertTrue(PositionComparator.toSortKey(-0.0f) < PositionComparator.toSortKey(0.0f));
+  }
+
+  /**
+   * Tests that the sort keys of the reversed comparator compare as the reversed comparator
+   * compares the elements, including ties.
+   */
+  @Test
+  public void testReversedSortKeys() {
+    PositionComparator comparator = new MinXComparator();
+    PositionComparator reversed = comparator.reversed();
+    Page page = new Page(1);
+
+    for (float value1 : VALUES) {
+      for (float value2 : VALUES) {
+        Character char1 = createCharacter(page, value1);
+        Character char2 = createCharacter(page, value2);
+        Rectangle rect1 = char1.getPosition().getRectangle();
+        Rectangle rect2 = char2.getPosition().getRectangle();
+
+        int expected = Integer.signum(reversed.compare(char1, char2));
+        int actual = Integer.signum(
+            Integer.compare(reversed.getSortKey(rect1), reversed.getSortKey(rect2)));
+        assertEquals(value1 + " vs. " + value2, expected, actual);
+        assertEquals(-Integer.signum(comparator.compare(char1, char2)), expected);
+      }
+    }
+    assertSame(comparator, reversed.reversed());
+  }
+
+  /**
+   * Tests that elements are compared by their page numbers first and that elements without a
+   * position are sorted to the end.
+   */
+  @Test
+  public void testPagesAndMissingPositions() {
+    PositionComparator comparator = new MinXComparator();
+    Character char1 = createCharacter(new Page(1), 100);
+    Character char2 = createCharacter(new Page(2), 1);
+    Character noPosition = new Character();
+
+    assertTrue(comparator.compare(char1, char2) < 0);
+    assertTrue(comparator.compare(char2, char1) > 0);
+    assertTrue(comparator.compare(char1, noPosition) < 0);
+    assertTrue(comparator.compare(noPosition, char1) > 0);
+    assertEquals(0, comparator.compare(noPosition, new Character()));
+    assertTrue(comparator.compare(char1, null) < 0);
+  }
+
+  /**
+   * Creates a character on the given page with the given minX value.
+   */
+  protected static Character createCharacter(Page page, float minX) {
+    Character character = new Character();
+    character.setPosition(new Position(page, minX, 0, minX, 10));
+    return character;
+  }
+}
@@ -0,0 +1,150 @@
+package pdfact.core.util.counter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * A class that tests the {@link FloatCounter}.
+ */
+public class FloatCounterTest {
+  /**
+   * Tests that floats that differ only by float noise are counted as the same float.
+   */
+  @Test
+  public void testFloatsAreQuantized() {
+    FloatCounter counter = new FloatCounter();
+    counter.add(2.7f);
+    counter.add(2.699997f);
+    counter.add(2.7000122f);
+    counter.add(2.8f);
+
+    assertEquals(2, counter.size());
+    assertEquals(3, counter.getFrequency(2.7f));
+    assertEquals(3, counter.getFrequency(2.6999998f));
+    assertEquals(1, counter.getFrequency(2.8f));
+    assertEquals(2.7f, counter.getMostCommonFloat(), 0);
+    assertEquals(3, counter.getMostCommonFloatFrequency(), 0);
+    assertEquals((3 * 2.7f + 2.8f) / 4, counter.getAverageFloat(), 1e-5);
+  }
+
+  /**
+   * Tests that ties between equally common floats are broken in favor of the smallest float,
+   * independently of the order in which the floats were added.
+   */
+  @Test
+  public void testTiesAreBrokenByTheSmallestFloat() {
+    float[] floats = { 12.0f, 11.9f, 12.1f, 12.0f, 11.9f, 12.1f };
+
+    FloatCounter ascending = new FloatCounter();
+    FloatCounter descending = new FloatCounter();
+    for (int i = 0; i < floats.length; i++) {
+      ascending.add(floats[i]);
+      descending.add(floats[floats.length - 1 - i]);
+    }
+
+    assertEquals(11.9f, ascending.getMostCommonFloat(), 0);
+    assertEquals(11.9f, descending.getMostCommonFloat(), 0);
+
+    // A float that becomes more common than the others wins, even if it is larger.
+    ascending.add(12.1f);
+    assertEquals(12.1f, ascending.getMostCommonFloat(), 0);
+  }
+
+  /**
+   * Tests that the statistics are updated when floats are added after they were read.
+   */
+  @Test
+  public void testStatisticsAreUpdatedOnAdd() {
+    FloatCounter counter = new FloatCounter();
+    counter.add(1.0f);
+    counter.add(1.0f);
+    counter.add(3.0f);
+    assertEquals(1.0f, counter.getMostCommonFloat(), 0);
+    assertEquals(5 / 3f, counter.getAverageFloat(), 1e-6);
+
+    counter.add(3.0f);
+    counter.add(3.0f);
+    assertEquals(3.0f, counter.getMostCommonFloat(), 0);
+    assertEquals(11 / 5f, counter.getAverageFloat(), 1e-6);
+
+    FloatCounter other = new FloatCounter();
+    for (int i = 0; i < 4; i++) {
+      other.add(1.0f);
+    }
+    counter.add(other);
+    assertEquals(1.0f, counter.getMostCommonFloat(), 0);
+    assertEquals(6, counter.getFrequency(1.0f));
+  }
+
+  /**
+   * Tests that floats far away from the range of the dense buckets are counted in the sparse map
+   * and that the counts are kept when the buckets grow.
+   */
+  @Test
+  public void testOutliers() {
+    FloatCounter counter = new FloatCounter();
+    counter.add(10.0f);
+    counter.add(1000.0f);
+    counter.add(-1000.0f);
+    counter.add(1000.0f);
+    counter.add(1e9f);
+
+    assertEquals(4, counter.size());
+    assertEquals(2, counter.getFrequency(1000.0f));
+    assertEquals(1, counter.getFrequency(-1000.0f));
+    assertEquals(1, counter.getFrequency(1e9f));
+    assertEquals(1000.0f, counter.getMostCommonFloat(), 0);
+
+    // Grow the buckets from 16 to 1024 buckets.
+    for (float f = 10.0f; f < 100.0f; f += 0.5f) {
+      counter.add(f);
+    }
+    assertEquals(2, counter.getFrequency(10.0f));
+    assertEquals(1, counter.getFrequency(99.5f));
+    assertEquals(2, counter.getFrequency(1000.0f));
+    assertEquals(183, counter.size());
+    assertEquals(183, counter.getFloats().length);
+  }
+
+  /**
+   * Tests the statistics of an empty counter and that NaN values are not counted.
+   */
+  @Test
+  public void testEmptyCounter() {
+    FloatCounter counter = new FloatCounter();
+    counter.add(Float.NaN);
+
+    assertTrue(counter.isEmpty());
+    assertEquals(0, counter.getFloats().length);
+    assertEquals(0, counter.getFrequency(Float.NaN));
+    assertTrue(Float.isNaN(counter.getMostCommonFloat()));
+    assertEquals(0, counter.getAverageFloat(), 0);
+  }
+
+  /**
+   * Tests that a merged counter equals a counter to which the floats were added one by one.
+   */
+  @Test
+  public void testMergedCounterEqualsSequentialCounter() {
+    float[] floats = { 12.1f, 4.5f, 4.5f, 7.3000183f, 12.1f, 0.0f, -3.2f, 4.5f, 900.0f, 12.1f };
+
+    FloatCounter sequential = new FloatCounter();
+    FloatCounter first = new FloatCounter();
+    FloatCounter second = new FloatCounter();
+    for (int i = 0; i < floats.length; i++) {
+      sequential.add(floats[i]);
+      (i % 2 == 0 ? first : second).add(floats[i]);
+    }
+    FloatCounter merged = new FloatCounter();
+    merged.add(second);
+    merged.add(first);
+
+    assertEquals(sequential, merged);
+    assertEquals(sequential.hashCode(), merged.hashCode());
+    assertEquals(4.5f, sequential.getMostCommonFloat(), 0);
+    assertEquals(4.5f, merged.getMostCommonFloat(), 0);
+    assertEquals(sequential.getAverageFloat(), merged.getAverageFloat(), 0);
+  }
+}
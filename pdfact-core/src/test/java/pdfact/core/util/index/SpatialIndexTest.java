@@ -0,0 +1,186 @@
+package pdfact.core.util.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import pdfact.core.model.Character;
+import pdfact.core.model.Page;
+import pdfact.core.model.Position;
+import pdfact.core.model.Rectangle;
+
+/**
+ * A class that tests the {@link SpatialIndex}.
+ */
+public class SpatialIndexTest {
+  /**
+   * The page of the elements.
+   */
+  protected static final Page PAGE = new Page(1);
+
+  /**
+   * Tests the queries on an empty index (built from an empty list and from null).
+   */
+  @Test
+  public void testEmptyIndex() {
+    for (List<Character> elements : Arrays.asList(new ArrayList<Character>(), null)) {
+      SpatialIndex<Character> index = new SpatialIndex<>(elements);
+
+      assertEquals(0, index.size());
+      assertTrue(index.getElements(new Rectangle(-1000, -1000, 1000, 1000)).isEmpty());
+      assertTrue(index.getNearestElements(new Rectangle(0, 0, 1, 1), 3).isEmpty());
+      assertNull(index.getNearestElement(new Rectangle(0, 0, 1, 1)));
+      assertNull(index.getElementWithSmallestMinY());
+      assertNull(index.getElementWithLargestMinY());
+    }
+  }
+
+  /**
+   * Tests the queries on an index with a single element. The edges of the areas are inclusive.
+   */
+  @Test
+  public void testSingleElement() {
+    Character character = createCharacter(10, 20, 30, 40);
+    SpatialIndex<Character> index = new SpatialIndex<>(Collections.singletonList(character));
+
+    assertEquals(1, index.size());
+    assertEquals(Arrays.asList(character), index.getElements(new Rectangle(0, 0, 15, 25)));
+    assertEquals(Arrays.asList(character), index.getElements(new Rectangle(30, 40, 50, 50)));
+    assertEquals(Arrays.asList(character), index.getElements(new Rectangle(0, 0, 10, 20)));
+    assertEquals(Arrays.asList(character), index.getElements(new Rectangle(15, 25, 16, 26)));
+    assertTrue(index.getElements(new Rectangle(30.01f, 0, 50, 50)).isEmpty());
+    assertTrue(index.getElements(new Rectangle(0, 0, 9.99f, 50)).isEmpty());
+    assertTrue(index.getElements(null).isEmpty());
+
+    assertSame(character, index.getNearestElement(new Rectangle(100, 100, 101, 101)));
+    assertEquals(1, index.getNearestElements(new Rectangle(0, 0, 1, 1), 5).size());
+    assertTrue(index.getNearestElements(new Rectangle(0, 0, 1, 1), 0).isEmpty());
+    assertTrue(index.getNearestElements(null, 1).isEmpty());
+    assertSame(character, index.getElementWithSmallestMinY());
+    assertSame(character, index.getElementWithLargestMinY());
+  }
+
+  /**
+   * Tests degenerate elements: points, lines, duplicates, inverted rectangles, and elements
+   * without a position or with NaN coordinates (which are not indexed).
+   */
+  @Test
+  public void testDegenerateElements() {
+    Character point = createCharacter(5, 5, 5, 5);
+    Character line = createCharacter(0, 10, 20, 10);
+    Character duplicate1 = createCharacter(1, 1, 2, 2);
+    Character duplicate2 = createCharacter(1, 1, 2, 2);
+    Character inverted = createCharacter(8, 50, 6, 48);
+    Character nan = createCharacter(Float.NaN, 0, 100, 100);
+    Character noPosition = new Character();
+    List<Character> elements = Arrays.asList(point, noPosition, line, duplicate1, nan,
+        duplicate2, inverted);
+    SpatialIndex<Character> index = new SpatialIndex<>(elements);
+
+    assertEquals(5, index.size());
+    assertEquals(Arrays.asList(point), index.getElements(new Rectangle(5, 5, 5, 5)));
+    assertEquals(Arrays.asList(point, line), index.getElements(new Rectangle(4, 5, 6, 10)));
+    assertEquals(Arrays.asList(duplicate1, duplicate2),
+        index.getElements(new Rectangle(1.5f, 1.5f, 1.5f, 1.5f)));
+    assertEquals(Arrays.asList(inverted), index.getElements(new Rectangle(5, 47, 9, 51)));
+    assertTrue(index.getElements(new Rectangle(Float.NaN, 0, 100, 100)).isEmpty());
+    assertTrue(index.getElements(new Rectangle(50, 50, 40, 40)).isEmpty());
+    assertEquals(Arrays.asList(point, line, duplicate1, duplicate2, inverted),
+        index.getElements(new Rectangle(-1000, -1000, 1000, 1000)));
+
+    // Duplicates are ordered as in the indexed list.
+    assertEquals(Arrays.asList(duplicate1, duplicate2),
+        index.getNearestElements(new Rectangle(1, 1, 2, 2), 2));
+    assertSame(duplicate1, index.getElementWithSmallestMinY());
+    assertSame(inverted, index.getElementWithLargestMinY());
+  }
+
+  /**
+   * Tests that the queries give the same results as a linear scan, for indexes with one or more
+   * levels, with many duplicates and with inverted rectangles.
+   */
+  @Test
+  public void testQueriesMatchLinearScan() {
+    Random random = new Random(42);
+    for (int n : new int[] { 2, 15, 16, 17, 255, 256, 257, 1000 }) {
+      List<Character> elements = new ArrayList<>();
+      for (int i = 0; i < n; i++) {
+        // Use a coarse grid to provoke ties and duplicates.
+        float minX = random.nextInt(50);
+        float minY = random.nextInt(50);
+        float width = random.nextInt(5) - (i % 50 == 0 ? 3 : 0);
+        float height = random.nextInt(5);
+        elements.add(createCharacter(minX, minY, minX + width, minY + height));
+      }
+      SpatialIndex<Character> index = new SpatialIndex<>(elements);
+      assertEquals(n, index.size());
+
+      for (int q = 0; q < 50; q++) {
+        float minX = random.nextInt(60) - 5;
+        float minY = random.nextInt(60) - 5;
+        Rectangle area = new Rectangle(minX, minY, minX + random.nextInt(20),
+            minY + random.nextInt(20));
+
+        List<Character> expected = new ArrayList<>();
+        for (Character element : elements) {
+          if (element.getPosition().getRectangle().overlaps(area)) {
+            expected.add(element);
+          }
+        }
+        assertIdentical("n=" + n + " area=" + area, expected, index.getElements(area));
+
+        List<Character> nearest = new ArrayList<>(elements);
+        nearest.sort(Comparator.comparingDouble(e -> distance(e, area)));
+        int k = 1 + random.nextInt(10);
+        assertIdentical("n=" + n + " k=" + k + " rect=" + area,
+            nearest.subList(0, Math.min(k, n)), index.getNearestElements(area, k));
+      }
+
+      List<Character> byMinY = new ArrayList<>(elements);
+      byMinY.sort(Comparator.comparingDouble(e -> e.getPosition().getRectangle().getMinY()));
+      assertSame(byMinY.get(0), index.getElementWithSmallestMinY());
+      assertSame(byMinY.get(n - 1), index.getElementWithLargestMinY());
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Asserts that the given lists contain the identical elements in the same order.
+   */
+  protected static void assertIdentical(String message, List<Character> expected,
+      List<Character> actual) {
+    assertEquals(message, expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertSame(message + " position " + i, expected.get(i), actual.get(i));
+    }
+  }
+
+  /**
+   * Computes the squared distance between the bounding box of the given element and the given
+   * rectangle, in the same way as the index does.
+   */
+  protected static float distance(Character element, Rectangle rect) {
+    Rectangle r = element.getPosition().getRectangle();
+    float dx = Math.max(0, Math.max(r.getMinX() - rect.getMaxX(), rect.getMinX() - r.getMaxX()));
+    float dy = Math.max(0, Math.max(r.getMinY() - rect.getMaxY(), rect.getMinY() - r.getMaxY()));
+    return dx * dx + dy * dy;
+  }
+
+  /**
+   * Creates a character with the given bounding box.
+   */
+  protected static Character createCharacter(float minX, float minY, float maxX, float maxY) {
+    Character character = new Character();
+    character.setPosition(new Position(PAGE, minX, minY, maxX, maxY));
+    return character;
+  }
+}
@@ -0,0 +1,125 @@
+package pdfact.core.util.lexicon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pdfact.core.util.counter.CharSequenceCounter;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * A class that tests the writing of a word frequency lexicon by a
+ * {@link WordFrequencyLexiconBuilder}.
+ */
+public class WordFrequencyLexiconBuilderTest {
+  /**
+   * The directory of the lexicon file.
+   */
+  protected Path dir;
+
+  /**
+   * The path to the lexicon file.
+   */
+  protected Path path;
+
+  /**
+   * Creates a temporary directory for the lexicon file.
+   */
+  @Before
+  public void setup() throws IOException {
+    this.dir = Files.createTempDirectory("pdfact-lexicon");
+    this.path = this.dir.resolve("words.lexicon");
+  }
+
+  /**
+   * Deletes the temporary directory.
+   */
+  @After
+  public void teardown() throws IOException {
+    try (Stream<Path> files = Files.list(this.dir)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        Files.delete(file);
+      }
+    }
+    Files.delete(this.dir);
+  }
+
+  /**
+   * Tests that lexicons written concurrently to the same path don't corrupt each other: the file
+   * is one of the written lexicons as a whole, and no temporary files are left.
+   */
+  @Test
+  public void testConcurrentWrites() throws Exception {
+    List<Thread> threads = new ArrayList<>();
+    List<Exception> errors = new ArrayList<>();
+    for (int i = 1; i <= 8; i++) {
+      WordFrequencyLexiconBuilder builder = createBuilder(i);
+      threads.add(new Thread(() -> {
+        try {
+          builder.write(this.path);
+        } catch (PdfActException e) {
+          synchronized (errors) {
+            errors.add(e);
+          }
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertTrue(errors.toString(), errors.isEmpty());
+
+    WordFrequencyLexicon lexicon = WordFrequencyLexicon.open(this.path);
+    int frequency = lexicon.getNormalWordFrequency("word");
+    assertTrue(frequency >= 1 && frequency <= 8);
+    assertEquals(frequency, lexicon.getCompoundWordFrequency("compound-word"));
+    assertEquals(frequency, lexicon.getPrefixFrequency("compound"));
+
+    try (Stream<Path> files = Files.list(this.dir)) {
+      assertTrue(files.noneMatch(file -> file.toString().endsWith(".tmp")));
+    }
+  }
+
+  /**
+   * Tests that a file that isn't a lexicon file is rejected with the exit code of I/O errors.
+   */
+  @Test
+  public void testInvalidFile() throws IOException {
+    Files.write(this.path, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+    try {
+      WordFrequencyLexicon.open(this.path);
+      fail("An exception was expected.");
+    } catch (PdfActException e) {
+      assertEquals(60, e.getExitCode());
+    }
+  }
+
+  /**
+   * Creates a builder in which each word occurs the given number of times.
+   */
+  protected static WordFrequencyLexiconBuilder createBuilder(int frequency) {
+    CharSequenceCounter normalWords = new CharSequenceCounter();
+    CharSequenceCounter compoundWords = new CharSequenceCounter();
+    CharSequenceCounter prefixes = new CharSequenceCounter();
+    for (int i = 0; i < frequency; i++) {
+      normalWords.add("word");
+      compoundWords.add("compound-word");
+      prefixes.add("compound");
+    }
+    WordFrequencyLexiconBuilder builder = new WordFrequencyLexiconBuilder();
+    builder.add(normalWords, compoundWords, prefixes);
+    return builder;
+  }
+}
@@ -0,0 +1,199 @@
+package pdfact.core.util.list;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import pdfact.core.model.Character;
+import pdfact.core.model.HasPosition;
+import pdfact.core.model.Page;
+import pdfact.core.model.Position;
+import pdfact.core.util.comparator.MaxYComparator;
+import pdfact.core.util.comparator.MinXComparator;
+import pdfact.core.util.comparator.PositionComparator;
+
+/**
+ * A class that tests the {@link ElementListSorter}.
+ */
+public class ElementListSorterTest {
+  /**
+   * Some float values with many ties, including the special ones.
+   */
+  protected static final float[] VALUES = { 3.0f, -1.0f, 0.0f, -0.0f, Float.NaN, 3.0f,
+      Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY, 1.5f, -0.0f, 0.0f, Float.NaN, 1.5f };
+
+  /**
+   * Tests that the list is sorted as a stable sort by the comparator sorts it, for ascending and
+   * descending order.
+   */
+  @Test
+  public void testSortMatchesStableSort() {
+    Random random = new Random(42);
+    PositionComparator[] comparators = { new MinXComparator(), new MinXComparator().reversed(),
+        new MaxYComparator(), new MaxYComparator().reversed() };
+
+    for (PositionComparator comparator : comparators) {
+      for (int n = 0; n < 50; n++) {
+        ElementList<Character> list = createCharacters(new Page(1), n, random);
+        List<Character> expected = new ArrayList<>(list);
+        expected.sort(comparator);
+
+        ElementListSorter.sort(list, 0, list.size(), comparator);
+        assertIdentical(expected, list);
+      }
+    }
+  }
+
+  /**
+   * Tests that elements with equal keys (ties, -0.0 vs. -0.0, NaN vs. NaN) keep their input
+   * order, and that -0.0 is sorted before 0.0.
+   */
+  @Test
+  public void testTiesKeepInputOrder() {
+    Page page = new Page(1);
+    ElementList<Character> list = new ElementList<>();
+    for (float value : VALUES) {
+      list.add(createCharacter(page, value));
+    }
+    List<Character> input = new ArrayList<>(list);
+
+    ElementListSorter.sort(list, 0, list.size(), new MinXComparator());
+
+    int[] expectedIndexes = { 7, 1, 3, 9, 2, 10, 8, 12, 0, 5, 6, 4, 11 };
+    for (int i = 0; i < expectedIndexes.length; i++) {
+      assertSame("position " + i, input.get(expectedIndexes[i]), list.get(i));
+    }
+
+    // Descending order: ties keep their input order as well.
+    list = new ElementList<>();
+    list.addAll(input);
+    ElementListSorter.sort(list, 0, list.size(), new MinXComparator().reversed());
+    int[] expectedReversedIndexes = { 4, 11, 6, 0, 5, 8, 12, 2, 10, 3, 9, 1, 7 };
+    for (int i = 0; i < expectedReversedIndexes.length; i++) {
+      assertSame("position " + i, input.get(expectedReversedIndexes[i]), list.get(i));
+    }
+  }
+
+  /**
+   * Tests that only the given range is sorted, also if the list is a view of another list.
+   */
+  @Test
+  public void testSortRangeAndView() {
+    Random random = new Random(7);
+    ElementList<Character> list = createCharacters(new Page(1), 30, random);
+    List<Character> expected = new ArrayList<>(list);
+    expected.subList(5, 20).sort(new MinXComparator());
+
+    ElementListSorter.sort(list, 5, 20, new MinXComparator());
+    assertIdentical(expected, list);
+
+    list = createCharacters(new Page(1), 30, random);
+    expected = new ArrayList<>(list);
+    expected.subList(10, 25).sort(new MaxYComparator());
+
+    ElementList<Character> view = list.subList(10, 25);
+    ElementListSorter.sort(view, 0, view.size(), new MaxYComparator());
+    assertIdentical(expected, list);
+  }
+
+  /**
+   * Tests that elements on different pages and elements without positions are sorted by the
+   * comparator (by using the fallback sort).
+   */
+  @Test
+  public void testSortMixedPagesAndMissingPositions() {
+    Random random = new Random(3);
+    ElementList<Character> list = new ElementList<>();
+    list.addAll(createCharacters(new Page(2), 10, random));
+    list.addAll(createCharacters(new Page(1), 10, random));
+    list.add(5, new Character());
+    List<Character> expected = new ArrayList<>(list);
+    expected.sort(new MinXComparator());
+
+    ElementListSorter.sort(list, 0, list.size(), new MinXComparator());
+    assertIdentical(expected, list);
+  }
+
+  /**
+   * Tests that empty lists, single-element lists and empty ranges are left unchanged.
+   */
+  @Test
+  public void testDegenerateInputs() {
+    ElementList<Character> list = new ElementList<>();
+    ElementListSorter.sort(list, 0, 0, new MinXComparator());
+    assertEquals(0, list.size());
+    assertArrayEquals(new int[0], ElementListSorter.sortIndexes(list, 0, 0, new MinXComparator()));
+
+    Character character = createCharacter(new Page(1), 1);
+    list.add(character);
+    ElementListSorter.sort(list, 0, 1, new MinXComparator());
+    assertSame(character, list.get(0));
+    assertArrayEquals(new int[] { 0 },
+        ElementListSorter.sortIndexes(list, 0, 1, new MinXComparator()));
+
+    ElementListSorter.sort(null, 0, 5, new MinXComparator());
+  }
+
+  /**
+   * Tests that the sorted indexes are the indexes of a stable sort and that the list is not
+   * changed.
+   */
+  @Test
+  public void testSortIndexes() {
+    Random random = new Random(11);
+    ElementList<Character> list = createCharacters(new Page(1), 40, random);
+    List<Character> input = new ArrayList<>(list);
+
+    Comparator<HasPosition> comparator = new MinXComparator().reversed();
+    List<Integer> expected = new ArrayList<>();
+    for (int i = 3; i < 35; i++) {
+      expected.add(i);
+    }
+    expected.sort((i, j) -> comparator.compare(list.get(i), list.get(j)));
+
+    int[] indexes = ElementListSorter.sortIndexes(list, 3, 35, comparator);
+    assertEquals(expected.size(), indexes.length);
+    for (int i = 0; i < indexes.length; i++) {
+      assertEquals((int) expected.get(i), indexes[i]);
+    }
+    assertIdentical(input, list);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Asserts that the given lists contain the identical elements in the same order.
+   */
+  protected static void assertIdentical(List<Character> expected, List<Character> actual) {
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertSame("position " + i, expected.get(i), actual.get(i));
+    }
+  }
+
+  /**
+   * Creates the given number of characters on the given page with random values from
+   * {@link #VALUES}.
+   */
+  protected static ElementList<Character> createCharacters(Page page, int n, Random random) {
+    ElementList<Character> list = new ElementList<>(n);
+    for (int i = 0; i < n; i++) {
+      list.add(createCharacter(page, VALUES[random.nextInt(VALUES.length)]));
+    }
+    return list;
+  }
+
+  /**
+   * Creates a character on the given page with the given value as its minX and maxY value.
+   */
+  protected static Character createCharacter(Page page, float value) {
+    Character character = new Character();
+    character.setPosition(new Position(page, value, 0, 10, value));
+    return character;
+  }
+}
@@ -0,0 +1,55 @@
+package pdfact.core.util.list;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.util.Comparator;
+import java.util.stream.IntStream;
+import org.junit.Test;
+import pdfact.core.model.Character;
+
+/**
+ * A class that tests the {@link ElementList}.
+ */
+public class ElementListTest {
+  /**
+   * Tests that the replacements of elements are all counted as modifications, even if disjoint
+   * ranges of the list are filled from several threads at once (as the parallel XYCut does).
+   */
+  @Test
+  public void testConcurrentReplacementsAreCounted() {
+    int numElements = 100000;
+    ElementList<Character> list = new ElementList<>(numElements);
+    for (int i = 0; i < numElements; i++) {
+      list.add(null);
+    }
+    int numModifications = list.getModificationCount();
+
+    IntStream.range(0, numElements).parallel().forEach(i -> list.set(i, new Character()));
+
+    assertEquals(numModifications + numElements, list.getModificationCount());
+  }
+
+  /**
+   * Tests that an unmodifiable view of a list, and the views of the view, can't be modified in
+   * any way (including replacing and reordering the elements).
+   */
+  @Test
+  public void testUnmodifiableList() {
+    ElementList<Character> list = new ElementList<>();
+    list.add(new Character());
+    list.add(new Character());
+    ElementList<Character> view = list.asUnmodifiableList();
+
+    assertEquals(list, view);
+    assertThrows(UnsupportedOperationException.class, () -> view.add(new Character()));
+    assertThrows(UnsupportedOperationException.class, () -> view.set(0, new Character()));
+    assertThrows(UnsupportedOperationException.class, () -> view.swap(0, 1));
+    assertThrows(UnsupportedOperationException.class, () -> view.sort(Comparator.comparing(
+        Character::getExtractionRank)));
+    assertThrows(UnsupportedOperationException.class, () -> view.subList(0, 1).set(0, null));
+    assertThrows(UnsupportedOperationException.class, () -> view.cut(1).get(1).set(0, null));
+    assertThrows(UnsupportedOperationException.class, () -> view.iterator().remove());
+    assertEquals(2, list.size());
+  }
+}
@@ -0,0 +1,152 @@
+package pdfact.core.util.spill;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import pdfact.core.model.Character;
+import pdfact.core.model.Color;
+import pdfact.core.model.Font;
+import pdfact.core.model.FontFace;
+import pdfact.core.model.Page;
+import pdfact.core.model.Position;
+import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.list.ElementList;
+import pdfact.core.util.spill.CharacterSpillStore.SpilledCharacters;
+
+/**
+ * A class that tests that the characters spilled to a {@link CharacterSpillStore} are read back
+ * unchanged.
+ */
+public class CharacterSpillStoreTest {
+  /**
+   * The size of a mapped region in this test, small enough so that the spilled lists are
+   * distributed over several regions.
+   */
+  protected static final int REGION_SIZE = 256;
+
+  /**
+   * The page of the characters.
+   */
+  protected static final Page PAGE = new Page(1);
+
+  /**
+   * The font face of the characters.
+   */
+  protected static final FontFace FONT_FACE = new FontFace(new Font(), 10f);
+
+  /**
+   * The color of the characters.
+   */
+  protected static final Color COLOR = new Color();
+
+  /**
+   * Tests that lists of characters are read back unchanged, when they are spilled to several
+   * regions of the file (including a list that is larger than a region), also after the store
+   * was closed.
+   */
+  @Test
+  public void testRoundTripOverRegionBoundaries() throws PdfActException {
+    List<List<Character>> lists = new ArrayList<>();
+    List<SpilledCharacters> spilledLists = new ArrayList<>();
+
+    try (CharacterSpillStore store = new CharacterSpillStore(REGION_SIZE)) {
+      // Each character takes at least 38 bytes, so a region holds at most 6 characters.
+      for (int size : new int[] { 3, 4, 5, 0, 20, 2 }) {
+        List<Character> characters = createCharacters(size, lists.size());
+        lists.add(characters);
+        spilledLists.add(store.spill(characters));
+      }
+      assertTrue(store.getFileSize() > 4 * REGION_SIZE);
+      assertEquals(34, store.getNumSpilledCharacters());
+    }
+
+    for (int i = 0; i < lists.size(); i++) {
+      ElementList<Character> read = spilledLists.get(i).read();
+      assertEquals(lists.get(i), read);
+      assertEquals(lists.get(i).size(), spilledLists.get(i).size());
+      for (int j = 0; j < read.size(); j++) {
+        Character expected = lists.get(i).get(j);
+        Character actual = read.get(j);
+        if (expected.getPosition() != null) {
+          assertSame(expected.getPosition().getPage(), actual.getPosition().getPage());
+        }
+        assertSame(expected.getFontFace(), actual.getFontFace());
+        assertSame(expected.getColor(), actual.getColor());
+        assertEquals(expected.getMcid(), actual.getMcid());
+      }
+    }
+  }
+
+  /**
+   * Tests that the parts and the single characters of a spilled list are read back unchanged.
+   */
+  @Test
+  public void testSubList() throws PdfActException {
+    List<Character> characters = createCharacters(10, 0);
+
+    try (CharacterSpillStore store = new CharacterSpillStore(REGION_SIZE)) {
+      SpilledCharacters spilled = store.spill(characters);
+
+      assertEquals(characters.subList(0, 4), spilled.subList(0, 4).read());
+      assertEquals(characters.subList(4, 10), spilled.subList(4, 10).read());
+      assertEquals(characters.subList(6, 8), spilled.subList(4, 10).subList(2, 4).read());
+      assertEquals(0, spilled.subList(10, 10).read().size());
+      assertEquals(characters.get(9), spilled.get(9));
+      assertEquals(characters.get(5), spilled.subList(4, 10).get(1));
+    }
+  }
+
+  /**
+   * Tests that the list of read characters can't be modified.
+   */
+  @Test(expected = UnsupportedOperationException.class)
+  public void testReadCharactersAreUnmodifiable() throws PdfActException {
+    try (CharacterSpillStore store = new CharacterSpillStore(REGION_SIZE)) {
+      store.spill(createCharacters(3, 0)).read().set(0, new Character());
+    }
+  }
+
+  /**
+   * Tests that a character without position is read back without position.
+   */
+  @Test
+  public void testCharacterWithoutPosition() throws PdfActException {
+    try (CharacterSpillStore store = new CharacterSpillStore(REGION_SIZE)) {
+      assertNull(store.spill(createCharacters(3, 0)).read().get(1).getPosition());
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Creates the given number of characters with texts of different lengths (including null and
+   * characters outside of the basic multilingual plane) and with or without position, font face
+   * and color.
+   */
+  protected static List<Character> createCharacters(int n, int seed) {
+    String[] texts = { "a", null, "fi", "", "𝐀", "ü" };
+
+    List<Character> characters = new ArrayList<>();
+    for (int i = 0; i < n; i++) {
+      int k = seed + i;
+      Character character = new Character();
+      character.setText(texts[k % texts.length]);
+      character.setPosition(new Position(PAGE, k, k + 0.5f, k + 5.25f, k + 10));
+      character.setFontFace(k % 3 == 0 ? null : FONT_FACE);
+      character.setColor(k % 4 == 0 ? null : COLOR);
+      character.setExtractionRank(k);
+      character.setMcid(k % 5 - 1);
+      characters.add(character);
+    }
+    // A character without position.
+    if (n > 2) {
+      characters.get(1).setPosition(null);
+    }
+    return characters;
+  }
+}
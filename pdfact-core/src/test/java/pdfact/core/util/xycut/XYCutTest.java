@@ -0,0 +1,127 @@
+package pdfact.core.util.xycut;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import pdfact.core.model.Character;
+import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+import pdfact.core.model.TextArea;
+import pdfact.core.pipes.filter.characters.PlainFilterCharactersPipe;
+import pdfact.core.pipes.parse.PlainParseDocumentPipe;
+import pdfact.core.pipes.tokenize.areas.XYCutTokenizeToTextAreasPipe;
+import pdfact.core.pipes.tokenize.lines.PlainTokenizeToTextLinesPipe;
+import pdfact.core.pipes.translate.characters.PlainStandardizeCharactersPipe;
+import pdfact.core.pipes.translate.diacritics.PlainMergeDiacriticsPipe;
+import pdfact.core.pipes.translate.ligatures.PlainSplitLigaturesPipe;
+import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.list.ElementList;
+
+/**
+ * A class that tests that the {@link XYCut} computes the same blocks when cutting in parallel as
+ * when cutting sequentially.
+ */
+public class XYCutTest {
+  /**
+   * The path to the PDF document to examine in this test.
+   */
+  protected static final String PATH = "src/test/resources/ACL_2004.pdf";
+
+  /**
+   * Tests that cutting the pages into text areas in parallel (with a threshold of 0) results in
+   * the same blocks, in the same order, as cutting them with the default threshold. Each cut runs
+   * on a freshly parsed document, so that the parallel cut relies on computing the lazy
+   * statistics of the document and the page upfront.
+   */
+  @Test
+  public void testParallelTextAreasEqualSequentialTextAreas() throws PdfActException {
+    XYCutTokenizeToTextAreasPipe sequential = new XYCutTokenizeToTextAreasPipe();
+    XYCutTokenizeToTextAreasPipe parallel = new XYCutTokenizeToTextAreasPipe();
+    parallel.setParallelismThreshold(0);
+
+    List<String> expected = cutPages(sequential, parse());
+    List<String> actual = cutPages(parallel, parse());
+
+    assertFalse(expected.isEmpty());
+    assertEquals(expected, actual);
+  }
+
+  /**
+   * Tests that cutting the text areas into text lines in parallel (with a threshold of 0) results
+   * in the same blocks, in the same order, as cutting them with the default threshold.
+   */
+  @Test
+  public void testParallelTextLinesEqualSequentialTextLines() throws PdfActException {
+    PlainTokenizeToTextLinesPipe sequential = new PlainTokenizeToTextLinesPipe();
+    PlainTokenizeToTextLinesPipe parallel = new PlainTokenizeToTextLinesPipe();
+    parallel.setParallelismThreshold(0);
+
+    Document doc = parse();
+    new XYCutTokenizeToTextAreasPipe().execute(doc);
+
+    List<String> expected = cutTextAreas(sequential, doc);
+    List<String> actual = cutTextAreas(parallel, doc);
+
+    assertFalse(expected.isEmpty());
+    assertEquals(expected, actual);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Parses the PDF document and prepares its characters for the tokenization.
+   */
+  protected static Document parse() throws PdfActException {
+    Document doc = new Document(PATH);
+    new PlainParseDocumentPipe().execute(doc);
+    new PlainMergeDiacriticsPipe().execute(doc);
+    new PlainSplitLigaturesPipe().execute(doc);
+    new PlainStandardizeCharactersPipe().execute(doc);
+    new PlainFilterCharactersPipe().execute(doc);
+    return doc;
+  }
+
+  /**
+   * Cuts the characters of each page of the given document by using the given XYCut.
+   */
+  protected static List<String> cutPages(XYCut xyCut, Document doc) {
+    List<String> blocks = new ArrayList<>();
+    for (Page page : doc.getPages()) {
+      blocks.addAll(toStrings(page, xyCut.cut(doc, page, page.getCharacters())));
+    }
+    return blocks;
+  }
+
+  /**
+   * Cuts the characters of each text area of the given document by using the given XYCut.
+   */
+  protected static List<String> cutTextAreas(XYCut xyCut, Document doc) {
+    List<String> blocks = new ArrayList<>();
+    for (Page page : doc.getPages()) {
+      for (TextArea area : page.getTextAreas()) {
+        blocks.addAll(toStrings(page, xyCut.cut(doc, page, area.getCharacters())));
+      }
+    }
+    return blocks;
+  }
+
+  /**
+   * Returns the string representations (the page number and the characters, in the order of the
+   * block) of the given blocks.
+   */
+  protected static List<String> toStrings(Page page, List<ElementList<Character>> blocks) {
+    List<String> strings = new ArrayList<>();
+    for (ElementList<Character> block : blocks) {
+      StringBuilder string = new StringBuilder();
+      string.append(page.getPageNumber());
+      for (Character character : block) {
+        string.append(" " + character.getText() + character.getPosition().getRectangle());
+      }
+      strings.add(string.toString());
+    }
+    return strings;
+  }
+}